@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.cache.regex.RegExHelper;
+
+import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+import at.austriapro.ebinterface.ubl.helper.BankAccountValidator;
+
+/**
+ * Benchmark the BIC check via the cached regular expression against the
+ * character scan of the {@link BankAccountValidator}, and the costs of the
+ * IBAN check sum verification. Run with <code>-prof gc</code> to see the
+ * allocation per operation.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (1)
+public class BankAccountValidationBenchmark
+{
+  private static final String [] BICS = { "BKAUATWW", "BKAUATWWXXX", "RZOOAT2L303", "invalid-bic" };
+  private static final String [] IBANS = { "AT611904300234573201",
+                                           "DE89370400440532013000",
+                                           "MT84MALT011000012345MTLCAST001S",
+                                           "AT621904300234573201" };
+
+  @Benchmark
+  public void bicRegEx (final Blackhole aBH)
+  {
+    for (final String sBIC : BICS)
+      aBH.consume (RegExHelper.stringMatchesPattern (AbstractEbInterfaceUBLConverter.REGEX_BIC, sBIC));
+  }
+
+  @Benchmark
+  public void bicValidator (final Blackhole aBH)
+  {
+    for (final String sBIC : BICS)
+      aBH.consume (BankAccountValidator.isValidBIC (sBIC));
+  }
+
+  @Benchmark
+  public void ibanValidator (final Blackhole aBH)
+  {
+    for (final String sIBAN : IBANS)
+      aBH.consume (BankAccountValidator.isValidIBAN (sIBAN));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.io.File;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsSet;
+import com.helger.io.file.FileSystemIterator;
+import com.helger.io.file.IFileFilter;
+import com.helger.jaxb.GenericJAXBMarshaller;
+import com.helger.ubl21.UBL21Marshaller;
+
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Loads the test documents from <code>src/test/resources/external</code> once, so that the
+ * benchmarks only measure the conversion itself. The benchmarks must be run from the project
+ * directory.
+ *
+ * @author Philip Helger
+ */
+public final class BenchmarkDocuments
+{
+  public static final String PATH_UBL = "src/test/resources/external/ubl/";
+  public static final String PATH_EBI = "src/test/resources/external/ebinterface/";
+
+  // Same exclusions as in the unit tests
+  private static final ICommonsSet <String> IGNORED_FILES = new CommonsHashSet <> ("test-paymentmeans-code-49.xml");
+
+  private BenchmarkDocuments ()
+  {}
+
+  @NonNull
+  private static <T> ICommonsList <T> _readAll (@NonNull final String sDir, @NonNull final Function <File, T> aReader)
+  {
+    final ICommonsList <T> ret = new CommonsArrayList <> ();
+    for (final File aFile : new FileSystemIterator (new File (sDir)).withFilter (IFileFilter.filenameEndsWith (".xml")))
+      if (!IGNORED_FILES.contains (aFile.getName ()))
+      {
+        final T aDoc = aReader.apply (aFile);
+        if (aDoc == null)
+          throw new IllegalStateException ("Failed to read benchmark document " + aFile.getAbsolutePath ());
+        ret.add (aDoc);
+      }
+    if (ret.isEmpty ())
+      throw new IllegalStateException ("No benchmark documents found in '" +
+                                       new File (sDir).getAbsolutePath () +
+                                       "' - make sure to run the benchmarks from the project directory");
+    return ret;
+  }
+
+  /**
+   * @return All UBL invoices from the test corpus. Never <code>null</code> nor empty.
+   */
+  @NonNull
+  public static ICommonsList <InvoiceType> readAllInvoices ()
+  {
+    return _readAll (PATH_UBL + "invoice", x -> UBL21Marshaller.invoice ().read (x));
+  }
+
+  /**
+   * @return All UBL credit notes from the test corpus. Never <code>null</code> nor empty.
+   */
+  @NonNull
+  public static ICommonsList <CreditNoteType> readAllCreditNotes ()
+  {
+    return _readAll (PATH_UBL + "creditnote", x -> UBL21Marshaller.creditNote ().read (x));
+  }
+
+  /**
+   * Read all ebInterface documents of a single version.
+   *
+   * @param sVersionDir
+   *        The version specific directory name (e.g. <code>ebi61</code>). May not be
+   *        <code>null</code>.
+   * @param aMarshaller
+   *        The version specific marshaller to use. May not be <code>null</code>.
+   * @return All ebInterface documents of the requested version. Never <code>null</code> nor empty.
+   * @param <T>
+   *        ebInterface document type
+   */
+  @NonNull
+  public static <T> ICommonsList <T> readAllEbInterface (@NonNull final String sVersionDir,
+                                                         @NonNull final GenericJAXBMarshaller <T> aMarshaller)
+  {
+    ValueEnforcer.notEmpty (sVersionDir, "VersionDir");
+    ValueEnforcer.notNull (aMarshaller, "Marshaller");
+    return _readAll (PATH_EBI + sVersionDir, aMarshaller::read);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Benchmark how the conversion time grows with the number of invoice lines. The documents are
+ * created with the {@link SyntheticDocumentGenerator}. Run with <code>-prof gc</code> to see the
+ * allocation per operation as well.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 2, time = 5)
+@Measurement (iterations = 3, time = 5)
+@Fork (value = 1, jvmArgsAppend = "-Xmx8g")
+public class ConversionScalingBenchmark
+{
+  @Param ({ "10", "100", "1000", "10000", "100000", "1000000" })
+  public int lineCount;
+
+  private InvoiceType m_aUBLDoc;
+  private Ebi61InvoiceType m_aEbiDoc;
+  private InvoiceToEbInterface61Converter m_aToEbi;
+  private EbInterface61ToInvoiceConverter m_aToUBL;
+
+  @Setup
+  public void setup ()
+  {
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (lineCount);
+    m_aUBLDoc = aGen.createInvoice ();
+    m_aEbiDoc = aGen.createEbInterface61 ();
+    m_aToEbi = new InvoiceToEbInterface61Converter (Locale.GERMANY, Locale.GERMANY, new ToEbinterfaceSettings ());
+    m_aToUBL = new EbInterface61ToInvoiceConverter (Locale.GERMANY, Locale.GERMANY);
+  }
+
+  @Benchmark
+  public Ebi61InvoiceType ublToEbInterface61 ()
+  {
+    return m_aToEbi.convertToEbInterface (m_aUBLDoc, new ErrorList ());
+  }
+
+  @Benchmark
+  public InvoiceType ebInterface61ToUBL ()
+  {
+    return m_aToUBL.convertInvoice (m_aEbiDoc);
+  }
+}
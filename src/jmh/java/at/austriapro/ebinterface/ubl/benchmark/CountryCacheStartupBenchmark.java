@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import at.austriapro.ebinterface.ubl.helper.MultilingualCountryCache;
+
+/**
+ * Startup benchmark for the {@link MultilingualCountryCache}. Each fork is a fresh JVM that
+ * executes the benchmark method exactly once, so the measured time includes class initialization
+ * and building the required part of the country name index.
+ *
+ * @author Philip Helger
+ */
+@BenchmarkMode (Mode.SingleShotTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 0)
+@Measurement (iterations = 1)
+@Fork (10)
+public class CountryCacheStartupBenchmark
+{
+  @Benchmark
+  public Class <?> classInit () throws ClassNotFoundException
+  {
+    return Class.forName (MultilingualCountryCache.class.getName (),
+                          true,
+                          CountryCacheStartupBenchmark.class.getClassLoader ());
+  }
+
+  @Benchmark
+  public String firstLookupCode ()
+  {
+    return MultilingualCountryCache.getRealCountryCode ("AT");
+  }
+
+  @Benchmark
+  public String firstLookupGerman ()
+  {
+    return MultilingualCountryCache.getRealCountryCode ("Österreich");
+  }
+
+  @Benchmark
+  public String firstLookupFrench ()
+  {
+    return MultilingualCountryCache.getRealCountryCode ("Autriche");
+  }
+
+  @Benchmark
+  public String firstLookupUnknown ()
+  {
+    // Worst case: all display languages need to be indexed
+    return MultilingualCountryCache.getRealCountryCode ("Atlantis");
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.ebinterface.EbInterface40Marshaller;
+import com.helger.ebinterface.EbInterface41Marshaller;
+import com.helger.ebinterface.EbInterface42Marshaller;
+import com.helger.ebinterface.EbInterface43Marshaller;
+import com.helger.ebinterface.EbInterface50Marshaller;
+import com.helger.ebinterface.EbInterface60Marshaller;
+import com.helger.ebinterface.EbInterface61Marshaller;
+
+import at.austriapro.ebinterface.ubl.to.EbInterface40ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface41ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface42ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface43ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface50ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface60ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Benchmark for all ebInterface to UBL invoice converters. One operation converts all ebInterface
+ * test documents of the selected version.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode ({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (1)
+public class EbInterfaceToInvoiceBenchmark
+{
+  @Param ({ "40", "41", "42", "43", "50", "60", "61" })
+  public String version;
+
+  private Consumer <Blackhole> m_aTask;
+
+  @NonNull
+  private static <T> Consumer <Blackhole> _createTask (@NonNull final List <T> aDocs,
+                                                        @NonNull final Function <T, InvoiceType> aConverter)
+  {
+    return aBH -> {
+      for (final T aDoc : aDocs)
+        aBH.consume (aConverter.apply (aDoc));
+    };
+  }
+
+  @Setup
+  public void setup ()
+  {
+    final Locale aLocale = Locale.GERMANY;
+    switch (version)
+    {
+      case "40":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi40", new EbInterface40Marshaller ()),
+                               new EbInterface40ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "41":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi41", new EbInterface41Marshaller ()),
+                               new EbInterface41ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "42":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi42", new EbInterface42Marshaller ()),
+                               new EbInterface42ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "43":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi43", new EbInterface43Marshaller ()),
+                               new EbInterface43ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "50":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi50", new EbInterface50Marshaller ()),
+                               new EbInterface50ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "60":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi60", new EbInterface60Marshaller ()),
+                               new EbInterface60ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      case "61":
+        m_aTask = _createTask (BenchmarkDocuments.readAllEbInterface ("ebi61", new EbInterface61Marshaller ()),
+                               new EbInterface61ToInvoiceConverter (aLocale, aLocale)::convertInvoice);
+        break;
+      default:
+        throw new IllegalArgumentException ("Unsupported ebInterface version '" + version + "'");
+    }
+  }
+
+  @Benchmark
+  public void convertCorpus (final Blackhole aBH)
+  {
+    m_aTask.accept (aBH);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.ToEbInterfaceFanOutConverter;
+import at.austriapro.ebinterface.ubl.from.ToEbInterfaceFanOutResult;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Benchmark converting one UBL invoice or credit note to several ebInterface
+ * versions: N independent conversions compared with a single
+ * {@link ToEbInterfaceFanOutConverter} call. The fan-out converter resolves
+ * the consistency check, header, tax table, parties and lines only once, so
+ * its advantage grows with the number of versions and lines.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (1)
+public class FanOutConversionBenchmark
+{
+  /** Comma separated list of ebInterface version IDs */
+  @Param ({ "4.3,6.1", "4.0,4.1,4.2,4.3,5.0,6.0,6.1" })
+  public String versions;
+
+  @Param ({ "10", "1000" })
+  public int lineCount;
+
+  private InvoiceType m_aUBLInvoice;
+  private CreditNoteType m_aUBLCreditNote;
+  private IInvoiceToEbInterfaceConverter <?> [] m_aInvoiceConverters;
+  private ICreditNoteToEbInterfaceConverter <?> [] m_aCreditNoteConverters;
+  private ToEbInterfaceFanOutConverter m_aFanOut;
+
+  @Setup
+  public void setup ()
+  {
+    final SyntheticDocumentGenerator aGenerator = new SyntheticDocumentGenerator ().setLineCount (lineCount);
+    m_aUBLInvoice = aGenerator.createInvoice ();
+    m_aUBLCreditNote = aGenerator.createCreditNote ();
+
+    final String [] aIDs = versions.split (",");
+    final EEbInterfaceVersion [] aVersions = new EEbInterfaceVersion [aIDs.length];
+    for (int i = 0; i < aIDs.length; ++i)
+      aVersions[i] = EEbInterfaceVersion.getFromIDOrNull (aIDs[i]);
+
+    final Locale aLocale = Locale.GERMANY;
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    m_aInvoiceConverters = new IInvoiceToEbInterfaceConverter <?> [aVersions.length];
+    m_aCreditNoteConverters = new ICreditNoteToEbInterfaceConverter <?> [aVersions.length];
+    for (int i = 0; i < aVersions.length; ++i)
+    {
+      m_aInvoiceConverters[i] = aVersions[i].createInvoiceToEbInterfaceConverter (aLocale, aLocale, aSettings);
+      m_aCreditNoteConverters[i] = aVersions[i].createCreditNoteToEbInterfaceConverter (aLocale, aLocale, aSettings);
+    }
+    m_aFanOut = new ToEbInterfaceFanOutConverter (aLocale, aLocale, aSettings, aVersions);
+  }
+
+  @Benchmark
+  public void independent (final Blackhole aBH)
+  {
+    for (final IInvoiceToEbInterfaceConverter <?> aConverter : m_aInvoiceConverters)
+      aBH.consume (aConverter.convertToEbInterface (m_aUBLInvoice, new ErrorList ()));
+  }
+
+  @Benchmark
+  public ToEbInterfaceFanOutResult fanOut ()
+  {
+    return m_aFanOut.convertInvoice (m_aUBLInvoice);
+  }
+
+  @Benchmark
+  public void independentCreditNote (final Blackhole aBH)
+  {
+    for (final ICreditNoteToEbInterfaceConverter <?> aConverter : m_aCreditNoteConverters)
+      aBH.consume (aConverter.convertToEbInterface (m_aUBLCreditNote, new ErrorList ()));
+  }
+
+  @Benchmark
+  public ToEbInterfaceFanOutResult fanOutCreditNote ()
+  {
+    return m_aFanOut.convertCreditNote (m_aUBLCreditNote);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface40Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface41Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface42Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface50Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface60Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Benchmark for all UBL invoice to ebInterface converters. One operation converts the complete
+ * invoice test corpus, so the numbers of different releases are only comparable with the same
+ * corpus.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode ({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (1)
+public class InvoiceToEbInterfaceBenchmark
+{
+  @Param ({ "40", "41", "42", "43", "50", "60", "61" })
+  public String version;
+
+  private ICommonsList <InvoiceType> m_aDocs;
+  private BiFunction <InvoiceType, ErrorList, Object> m_aConverter;
+
+  @Setup
+  public void setup ()
+  {
+    m_aDocs = BenchmarkDocuments.readAllInvoices ();
+
+    final Locale aLocale = Locale.GERMANY;
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    switch (version)
+    {
+      case "40":
+        m_aConverter = new InvoiceToEbInterface40Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "41":
+        m_aConverter = new InvoiceToEbInterface41Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "42":
+        m_aConverter = new InvoiceToEbInterface42Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "43":
+        m_aConverter = new InvoiceToEbInterface43Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "50":
+        m_aConverter = new InvoiceToEbInterface50Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "60":
+        m_aConverter = new InvoiceToEbInterface60Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      case "61":
+        m_aConverter = new InvoiceToEbInterface61Converter (aLocale, aLocale, aSettings)::convertToEbInterface;
+        break;
+      default:
+        throw new IllegalArgumentException ("Unsupported ebInterface version '" + version + "'");
+    }
+  }
+
+  @Benchmark
+  public void convertCorpus (final Blackhole aBH)
+  {
+    for (final InvoiceType aDoc : m_aDocs)
+    {
+      // The error list must be empty for each conversion
+      final ErrorList aErrorList = new ErrorList ();
+      aBH.consume (m_aConverter.apply (aDoc, aErrorList));
+      aBH.consume (aErrorList);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.base.state.ESuccess;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.stream.StreamingToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Compares the peak heap usage of the in-memory conversion with the streaming conversion of a
+ * large UBL invoice read from disk, with and without writing the ebInterface document. The peak usage of all heap memory pools is reset before each
+ * single shot and reported as the secondary result <code>peakHeapMB</code>. The value is the sum of
+ * the per pool peaks and therefore an upper bound. Use a small <code>-Xmx</code> to see the
+ * in-memory conversion fail, where the streaming conversion still succeeds.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.SingleShotTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 1)
+@Measurement (iterations = 3)
+@Fork (value = 1, jvmArgsAppend = "-Xmx4g")
+public class StreamingConversionMemoryBenchmark
+{
+  @State (Scope.Thread)
+  @AuxCounters (AuxCounters.Type.EVENTS)
+  public static class PeakHeap
+  {
+    public double peakHeapMB;
+
+    @Setup (Level.Iteration)
+    public void reset ()
+    {
+      System.gc ();
+      for (final MemoryPoolMXBean aPool : ManagementFactory.getMemoryPoolMXBeans ())
+        if (aPool.getType () == MemoryType.HEAP)
+          aPool.resetPeakUsage ();
+    }
+
+    void update ()
+    {
+      long nBytes = 0;
+      for (final MemoryPoolMXBean aPool : ManagementFactory.getMemoryPoolMXBeans ())
+        if (aPool.getType () == MemoryType.HEAP)
+          nBytes += aPool.getPeakUsage ().getUsed ();
+      peakHeapMB = nBytes / (1024d * 1024d);
+    }
+  }
+
+  @Param ({ "1000", "100000" })
+  public int lineCount;
+
+  private File m_aFile;
+  private final ToEbinterfaceSettings m_aSettings = new ToEbinterfaceSettings ();
+
+  @Setup
+  public void setup () throws IOException
+  {
+    m_aFile = File.createTempFile ("ubl-invoice-" + lineCount + "-", ".xml");
+    final InvoiceType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (lineCount).createInvoice ();
+    if (UBL21Marshaller.invoice ().write (aUBLDoc, m_aFile).isFailure ())
+      throw new IllegalStateException ("Failed to write " + m_aFile.getAbsolutePath ());
+  }
+
+  @TearDown
+  public void tearDown ()
+  {
+    m_aFile.delete ();
+  }
+
+  @Benchmark
+  public Ebi61InvoiceType inMemory (final PeakHeap aPeakHeap)
+  {
+    final InvoiceType aUBLDoc = UBL21Marshaller.invoice ().read (m_aFile);
+    final Ebi61InvoiceType ret = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                      Locale.GERMANY,
+                                                                      m_aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                         new ErrorList ());
+    aPeakHeap.update ();
+    return ret;
+  }
+
+  @Benchmark
+  public Ebi61InvoiceType streaming (final PeakHeap aPeakHeap)
+  {
+    final int [] aLineCount = { 0 };
+    final Ebi61InvoiceType ret = new StreamingToEbInterface61Converter (Locale.GERMANY,
+                                                                       Locale.GERMANY,
+                                                                       m_aSettings).convertInvoice (new FileSystemResource (m_aFile),
+                                                                                                    x -> aLineCount[0]++,
+                                                                                                    new ErrorList ());
+    if (aLineCount[0] != lineCount)
+      throw new IllegalStateException ("Expected " + lineCount + " lines but got " + aLineCount[0]);
+    aPeakHeap.update ();
+    return ret;
+  }
+
+  @Benchmark
+  public ESuccess streamingAndWrite (final PeakHeap aPeakHeap)
+  {
+    final ESuccess ret = new StreamingToEbInterface61Converter (Locale.GERMANY,
+                                                                Locale.GERMANY,
+                                                                m_aSettings).convertAndWriteInvoice (new FileSystemResource (m_aFile),
+                                                                                                     OutputStream.nullOutputStream (),
+                                                                                                     new ErrorList ());
+    aPeakHeap.update ();
+    return ret;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.helper.SchemedID;
+import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKey;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTableEntry;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.InvoiceLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.PercentType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Benchmark the resolution of the tax percentage of invoice lines that only
+ * contain the tax category but no percentage, so that the percentage must be
+ * taken from the tax totals. Compares a new {@link TaxCategoryKey} per line
+ * with the object free lookups of the {@link TaxTable} (with and without
+ * trimming the values first), and measures the complete conversion of such an
+ * invoice. Run with <code>-prof gc</code> to see the allocation per operation.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaxPercentageResolutionBenchmark
+{
+  @Param ({ "1000", "100000" })
+  public int lineCount;
+
+  private InvoiceType m_aUBLDoc;
+  private ICommonsList <TaxCategoryType> m_aLineTaxCategories;
+  private ICommonsMap <TaxCategoryKey, BigDecimal> m_aPercentages;
+  private TaxTable m_aTaxTable;
+  private InvoiceToEbInterface61Converter m_aConverter;
+
+  @Setup
+  public void setup ()
+  {
+    m_aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (lineCount).createInvoice ();
+
+    m_aLineTaxCategories = new CommonsArrayList <> ();
+    m_aPercentages = new CommonsHashMap <> ();
+    for (final InvoiceLineType aUBLLine : m_aUBLDoc.getInvoiceLine ())
+    {
+      final TaxCategoryType aUBLTaxCategory = aUBLLine.getItem ().getClassifiedTaxCategoryAtIndex (0);
+      m_aPercentages.put (_createKey (aUBLTaxCategory), aUBLTaxCategory.getPercentValue ());
+      // Force the lookup in the tax totals
+      aUBLTaxCategory.setPercent ((PercentType) null);
+      m_aLineTaxCategories.add (aUBLTaxCategory);
+    }
+    m_aTaxTable = new TaxTable (new CommonsArrayList <TaxTableEntry> (), m_aPercentages);
+    m_aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY, Locale.GERMANY, new ToEbinterfaceSettings ());
+  }
+
+  private static TaxCategoryKey _createKey (final TaxCategoryType aUBLTaxCategory)
+  {
+    return new TaxCategoryKey (new SchemedID (StringHelper.trim (aUBLTaxCategory.getTaxScheme ()
+                                                                                .getID ()
+                                                                                .getSchemeID ()),
+                                              StringHelper.trim (aUBLTaxCategory.getTaxScheme ().getIDValue ())),
+                               new SchemedID (StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ()),
+                                              StringHelper.trim (aUBLTaxCategory.getIDValue ())));
+  }
+
+  @Benchmark
+  public void newKeyPerLine (final Blackhole aBH)
+  {
+    for (final TaxCategoryType aUBLTaxCategory : m_aLineTaxCategories)
+      aBH.consume (m_aPercentages.get (_createKey (aUBLTaxCategory)));
+  }
+
+  @Benchmark
+  public void taxTableLookup (final Blackhole aBH)
+  {
+    for (final TaxCategoryType aUBLTaxCategory : m_aLineTaxCategories)
+      aBH.consume (m_aTaxTable.getPercentage (StringHelper.trim (aUBLTaxCategory.getTaxScheme ()
+                                                                                .getID ()
+                                                                                .getSchemeID ()),
+                                              StringHelper.trim (aUBLTaxCategory.getTaxScheme ().getIDValue ()),
+                                              StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ()),
+                                              StringHelper.trim (aUBLTaxCategory.getIDValue ())));
+  }
+
+  @Benchmark
+  public void taxCategoryLookup (final Blackhole aBH)
+  {
+    for (final TaxCategoryType aUBLTaxCategory : m_aLineTaxCategories)
+      aBH.consume (m_aTaxTable.getPercentage (aUBLTaxCategory));
+  }
+
+  @Benchmark
+  public Ebi61InvoiceType convertWithoutLinePercentages ()
+  {
+    return m_aConverter.convertToEbInterface (m_aUBLDoc, new ErrorList ());
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl;
+
+/**
+ * The conversion directions supported by this mapping.
+ *
+ * @author Philip Helger
+ */
+public enum EConversionDirection
+{
+  /** UBL 2.1 invoice to ebInterface */
+  INVOICE_TO_EBINTERFACE,
+  /** UBL 2.1 credit note to ebInterface */
+  CREDIT_NOTE_TO_EBINTERFACE,
+  /** ebInterface to UBL 2.1 invoice */
+  EBINTERFACE_TO_INVOICE;
+}
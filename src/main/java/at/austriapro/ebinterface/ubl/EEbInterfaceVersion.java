@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.ebinterface.CEbInterface;
+import com.helger.ebinterface.EbInterface40Marshaller;
+import com.helger.ebinterface.EbInterface41Marshaller;
+import com.helger.ebinterface.EbInterface42Marshaller;
+import com.helger.ebinterface.EbInterface43Marshaller;
+import com.helger.ebinterface.EbInterface50Marshaller;
+import com.helger.ebinterface.EbInterface60Marshaller;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.ebinterface.v40.Ebi40InvoiceType;
+import com.helger.ebinterface.v41.Ebi41InvoiceType;
+import com.helger.ebinterface.v42.Ebi42InvoiceType;
+import com.helger.ebinterface.v43.Ebi43InvoiceType;
+import com.helger.ebinterface.v50.Ebi50InvoiceType;
+import com.helger.ebinterface.v60.Ebi60InvoiceType;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.jaxb.GenericJAXBMarshaller;
+
+import at.austriapro.ebinterface.ubl.from.EbiNamespaceContext;
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface40Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface41Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface42Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface50Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface60Converter;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface40Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface41Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface42Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface50Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface60Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.to.EbInterface40ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface41ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface42ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface43ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface50ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface60ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.IEbInterfaceToInvoiceConverter;
+
+/**
+ * All ebInterface versions supported by this mapping, together with factory
+ * methods for the respective converters.
+ *
+ * @author Philip Helger
+ */
+public enum EEbInterfaceVersion
+{
+  V40 ("4.0", CEbInterface.EBINTERFACE_40_NS, Ebi40InvoiceType.class),
+  V41 ("4.1", CEbInterface.EBINTERFACE_41_NS, Ebi41InvoiceType.class),
+  V42 ("4.2", CEbInterface.EBINTERFACE_42_NS, Ebi42InvoiceType.class),
+  V43 ("4.3", CEbInterface.EBINTERFACE_43_NS, Ebi43InvoiceType.class),
+  V50 ("5.0", CEbInterface.EBINTERFACE_50_NS, Ebi50InvoiceType.class),
+  V60 ("6.0", CEbInterface.EBINTERFACE_60_NS, Ebi60InvoiceType.class),
+  V61 ("6.1", CEbInterface.EBINTERFACE_61_NS, Ebi61InvoiceType.class);
+
+  private final String m_sID;
+  private final String m_sNamespaceURI;
+  private final Class <?> m_aInvoiceClass;
+
+  EEbInterfaceVersion (@NonNull @Nonempty final String sID,
+                       @NonNull @Nonempty final String sNamespaceURI,
+                       @NonNull final Class <?> aInvoiceClass)
+  {
+    m_sID = sID;
+    m_sNamespaceURI = sNamespaceURI;
+    m_aInvoiceClass = aInvoiceClass;
+  }
+
+  /**
+   * @return The version number like "6.1". Neither <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  /**
+   * @return The XML namespace URI of the ebInterface invoice of this version.
+   *         Neither <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getNamespaceURI ()
+  {
+    return m_sNamespaceURI;
+  }
+
+  /**
+   * @return The JAXB class of the ebInterface invoice of this version. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public Class <?> getInvoiceClass ()
+  {
+    return m_aInvoiceClass;
+  }
+
+  /**
+   * Create a new marshaller for the ebInterface invoice of this version. The
+   * marshaller uses the shared {@link EbiNamespaceContext} for readable
+   * namespace prefixes.
+   *
+   * @return A new marshaller instance. Never <code>null</code>.
+   */
+  @NonNull
+  public GenericJAXBMarshaller <?> createMarshaller ()
+  {
+    final GenericJAXBMarshaller <?> ret;
+    switch (this)
+    {
+      case V40:
+        ret = new EbInterface40Marshaller ();
+        break;
+      case V41:
+        ret = new EbInterface41Marshaller ();
+        break;
+      case V42:
+        ret = new EbInterface42Marshaller ();
+        break;
+      case V43:
+        ret = new EbInterface43Marshaller ();
+        break;
+      case V50:
+        ret = new EbInterface50Marshaller ();
+        break;
+      case V60:
+        ret = new EbInterface60Marshaller ();
+        break;
+      case V61:
+        ret = new EbInterface61Marshaller ();
+        break;
+      default:
+        throw new IllegalStateException ("Unsupported ebInterface version " + this);
+    }
+    ret.setNamespaceContext (EbiNamespaceContext.getInstance ());
+    return ret;
+  }
+
+  /**
+   * Create a new converter from UBL invoice to this ebInterface version.
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   * @return A new converter instance. Never <code>null</code>.
+   */
+  @NonNull
+  public IInvoiceToEbInterfaceConverter <?> createInvoiceToEbInterfaceConverter (@NonNull final Locale aDisplayLocale,
+                                                                                @NonNull final Locale aContentLocale,
+                                                                                @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    switch (this)
+    {
+      case V40:
+        return new InvoiceToEbInterface40Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V41:
+        return new InvoiceToEbInterface41Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V42:
+        return new InvoiceToEbInterface42Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V43:
+        return new InvoiceToEbInterface43Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V50:
+        return new InvoiceToEbInterface50Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V60:
+        return new InvoiceToEbInterface60Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V61:
+        return new InvoiceToEbInterface61Converter (aDisplayLocale, aContentLocale, aSettings);
+      default:
+        throw new IllegalStateException ("Unsupported ebInterface version " + this);
+    }
+  }
+
+  /**
+   * Create a new converter from UBL credit note to this ebInterface version.
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   * @return A new converter instance. Never <code>null</code>.
+   */
+  @NonNull
+  public ICreditNoteToEbInterfaceConverter <?> createCreditNoteToEbInterfaceConverter (@NonNull final Locale aDisplayLocale,
+                                                                                      @NonNull final Locale aContentLocale,
+                                                                                      @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    switch (this)
+    {
+      case V40:
+        return new CreditNoteToEbInterface40Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V41:
+        return new CreditNoteToEbInterface41Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V42:
+        return new CreditNoteToEbInterface42Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V43:
+        return new CreditNoteToEbInterface43Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V50:
+        return new CreditNoteToEbInterface50Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V60:
+        return new CreditNoteToEbInterface60Converter (aDisplayLocale, aContentLocale, aSettings);
+      case V61:
+        return new CreditNoteToEbInterface61Converter (aDisplayLocale, aContentLocale, aSettings);
+      default:
+        throw new IllegalStateException ("Unsupported ebInterface version " + this);
+    }
+  }
+
+  /**
+   * Create a new converter from this ebInterface version to UBL invoice.
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created UBL files. May not be <code>null</code>.
+   * @return A new converter instance. Never <code>null</code>.
+   */
+  @NonNull
+  public IEbInterfaceToInvoiceConverter <?> createEbInterfaceToInvoiceConverter (@NonNull final Locale aDisplayLocale,
+                                                                                @NonNull final Locale aContentLocale)
+  {
+    switch (this)
+    {
+      case V40:
+        return new EbInterface40ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V41:
+        return new EbInterface41ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V42:
+        return new EbInterface42ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V43:
+        return new EbInterface43ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V50:
+        return new EbInterface50ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V60:
+        return new EbInterface60ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      case V61:
+        return new EbInterface61ToInvoiceConverter (aDisplayLocale, aContentLocale);
+      default:
+        throw new IllegalStateException ("Unsupported ebInterface version " + this);
+    }
+  }
+
+  @Nullable
+  public static EEbInterfaceVersion getFromIDOrNull (@Nullable final String sID)
+  {
+    for (final EEbInterfaceVersion e : values ())
+      if (e.m_sID.equals (sID))
+        return e;
+    return null;
+  }
+
+  @Nullable
+  public static EEbInterfaceVersion getFromInvoiceClassOrNull (@Nullable final Class <?> aInvoiceClass)
+  {
+    for (final EEbInterfaceVersion e : values ())
+      if (e.m_aInvoiceClass.equals (aInvoiceClass))
+        return e;
+    return null;
+  }
+}
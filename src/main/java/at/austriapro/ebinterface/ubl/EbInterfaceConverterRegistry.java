@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
+
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.helper.BoundedLRUCache;
+import at.austriapro.ebinterface.ubl.to.IEbInterfaceToInvoiceConverter;
+
+/**
+ * A registry for shared converter instances. Converters are keyed by
+ * conversion direction, ebInterface version, display locale, content locale
+ * and settings. The returned objects only expose the conversion method, so a
+ * customizer can never be set on a shared instance. Settings are copied upon
+ * registration and keyed by an immutable snapshot of their values, so
+ * modifying the settings object passed in afterwards has no effect on the
+ * returned converter or the registry. The number of registered converters is
+ * limited; the least recently used ones are dropped first.<br>
+ * All converters keep their per-document state in local variables only, so a
+ * single instance may be used concurrently from any number of threads. Callers
+ * are encouraged to look up the converter once and keep the reference.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class EbInterfaceConverterRegistry
+{
+  @Immutable
+  private static final class ConverterKey
+  {
+    private final EConversionDirection m_eDirection;
+    private final EEbInterfaceVersion m_eVersion;
+    private final Locale m_aDisplayLocale;
+    private final Locale m_aContentLocale;
+    private final List <Object> m_aSettingValues;
+
+    ConverterKey (@NonNull final EConversionDirection eDirection,
+                  @NonNull final EEbInterfaceVersion eVersion,
+                  @NonNull final Locale aDisplayLocale,
+                  @NonNull final Locale aContentLocale,
+                  @Nullable final IToEbinterfaceSettings aSettings)
+    {
+      m_eDirection = eDirection;
+      m_eVersion = eVersion;
+      m_aDisplayLocale = aDisplayLocale;
+      m_aContentLocale = aContentLocale;
+      m_aSettingValues = aSettings == null ? null : aSettings.getAllSettingValues ();
+    }
+
+    @Override
+    public boolean equals (final Object o)
+    {
+      if (o == this)
+        return true;
+      if (o == null || !getClass ().equals (o.getClass ()))
+        return false;
+      final ConverterKey rhs = (ConverterKey) o;
+      return m_eDirection == rhs.m_eDirection &&
+             m_eVersion == rhs.m_eVersion &&
+             m_aDisplayLocale.equals (rhs.m_aDisplayLocale) &&
+             m_aContentLocale.equals (rhs.m_aContentLocale) &&
+             EqualsHelper.equals (m_aSettingValues, rhs.m_aSettingValues);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return new HashCodeGenerator (this).append (m_eDirection)
+                                         .append (m_eVersion)
+                                         .append (m_aDisplayLocale)
+                                         .append (m_aContentLocale)
+                                         .append (m_aSettingValues)
+                                         .getHashCode ();
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("Direction", m_eDirection)
+                                         .append ("Version", m_eVersion)
+                                         .append ("DisplayLocale", m_aDisplayLocale)
+                                         .append ("ContentLocale", m_aContentLocale)
+                                         .appendIfNotNull ("SettingValues", m_aSettingValues)
+                                         .getToString ();
+    }
+  }
+
+  private static final class SingletonHolder
+  {
+    static final EbInterfaceConverterRegistry INSTANCE = new EbInterfaceConverterRegistry ();
+  }
+
+  /** The default maximum number of converters in a registry */
+  public static final int DEFAULT_MAX_CONVERTER_COUNT = 256;
+
+  private final BoundedLRUCache <ConverterKey, Object> m_aConverters;
+
+  /**
+   * Create a new empty registry with the default maximum size. Usually the
+   * global instance from {@link #getInstance()} is sufficient.
+   */
+  public EbInterfaceConverterRegistry ()
+  {
+    this (DEFAULT_MAX_CONVERTER_COUNT);
+  }
+
+  /**
+   * Create a new empty registry.
+   *
+   * @param nMaxConverterCount
+   *        The maximum number of converters to keep. Must be &gt; 0.
+   */
+  public EbInterfaceConverterRegistry (@Nonnegative final int nMaxConverterCount)
+  {
+    m_aConverters = new BoundedLRUCache <> (nMaxConverterCount);
+  }
+
+  /**
+   * @return The global registry instance. Never <code>null</code>.
+   */
+  @NonNull
+  public static EbInterfaceConverterRegistry getInstance ()
+  {
+    return SingletonHolder.INSTANCE;
+  }
+
+  @NonNull
+  private Object _getOrCreate (@NonNull final ConverterKey aKey, @NonNull final Supplier <?> aFactory)
+  {
+    Object ret = m_aConverters.get (aKey);
+    if (ret == null)
+    {
+      // Concurrent creation of the same converter is harmless - the last one
+      // is kept
+      ret = aFactory.get ();
+      m_aConverters.put (aKey, ret);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private static <T> IInvoiceToEbInterfaceConverter <T> _share (@NonNull final IInvoiceToEbInterfaceConverter <T> aConverter)
+  {
+    // Hide the real converter so that e.g. setCustomizer is not reachable
+    return aConverter::convertToEbInterface;
+  }
+
+  @NonNull
+  private static <T> ICreditNoteToEbInterfaceConverter <T> _share (@NonNull final ICreditNoteToEbInterfaceConverter <T> aConverter)
+  {
+    return aConverter::convertToEbInterface;
+  }
+
+  @NonNull
+  private static <T> IEbInterfaceToInvoiceConverter <T> _share (@NonNull final IEbInterfaceToInvoiceConverter <T> aConverter)
+  {
+    return aConverter::convertInvoice;
+  }
+
+  @NonNull
+  private static EEbInterfaceVersion _getVersion (@NonNull final Class <?> aEbiInvoiceClass)
+  {
+    ValueEnforcer.notNull (aEbiInvoiceClass, "EbiInvoiceClass");
+    final EEbInterfaceVersion eVersion = EEbInterfaceVersion.getFromInvoiceClassOrNull (aEbiInvoiceClass);
+    if (eVersion == null)
+      throw new IllegalArgumentException ("Unsupported ebInterface invoice class " + aEbiInvoiceClass.getName ());
+    return eVersion;
+  }
+
+  /**
+   * Get the shared converter from UBL invoice to the provided ebInterface
+   * version.
+   *
+   * @param eVersion
+   *        The target ebInterface version. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>. A copy
+   *        of the settings is used.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   */
+  @NonNull
+  public IInvoiceToEbInterfaceConverter <?> getInvoiceToEbInterfaceConverter (@NonNull final EEbInterfaceVersion eVersion,
+                                                                             @NonNull final Locale aDisplayLocale,
+                                                                             @NonNull final Locale aContentLocale,
+                                                                             @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+    ValueEnforcer.notNull (aSettings, "Settings");
+
+    final ToEbinterfaceSettings aSettingsCopy = new ToEbinterfaceSettings (aSettings);
+    final ConverterKey aKey = new ConverterKey (EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                eVersion,
+                                                aDisplayLocale,
+                                                aContentLocale,
+                                                aSettingsCopy);
+    return (IInvoiceToEbInterfaceConverter <?>) _getOrCreate (aKey,
+                                                              () -> _share (eVersion.createInvoiceToEbInterfaceConverter (aDisplayLocale,
+                                                                                                                         aContentLocale,
+                                                                                                                         aSettingsCopy)));
+  }
+
+  /**
+   * Get the shared converter from UBL invoice to the ebInterface version
+   * identified by the provided JAXB class.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aEbiInvoiceClass
+   *        The ebInterface invoice class like <code>Ebi61InvoiceType.class</code>.
+   *        May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>. A copy
+   *        of the settings is used.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         if the class is not a supported ebInterface invoice class
+   */
+  @NonNull
+  @SuppressWarnings ("unchecked")
+  public <T> IInvoiceToEbInterfaceConverter <T> getInvoiceToEbInterfaceConverter (@NonNull final Class <T> aEbiInvoiceClass,
+                                                                                 @NonNull final Locale aDisplayLocale,
+                                                                                 @NonNull final Locale aContentLocale,
+                                                                                 @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    return (IInvoiceToEbInterfaceConverter <T>) getInvoiceToEbInterfaceConverter (_getVersion (aEbiInvoiceClass),
+                                                                                   aDisplayLocale,
+                                                                                   aContentLocale,
+                                                                                   aSettings);
+  }
+
+  /**
+   * Get the shared converter from UBL credit note to the provided ebInterface
+   * version.
+   *
+   * @param eVersion
+   *        The target ebInterface version. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>. A copy
+   *        of the settings is used.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   */
+  @NonNull
+  public ICreditNoteToEbInterfaceConverter <?> getCreditNoteToEbInterfaceConverter (@NonNull final EEbInterfaceVersion eVersion,
+                                                                                   @NonNull final Locale aDisplayLocale,
+                                                                                   @NonNull final Locale aContentLocale,
+                                                                                   @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+    ValueEnforcer.notNull (aSettings, "Settings");
+
+    final ToEbinterfaceSettings aSettingsCopy = new ToEbinterfaceSettings (aSettings);
+    final ConverterKey aKey = new ConverterKey (EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                                                eVersion,
+                                                aDisplayLocale,
+                                                aContentLocale,
+                                                aSettingsCopy);
+    return (ICreditNoteToEbInterfaceConverter <?>) _getOrCreate (aKey,
+                                                                 () -> _share (eVersion.createCreditNoteToEbInterfaceConverter (aDisplayLocale,
+                                                                                                                               aContentLocale,
+                                                                                                                               aSettingsCopy)));
+  }
+
+  /**
+   * Get the shared converter from UBL credit note to the ebInterface version
+   * identified by the provided JAXB class.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aEbiInvoiceClass
+   *        The ebInterface invoice class like <code>Ebi61InvoiceType.class</code>.
+   *        May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>. A copy
+   *        of the settings is used.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         if the class is not a supported ebInterface invoice class
+   */
+  @NonNull
+  @SuppressWarnings ("unchecked")
+  public <T> ICreditNoteToEbInterfaceConverter <T> getCreditNoteToEbInterfaceConverter (@NonNull final Class <T> aEbiInvoiceClass,
+                                                                                       @NonNull final Locale aDisplayLocale,
+                                                                                       @NonNull final Locale aContentLocale,
+                                                                                       @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    return (ICreditNoteToEbInterfaceConverter <T>) getCreditNoteToEbInterfaceConverter (_getVersion (aEbiInvoiceClass),
+                                                                                         aDisplayLocale,
+                                                                                         aContentLocale,
+                                                                                         aSettings);
+  }
+
+  /**
+   * Get the shared converter from the provided ebInterface version to UBL
+   * invoice.
+   *
+   * @param eVersion
+   *        The source ebInterface version. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created UBL files. May not be <code>null</code>.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   */
+  @NonNull
+  public IEbInterfaceToInvoiceConverter <?> getEbInterfaceToInvoiceConverter (@NonNull final EEbInterfaceVersion eVersion,
+                                                                             @NonNull final Locale aDisplayLocale,
+                                                                             @NonNull final Locale aContentLocale)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+
+    final ConverterKey aKey = new ConverterKey (EConversionDirection.EBINTERFACE_TO_INVOICE,
+                                                eVersion,
+                                                aDisplayLocale,
+                                                aContentLocale,
+                                                null);
+    return (IEbInterfaceToInvoiceConverter <?>) _getOrCreate (aKey,
+                                                              () -> _share (eVersion.createEbInterfaceToInvoiceConverter (aDisplayLocale,
+                                                                                                                         aContentLocale)));
+  }
+
+  /**
+   * Get the shared converter from the ebInterface version identified by the
+   * provided JAXB class to UBL invoice.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aEbiInvoiceClass
+   *        The ebInterface invoice class like <code>Ebi61InvoiceType.class</code>.
+   *        May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created UBL files. May not be <code>null</code>.
+   * @return The shared, thread-safe converter. Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         if the class is not a supported ebInterface invoice class
+   */
+  @NonNull
+  @SuppressWarnings ("unchecked")
+  public <T> IEbInterfaceToInvoiceConverter <T> getEbInterfaceToInvoiceConverter (@NonNull final Class <T> aEbiInvoiceClass,
+                                                                                 @NonNull final Locale aDisplayLocale,
+                                                                                 @NonNull final Locale aContentLocale)
+  {
+    return (IEbInterfaceToInvoiceConverter <T>) getEbInterfaceToInvoiceConverter (_getVersion (aEbiInvoiceClass),
+                                                                                   aDisplayLocale,
+                                                                                   aContentLocale);
+  }
+
+  /**
+   * @return The number of converters currently registered. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getConverterCount ()
+  {
+    return m_aConverters.size ();
+  }
+
+  /**
+   * Remove all cached converters. Converters handed out before stay usable.
+   */
+  public void clear ()
+  {
+    m_aConverters.clear ();
+  }
+}
@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.io.nonblocking.NonBlockingByteArrayInputStream;
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.base.state.ESuccess;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.io.resource.IReadableResource;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.helper.SafeXMLInputFactory;
+import at.austriapro.ebinterface.ubl.service.EbInterfaceDocumentConverter;
+
+/**
+ * Converts many UBL invoices and credit notes to ebInterface in parallel, or
+ * many ebInterface documents to UBL invoices (see
+ * {@link #setFromEbInterface(boolean)}). Each document is read once, converted
+ * and written on the configured executor with an
+ * {@link EbInterfaceDocumentConverter} and gets its own {@link ErrorList}. The results are handed to the result consumer in
+ * the calling thread, either in input order or in order of completion. Only a
+ * bounded number of documents is in flight at any time, so arbitrarily large
+ * inputs can be processed.<br>
+ * The type of each UBL document (invoice or credit note) is determined from
+ * its root element.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class EbInterfaceBatchConverter
+{
+  @Translatable
+  public enum EText implements IHasDisplayTextWithArgs
+  {
+    UNSUPPORTED_DOCUMENT ("Das Dokument ist weder eine UBL 2.1 Rechnung noch eine UBL 2.1 Gutschrift.",
+                          "The document is neither a UBL 2.1 Invoice nor a UBL 2.1 CreditNote."),
+    READ_FAILED ("Das Dokument konnte nicht gelesen werden.", "Failed to read the document."),
+    UNEXPECTED_EXCEPTION ("Unerwarteter Fehler bei der Verarbeitung: {0}", "Unexpected error during processing: {0}");
+
+    private final IMultilingualText m_aTP;
+
+    EText (@NonNull final String sDE, @NonNull final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  public static final String UBL_INVOICE_NAMESPACE_URI = "urn:oasis:names:specification:ubl:schema:xsd:Invoice-2";
+  public static final String UBL_CREDIT_NOTE_NAMESPACE_URI = "urn:oasis:names:specification:ubl:schema:xsd:CreditNote-2";
+  public static final boolean DEFAULT_ORDERED = true;
+  public static final boolean DEFAULT_FROM_EBINTERFACE = false;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (EbInterfaceBatchConverter.class);
+
+  private final EbInterfaceDocumentConverter m_aDocumentConverter;
+  private final Locale m_aDisplayLocale;
+  private Executor m_aExecutor;
+  private int m_nMaxDocumentsInFlight = Runtime.getRuntime ().availableProcessors () * 2;
+  private boolean m_bOrdered = DEFAULT_ORDERED;
+  private boolean m_bFromEbInterface = DEFAULT_FROM_EBINTERFACE;
+
+  /**
+   * Constructor
+   *
+   * @param eVersion
+   *        The ebInterface version to create. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   */
+  public EbInterfaceBatchConverter (@NonNull final EEbInterfaceVersion eVersion,
+                                    @NonNull final Locale aDisplayLocale,
+                                    @NonNull final Locale aContentLocale,
+                                    @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    this (new EbInterfaceDocumentConverter (eVersion, aDisplayLocale, aContentLocale, aSettings));
+  }
+
+  /**
+   * Constructor using an existing document converter, e.g. one with a result
+   * cache or a duplicate invoice index. The document converter is used for
+   * all documents.
+   *
+   * @param aDocumentConverter
+   *        The document converter to use. May not be <code>null</code>.
+   */
+  public EbInterfaceBatchConverter (@NonNull final EbInterfaceDocumentConverter aDocumentConverter)
+  {
+    ValueEnforcer.notNull (aDocumentConverter, "DocumentConverter");
+    m_aDocumentConverter = aDocumentConverter;
+    m_aDisplayLocale = aDocumentConverter.getDisplayLocale ();
+  }
+
+  /**
+   * @return The ebInterface version to create. Never <code>null</code>.
+   */
+  @NonNull
+  public EEbInterfaceVersion getVersion ()
+  {
+    return m_aDocumentConverter.getVersion ();
+  }
+
+  /**
+   * @return The document converter used for the single documents. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public EbInterfaceDocumentConverter getDocumentConverter ()
+  {
+    return m_aDocumentConverter;
+  }
+
+  /**
+   * @return The executor to run the conversions on. If <code>null</code> a
+   *         fixed thread pool with one thread per available processor is
+   *         created for each batch.
+   */
+  @Nullable
+  public Executor getExecutor ()
+  {
+    return m_aExecutor;
+  }
+
+  /**
+   * Set the executor to run the conversions on. The executor is not shut down
+   * by this class.
+   *
+   * @param aExecutor
+   *        The executor to use. May be <code>null</code> to use a fixed thread
+   *        pool with one thread per available processor.
+   * @return this for chaining
+   */
+  @NonNull
+  public EbInterfaceBatchConverter setExecutor (@Nullable final Executor aExecutor)
+  {
+    m_aExecutor = aExecutor;
+    return this;
+  }
+
+  /**
+   * @return The maximum number of documents that are read, converted or
+   *         buffered at the same time. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxDocumentsInFlight ()
+  {
+    return m_nMaxDocumentsInFlight;
+  }
+
+  /**
+   * Set the maximum number of documents that are read, converted or buffered
+   * at the same time. This limits the memory consumption for large batches.
+   * In ordered mode, results waiting for a slower predecessor count as well.
+   * The default is twice the number of available processors.
+   *
+   * @param nMaxDocumentsInFlight
+   *        Maximum number of documents. Must be &gt; 0.
+   * @return this for chaining
+   */
+  @NonNull
+  public EbInterfaceBatchConverter setMaxDocumentsInFlight (@Nonnegative final int nMaxDocumentsInFlight)
+  {
+    ValueEnforcer.isGT0 (nMaxDocumentsInFlight, "MaxDocumentsInFlight");
+    m_nMaxDocumentsInFlight = nMaxDocumentsInFlight;
+    return this;
+  }
+
+  /**
+   * @return <code>true</code> if the results are delivered in input order,
+   *         <code>false</code> if they are delivered in order of completion.
+   */
+  public boolean isOrdered ()
+  {
+    return m_bOrdered;
+  }
+
+  /**
+   * Define whether results are delivered in input order or in order of
+   * completion. Ordered delivery may need to buffer up to
+   * {@link #getMaxDocumentsInFlight()} results. The default is
+   * {@value #DEFAULT_ORDERED}.
+   *
+   * @param bOrdered
+   *        <code>true</code> for input order
+   * @return this for chaining
+   */
+  @NonNull
+  public EbInterfaceBatchConverter setOrdered (final boolean bOrdered)
+  {
+    m_bOrdered = bOrdered;
+    return this;
+  }
+
+  /**
+   * @return <code>true</code> if ebInterface documents are converted to UBL
+   *         invoices, <code>false</code> if UBL documents are converted to
+   *         ebInterface.
+   */
+  public boolean isFromEbInterface ()
+  {
+    return m_bFromEbInterface;
+  }
+
+  /**
+   * Define the conversion direction. The default is
+   * {@value #DEFAULT_FROM_EBINTERFACE}.
+   *
+   * @param bFromEbInterface
+   *        <code>true</code> to convert ebInterface documents of the version
+   *        of the document converter to UBL invoices, <code>false</code> to
+   *        convert UBL invoices and credit notes to ebInterface.
+   * @return this for chaining
+   */
+  @NonNull
+  public EbInterfaceBatchConverter setFromEbInterface (final boolean bFromEbInterface)
+  {
+    m_bFromEbInterface = bFromEbInterface;
+    return this;
+  }
+
+  @Nullable
+  private static EConversionDirection _getDirectionFromRootElement (@NonNull final InputStream aIS,
+                                                                    @NonNull final String sPath)
+  {
+    try
+    {
+      final XMLStreamReader aReader = SafeXMLInputFactory.createXMLStreamReader (aIS);
+      try
+      {
+        while (aReader.hasNext ())
+          if (aReader.next () == XMLStreamConstants.START_ELEMENT)
+          {
+            final String sNamespaceURI = aReader.getNamespaceURI ();
+            final String sLocalName = aReader.getLocalName ();
+            if (UBL_INVOICE_NAMESPACE_URI.equals (sNamespaceURI) && "Invoice".equals (sLocalName))
+              return EConversionDirection.INVOICE_TO_EBINTERFACE;
+            if (UBL_CREDIT_NOTE_NAMESPACE_URI.equals (sNamespaceURI) && "CreditNote".equals (sLocalName))
+              return EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE;
+            return null;
+          }
+      }
+      finally
+      {
+        aReader.close ();
+      }
+    }
+    catch (final XMLStreamException ex)
+    {
+      LOGGER.debug ("Failed to determine root element of " + sPath, ex);
+    }
+    return null;
+  }
+
+  /**
+   * Determine the conversion direction from the root element of a UBL
+   * document, without reading the rest of it.
+   *
+   * @param aBytes
+   *        The serialized document to check. May not be <code>null</code>.
+   * @return <code>null</code> if the document is neither a UBL invoice nor a
+   *         UBL credit note or cannot be parsed.
+   */
+  @Nullable
+  public static EConversionDirection getDirectionFromRootElement (@NonNull final byte [] aBytes)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    return _getDirectionFromRootElement (new NonBlockingByteArrayInputStream (aBytes), "byte array");
+  }
+
+  /**
+   * Determine the conversion direction from the root element of a UBL
+   * document, without reading the rest of it.
+   *
+   * @param aRes
+   *        The resource to check. May not be <code>null</code>.
+   * @return <code>null</code> if the document is neither a UBL invoice nor a
+   *         UBL credit note or cannot be parsed.
+   */
+  @Nullable
+  public static EConversionDirection getDirectionFromRootElement (@NonNull final IReadableResource aRes)
+  {
+    ValueEnforcer.notNull (aRes, "Resource");
+    try (final InputStream aIS = aRes.getInputStream ())
+    {
+      if (aIS == null)
+        return null;
+      return _getDirectionFromRootElement (aIS, aRes.getPath ());
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.debug ("Failed to read " + aRes.getPath (), ex);
+      return null;
+    }
+  }
+
+  /**
+   * Hands the results to the consumer, either directly or in input order.
+   *
+   * @author Philip Helger
+   */
+  @NotThreadSafe
+  private static final class ResultDeliverer implements Consumer <EbInterfaceBatchResult>
+  {
+    private final boolean m_bOrdered;
+    private final Consumer <? super EbInterfaceBatchResult> m_aResultConsumer;
+    private final EbInterfaceBatchSummary.Collector m_aCollector = new EbInterfaceBatchSummary.Collector ();
+    // Results that completed before their predecessors in ordered mode
+    private final ICommonsMap <Integer, EbInterfaceBatchResult> m_aPending = new CommonsHashMap <> ();
+    private int m_nNextIndex = 0;
+    private int m_nDeliveredCount = 0;
+
+    ResultDeliverer (final boolean bOrdered, @NonNull final Consumer <? super EbInterfaceBatchResult> aResultConsumer)
+    {
+      m_bOrdered = bOrdered;
+      m_aResultConsumer = aResultConsumer;
+    }
+
+    private void _deliver (@NonNull final EbInterfaceBatchResult aResult)
+    {
+      m_aCollector.add (aResult);
+      m_aResultConsumer.accept (aResult);
+      m_nDeliveredCount++;
+    }
+
+    /**
+     * @return The number of results handed to the consumer so far.
+     */
+    int getDeliveredCount ()
+    {
+      return m_nDeliveredCount;
+    }
+
+    public void accept (@NonNull final EbInterfaceBatchResult aResult)
+    {
+      if (m_bOrdered)
+      {
+        m_aPending.put (Integer.valueOf (aResult.getIndex ()), aResult);
+        EbInterfaceBatchResult aNext;
+        while ((aNext = m_aPending.remove (Integer.valueOf (m_nNextIndex))) != null)
+        {
+          _deliver (aNext);
+          m_nNextIndex++;
+        }
+      }
+      else
+        _deliver (aResult);
+    }
+  }
+
+  @NonNull
+  private EbInterfaceBatchResult _convert (@Nonnegative final int nIndex, @NonNull final IReadableResource aRes)
+  {
+    final long nStart = System.nanoTime ();
+    final ErrorList aErrorList = new ErrorList ();
+    EConversionDirection eDirection = null;
+    byte [] aBytes = null;
+    long nSourceBytes = 0;
+    try
+    {
+      // Read only once - the bytes are used for sniffing and converting
+      byte [] aSrcBytes = null;
+      try (final InputStream aIS = aRes.getInputStream ())
+      {
+        if (aIS != null)
+          aSrcBytes = aIS.readAllBytes ();
+      }
+      catch (final IOException ex)
+      {
+        LOGGER.debug ("Failed to read " + aRes.getPath (), ex);
+      }
+
+      if (aSrcBytes == null)
+      {
+        aErrorList.add (SingleError.builderError ()
+                                   .errorLocation (aRes.getPath ())
+                                   .errorText (EText.READ_FAILED.getDisplayText (m_aDisplayLocale))
+                                   .build ());
+      }
+      else
+      {
+        nSourceBytes = aSrcBytes.length;
+        if (m_bFromEbInterface)
+          eDirection = EConversionDirection.EBINTERFACE_TO_INVOICE;
+        else
+          eDirection = _getDirectionFromRootElement (new NonBlockingByteArrayInputStream (aSrcBytes), aRes.getPath ());
+        if (eDirection == null)
+        {
+          aErrorList.add (SingleError.builderError ()
+                                     .errorLocation (aRes.getPath ())
+                                     .errorText (EText.UNSUPPORTED_DOCUMENT.getDisplayText (m_aDisplayLocale))
+                                     .build ());
+        }
+        else
+        {
+          final NonBlockingByteArrayOutputStream aBAOS = new NonBlockingByteArrayOutputStream ();
+          final ESuccess eSuccess;
+          if (eDirection == EConversionDirection.INVOICE_TO_EBINTERFACE)
+            eSuccess = m_aDocumentConverter.convertInvoiceToEbInterface (aSrcBytes, aBAOS, aErrorList);
+          else
+            if (eDirection == EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE)
+              eSuccess = m_aDocumentConverter.convertCreditNoteToEbInterface (aSrcBytes, aBAOS, aErrorList);
+            else
+              eSuccess = m_aDocumentConverter.convertEbInterfaceToInvoice (aSrcBytes, aBAOS, aErrorList);
+          if (eSuccess.isSuccess ())
+            aBytes = aBAOS.toByteArray ();
+        }
+      }
+    }
+    catch (final RuntimeException ex)
+    {
+      // One broken document must not stop the whole batch
+      aErrorList.add (SingleError.builderError ()
+                                 .errorLocation (aRes.getPath ())
+                                 .errorText (EText.UNEXPECTED_EXCEPTION.getDisplayTextWithArgs (m_aDisplayLocale,
+                                                                                                ex.getMessage ()))
+                                 .linkedException (ex)
+                                 .build ());
+      aBytes = null;
+    }
+    return new EbInterfaceBatchResult (nIndex,
+                                       aRes,
+                                       nSourceBytes,
+                                       eDirection,
+                                       aBytes,
+                                       aErrorList,
+                                       System.nanoTime () - nStart);
+  }
+
+  @NonNull
+  private static EbInterfaceBatchResult _take (@NonNull final CompletionService <EbInterfaceBatchResult> aCS) throws InterruptedException
+  {
+    try
+    {
+      return aCS.take ().get ();
+    }
+    catch (final ExecutionException ex)
+    {
+      // Only errors can end up here, as the conversion catches all runtime
+      // exceptions
+      final Throwable aCause = ex.getCause ();
+      if (aCause instanceof Error)
+        throw (Error) aCause;
+      throw new IllegalStateException ("Batch conversion failed", aCause);
+    }
+  }
+
+  /**
+   * Convert all provided documents.
+   *
+   * @param aDocuments
+   *        The UBL or ebInterface documents to convert. May not be <code>null</code>. The
+   *        iterator is only used from the calling thread.
+   * @param aResultConsumer
+   *        The consumer for the results. May not be <code>null</code>. It is
+   *        always invoked from the calling thread.
+   * @return The summary of the batch. Never <code>null</code>.
+   * @throws InterruptedException
+   *         If the calling thread was interrupted while waiting for results
+   */
+  @NonNull
+  public EbInterfaceBatchSummary convert (@NonNull final Iterable <? extends IReadableResource> aDocuments,
+                                          @NonNull final Consumer <? super EbInterfaceBatchResult> aResultConsumer) throws InterruptedException
+  {
+    ValueEnforcer.notNull (aDocuments, "Documents");
+    ValueEnforcer.notNull (aResultConsumer, "ResultConsumer");
+
+    final long nStart = System.nanoTime ();
+    final ExecutorService aOwnExecutor = m_aExecutor != null ? null
+                                                             : Executors.newFixedThreadPool (Runtime.getRuntime ()
+                                                                                                    .availableProcessors ());
+    try
+    {
+      final CompletionService <EbInterfaceBatchResult> aCS = new ExecutorCompletionService <> (m_aExecutor != null ? m_aExecutor
+                                                                                                                     : aOwnExecutor);
+      final ResultDeliverer aDeliverer = new ResultDeliverer (m_bOrdered, aResultConsumer);
+      int nSubmitted = 0;
+      int nCompleted = 0;
+      final Iterator <? extends IReadableResource> it = aDocuments.iterator ();
+      while (it.hasNext ())
+      {
+        final IReadableResource aRes = it.next ();
+        ValueEnforcer.notNull (aRes, "Document");
+        // Results buffered for ordered delivery count as in flight. If the
+        // limit is reached, at least one document is still running, because
+        // otherwise all buffered results would have been delivered.
+        while (nSubmitted - aDeliverer.getDeliveredCount () >= m_nMaxDocumentsInFlight)
+        {
+          aDeliverer.accept (_take (aCS));
+          nCompleted++;
+        }
+        final int nIndex = nSubmitted++;
+        aCS.submit ( () -> _convert (nIndex, aRes));
+      }
+      while (nCompleted < nSubmitted)
+      {
+        aDeliverer.accept (_take (aCS));
+        nCompleted++;
+      }
+
+      final EbInterfaceBatchSummary ret = aDeliverer.m_aCollector.build (System.nanoTime () - nStart);
+      if (LOGGER.isDebugEnabled ())
+        LOGGER.debug ("Finished batch conversion " +
+                      (m_bFromEbInterface ? "from" : "to") +
+                      " ebInterface " +
+                      getVersion ().getID () +
+                      ": " +
+                      ret);
+      return ret;
+    }
+    finally
+    {
+      if (aOwnExecutor != null)
+        aOwnExecutor.shutdownNow ();
+    }
+  }
+
+  /**
+   * Convert all provided documents.
+   *
+   * @param <T>
+   *        The resource type
+   * @param aDocuments
+   *        The UBL or ebInterface documents to convert. May not be <code>null</code>. The
+   *        stream is consumed sequentially from the calling thread.
+   * @param aResultConsumer
+   *        The consumer for the results. May not be <code>null</code>. It is
+   *        always invoked from the calling thread.
+   * @return The summary of the batch. Never <code>null</code>.
+   * @throws InterruptedException
+   *         If the calling thread was interrupted while waiting for results
+   */
+  @NonNull
+  public <T extends IReadableResource> EbInterfaceBatchSummary convert (@NonNull final Stream <T> aDocuments,
+                                                                        @NonNull final Consumer <? super EbInterfaceBatchResult> aResultConsumer) throws InterruptedException
+  {
+    ValueEnforcer.notNull (aDocuments, "Documents");
+    final Iterator <T> aIterator = aDocuments.iterator ();
+    final Iterable <T> aIterable = () -> aIterator;
+    return convert (aIterable, aResultConsumer);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.batch;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableObject;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.io.resource.IReadableResource;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+
+/**
+ * The result of converting a single document within a batch.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class EbInterfaceBatchResult
+{
+  private final int m_nIndex;
+  private final IReadableResource m_aSource;
+  private final long m_nSourceBytes;
+  private final EConversionDirection m_eDirection;
+  private final byte [] m_aTargetBytes;
+  private final ErrorList m_aErrorList;
+  private final long m_nDurationNanos;
+
+  EbInterfaceBatchResult (@Nonnegative final int nIndex,
+                          @NonNull final IReadableResource aSource,
+                          @Nonnegative final long nSourceBytes,
+                          @Nullable final EConversionDirection eDirection,
+                          @Nullable final byte [] aTargetBytes,
+                          @NonNull final ErrorList aErrorList,
+                          final long nDurationNanos)
+  {
+    ValueEnforcer.isGE0 (nIndex, "Index");
+    ValueEnforcer.notNull (aSource, "Source");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    m_nIndex = nIndex;
+    m_aSource = aSource;
+    m_nSourceBytes = nSourceBytes;
+    m_eDirection = eDirection;
+    m_aTargetBytes = aTargetBytes;
+    m_aErrorList = aErrorList;
+    m_nDurationNanos = nDurationNanos;
+  }
+
+  /**
+   * @return The 0-based index of the document in the input. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getIndex ()
+  {
+    return m_nIndex;
+  }
+
+  /**
+   * @return The source document. Never <code>null</code>.
+   */
+  @NonNull
+  public IReadableResource getSource ()
+  {
+    return m_aSource;
+  }
+
+  /**
+   * @return The number of bytes read from the source document. 0 if it could
+   *         not be read.
+   */
+  @Nonnegative
+  public long getSourceBytes ()
+  {
+    return m_nSourceBytes;
+  }
+
+  /**
+   * @return The conversion direction. For UBL documents it is derived from the
+   *         root element. May be <code>null</code> if the source is neither a
+   *         UBL invoice nor a UBL credit note.
+   */
+  @Nullable
+  public EConversionDirection getDirection ()
+  {
+    return m_eDirection;
+  }
+
+  /**
+   * @return The serialized target document - ebInterface or, if the direction
+   *         is {@link EConversionDirection#EBINTERFACE_TO_INVOICE}, a UBL
+   *         invoice. May be <code>null</code> if the conversion failed.
+   */
+  @Nullable
+  @ReturnsMutableObject ("Avoid copying large documents")
+  public byte [] getTargetBytes ()
+  {
+    return m_aTargetBytes;
+  }
+
+  /**
+   * @return The errors and warnings of reading, converting and writing this
+   *         document. Never <code>null</code>.
+   */
+  @NonNull
+  public ErrorList getErrorList ()
+  {
+    return m_aErrorList;
+  }
+
+  /**
+   * @return <code>true</code> if the target document was created and no error
+   *         occurred.
+   */
+  public boolean isSuccess ()
+  {
+    return m_aTargetBytes != null && !m_aErrorList.containsAtLeastOneError ();
+  }
+
+  /**
+   * @return The time spent on this document in nanoseconds.
+   */
+  public long getDurationNanos ()
+  {
+    return m_nDurationNanos;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Index", m_nIndex)
+                                       .append ("Source", m_aSource)
+                                       .append ("SourceBytes", m_nSourceBytes)
+                                       .append ("Direction", m_eDirection)
+                                       .append ("Success", isSuccess ())
+                                       .append ("ErrorList", m_aErrorList)
+                                       .append ("DurationNanos", m_nDurationNanos)
+                                       .getToString ();
+  }
+}
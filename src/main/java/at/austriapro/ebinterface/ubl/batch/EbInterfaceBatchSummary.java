@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.batch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.diagnostics.error.level.IErrorLevel;
+
+/**
+ * Summary of a batch conversion run.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class EbInterfaceBatchSummary
+{
+  /**
+   * Collects the data of the summary while the batch is running.
+   *
+   * @author Philip Helger
+   */
+  @NotThreadSafe
+  static final class Collector
+  {
+    private int m_nDocumentCount;
+    private int m_nSuccessCount;
+    private final int [] m_aErrorCounts = new int [EErrorLevel.values ().length];
+
+    void add (@NonNull final EbInterfaceBatchResult aResult)
+    {
+      m_nDocumentCount++;
+      if (aResult.isSuccess ())
+        m_nSuccessCount++;
+      for (final IError aError : aResult.getErrorList ())
+        m_aErrorCounts[_getBucket (aError.getErrorLevel ()).ordinal ()]++;
+    }
+
+    @NonNull
+    EbInterfaceBatchSummary build (final long nDurationNanos)
+    {
+      return new EbInterfaceBatchSummary (m_nDocumentCount, m_nSuccessCount, m_aErrorCounts.clone (), nDurationNanos);
+    }
+  }
+
+  private final int m_nDocumentCount;
+  private final int m_nSuccessCount;
+  private final int [] m_aErrorCounts;
+  private final long m_nDurationNanos;
+
+  EbInterfaceBatchSummary (@Nonnegative final int nDocumentCount,
+                           @Nonnegative final int nSuccessCount,
+                           @NonNull final int [] aErrorCounts,
+                           final long nDurationNanos)
+  {
+    m_nDocumentCount = nDocumentCount;
+    m_nSuccessCount = nSuccessCount;
+    m_aErrorCounts = aErrorCounts;
+    m_nDurationNanos = nDurationNanos;
+  }
+
+  @NonNull
+  private static EErrorLevel _getBucket (@NonNull final IErrorLevel aErrorLevel)
+  {
+    final EErrorLevel [] aLevels = EErrorLevel.values ();
+    for (int i = aLevels.length - 1; i > 0; --i)
+      if (aErrorLevel.isGE (aLevels[i]))
+        return aLevels[i];
+    return aLevels[0];
+  }
+
+  /**
+   * @return The number of processed documents. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getDocumentCount ()
+  {
+    return m_nDocumentCount;
+  }
+
+  /**
+   * @return The number of successfully converted documents. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getSuccessCount ()
+  {
+    return m_nSuccessCount;
+  }
+
+  /**
+   * @return The number of documents that could not be converted. Always &ge;
+   *         0.
+   */
+  @Nonnegative
+  public int getFailureCount ()
+  {
+    return m_nDocumentCount - m_nSuccessCount;
+  }
+
+  /**
+   * Get the number of errors with the provided severity over all documents.
+   *
+   * @param eErrorLevel
+   *        The error level to query. May not be <code>null</code>.
+   * @return The number of errors. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getErrorCount (@NonNull final EErrorLevel eErrorLevel)
+  {
+    ValueEnforcer.notNull (eErrorLevel, "ErrorLevel");
+    return m_aErrorCounts[eErrorLevel.ordinal ()];
+  }
+
+  /**
+   * @return The wall clock duration of the whole batch in nanoseconds.
+   */
+  public long getDurationNanos ()
+  {
+    return m_nDurationNanos;
+  }
+
+  /**
+   * @return The throughput in documents per second.
+   */
+  public double getDocumentsPerSecond ()
+  {
+    if (m_nDurationNanos <= 0)
+      return 0;
+    return m_nDocumentCount * (double) TimeUnit.SECONDS.toNanos (1) / m_nDurationNanos;
+  }
+
+  @Override
+  public String toString ()
+  {
+    final ToStringGenerator aTSG = new ToStringGenerator (this).append ("DocumentCount", m_nDocumentCount)
+                                                               .append ("SuccessCount", m_nSuccessCount)
+                                                               .append ("DurationNanos", m_nDurationNanos)
+                                                               .append ("DocumentsPerSecond",
+                                                                        getDocumentsPerSecond ());
+    for (final EErrorLevel e : EErrorLevel.values ())
+      if (m_aErrorCounts[e.ordinal ()] > 0)
+        aTSG.append (e.name (), m_aErrorCounts[e.ordinal ()]);
+    return aTSG.getToString ();
+  }
+}
@@ -0,0 +1,590 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.io.resource.IReadableResource;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.batch.EbInterfaceBatchConverter;
+import at.austriapro.ebinterface.ubl.batch.EbInterfaceBatchResult;
+import at.austriapro.ebinterface.ubl.batch.EbInterfaceBatchSummary;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.metrics.LatencyHistogram;
+import at.austriapro.ebinterface.ubl.service.EbInterfaceDocumentConverter;
+
+/**
+ * Command line batch converter for directories and file lists, in both
+ * directions. The files are converted by an {@link EbInterfaceBatchConverter}
+ * with a pool of worker threads. For each file with errors or warnings a
+ * report file <code>&lt;name&gt;.errors.txt</code> is written to the output
+ * directory. At the end a summary with throughput and latency is printed.<br>
+ * Files of a directory keep their path relative to the directory, other files
+ * are written with their file name. If two input files would be written to the
+ * same output file, or if the output directory is an input directory or inside
+ * one, nothing is converted.<br>
+ * The executable jar is created with <code>mvn -Pcli package</code>. Call it
+ * without arguments to see the usage.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class EbInterfaceUBLCLI
+{
+  /** All files converted */
+  public static final int EXIT_OK = 0;
+  /** At least one file could not be converted */
+  public static final int EXIT_FAILURES = 1;
+  /** Invalid command line or input files */
+  public static final int EXIT_USAGE = 2;
+  /** Reading the input or writing the output failed */
+  public static final int EXIT_IO = 3;
+
+  public static final String REPORT_FILE_SUFFIX = ".errors.txt";
+
+  private static final String USAGE = """
+      Usage: java -jar ebinterface-ubl-mapping-cli.jar [options] <file or directory>...
+      Converts UBL 2.1 invoices and credit notes to ebInterface or ebInterface to UBL 2.1 invoices.
+      Directories are searched recursively for *.xml files.
+
+      Options:
+        -o, --output <dir>         Output directory (required). Must not be an input directory or inside one.
+        -d, --direction <dir>      'to-ebi' (default) or 'to-ubl'
+        -v, --version <version>    ebInterface version: 4.0, 4.1, 4.2, 4.3, 5.0, 6.0 or 6.1 (default)
+        -w, --workers <n>          Number of worker threads (default: number of processors)
+        -s, --settings <preset>    'default' or 'erechnung' (settings similar to eRechnung.gv.at)
+        -l, --locale <tag>         Locale for messages and created documents (default: de-AT)
+        -f, --file-list <file>     File with one input file or directory per line
+        -q, --quiet                Don't print a line per failed file
+        -h, --help                 Show this help
+      """;
+
+  /**
+   * The parsed command line.
+   *
+   * @author Philip Helger
+   */
+  static final class Options
+  {
+    Path m_aOutputDir;
+    boolean m_bToUBL;
+    EEbInterfaceVersion m_eVersion = EEbInterfaceVersion.V61;
+    int m_nWorkers = Runtime.getRuntime ().availableProcessors ();
+    boolean m_bERechnungSettings;
+    Locale m_aLocale = Locale.forLanguageTag ("de-AT");
+    boolean m_bQuiet;
+    final ICommonsList <Path> m_aInputs = new CommonsArrayList <> ();
+  }
+
+  /**
+   * A single file to convert.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  private static final class InputFile
+  {
+    private final Path m_aSource;
+    // Relative to the output directory
+    private final Path m_aRelativeTarget;
+
+    InputFile (@NonNull final Path aSource, @NonNull final Path aRelativeTarget)
+    {
+      m_aSource = aSource;
+      m_aRelativeTarget = aRelativeTarget;
+    }
+  }
+
+  private final Options m_aOptions;
+  private final PrintStream m_aOut;
+  private final PrintStream m_aErr;
+  private final EbInterfaceDocumentConverter m_aConverter;
+  private final LatencyHistogram m_aLatency = new LatencyHistogram ();
+  private long m_nTotalBytes;
+  // Converted files whose output could not be written
+  private int m_nWriteFailures;
+  private boolean m_bIOError;
+
+  private EbInterfaceUBLCLI (@NonNull final Options aOptions,
+                             @NonNull final PrintStream aOut,
+                             @NonNull final PrintStream aErr)
+  {
+    m_aOptions = aOptions;
+    m_aOut = aOut;
+    m_aErr = aErr;
+    final IToEbinterfaceSettings aSettings = aOptions.m_bERechnungSettings ? ToEbinterfaceSettings.getERechnungGvAtSettings ()
+                                                                           : new ToEbinterfaceSettings ();
+    m_aConverter = new EbInterfaceDocumentConverter (aOptions.m_eVersion,
+                                                     aOptions.m_aLocale,
+                                                     aOptions.m_aLocale,
+                                                     aSettings);
+  }
+
+  @NonNull
+  private static String _getValue (@NonNull final String [] aArgs, final int nIndex)
+  {
+    if (nIndex >= aArgs.length)
+      throw new IllegalArgumentException ("Missing value for option " + aArgs[nIndex - 1]);
+    return aArgs[nIndex];
+  }
+
+  @NonNull
+  private static ICommonsList <Path> _readFileList (@NonNull final Path aFileList)
+  {
+    final ICommonsList <Path> ret = new CommonsArrayList <> ();
+    try
+    {
+      for (final String sLine : Files.readAllLines (aFileList, StandardCharsets.UTF_8))
+      {
+        final String sPath = sLine.trim ();
+        if (!sPath.isEmpty () && !sPath.startsWith ("#"))
+          ret.add (Paths.get (sPath));
+      }
+    }
+    catch (final IOException ex)
+    {
+      throw new IllegalArgumentException ("Failed to read the file list " + aFileList + ": " + ex.getMessage (), ex);
+    }
+    return ret;
+  }
+
+  /**
+   * Parse the command line.
+   *
+   * @param aArgs
+   *        The command line arguments. May not be <code>null</code>.
+   * @return <code>null</code> if the help was requested.
+   * @throws IllegalArgumentException
+   *         If the command line is invalid
+   */
+  @Nullable
+  static Options parseOptions (@NonNull final String [] aArgs)
+  {
+    final Options ret = new Options ();
+    for (int i = 0; i < aArgs.length; ++i)
+    {
+      final String sArg = aArgs[i];
+      switch (sArg)
+      {
+        case "-h":
+        case "--help":
+          return null;
+        case "-o":
+        case "--output":
+          ret.m_aOutputDir = Paths.get (_getValue (aArgs, ++i));
+          break;
+        case "-d":
+        case "--direction":
+        {
+          final String sDirection = _getValue (aArgs, ++i);
+          if ("to-ebi".equals (sDirection))
+            ret.m_bToUBL = false;
+          else
+            if ("to-ubl".equals (sDirection))
+              ret.m_bToUBL = true;
+            else
+              throw new IllegalArgumentException ("Invalid direction '" + sDirection + "'");
+          break;
+        }
+        case "-v":
+        case "--version":
+        {
+          final String sVersion = _getValue (aArgs, ++i);
+          ret.m_eVersion = EEbInterfaceVersion.getFromIDOrNull (sVersion);
+          if (ret.m_eVersion == null)
+            throw new IllegalArgumentException ("Invalid ebInterface version '" + sVersion + "'");
+          break;
+        }
+        case "-w":
+        case "--workers":
+        {
+          final String sWorkers = _getValue (aArgs, ++i);
+          try
+          {
+            ret.m_nWorkers = Integer.parseInt (sWorkers);
+          }
+          catch (final NumberFormatException ex)
+          {
+            ret.m_nWorkers = -1;
+          }
+          if (ret.m_nWorkers <= 0)
+            throw new IllegalArgumentException ("Invalid number of workers '" + sWorkers + "'");
+          break;
+        }
+        case "-s":
+        case "--settings":
+        {
+          final String sSettings = _getValue (aArgs, ++i);
+          if ("default".equals (sSettings))
+            ret.m_bERechnungSettings = false;
+          else
+            if ("erechnung".equals (sSettings))
+              ret.m_bERechnungSettings = true;
+            else
+              throw new IllegalArgumentException ("Invalid settings preset '" + sSettings + "'");
+          break;
+        }
+        case "-l":
+        case "--locale":
+          ret.m_aLocale = Locale.forLanguageTag (_getValue (aArgs, ++i));
+          break;
+        case "-f":
+        case "--file-list":
+          ret.m_aInputs.addAll (_readFileList (Paths.get (_getValue (aArgs, ++i))));
+          break;
+        case "-q":
+        case "--quiet":
+          ret.m_bQuiet = true;
+          break;
+        default:
+          if (sArg.startsWith ("-"))
+            throw new IllegalArgumentException ("Unknown option '" + sArg + "'");
+          ret.m_aInputs.add (Paths.get (sArg));
+          break;
+      }
+    }
+    if (ret.m_aOutputDir == null)
+      throw new IllegalArgumentException ("No output directory provided");
+    if (ret.m_aInputs.isEmpty ())
+      throw new IllegalArgumentException ("No input files provided");
+    return ret;
+  }
+
+  /**
+   * Get the real path of a file or directory that may not exist yet, by
+   * resolving the real path of the nearest existing parent.
+   */
+  @NonNull
+  private static Path _getRealPath (@NonNull final Path aPath) throws IOException
+  {
+    final Path aAbsPath = aPath.toAbsolutePath ().normalize ();
+    Path aExisting = aAbsPath;
+    while (aExisting != null && !Files.exists (aExisting))
+      aExisting = aExisting.getParent ();
+    if (aExisting == null)
+      return aAbsPath;
+    return aExisting.toRealPath ().resolve (aExisting.relativize (aAbsPath));
+  }
+
+  private static void _addInputFile (@NonNull final ICommonsList <InputFile> aInputFiles,
+                                     @NonNull final ICommonsMap <String, Path> aTargets,
+                                     @NonNull final Path aRealOutputDir,
+                                     @NonNull final Path aSource,
+                                     @NonNull final Path aRelativeTarget) throws IOException
+  {
+    final Path aRealSource = aSource.toRealPath ();
+    if (aRealOutputDir.resolve (aRelativeTarget).equals (aRealSource))
+      throw new IllegalArgumentException ("The input file " + aSource + " would be overwritten by its output");
+
+    // Case insensitive, so that collisions on case insensitive file systems
+    // are found as well
+    final String sTargetKey = aRelativeTarget.toString ().toLowerCase (Locale.ROOT);
+    final Path aOtherSource = aTargets.get (sTargetKey);
+    if (aOtherSource == null)
+    {
+      aTargets.put (sTargetKey, aRealSource);
+      aInputFiles.add (new InputFile (aSource, aRelativeTarget));
+    }
+    else
+      if (!aOtherSource.equals (aRealSource))
+        throw new IllegalArgumentException ("The input files " +
+                                            aOtherSource +
+                                            " and " +
+                                            aSource +
+                                            " would both be written to " +
+                                            aRelativeTarget);
+    // else the same file was provided twice
+  }
+
+  /**
+   * Collect all input files and check that their outputs don't overwrite
+   * each other or an input.
+   *
+   * @throws IllegalArgumentException
+   *         If an input does not exist or the outputs collide
+   */
+  @NonNull
+  private ICommonsList <InputFile> _collectInputFiles () throws IOException
+  {
+    final Path aRealOutputDir = _getRealPath (m_aOptions.m_aOutputDir);
+    final ICommonsList <InputFile> ret = new CommonsArrayList <> ();
+    final ICommonsMap <String, Path> aTargets = new CommonsHashMap <> ();
+    for (final Path aInput : m_aOptions.m_aInputs)
+    {
+      if (Files.isDirectory (aInput))
+      {
+        // Otherwise the output would be read as input by the next run
+        if (aRealOutputDir.startsWith (aInput.toRealPath ()))
+          throw new IllegalArgumentException ("The output directory " +
+                                              m_aOptions.m_aOutputDir +
+                                              " must not be the input directory " +
+                                              aInput +
+                                              " or inside it");
+
+        // Keep the directory structure
+        final ICommonsList <Path> aFiles = new CommonsArrayList <> ();
+        try (final Stream <Path> aStream = Files.walk (aInput))
+        {
+          aStream.filter (Files::isRegularFile)
+                 .filter (x -> x.getFileName ().toString ().toLowerCase (Locale.ROOT).endsWith (".xml"))
+                 .sorted ()
+                 .forEach (aFiles::add);
+        }
+        for (final Path aFile : aFiles)
+          _addInputFile (ret, aTargets, aRealOutputDir, aFile, aInput.relativize (aFile));
+      }
+      else
+        if (Files.isRegularFile (aInput))
+          _addInputFile (ret, aTargets, aRealOutputDir, aInput, aInput.getFileName ());
+        else
+          throw new IllegalArgumentException ("Input file or directory " + aInput + " does not exist");
+    }
+    return ret;
+  }
+
+  @NonNull
+  private static String _getLevelName (@NonNull final IError aError)
+  {
+    if (aError.isError ())
+      return "ERROR";
+    if (aError.getErrorLevel ().isGE (EErrorLevel.WARN))
+      return "WARN";
+    return "INFO";
+  }
+
+  private void _writeReport (@NonNull final InputFile aInput,
+                             @NonNull final EbInterfaceBatchResult aResult,
+                             final boolean bSuccess) throws IOException
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    aSB.append ("Source: ").append (aInput.m_aSource).append ('\n');
+    aSB.append ("Result: ").append (bSuccess ? "converted" : "failed").append ('\n');
+    for (final IError aError : aResult.getErrorList ())
+    {
+      aSB.append (_getLevelName (aError));
+      if (aError.getErrorID () != null)
+        aSB.append (" [").append (aError.getErrorID ()).append (']');
+      if (aError.getErrorFieldName () != null)
+        aSB.append (' ').append (aError.getErrorFieldName ());
+      if (aError.hasErrorLocation ())
+        aSB.append (" @ ").append (aError.getErrorLocation ().getAsString ());
+      aSB.append (": ").append (aError.getErrorText (m_aOptions.m_aLocale)).append ('\n');
+    }
+    final Path aReport = m_aOptions.m_aOutputDir.resolve (aInput.m_aRelativeTarget.toString () + REPORT_FILE_SUFFIX);
+    Files.createDirectories (aReport.getParent ());
+    Files.writeString (aReport, aSB, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Write the output and the report of a single file. Invoked in the calling
+   * thread of the batch converter only.
+   */
+  private void _handleResult (@NonNull final InputFile aInput, @NonNull final EbInterfaceBatchResult aResult)
+  {
+    m_aLatency.record (aResult.getDurationNanos ());
+    m_nTotalBytes += aResult.getSourceBytes ();
+
+    boolean bSuccess = aResult.isSuccess ();
+    if (bSuccess)
+    {
+      final Path aTarget = m_aOptions.m_aOutputDir.resolve (aInput.m_aRelativeTarget);
+      try
+      {
+        Files.createDirectories (aTarget.getParent ());
+        Files.write (aTarget, aResult.getTargetBytes ());
+      }
+      catch (final IOException ex)
+      {
+        m_aErr.println ("Failed to write " + aTarget + ": " + ex.getMessage ());
+        m_nWriteFailures++;
+        m_bIOError = true;
+        bSuccess = false;
+      }
+    }
+    if (!bSuccess && !m_aOptions.m_bQuiet)
+      m_aErr.println ("Failed: " + aInput.m_aSource);
+
+    if (aResult.getErrorList ().isNotEmpty ())
+      try
+      {
+        _writeReport (aInput, aResult, bSuccess);
+      }
+      catch (final IOException ex)
+      {
+        m_aErr.println ("Failed to write the report for " + aInput.m_aSource + ": " + ex.getMessage ());
+        m_bIOError = true;
+      }
+  }
+
+  private static double _toMillis (final long nNanos)
+  {
+    return nNanos / (double) TimeUnit.MILLISECONDS.toNanos (1);
+  }
+
+  private int _run () throws IOException, InterruptedException
+  {
+    final ICommonsList <InputFile> aFiles = _collectInputFiles ();
+    Files.createDirectories (m_aOptions.m_aOutputDir);
+    m_aOut.println ("Converting " +
+                    aFiles.size () +
+                    " file(s) " +
+                    (m_aOptions.m_bToUBL ? "from" : "to") +
+                    " ebInterface " +
+                    m_aOptions.m_eVersion.getID () +
+                    " with " +
+                    m_aOptions.m_nWorkers +
+                    " worker(s)");
+
+    final ICommonsList <IReadableResource> aResources = new CommonsArrayList <> (aFiles.size ());
+    for (final InputFile aInput : aFiles)
+      aResources.add (new FileSystemResource (aInput.m_aSource.toFile ()));
+
+    final EbInterfaceBatchSummary aSummary;
+    final ExecutorService aExecutor = Executors.newFixedThreadPool (m_aOptions.m_nWorkers);
+    try
+    {
+      // Limit the number of results waiting to be written
+      aSummary = new EbInterfaceBatchConverter (m_aConverter).setExecutor (aExecutor)
+                                                             .setMaxDocumentsInFlight (m_aOptions.m_nWorkers * 2)
+                                                             .setOrdered (false)
+                                                             .setFromEbInterface (m_aOptions.m_bToUBL)
+                                                             .convert (aResources,
+                                                                       x -> _handleResult (aFiles.get (x.getIndex ()), x));
+    }
+    finally
+    {
+      aExecutor.shutdownNow ();
+    }
+    final long nDurationNanos = aSummary.getDurationNanos ();
+    final int nSuccess = aSummary.getSuccessCount () - m_nWriteFailures;
+    final int nErrors = aSummary.getErrorCount (EErrorLevel.ERROR) + aSummary.getErrorCount (EErrorLevel.FATAL_ERROR);
+    final int nWarnings = aSummary.getErrorCount (EErrorLevel.WARN);
+
+    final double dSeconds = nDurationNanos / (double) TimeUnit.SECONDS.toNanos (1);
+    m_aOut.println ("Files:      " +
+                    aFiles.size () +
+                    " (" +
+                    nSuccess +
+                    " converted, " +
+                    (aFiles.size () - nSuccess) +
+                    " failed)");
+    m_aOut.println ("Messages:   " + nErrors + " error(s), " + nWarnings + " warning(s)");
+    m_aOut.println (String.format (Locale.ROOT, "Duration:   %.3f s", Double.valueOf (dSeconds)));
+    if (dSeconds > 0)
+      m_aOut.println (String.format (Locale.ROOT,
+                                     "Throughput: %.1f files/s, %.2f MB/s",
+                                     Double.valueOf (aFiles.size () / dSeconds),
+                                     Double.valueOf (m_nTotalBytes / dSeconds / (1024 * 1024))));
+    if (m_aLatency.getCount () > 0)
+      m_aOut.println (String.format (Locale.ROOT,
+                                     "Latency:    mean %.2f ms, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                                     Double.valueOf (_toMillis ((long) m_aLatency.getMean ())),
+                                     Double.valueOf (_toMillis (m_aLatency.getValueAtPercentile (50))),
+                                     Double.valueOf (_toMillis (m_aLatency.getValueAtPercentile (90))),
+                                     Double.valueOf (_toMillis (m_aLatency.getValueAtPercentile (99))),
+                                     Double.valueOf (_toMillis (m_aLatency.getMax ()))));
+    if (m_bIOError)
+      return EXIT_IO;
+    return nSuccess == aFiles.size () ? EXIT_OK : EXIT_FAILURES;
+  }
+
+  /**
+   * Run the converter.
+   *
+   * @param aArgs
+   *        The command line arguments. May not be <code>null</code>.
+   * @param aOut
+   *        The stream for the progress and the summary. May not be
+   *        <code>null</code>.
+   * @param aErr
+   *        The stream for the failures. May not be <code>null</code>.
+   * @return The exit code. One of {@link #EXIT_OK}, {@link #EXIT_FAILURES},
+   *         {@link #EXIT_USAGE} or {@link #EXIT_IO}.
+   */
+  public static int run (@NonNull final String [] aArgs,
+                         @NonNull final PrintStream aOut,
+                         @NonNull final PrintStream aErr)
+  {
+    final Options aOptions;
+    try
+    {
+      aOptions = parseOptions (aArgs);
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      aErr.println (ex.getMessage ());
+      aErr.print (USAGE);
+      return EXIT_USAGE;
+    }
+    if (aOptions == null)
+    {
+      aOut.print (USAGE);
+      return EXIT_OK;
+    }
+
+    try
+    {
+      return new EbInterfaceUBLCLI (aOptions, aOut, aErr)._run ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // Invalid inputs
+      aErr.println (ex.getMessage ());
+      return EXIT_USAGE;
+    }
+    catch (final IOException ex)
+    {
+      aErr.println (ex.getMessage ());
+      return EXIT_IO;
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      aErr.println ("Interrupted");
+      return EXIT_FAILURES;
+    }
+  }
+
+  public static void main (final String [] aArgs)
+  {
+    System.exit (run (aArgs, System.out, System.err));
+  }
+}
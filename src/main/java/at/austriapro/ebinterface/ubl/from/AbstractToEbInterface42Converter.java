@@ -30,8 +30,6 @@ import com.helger.annotation.concurrent.Immutable;
 import com.helger.base.numeric.BigHelper;
 import com.helger.base.string.StringHelper;
 import com.helger.base.string.StringImplode;
-import com.helger.cache.regex.RegExHelper;
-import com.helger.collection.CollectionHelper;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.datetime.xml.XMLOffsetDate;
@@ -59,6 +57,10 @@ import com.helger.ebinterface.v42.Ebi42SEPADirectDebitTypeType;
 import com.helger.ebinterface.v42.Ebi42UniversalBankTransactionType;
 import com.helger.text.locale.country.CountryCache;
 
+import at.austriapro.ebinterface.ubl.from.helper.AddressData;
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.helper.BankAccountValidator;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.*;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DescriptionType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DocumentDescriptionType;
@@ -83,28 +85,26 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     super (aDisplayLocale, aContentLocale, aSettings);
   }
 
-  public static void setAddressData (@Nullable final AddressType aUBLAddress,
+  public static void setAddressData (@Nullable final AddressData aAddress,
                                      @NonNull final Ebi42AddressType aEbiAddress,
                                      @NonNull final Locale aContentLocale)
   {
     // Convert main address
-    if (aUBLAddress != null)
+    if (aAddress != null)
     {
-      aEbiAddress.setStreet (StringImplode.getImplodedNonEmpty (' ',
-                                                                StringHelper.trim (aUBLAddress.getStreetNameValue ()),
-                                                                StringHelper.trim (aUBLAddress.getBuildingNumberValue ())));
-      aEbiAddress.setPOBox (StringHelper.trim (aUBLAddress.getPostboxValue ()));
-      aEbiAddress.setTown (StringHelper.trim (aUBLAddress.getCityNameValue ()));
-      aEbiAddress.setZIP (StringHelper.trim (aUBLAddress.getPostalZoneValue ()));
+      aEbiAddress.setStreet (aAddress.getStreet ());
+      aEbiAddress.setPOBox (aAddress.getPOBox ());
+      aEbiAddress.setTown (aAddress.getTown ());
+      aEbiAddress.setZIP (aAddress.getZIP ());
 
       // Country
-      if (aUBLAddress.getCountry () != null)
+      if (aAddress.hasCountry ())
       {
         final Ebi42CountryType aEbiCountry = new Ebi42CountryType ();
-        final String sEbiCountryCode = StringHelper.trim (aUBLAddress.getCountry ().getIdentificationCodeValue ());
+        final String sEbiCountryCode = aAddress.getCountryCode ();
         aEbiCountry.setCountryCode (sEbiCountryCode);
 
-        final String sCountryName = StringHelper.trim (aUBLAddress.getCountry ().getNameValue ());
+        final String sCountryName = aAddress.getCountryName ();
         aEbiCountry.setValue (sCountryName);
         if (StringHelper.isEmpty (sCountryName) && StringHelper.isNotEmpty (sEbiCountryCode))
         {
@@ -118,6 +118,13 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     }
   }
 
+  public static void setAddressData (@Nullable final AddressType aUBLAddress,
+                                     @NonNull final Ebi42AddressType aEbiAddress,
+                                     @NonNull final Locale aContentLocale)
+  {
+    setAddressData (createAddressData (aUBLAddress), aEbiAddress, aContentLocale);
+  }
+
   public static void validateAddressData (@NonNull final Ebi42AddressType aEbiAddress,
                                           @NonNull final String sPartyType,
                                           @NonNull final ErrorList aTransformationErrorList,
@@ -126,28 +133,32 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     if (aEbiAddress.getStreet () == null)
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName (sPartyType + "/PostalAddress/StreetName")
-                                               .errorText (EText.ADDRESS_NO_STREET.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.ADDRESS_NO_STREET.name ())
+                                               .errorText (new LazyErrorText (EText.ADDRESS_NO_STREET, aDisplayLocale))
                                                .build ());
     if (aEbiAddress.getTown () == null)
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName (sPartyType + "/PostalAddress/CityName")
-                                               .errorText (EText.ADDRESS_NO_CITY.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.ADDRESS_NO_CITY.name ())
+                                               .errorText (new LazyErrorText (EText.ADDRESS_NO_CITY, aDisplayLocale))
                                                .build ());
     if (aEbiAddress.getZIP () == null)
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName (sPartyType + "/PostalAddress/PostalZone")
-                                               .errorText (EText.ADDRESS_NO_ZIPCODE.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.ADDRESS_NO_ZIPCODE.name ())
+                                               .errorText (new LazyErrorText (EText.ADDRESS_NO_ZIPCODE, aDisplayLocale))
                                                .build ());
     if (aEbiAddress.getCountry () == null)
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName (sPartyType +
                                                                 "/PostalAddress/Country/IdentificationCode")
-                                               .errorText (EText.ADDRESS_NO_COUNTRY.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.ADDRESS_NO_COUNTRY.name ())
+                                               .errorText (new LazyErrorText (EText.ADDRESS_NO_COUNTRY, aDisplayLocale))
                                                .build ());
   }
 
   @NonNull
-  public static Ebi42AddressType convertParty (@NonNull final PartyType aUBLParty,
+  public static Ebi42AddressType convertParty (@NonNull final PartyData aParty,
                                                @NonNull final String sPartyType,
                                                @NonNull final ErrorList aTransformationErrorList,
                                                @NonNull final Locale aContentLocale,
@@ -156,69 +167,44 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
   {
     final Ebi42AddressType aEbiAddress = new Ebi42AddressType ();
 
-    if (aUBLParty.getPartyNameCount () > 1)
+    if (aParty.hasMultiplePartyNames ())
       aTransformationErrorList.add (SingleError.builderWarn ()
                                                .errorFieldName (sPartyType + "/PartyName")
-                                               .errorText (EText.MULTIPLE_PARTIES.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.MULTIPLE_PARTIES.name ())
+                                               .errorText (new LazyErrorText (EText.MULTIPLE_PARTIES, aDisplayLocale))
                                                .build ());
 
     // Convert name
-    final PartyNameType aUBLPartyName = CollectionHelper.getAtIndex (aUBLParty.getPartyName (), 0);
-    if (aUBLPartyName != null)
-      aEbiAddress.setName (StringHelper.trim (aUBLPartyName.getNameValue ()));
-
-    if (aEbiAddress.getName () == null && aUBLParty.hasPartyLegalEntityEntries ())
-    {
-      // For EN set from cac:PartyLegalEntity/cbc:RegistrationName
-      aEbiAddress.setName (StringHelper.trim (aUBLParty.getPartyLegalEntityAtIndex (0).getRegistrationNameValue ()));
-    }
+    aEbiAddress.setName (aParty.getName ());
 
     if (aEbiAddress.getName () == null)
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName (sPartyType)
-                                               .errorText (EText.PARTY_NO_NAME.getDisplayText (aDisplayLocale))
+                                               .errorID (EText.PARTY_NO_NAME.name ())
+                                               .errorText (new LazyErrorText (EText.PARTY_NO_NAME, aDisplayLocale))
                                                .build ());
 
     // Convert main address
-    setAddressData (aUBLParty.getPostalAddress (), aEbiAddress, aContentLocale);
+    setAddressData (aParty.getPostalAddress (), aEbiAddress, aContentLocale);
 
     // Contact
-    final ContactType aUBLContact = aUBLParty.getContact ();
-    if (aUBLContact != null)
-    {
-      aEbiAddress.setPhone (StringHelper.trim (aUBLContact.getTelephoneValue ()));
-      aEbiAddress.setEmail (StringHelper.trim (aUBLContact.getElectronicMailValue ()));
-    }
+    aEbiAddress.setPhone (aParty.getPhone ());
+    aEbiAddress.setEmail (aParty.getEmail ());
 
     // Person name
-    final ICommonsList <String> ebContacts = new CommonsArrayList <> ();
-    if (aUBLContact != null)
-      if (StringHelper.isNotEmptyAfterTrim (aUBLContact.getNameValue ()))
-        ebContacts.add (StringHelper.trim (aUBLContact.getNameValue ()));
-    for (final PersonType aUBLPerson : aUBLParty.getPerson ())
-    {
-      if (StringHelper.isEmpty (aEbiAddress.getSalutation ()))
-        aEbiAddress.setSalutation (StringHelper.trim (aUBLPerson.getGenderCodeValue ()));
-      ebContacts.add (StringImplode.getImplodedNonEmpty (' ',
-                                                         StringHelper.trim (aUBLPerson.getTitleValue ()),
-                                                         StringHelper.trim (aUBLPerson.getFirstNameValue ()),
-                                                         StringHelper.trim (aUBLPerson.getMiddleNameValue ()),
-                                                         StringHelper.trim (aUBLPerson.getFamilyNameValue ()),
-                                                         StringHelper.trim (aUBLPerson.getNameSuffixValue ())));
-    }
-    if (!ebContacts.isEmpty ())
-      aEbiAddress.setContact (StringImplode.getImplodedNonEmpty ('\n', ebContacts));
+    aEbiAddress.setSalutation (aParty.getSalutation ());
+    aEbiAddress.setContact (aParty.getContactName ());
 
     // GLN and DUNS number
-    if (aUBLParty.getEndpointID () != null)
+    if (aParty.getEndpointID () != null)
     {
-      final String sEndpointID = StringHelper.trim (aUBLParty.getEndpointIDValue ());
+      final String sEndpointID = aParty.getEndpointID ();
       if (StringHelper.isNotEmpty (sEndpointID))
       {
         // We have an endpoint ID
 
         // Check all identifier types
-        final String sSchemeIDToSearch = StringHelper.trim (aUBLParty.getEndpointID ().getSchemeID ());
+        final String sSchemeIDToSearch = StringHelper.trim (aParty.getEndpointSchemeID ());
 
         for (final Ebi42AddressIdentifierTypeType eType : Ebi42AddressIdentifierTypeType.values ())
           if (eType.value ().equalsIgnoreCase (sSchemeIDToSearch))
@@ -232,10 +218,11 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
         if (aEbiAddress.hasNoAddressIdentifierEntries ())
           aTransformationErrorList.add (SingleError.builderWarn ()
                                                    .errorFieldName (sPartyType)
-                                                   .errorText (EText.PARTY_UNSUPPORTED_ENDPOINT.getDisplayTextWithArgs (aDisplayLocale,
-                                                                                                                        sEndpointID,
-                                                                                                                        aUBLParty.getEndpointID ()
-                                                                                                                                 .getSchemeID ()))
+                                                   .errorID (EText.PARTY_UNSUPPORTED_ENDPOINT.name ())
+                                                   .errorText (new LazyErrorText (EText.PARTY_UNSUPPORTED_ENDPOINT,
+                                                                                  aDisplayLocale,
+                                                                                  sEndpointID,
+                                                                                  aParty.getEndpointSchemeID ()))
                                                    .build ());
       }
     }
@@ -244,7 +231,7 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     {
       // check party identification
       int nPartyIdentificationIndex = 0;
-      for (final PartyIdentificationType aUBLPartyID : aUBLParty.getPartyIdentification ())
+      for (final PartyIdentificationType aUBLPartyID : aParty.getAllPartyIdentifications ())
       {
         final String sUBLPartyID = StringHelper.trim (aUBLPartyID.getIDValue ());
         for (final Ebi42AddressIdentifierTypeType eType : Ebi42AddressIdentifierTypeType.values ())
@@ -262,10 +249,12 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                                     "/PartyIdentification[" +
                                                                     nPartyIdentificationIndex +
                                                                     "]")
-                                                   .errorText (EText.PARTY_UNSUPPORTED_ADDRESS_IDENTIFIER.getDisplayTextWithArgs (aDisplayLocale,
-                                                                                                                                  sUBLPartyID,
-                                                                                                                                  aUBLPartyID.getID ()
-                                                                                                                                             .getSchemeID ()))
+                                                   .errorID (EText.PARTY_UNSUPPORTED_ADDRESS_IDENTIFIER.name ())
+                                                   .errorText (new LazyErrorText (EText.PARTY_UNSUPPORTED_ADDRESS_IDENTIFIER,
+                                                                                  aDisplayLocale,
+                                                                                  sUBLPartyID,
+                                                                                  aUBLPartyID.getID ()
+                                                                                             .getSchemeID ()))
                                                    .build ());
         ++nPartyIdentificationIndex;
       }
@@ -276,6 +265,22 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     return aEbiAddress;
   }
 
+  @NonNull
+  public static Ebi42AddressType convertParty (@NonNull final PartyType aUBLParty,
+                                               @NonNull final String sPartyType,
+                                               @NonNull final ErrorList aTransformationErrorList,
+                                               @NonNull final Locale aContentLocale,
+                                               @NonNull final Locale aDisplayLocale,
+                                               final boolean bValidate)
+  {
+    return convertParty (createPartyData (aUBLParty),
+                         sPartyType,
+                         aTransformationErrorList,
+                         aContentLocale,
+                         aDisplayLocale,
+                         bValidate);
+  }
+
   @NonNull
   protected static String getAggregated (@NonNull final Collection <DescriptionType> aList)
   {
@@ -318,7 +323,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
     Ebi42AddressType aEbiAddress = null;
     if (aUBLParty != null)
     {
-      aEbiAddress = convertParty (aUBLParty,
+      final PartyData aParty = createPartyData (aUBLParty);
+      aEbiAddress = convertParty (aParty,
                                   "DeliveryParty",
                                   aTransformationErrorList,
                                   aContentLocale,
@@ -399,7 +405,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
       if (StringHelper.isEmpty (aEbiAddress.getName ()))
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName (sDeliveryType + "/DeliveryParty")
-                                                 .errorText (EText.DELIVERY_WITHOUT_NAME.getDisplayText (aDisplayLocale))
+                                                 .errorID (EText.DELIVERY_WITHOUT_NAME.name ())
+                                                 .errorText (new LazyErrorText (EText.DELIVERY_WITHOUT_NAME, aDisplayLocale))
                                                  .build ());
       validateAddressData (aEbiAddress, sDeliveryType + "/DeliveryParty", aTransformationErrorList, aDisplayLocale);
     }
@@ -566,8 +573,10 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                                             "]/PaymentID[" +
                                                                             nPaymentIDIndex +
                                                                             "]")
-                                                           .errorText (EText.PAYMENT_ID_TOO_LONG_CUT.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                             sUBLPaymentID))
+                                                           .errorID (EText.PAYMENT_ID_TOO_LONG_CUT.name ())
+                                                           .errorText (new LazyErrorText (EText.PAYMENT_ID_TOO_LONG_CUT,
+                                                                                          m_aDisplayLocale,
+                                                                                          sUBLPaymentID))
                                                            .build ());
                   sUBLPaymentID = sUBLPaymentID.substring (0, PAYMENT_REFERENCE_MAX_LENGTH);
                 }
@@ -596,8 +605,10 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                              .errorFieldName ("PaymentMeans[" +
                                                                               nPaymentMeansIndex +
                                                                               "]/InstructionID")
-                                                             .errorText (EText.PAYMENT_ID_TOO_LONG_CUT.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                               sUBLInstructionID))
+                                                             .errorID (EText.PAYMENT_ID_TOO_LONG_CUT.name ())
+                                                             .errorText (new LazyErrorText (EText.PAYMENT_ID_TOO_LONG_CUT,
+                                                                                            m_aDisplayLocale,
+                                                                                            sUBLInstructionID))
                                                              .build ());
                     sUBLInstructionID = sUBLInstructionID.substring (0, PAYMENT_REFERENCE_MAX_LENGTH);
                   }
@@ -628,7 +639,7 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                   sBIC = StringHelper.trim (aUBLBranch.getID ().getValue ());
                   sBICScheme = StringHelper.trim (aUBLBranch.getID ().getSchemeID ());
                 }
-                if (StringHelper.isEmpty (sBIC) || !RegExHelper.stringMatchesPattern (REGEX_BIC, sBIC))
+                if (StringHelper.isEmpty (sBIC) || !BankAccountValidator.isValidBIC (sBIC))
                 {
                   final FinancialInstitutionType aUBLFI = aUBLBranch.getFinancialInstitution ();
                   if (aUBLFI != null && StringHelper.isNotEmpty (aUBLFI.getID ().getValue ()))
@@ -647,7 +658,7 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                   else
                     aEbiAccount.setBankName (sBIC);
 
-                  if (bIsBIC && !RegExHelper.stringMatchesPattern (REGEX_BIC, sBIC))
+                  if (bIsBIC && !BankAccountValidator.isValidBIC (sBIC))
                   {
                     aTransformationErrorList.add (SingleError.builderError ()
                                                              .errorFieldName ("PaymentMeans[" +
@@ -655,8 +666,10 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                                               "]/PayeeFinancialAccount/FinancialInstitutionBranch" +
                                                                               (bUseFI ? "/FinancialInstitution" : "") +
                                                                               "/ID")
-                                                             .errorText (EText.BIC_INVALID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                   sBIC))
+                                                             .errorID (EText.BIC_INVALID.name ())
+                                                             .errorText (new LazyErrorText (EText.BIC_INVALID,
+                                                                                            m_aDisplayLocale,
+                                                                                            sBIC))
                                                              .build ());
                     aEbiAccount.setBIC (null);
                   }
@@ -664,8 +677,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
               }
             }
 
-            // IBAN
-            final String sIBAN = aUBLFinancialAccount != null ? StringHelper.trim (aUBLFinancialAccount.getIDValue ())
+            // IBAN - remove the spaces of the paper format
+            final String sIBAN = aUBLFinancialAccount != null ? BankAccountValidator.getCompactIBAN (aUBLFinancialAccount.getIDValue ())
                                                               : null;
             aEbiAccount.setIBAN (sIBAN);
             if (StringHelper.getLength (sIBAN) > IBAN_MAX_LENGTH)
@@ -674,12 +687,34 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                        .errorFieldName ("PaymentMeans[" +
                                                                         nPaymentMeansIndex +
                                                                         "]/PayeeFinancialAccount/ID")
-                                                       .errorText (EText.IBAN_TOO_LONG_STRIPPING.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                         sIBAN,
-                                                                                                                         Integer.valueOf (IBAN_MAX_LENGTH)))
+                                                       .errorID (EText.IBAN_TOO_LONG_STRIPPING.name ())
+                                                       .errorText (new LazyErrorText (EText.IBAN_TOO_LONG_STRIPPING,
+                                                                                      m_aDisplayLocale,
+                                                                                      sIBAN,
+                                                                                      Integer.valueOf (IBAN_MAX_LENGTH)))
                                                        .build ());
               aEbiAccount.setIBAN (sIBAN.substring (0, IBAN_MAX_LENGTH));
             }
+            else
+              if (StringHelper.isNotEmpty (sIBAN))
+              {
+                final EText eIBANError;
+                if (!BankAccountValidator.isValidIBANFormat (sIBAN))
+                  eIBANError = EText.IBAN_INVALID_FORMAT;
+                else
+                  if (!BankAccountValidator.isValidIBAN (sIBAN))
+                    eIBANError = EText.IBAN_INVALID_CHECKSUM;
+                  else
+                    eIBANError = null;
+                if (eIBANError != null)
+                  aTransformationErrorList.add (SingleError.builderWarn ()
+                                                           .errorFieldName ("PaymentMeans[" +
+                                                                            nPaymentMeansIndex +
+                                                                            "]/PayeeFinancialAccount/ID")
+                                                           .errorID (eIBANError.name ())
+                                                           .errorText (new LazyErrorText (eIBANError, m_aDisplayLocale, sIBAN))
+                                                           .build ());
+              }
 
             // Bank Account Owner - no field present - check PayeePart or
             // SupplierPartyName
@@ -720,8 +755,10 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
 
           aTransformationErrorList.add (SingleError.builderWarn ()
                                                    .errorFieldName ("PaymentMeans[" + nPaymentMeansIndex + "]")
-                                                   .errorText (EText.PAYMENTMEANS_UNSUPPORTED_CHANNELCODE.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                                  sPaymentChannelCode))
+                                                   .errorID (EText.PAYMENTMEANS_UNSUPPORTED_CHANNELCODE.name ())
+                                                   .errorText (new LazyErrorText (EText.PAYMENTMEANS_UNSUPPORTED_CHANNELCODE,
+                                                                                  m_aDisplayLocale,
+                                                                                  sPaymentChannelCode))
                                                    .build ());
         }
         else
@@ -748,7 +785,7 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                                   aUBLDocAccountingSupplierParty.get ().getParty (),
                                                                   aUBLDocPayeeParty.get ());
 
-              if (StringHelper.isNotEmpty (aDD.m_sBIC) && !RegExHelper.stringMatchesPattern (REGEX_BIC, aDD.m_sBIC))
+              if (StringHelper.isNotEmpty (aDD.m_sBIC) && !BankAccountValidator.isValidBIC (aDD.m_sBIC))
               {
                 aTransformationErrorList.add (SingleError.builderError ()
                                                          .errorFieldName ("PaymentMeans[" +
@@ -757,8 +794,10 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                                           (aDD.m_bUseBICFromFinancialInstitution ? "/FinancialInstitution"
                                                                                                                  : "") +
                                                                           "/ID")
-                                                         .errorText (EText.BIC_INVALID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                               aDD.m_sBIC))
+                                                         .errorID (EText.BIC_INVALID.name ())
+                                                         .errorText (new LazyErrorText (EText.BIC_INVALID,
+                                                                                        m_aDisplayLocale,
+                                                                                        aDD.m_sBIC))
                                                          .build ());
               }
 
@@ -793,16 +832,18 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
 
               aTransformationErrorList.add (SingleError.builderError ()
                                                        .errorFieldName ("PaymentMeans[" + nPaymentMeansIndex + "]")
-                                                       .errorText (EText.PAYMENTMEANS_CODE_INVALID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                           sPaymentMeansCode,
-                                                                                                                           getOrString (", ",
-                                                                                                                                        PAYMENT_MEANS_CREDIT_TRANSFER,
-                                                                                                                                        PAYMENT_MEANS_DEBIT_TRANSFER,
-                                                                                                                                        PAYMENT_MEANS_PAYMENT_TO_BANK_ACCOUNT,
-                                                                                                                                        PAYMENT_MEANS_SEPA_CREDIT_TRANSFER),
-                                                                                                                           getOrString (", ",
-                                                                                                                                        PAYMENT_MEANS_DIRECT_DEBIT,
-                                                                                                                                        PAYMENT_MEANS_SEPA_DIRECT_DEBIT)))
+                                                       .errorID (EText.PAYMENTMEANS_CODE_INVALID.name ())
+                                                       .errorText (new LazyErrorText (EText.PAYMENTMEANS_CODE_INVALID,
+                                                                                      m_aDisplayLocale,
+                                                                                      sPaymentMeansCode,
+                                                                                      getOrString (", ",
+                                                                                                   PAYMENT_MEANS_CREDIT_TRANSFER,
+                                                                                                   PAYMENT_MEANS_DEBIT_TRANSFER,
+                                                                                                   PAYMENT_MEANS_PAYMENT_TO_BANK_ACCOUNT,
+                                                                                                   PAYMENT_MEANS_SEPA_CREDIT_TRANSFER),
+                                                                                      getOrString (", ",
+                                                                                                   PAYMENT_MEANS_DIRECT_DEBIT,
+                                                                                                   PAYMENT_MEANS_SEPA_DIRECT_DEBIT)))
                                                        .build ());
             }
 
@@ -826,7 +867,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
         {
           aTransformationErrorList.add (SingleError.builderError ()
                                                    .errorFieldName (bIsCreditNote ? "CreditNote" : "Invoice")
-                                                   .errorText (EText.ERB_NO_PAYMENT_METHOD.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ERB_NO_PAYMENT_METHOD.name ())
+                                                   .errorText (new LazyErrorText (EText.ERB_NO_PAYMENT_METHOD, m_aDisplayLocale))
                                                    .build ());
         }
       }
@@ -860,7 +902,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                          .errorFieldName ("PaymentTerms[" +
                                                                           nPaymentTermsIndex +
                                                                           "]/PaymentDueDate")
-                                                         .errorText (EText.PAYMENT_DUE_DATE_ALREADY_CONTAINED.getDisplayText (m_aDisplayLocale))
+                                                         .errorID (EText.PAYMENT_DUE_DATE_ALREADY_CONTAINED.name ())
+                                                         .errorText (new LazyErrorText (EText.PAYMENT_DUE_DATE_ALREADY_CONTAINED, m_aDisplayLocale))
                                                          .build ());
             }
             else
@@ -892,7 +935,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
                                                        .errorFieldName ("PaymentTerms[" +
                                                                         nPaymentTermsIndex +
                                                                         "]/SettlementPeriod")
-                                                       .errorText (EText.SETTLEMENT_PERIOD_MISSING.getDisplayText (m_aDisplayLocale))
+                                                       .errorID (EText.SETTLEMENT_PERIOD_MISSING.name ())
+                                                       .errorText (new LazyErrorText (EText.SETTLEMENT_PERIOD_MISSING, m_aDisplayLocale))
                                                        .build ());
             }
             else
@@ -910,7 +954,8 @@ public abstract class AbstractToEbInterface42Converter extends AbstractToEbInter
             {
               aTransformationErrorList.add (SingleError.builderWarn ()
                                                        .errorFieldName ("PaymentTerms[" + nPaymentTermsIndex + "]")
-                                                       .errorText (EText.PENALTY_NOT_ALLOWED.getDisplayText (m_aDisplayLocale))
+                                                       .errorID (EText.PENALTY_NOT_ALLOWED.name ())
+                                                       .errorText (new LazyErrorText (EText.PENALTY_NOT_ALLOWED, m_aDisplayLocale))
                                                        .build ());
             }
 
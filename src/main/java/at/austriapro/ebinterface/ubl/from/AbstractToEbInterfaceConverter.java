@@ -16,18 +16,30 @@
  */
 package at.austriapro.ebinterface.ubl.from;
 
+import java.math.BigDecimal;
+import java.util.AbstractMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import com.helger.annotation.Nonnegative;
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.annotation.misc.Translatable;
+import com.helger.base.CGlobal;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.numeric.BigHelper;
 import com.helger.base.string.StringHelper;
 import com.helger.base.string.StringImplode;
-import com.helger.cache.regex.RegExHelper;
+import com.helger.base.string.StringParser;
+import com.helger.collection.CollectionHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
 import com.helger.datetime.xml.XMLOffsetDate;
 import com.helger.diagnostics.error.SingleError;
 import com.helger.diagnostics.error.list.ErrorList;
@@ -38,21 +50,52 @@ import com.helger.text.resolve.DefaultTextResolver;
 import com.helger.text.util.TextHelper;
 
 import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.helper.AddressData;
+import at.austriapro.ebinterface.ubl.from.helper.AllowanceChargeData;
+import at.austriapro.ebinterface.ubl.from.helper.DocumentHeader;
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+import at.austriapro.ebinterface.ubl.from.helper.LineData;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKey;
+import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKeyFactory;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTableEntry;
+import at.austriapro.ebinterface.ubl.helper.BankAccountValidator;
+import at.austriapro.ebinterface.ubl.helper.EnumTextTable;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AddressType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AllowanceChargeType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.BranchType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ContactType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CountryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CreditNoteLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CustomerPartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.DeliveryType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.FinancialAccountType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.FinancialInstitutionType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.InvoiceLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemPropertyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderLineReferenceType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyIdentificationType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyNameType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PaymentMandateType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PaymentMeansType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PersonType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PriceType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSubtotalType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxTotalType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AllowanceChargeReasonType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.CopyIndicatorType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DescriptionType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.InvoiceTypeCodeType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NameType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NoteType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.ProfileIDType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.UBLVersionIDType;
 import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
@@ -155,6 +198,8 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
     BIC_INVALID ("Der BIC ''{0}'' ist ungültig.", "The BIC ''{0}'' is invalid."),
     IBAN_TOO_LONG_STRIPPING ("Der IBAN ''{0}'' ist zu lang. Er wurde nach {1} Zeichen abgeschnitten.",
                              "The IBAN ''{0}'' is too long and was cut to {1} characters."),
+    IBAN_INVALID_FORMAT ("Der IBAN ''{0}'' hat kein gültiges Format.", "The IBAN ''{0}'' has an invalid format."),
+    IBAN_INVALID_CHECKSUM ("Der IBAN ''{0}'' hat eine ungültige Prüfsumme.", "The IBAN ''{0}'' has an invalid check sum."),
     PAYMENTMEANS_UNSUPPORTED_CHANNELCODE ("Die Zahlungsart mit dem ChannelCode ''{0}'' wird ignoriert.",
                                           "The payment means with ChannelCode ''{0}'' are ignored."),
     ERB_NO_PAYMENT_METHOD ("Es muss eine Zahlungsart angegeben werden.", "A payment method must be provided."),
@@ -179,6 +224,9 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
     EBI40_CANNOT_MIX_VAT_EXEMPTION ("In ebInterface 4.0 können nicht USt-Informationen und Steuerbefreiungen gemischt werden",
                                     "ebInterface 4.0 cannot mix VAT information and tax exemptions");
 
+    // Resolved once per display locale
+    private static final Map <Locale, EnumTextTable <EText>> TEXT_TABLES = new ConcurrentHashMap <> ();
+
     private final IMultilingualText m_aTP;
 
     EText (@NonNull final String sDE, @NonNull final String sEN)
@@ -186,10 +234,28 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       m_aTP = TextHelper.create_DE_EN (sDE, sEN);
     }
 
+    @NonNull
+    private static EnumTextTable <EText> _getTextTable (@NonNull final Locale aContentLocale)
+    {
+      return TEXT_TABLES.computeIfAbsent (aContentLocale,
+                                          k -> new EnumTextTable <> (EText.class,
+                                                                     k,
+                                                                     (e, aLocale) -> DefaultTextResolver.getTextStatic (e,
+                                                                                                                        e.m_aTP,
+                                                                                                                        aLocale)));
+    }
+
     @Nullable
     public String getDisplayText (@NonNull final Locale aContentLocale)
     {
-      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+      return _getTextTable (aContentLocale).getText (this);
+    }
+
+    @Override
+    @Nullable
+    public String getDisplayTextWithArgs (@NonNull final Locale aContentLocale, @Nullable final Object... aArgs)
+    {
+      return _getTextTable (aContentLocale).getFormattedText (this, aArgs);
     }
   }
 
@@ -214,7 +280,20 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
 
   public static final int PAYMENT_REFERENCE_MAX_LENGTH = 35;
 
+  // The allowed values are constant, so the lists for the error texts are only
+  // created once
+  private static final String UBL_VERSION_LIST = StringImplode.imploder ()
+                                                              .separator (", ")
+                                                              .source (UBL_VERSION_20,
+                                                                       UBL_VERSION_21,
+                                                                       UBL_VERSION_22,
+                                                                       UBL_VERSION_23,
+                                                                       UBL_VERSION_24)
+                                                              .build ();
+  private static final String INVOICE_TYPE_CODE_LIST = StringImplode.getImploded (", ", INVOICE_TYPE_CODES);
+
   protected final IToEbinterfaceSettings m_aSettings;
+  private volatile IConversionStageListener m_aStageListener;
 
   /**
    * Constructor
@@ -234,6 +313,67 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
     m_aSettings = ValueEnforcer.notNull (aSettings, "Settings");
   }
 
+  /**
+   * @return The optional listener for the conversion stages. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public final IConversionStageListener getStageListener ()
+  {
+    return m_aStageListener;
+  }
+
+  /**
+   * Set an optional listener that is informed about the start and end of each
+   * conversion stage, e.g. to find out which stage dominates the latency. Note:
+   * converters from the {@link at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry}
+   * are shared, so the listener applies to all users of the converter.
+   *
+   * @param aStageListener
+   *        The listener to use. May be <code>null</code> to disable the stage
+   *        tracking.
+   */
+  public final void setStageListener (@Nullable final IConversionStageListener aStageListener)
+  {
+    m_aStageListener = aStageListener;
+  }
+
+  /**
+   * Create the stage tracker for a single conversion.
+   *
+   * @param eDirection
+   *        The conversion direction. May not be <code>null</code>.
+   * @param eVersion
+   *        The target ebInterface version. May not be <code>null</code>.
+   * @param sDocumentNumber
+   *        The number of the source document. May be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list of the conversion. May not be <code>null</code>.
+   * @return The tracker to use. Never <code>null</code>.
+   */
+  @NonNull
+  protected final ConversionStageTracker createStageTracker (@NonNull final EConversionDirection eDirection,
+                                                             @NonNull final EEbInterfaceVersion eVersion,
+                                                             @Nullable final String sDocumentNumber,
+                                                             @NonNull final ErrorList aTransformationErrorList)
+  {
+    return ConversionStageTracker.create (m_aStageListener,
+                                          eDirection,
+                                          eVersion,
+                                          getClass (),
+                                          sDocumentNumber,
+                                          aTransformationErrorList);
+  }
+
+  @Nonnegative
+  protected static int getTaxSubtotalCount (@NonNull final List <TaxTotalType> aUBLTaxTotals)
+  {
+    int ret = 0;
+    for (final TaxTotalType aUBLTaxTotal : aUBLTaxTotals)
+      ret += aUBLTaxTotal.getTaxSubtotalCount ();
+    return ret;
+  }
+
   @NonNull
   protected static String getAllowanceChargeComment (@NonNull final AllowanceChargeType aUBLAllowanceCharge)
   {
@@ -252,6 +392,281 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
     return aSB.toString ();
   }
 
+  @NonNull
+  private DocumentHeader _createDocumentHeader (@Nullable final String sID,
+                                                @Nullable final XMLOffsetDate aIssueDate,
+                                                @Nullable final String sCurrencyCode,
+                                                @Nullable final CopyIndicatorType aCopyIndicator,
+                                                @NonNull final List <NoteType> aNotes,
+                                                @NonNull final ErrorList aTransformationErrorList)
+  {
+    final String sDocumentNumber = StringHelper.trim (sID);
+    if (StringHelper.isEmpty (sDocumentNumber))
+      aTransformationErrorList.add (SingleError.builderError ()
+                                               .errorFieldName ("ID")
+                                               .errorID (EText.MISSING_INVOICE_NUMBER.name ())
+                                               .errorText (new LazyErrorText (EText.MISSING_INVOICE_NUMBER, m_aDisplayLocale))
+                                               .build ());
+
+    // Ignore the time!
+    if (aIssueDate == null)
+      aTransformationErrorList.add (SingleError.builderError ()
+                                               .errorFieldName ("IssueDate")
+                                               .errorID (EText.MISSING_INVOICE_DATE.name ())
+                                               .errorText (new LazyErrorText (EText.MISSING_INVOICE_DATE, m_aDisplayLocale))
+                                               .build ());
+
+    final ICommonsList <String> aComments = new CommonsArrayList <> ();
+    for (final NoteType aNote : aNotes)
+      if (StringHelper.isNotEmpty (aNote.getValue ()))
+        aComments.add (aNote.getValue ());
+
+    return new DocumentHeader (sDocumentNumber,
+                               aIssueDate,
+                               StringHelper.trim (sCurrencyCode),
+                               aCopyIndicator == null ? null : Boolean.valueOf (aCopyIndicator.isValue ()),
+                               aComments.isEmpty () ? null : StringImplode.getImplodedNonEmpty ('\n', aComments));
+  }
+
+  /**
+   * Build the version independent header data of a UBL invoice. A missing
+   * invoice number or date is reported in the error list.
+   *
+   * @param aUBLDoc
+   *        The UBL invoice. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list to be filled. May not be <code>null</code>.
+   * @return The header data. Never <code>null</code>.
+   */
+  @NonNull
+  protected final DocumentHeader createDocumentHeader (@NonNull final InvoiceType aUBLDoc,
+                                                       @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _createDocumentHeader (aUBLDoc.getIDValue (),
+                                  aUBLDoc.getIssueDateValue (),
+                                  aUBLDoc.getDocumentCurrencyCodeValue (),
+                                  aUBLDoc.getCopyIndicator (),
+                                  aUBLDoc.getNote (),
+                                  aTransformationErrorList);
+  }
+
+  /**
+   * Build the version independent header data of a UBL credit note. A missing
+   * credit note number or date is reported in the error list.
+   *
+   * @param aUBLDoc
+   *        The UBL credit note. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list to be filled. May not be <code>null</code>.
+   * @return The header data. Never <code>null</code>.
+   */
+  @NonNull
+  protected final DocumentHeader createDocumentHeader (@NonNull final CreditNoteType aUBLDoc,
+                                                       @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _createDocumentHeader (aUBLDoc.getIDValue (),
+                                  aUBLDoc.getIssueDateValue (),
+                                  aUBLDoc.getDocumentCurrencyCodeValue (),
+                                  aUBLDoc.getCopyIndicator (),
+                                  aUBLDoc.getNote (),
+                                  aTransformationErrorList);
+  }
+
+  /**
+   * Build the version independent tax table from all UBL tax totals. Missing
+   * percentages and amounts are calculated where possible. Tax subtotals that
+   * cannot be mapped are reported in the error list and are not part of the
+   * table entries.
+   *
+   * @param aUBLTaxTotals
+   *        The UBL tax totals of the document. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list to be filled. May not be <code>null</code>.
+   * @return The tax table. Never <code>null</code>.
+   */
+  @NonNull
+  protected final TaxTable createTaxTable (@NonNull final List <TaxTotalType> aUBLTaxTotals,
+                                           @NonNull final ErrorList aTransformationErrorList)
+  {
+    final ICommonsList <TaxTableEntry> aEntries = new CommonsArrayList <> ();
+    // Map from tax category to percentage
+    final ICommonsMap <TaxCategoryKey, BigDecimal> aTaxCategoryPercMap = new CommonsHashMap <> ();
+    // Share equal keys of different subtotals
+    final TaxCategoryKeyFactory aKeyFactory = new TaxCategoryKeyFactory ();
+
+    int nTaxTotalIndex = 0;
+    for (final TaxTotalType aUBLTaxTotal : aUBLTaxTotals)
+    {
+      int nTaxSubtotalIndex = 0;
+      for (final TaxSubtotalType aUBLSubtotal : aUBLTaxTotal.getTaxSubtotal ())
+      {
+        // Tax category is a mandatory element
+        final TaxCategoryType aUBLTaxCategory = aUBLSubtotal.getTaxCategory ();
+
+        final String sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getIDValue ());
+        final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
+        BigDecimal aUBLTaxAmount = aUBLSubtotal.getTaxAmountValue ();
+        BigDecimal aUBLTaxableAmount = aUBLSubtotal.getTaxableAmountValue ();
+
+        // Is the percentage value directly specified
+        BigDecimal aUBLPercentage = bTaxExemption ? BigDecimal.ZERO : aUBLTaxCategory.getPercentValue ();
+        if (aUBLPercentage == null)
+        {
+          // no it is not :(
+          if (aUBLTaxAmount != null && aUBLTaxableAmount != null)
+          {
+            // Calculate percentage
+            aUBLPercentage = BigHelper.isEQ0 (aUBLTaxableAmount) ? BigDecimal.ZERO : aUBLTaxAmount.multiply (
+                                                                                                             CGlobal.BIGDEC_100)
+                                                                                                  .divide (aUBLTaxableAmount,
+                                                                                                           SCALE_PERC,
+                                                                                                           ROUNDING_MODE);
+          }
+        }
+
+        if (aUBLPercentage != null)
+        {
+          // We have at least the percentage
+          if (aUBLTaxableAmount == null && aUBLTaxAmount != null)
+          {
+            // Cannot "back" calculate the taxable amount from 0 percentage!
+            if (BigHelper.isNE0 (aUBLPercentage))
+            {
+              // Calculate (inexact) subtotal
+              aUBLTaxableAmount = aUBLTaxAmount.multiply (CGlobal.BIGDEC_100)
+                                               .divide (aUBLPercentage, SCALE_PRICE4, ROUNDING_MODE);
+            }
+          }
+          else
+            if (aUBLTaxableAmount != null && aUBLTaxAmount == null)
+            {
+              // Calculate (inexact) subtotal
+              aUBLTaxAmount = BigHelper.isEQ0 (aUBLPercentage) ? BigDecimal.ZERO : aUBLTaxableAmount.multiply (
+                                                                                                               aUBLPercentage)
+                                                                                                    .divide (CGlobal.BIGDEC_100,
+                                                                                                             SCALE_PRICE4,
+                                                                                                             ROUNDING_MODE);
+            }
+        }
+
+        // Save item and put in map
+        final IDType aUBLTaxSchemeID = aUBLTaxCategory.getTaxScheme ().getID ();
+        if (aUBLTaxSchemeID == null)
+        {
+          aTransformationErrorList.add (SingleError.builderError ()
+                                                   .errorFieldName ("TaxTotal[" +
+                                                                    nTaxTotalIndex +
+                                                                    "]/TaxSubtotal[" +
+                                                                    nTaxSubtotalIndex +
+                                                                    "]/TaxCategory/TaxScheme/ID")
+                                                   .errorID (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID.name ())
+                                                   .errorText (new LazyErrorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID, m_aDisplayLocale))
+                                                   .build ());
+          break;
+        }
+        final String sUBLTaxSchemeSchemeID = StringHelper.trim (aUBLTaxSchemeID.getSchemeID ());
+        final String sUBLTaxSchemeID = StringHelper.trim (aUBLTaxSchemeID.getValue ());
+        if (StringHelper.isEmpty (sUBLTaxSchemeID))
+        {
+          aTransformationErrorList.add (SingleError.builderError ()
+                                                   .errorFieldName ("TaxTotal[" +
+                                                                    nTaxTotalIndex +
+                                                                    "]/TaxSubtotal[" +
+                                                                    nTaxSubtotalIndex +
+                                                                    "]/TaxCategory/TaxScheme/ID")
+                                                   .errorID (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID_VALUE.name ())
+                                                   .errorText (new LazyErrorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID_VALUE, m_aDisplayLocale))
+                                                   .build ());
+          break;
+        }
+
+        if (aUBLTaxCategory.getID () == null)
+        {
+          aTransformationErrorList.add (SingleError.builderError ()
+                                                   .errorFieldName ("TaxTotal[" +
+                                                                    nTaxTotalIndex +
+                                                                    "]/TaxSubtotal[" +
+                                                                    nTaxSubtotalIndex +
+                                                                    "]/TaxCategory")
+                                                   .errorID (EText.MISSING_TAXCATEGORY_ID.name ())
+                                                   .errorText (new LazyErrorText (EText.MISSING_TAXCATEGORY_ID, m_aDisplayLocale))
+                                                   .build ());
+          break;
+        }
+        if (StringHelper.isEmpty (sUBLTaxCategoryID))
+        {
+          aTransformationErrorList.add (SingleError.builderError ()
+                                                   .errorFieldName ("TaxTotal[" +
+                                                                    nTaxTotalIndex +
+                                                                    "]/TaxSubtotal[" +
+                                                                    nTaxSubtotalIndex +
+                                                                    "]/TaxCategory")
+                                                   .errorID (EText.MISSING_TAXCATEGORY_ID_VALUE.name ())
+                                                   .errorText (new LazyErrorText (EText.MISSING_TAXCATEGORY_ID_VALUE, m_aDisplayLocale))
+                                                   .build ());
+          break;
+        }
+
+        final String sUBLTaxCategorySchemeID = StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ());
+
+        final TaxCategoryKey aKey = aKeyFactory.getOrCreateKey (sUBLTaxSchemeSchemeID,
+                                                                sUBLTaxSchemeID,
+                                                                sUBLTaxCategorySchemeID,
+                                                                sUBLTaxCategoryID);
+        aTaxCategoryPercMap.put (aKey, aUBLPercentage);
+
+        // Is it VAT?
+        final boolean bVAT = isVATSchemeID (sUBLTaxSchemeID);
+        if (bVAT && aUBLPercentage == null)
+        {
+          aTransformationErrorList.add (SingleError.builderError ()
+                                                   .errorFieldName ("TaxTotal[" +
+                                                                    nTaxTotalIndex +
+                                                                    "]/TaxSubtotal[" +
+                                                                    nTaxSubtotalIndex +
+                                                                    "]/TaxCategory/Percent")
+                                                   .errorID (EText.TAX_PERCENT_MISSING.name ())
+                                                   .errorText (new LazyErrorText (EText.TAX_PERCENT_MISSING, m_aDisplayLocale))
+                                                   .build ());
+        }
+        else
+          if (bVAT && aUBLTaxableAmount == null)
+          {
+            aTransformationErrorList.add (SingleError.builderError ()
+                                                     .errorFieldName ("TaxTotal[" +
+                                                                      nTaxTotalIndex +
+                                                                      "]/TaxSubtotal[" +
+                                                                      nTaxSubtotalIndex +
+                                                                      "]/TaxableAmount")
+                                                     .errorID (EText.TAXABLE_AMOUNT_MISSING.name ())
+                                                     .errorText (new LazyErrorText (EText.TAXABLE_AMOUNT_MISSING, m_aDisplayLocale))
+                                                     .build ());
+          }
+          else
+          {
+            String sReason = null;
+            if (bTaxExemption)
+            {
+              if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
+                sReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
+              if (sReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
+                sReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
+            }
+            aEntries.add (new TaxTableEntry (aKey,
+                                             bVAT,
+                                             bTaxExemption,
+                                             sReason,
+                                             aUBLPercentage,
+                                             aUBLTaxableAmount,
+                                             aUBLTaxAmount));
+          }
+        ++nTaxSubtotalIndex;
+      }
+      ++nTaxTotalIndex;
+    }
+    return new TaxTable (aEntries, aTaxCategoryPercMap);
+  }
+
   /**
    * Check if the passed UBL invoice is transformable
    *
@@ -271,15 +686,10 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       if (m_aSettings.isUBLVersionIDMandatory ())
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("UBLVersionID")
-                                                 .errorText (EText.NO_UBL_VERSION_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                             StringImplode.imploder ()
-                                                                                                                          .separator (", ")
-                                                                                                                          .source (UBL_VERSION_20,
-                                                                                                                                   UBL_VERSION_21,
-                                                                                                                                   UBL_VERSION_22,
-                                                                                                                                   UBL_VERSION_23,
-                                                                                                                                   UBL_VERSION_24)
-                                                                                                                          .build ()))
+                                                 .errorID (EText.NO_UBL_VERSION_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.NO_UBL_VERSION_ID,
+                                                                                m_aDisplayLocale,
+                                                                                UBL_VERSION_LIST))
                                                  .build ());
     }
     else
@@ -293,16 +703,11 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       {
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("UBLVersionID")
-                                                 .errorText (EText.INVALID_UBL_VERSION_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                  sUBLVersionID,
-                                                                                                                  StringImplode.imploder ()
-                                                                                                                               .separator (", ")
-                                                                                                                               .source (UBL_VERSION_20,
-                                                                                                                                        UBL_VERSION_21,
-                                                                                                                                        UBL_VERSION_22,
-                                                                                                                                        UBL_VERSION_23,
-                                                                                                                                        UBL_VERSION_24)
-                                                                                                                               .build ()))
+                                                 .errorID (EText.INVALID_UBL_VERSION_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.INVALID_UBL_VERSION_ID,
+                                                                                m_aDisplayLocale,
+                                                                                sUBLVersionID,
+                                                                                UBL_VERSION_LIST))
                                                  .build ());
       }
     }
@@ -314,7 +719,8 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       if (m_aSettings.isUBLProfileIDMandatory ())
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("ProfileID")
-                                                 .errorText (EText.NO_PROFILE_ID.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.NO_PROFILE_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.NO_PROFILE_ID, m_aDisplayLocale))
                                                  .build ());
     }
     else
@@ -325,8 +731,10 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       {
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("ProfileID")
-                                                 .errorText (EText.INVALID_PROFILE_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                              sProfileID))
+                                                 .errorID (EText.INVALID_PROFILE_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.INVALID_PROFILE_ID,
+                                                                                m_aDisplayLocale,
+                                                                                sProfileID))
                                                  .build ());
       }
     }
@@ -340,9 +748,10 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       // None present
       aTransformationErrorList.add (SingleError.builderWarn ()
                                                .errorFieldName ("InvoiceTypeCode")
-                                               .errorText (EText.NO_INVOICE_TYPECODE.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                             StringImplode.getImploded (", ",
-                                                                                                                                        INVOICE_TYPE_CODES)))
+                                               .errorID (EText.NO_INVOICE_TYPECODE.name ())
+                                               .errorText (new LazyErrorText (EText.NO_INVOICE_TYPECODE,
+                                                                              m_aDisplayLocale,
+                                                                              INVOICE_TYPE_CODE_LIST))
                                                .build ());
     }
     else
@@ -353,10 +762,11 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       {
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("InvoiceTypeCode")
-                                                 .errorText (EText.INVALID_INVOICE_TYPECODE.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                    sInvoiceTypeCode,
-                                                                                                                    StringImplode.getImploded (", ",
-                                                                                                                                               INVOICE_TYPE_CODES)))
+                                                 .errorID (EText.INVALID_INVOICE_TYPECODE.name ())
+                                                 .errorText (new LazyErrorText (EText.INVALID_INVOICE_TYPECODE,
+                                                                                m_aDisplayLocale,
+                                                                                sInvoiceTypeCode,
+                                                                                INVOICE_TYPE_CODE_LIST))
                                                  .build ());
       }
     }
@@ -381,15 +791,10 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       if (m_aSettings.isUBLVersionIDMandatory ())
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("UBLVersionID")
-                                                 .errorText (EText.NO_UBL_VERSION_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                             StringImplode.imploder ()
-                                                                                                                          .separator (", ")
-                                                                                                                          .source (UBL_VERSION_20,
-                                                                                                                                   UBL_VERSION_21,
-                                                                                                                                   UBL_VERSION_22,
-                                                                                                                                   UBL_VERSION_23,
-                                                                                                                                   UBL_VERSION_24)
-                                                                                                                          .build ()))
+                                                 .errorID (EText.NO_UBL_VERSION_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.NO_UBL_VERSION_ID,
+                                                                                m_aDisplayLocale,
+                                                                                UBL_VERSION_LIST))
                                                  .build ());
     }
     else
@@ -404,16 +809,11 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       {
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("UBLVersionID")
-                                                 .errorText (EText.INVALID_UBL_VERSION_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                  sUBLVersionID,
-                                                                                                                  StringImplode.imploder ()
-                                                                                                                               .separator (", ")
-                                                                                                                               .source (UBL_VERSION_20,
-                                                                                                                                        UBL_VERSION_21,
-                                                                                                                                        UBL_VERSION_22,
-                                                                                                                                        UBL_VERSION_23,
-                                                                                                                                        UBL_VERSION_24)
-                                                                                                                               .build ()))
+                                                 .errorID (EText.INVALID_UBL_VERSION_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.INVALID_UBL_VERSION_ID,
+                                                                                m_aDisplayLocale,
+                                                                                sUBLVersionID,
+                                                                                UBL_VERSION_LIST))
                                                  .build ());
       }
     }
@@ -425,7 +825,8 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       if (m_aSettings.isUBLProfileIDMandatory ())
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("ProfileID")
-                                                 .errorText (EText.NO_PROFILE_ID.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.NO_PROFILE_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.NO_PROFILE_ID, m_aDisplayLocale))
                                                  .build ());
     }
     else
@@ -436,8 +837,10 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       {
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("ProfileID")
-                                                 .errorText (EText.INVALID_PROFILE_ID.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                              sProfileID))
+                                                 .errorID (EText.INVALID_PROFILE_ID.name ())
+                                                 .errorText (new LazyErrorText (EText.INVALID_PROFILE_ID,
+                                                                                m_aDisplayLocale,
+                                                                                sProfileID))
                                                  .build ());
       }
     }
@@ -502,7 +905,7 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
       if (aUBLBranch != null)
       {
         ret.m_sBIC = StringHelper.trim (aUBLBranch.getIDValue ());
-        if (StringHelper.isEmpty (ret.m_sBIC) || !RegExHelper.stringMatchesPattern (REGEX_BIC, ret.m_sBIC))
+        if (StringHelper.isEmpty (ret.m_sBIC) || !BankAccountValidator.isValidBIC (ret.m_sBIC))
         {
           final FinancialInstitutionType aUBLFI = aUBLBranch.getFinancialInstitution ();
           if (aUBLFI != null)
@@ -636,4 +1039,397 @@ public abstract class AbstractToEbInterfaceConverter extends AbstractEbInterface
   {
     return StringHelper.isEmpty (sScheme) || SCHEME_BIC.equalsIgnoreCase (sScheme);
   }
+
+  /**
+   * Build the version independent data of a UBL postal address.
+   *
+   * @param aUBLAddress
+   *        The UBL address. May be <code>null</code>.
+   * @return <code>null</code> if no address was passed.
+   */
+  @Nullable
+  protected static AddressData createAddressData (@Nullable final AddressType aUBLAddress)
+  {
+    if (aUBLAddress == null)
+      return null;
+
+    final CountryType aUBLCountry = aUBLAddress.getCountry ();
+    return new AddressData (StringImplode.getImplodedNonEmpty (' ',
+                                                              StringHelper.trim (aUBLAddress.getStreetNameValue ()),
+                                                              StringHelper.trim (aUBLAddress.getBuildingNumberValue ())),
+                            StringHelper.trim (aUBLAddress.getPostboxValue ()),
+                            StringHelper.trim (aUBLAddress.getCityNameValue ()),
+                            StringHelper.trim (aUBLAddress.getPostalZoneValue ()),
+                            aUBLCountry != null,
+                            aUBLCountry == null ? null : StringHelper.trim (aUBLCountry.getIdentificationCodeValue ()),
+                            aUBLCountry == null ? null : StringHelper.trim (aUBLCountry.getNameValue ()));
+  }
+
+  /**
+   * Build the version independent data of a UBL party. Nothing is reported
+   * here - missing values are reported when the party is projected into an
+   * ebInterface version.
+   *
+   * @param aUBLParty
+   *        The UBL party. May be <code>null</code>.
+   * @return <code>null</code> if no party was passed.
+   */
+  @Nullable
+  protected static PartyData createPartyData (@Nullable final PartyType aUBLParty)
+  {
+    if (aUBLParty == null)
+      return null;
+
+    // Convert name
+    String sName = null;
+    final PartyNameType aUBLPartyName = CollectionHelper.getAtIndex (aUBLParty.getPartyName (), 0);
+    if (aUBLPartyName != null)
+      sName = StringHelper.trim (aUBLPartyName.getNameValue ());
+    if (sName == null && aUBLParty.hasPartyLegalEntityEntries ())
+    {
+      // For EN set from cac:PartyLegalEntity/cbc:RegistrationName
+      sName = StringHelper.trim (aUBLParty.getPartyLegalEntityAtIndex (0).getRegistrationNameValue ());
+    }
+
+    // Contact
+    final ContactType aUBLContact = aUBLParty.getContact ();
+    String sPhone = null;
+    String sEmail = null;
+    final ICommonsList <String> aContactNames = new CommonsArrayList <> ();
+    if (aUBLContact != null)
+    {
+      sPhone = StringHelper.trim (aUBLContact.getTelephoneValue ());
+      sEmail = StringHelper.trim (aUBLContact.getElectronicMailValue ());
+      if (StringHelper.isNotEmptyAfterTrim (aUBLContact.getNameValue ()))
+        aContactNames.add (StringHelper.trim (aUBLContact.getNameValue ()));
+    }
+
+    // Person name
+    String sSalutation = null;
+    for (final PersonType aUBLPerson : aUBLParty.getPerson ())
+    {
+      if (StringHelper.isEmpty (sSalutation))
+        sSalutation = StringHelper.trim (aUBLPerson.getGenderCodeValue ());
+      aContactNames.add (StringImplode.getImplodedNonEmpty (' ',
+                                                            StringHelper.trim (aUBLPerson.getTitleValue ()),
+                                                            StringHelper.trim (aUBLPerson.getFirstNameValue ()),
+                                                            StringHelper.trim (aUBLPerson.getMiddleNameValue ()),
+                                                            StringHelper.trim (aUBLPerson.getFamilyNameValue ()),
+                                                            StringHelper.trim (aUBLPerson.getNameSuffixValue ())));
+    }
+
+    // GLN and DUNS number
+    String sEndpointID = null;
+    String sEndpointSchemeID = null;
+    if (aUBLParty.getEndpointID () != null)
+    {
+      sEndpointID = StringHelper.trim (aUBLParty.getEndpointIDValue ());
+      sEndpointSchemeID = aUBLParty.getEndpointID ().getSchemeID ();
+    }
+
+    // Find the tax scheme that uses VAT
+    String sVATIdentificationNumber = null;
+    for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
+    {
+      // TaxScheme is a mandatory field
+      if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
+      {
+        sVATIdentificationNumber = StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ());
+        break;
+      }
+    }
+
+    return new PartyData (aUBLParty.getPartyNameCount () > 1,
+                          sName,
+                          createAddressData (aUBLParty.getPostalAddress ()),
+                          aUBLContact != null || !aUBLParty.getPerson ().isEmpty (),
+                          sPhone,
+                          sEmail,
+                          aContactNames.isEmpty () ? null : StringImplode.getImplodedNonEmpty ('\n', aContactNames),
+                          sSalutation,
+                          sEndpointID,
+                          sEndpointSchemeID,
+                          aUBLParty.getPartyIdentification (),
+                          sVATIdentificationNumber);
+  }
+
+  @NonNull
+  private static LineData _createLineData (@Nullable final String sID,
+                                           @NonNull final ItemType aUBLItem,
+                                           @NonNull final List <NoteType> aUBLNotes,
+                                           @Nullable final String sQuantityUnitCode,
+                                           @Nullable final BigDecimal aQuantity,
+                                           @Nullable final PriceType aUBLPrice,
+                                           @Nullable final BigDecimal aLineExtensionAmount,
+                                           @NonNull final List <TaxTotalType> aUBLTaxTotals,
+                                           @NonNull final List <OrderLineReferenceType> aUBLOrderLineReferences,
+                                           @NonNull final List <AllowanceChargeType> aUBLAllowanceCharges,
+                                           @NonNull final List <DeliveryType> aUBLDeliveries,
+                                           @NonNull final TaxTable aTaxTable)
+  {
+    // Try to resolve tax category
+    TaxCategoryType aUBLTaxCategory = CollectionHelper.getAtIndex (aUBLItem.getClassifiedTaxCategory (), 0);
+    if (aUBLTaxCategory == null)
+    {
+      // No direct tax category -> check if it is somewhere in the tax total
+      aUBLTaxCategory = findTaxCategory (aUBLTaxTotals);
+    }
+
+    // Try to resolve tax percentage
+    BigDecimal aUBLPercent = null;
+    String sUBLTaxCategoryID = null;
+    String sTaxExemptionReason = null;
+    if (aUBLTaxCategory != null)
+    {
+      sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getIDValue ());
+
+      // Specified at tax category?
+      if (aUBLTaxCategory.getPercent () != null)
+        aUBLPercent = aUBLTaxCategory.getPercentValue ();
+
+      if (aUBLPercent == null)
+      {
+        // Not specified - check from the tax totals
+        aUBLPercent = aTaxTable.getPercentage (aUBLTaxCategory);
+      }
+
+      if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
+        sTaxExemptionReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
+      if (sTaxExemptionReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
+        sTaxExemptionReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
+    }
+
+    final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
+    if (bTaxExemption && aUBLPercent == null)
+      aUBLPercent = BigDecimal.ZERO;
+
+    // Use item name, descriptions and the Note elements (IBM, 2016-11) as
+    // description
+    final ICommonsList <String> aDescriptions = new CommonsArrayList <> ();
+    final NameType aUBLName = aUBLItem.getName ();
+    if (aUBLName != null)
+    {
+      final String sDesc = StringHelper.trim (aUBLName.getValue ());
+      if (StringHelper.isNotEmpty (sDesc))
+        aDescriptions.add (sDesc);
+    }
+    for (final DescriptionType aUBLDescription : aUBLItem.getDescription ())
+    {
+      final String sDesc = StringHelper.trim (aUBLDescription.getValue ());
+      if (StringHelper.isNotEmpty (sDesc))
+        aDescriptions.add (sDesc);
+    }
+    for (final NoteType aUBLNote : aUBLNotes)
+    {
+      final String sDesc = StringHelper.trim (aUBLNote.getValue ());
+      if (StringHelper.isNotEmpty (sDesc))
+        aDescriptions.add (sDesc);
+    }
+
+    // Only the first order line reference with a line ID is used
+    boolean bHasOrderLineReference = false;
+    String sOrderLineReferenceOrderID = null;
+    String sOrderLineReferenceLineID = null;
+    for (final OrderLineReferenceType aUBLOrderLineReference : aUBLOrderLineReferences)
+      if (StringHelper.isNotEmpty (aUBLOrderLineReference.getLineIDValue ()))
+      {
+        bHasOrderLineReference = true;
+        if (aUBLOrderLineReference.getOrderReference () != null)
+          sOrderLineReferenceOrderID = StringHelper.trim (aUBLOrderLineReference.getOrderReference ().getIDValue ());
+        sOrderLineReferenceLineID = StringHelper.trim (aUBLOrderLineReference.getLineIDValue ());
+        break;
+      }
+
+    // Reduction and surcharge
+    final ICommonsList <AllowanceChargeData> aAllowanceCharges = new CommonsArrayList <> (aUBLAllowanceCharges.size ());
+    for (final AllowanceChargeType aUBLAllowanceCharge : aUBLAllowanceCharges)
+      aAllowanceCharges.add (new AllowanceChargeData (aUBLAllowanceCharge.getChargeIndicator ().isValue (),
+                                                      aUBLAllowanceCharge.getAmountValue (),
+                                                      aUBLAllowanceCharge.getBaseAmountValue (),
+                                                      aUBLAllowanceCharge.getMultiplierFactorNumericValue (),
+                                                      getAllowanceChargeComment (aUBLAllowanceCharge)));
+
+    // Additional item properties
+    final ICommonsList <Map.Entry <String, String>> aAdditionalProperties = new CommonsArrayList <> ();
+    for (final ItemPropertyType aUBLItemProperty : aUBLItem.getAdditionalItemProperty ())
+    {
+      String sKey = null;
+      // Key is Name or ID
+      if (aUBLItemProperty.getName () != null)
+        sKey = aUBLItemProperty.getName ().getValue ();
+      if (StringHelper.isEmpty (sKey))
+        sKey = aUBLItemProperty.getIDValue ();
+
+      // Value is Value :)
+      final String sValue = aUBLItemProperty.getValueValue ();
+
+      // Use only, if both fields are present
+      if (StringHelper.isNotEmpty (sKey) && StringHelper.isNotEmpty (sValue))
+        aAdditionalProperties.add (new AbstractMap.SimpleImmutableEntry <> (sKey, sValue));
+    }
+
+    final String sTrimmedID = StringHelper.trim (sID);
+    return new LineData (sTrimmedID,
+                         StringParser.parseBigInteger (sTrimmedID),
+                         aDescriptions,
+                         StringHelper.trim (sQuantityUnitCode),
+                         aQuantity,
+                         aUBLPrice != null,
+                         aUBLPrice == null ? null : aUBLPrice.getPriceAmountValue (),
+                         aUBLPrice == null ? null : aUBLPrice.getBaseQuantityValue (),
+                         aLineExtensionAmount,
+                         sUBLTaxCategoryID,
+                         aUBLPercent,
+                         bTaxExemption,
+                         sTaxExemptionReason,
+                         bHasOrderLineReference,
+                         sOrderLineReferenceOrderID,
+                         sOrderLineReferenceLineID,
+                         aAllowanceCharges,
+                         CollectionHelper.getAtIndex (aUBLDeliveries, 0),
+                         aAdditionalProperties);
+  }
+
+  /**
+   * Build the version independent data of a UBL invoice line. Nothing is
+   * reported here - missing values are reported when the line is projected
+   * into an ebInterface version.
+   *
+   * @param aUBLLine
+   *        The UBL invoice line. May not be <code>null</code>.
+   * @param aTaxTable
+   *        The tax table of the document, to resolve the tax percentage. May
+   *        not be <code>null</code>.
+   * @return The line data. Never <code>null</code>.
+   */
+  @NonNull
+  protected static LineData createLineData (@NonNull final InvoiceLineType aUBLLine, @NonNull final TaxTable aTaxTable)
+  {
+    return _createLineData (aUBLLine.getIDValue (),
+                            aUBLLine.getItem (),
+                            aUBLLine.getNote (),
+                            aUBLLine.getInvoicedQuantity () == null ? null : aUBLLine.getInvoicedQuantity ().getUnitCode (),
+                            aUBLLine.getInvoicedQuantityValue (),
+                            aUBLLine.getPrice (),
+                            aUBLLine.getLineExtensionAmountValue (),
+                            aUBLLine.getTaxTotal (),
+                            aUBLLine.getOrderLineReference (),
+                            aUBLLine.getAllowanceCharge (),
+                            aUBLLine.getDelivery (),
+                            aTaxTable);
+  }
+
+  /**
+   * Build the version independent data of a UBL credit note line. Nothing is
+   * reported here - missing values are reported when the line is projected
+   * into an ebInterface version.
+   *
+   * @param aUBLLine
+   *        The UBL credit note line. May not be <code>null</code>.
+   * @param aTaxTable
+   *        The tax table of the document, to resolve the tax percentage. May
+   *        not be <code>null</code>.
+   * @return The line data. Never <code>null</code>.
+   */
+  @NonNull
+  protected static LineData createLineData (@NonNull final CreditNoteLineType aUBLLine,
+                                            @NonNull final TaxTable aTaxTable)
+  {
+    return _createLineData (aUBLLine.getIDValue (),
+                            aUBLLine.getItem (),
+                            aUBLLine.getNote (),
+                            aUBLLine.getCreditedQuantity () == null ? null : aUBLLine.getCreditedQuantity ().getUnitCode (),
+                            aUBLLine.getCreditedQuantityValue (),
+                            aUBLLine.getPrice (),
+                            aUBLLine.getLineExtensionAmountValue (),
+                            aUBLLine.getTaxTotal (),
+                            aUBLLine.getOrderLineReference (),
+                            aUBLLine.getAllowanceCharge (),
+                            aUBLLine.getDelivery (),
+                            aTaxTable);
+  }
+
+  /**
+   * Check the consistency of the passed UBL invoice and create the version
+   * independent part of it, so that it can be projected into several
+   * ebInterface versions without repeating the work.
+   *
+   * @param aUBLInvoice
+   *        The UBL invoice. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list to be filled. May not be <code>null</code>.
+   * @return <code>null</code> if the consistency check failed.
+   */
+  @Nullable
+  protected final IntermediateDocument <InvoiceType> createIntermediateDocument (@NonNull final InvoiceType aUBLInvoice,
+                                                                                 @NonNull final ErrorList aTransformationErrorList)
+  {
+    checkInvoiceConsistency (aUBLInvoice, aTransformationErrorList);
+    if (aTransformationErrorList.containsAtLeastOneError ())
+      return null;
+    final DocumentHeader aHeader = createDocumentHeader (aUBLInvoice, aTransformationErrorList);
+    final TaxTable aTaxTable = createTaxTable (aUBLInvoice.getTaxTotal (), aTransformationErrorList);
+    final CustomerPartyType aUBLBuyer = aUBLInvoice.getBuyerCustomerParty ();
+    final ICommonsList <LineData> aLines = new CommonsArrayList <> (aUBLInvoice.getInvoiceLineCount ());
+    for (final InvoiceLineType aUBLLine : aUBLInvoice.getInvoiceLine ())
+      aLines.add (createLineData (aUBLLine, aTaxTable));
+    return new IntermediateDocument <> (aUBLInvoice,
+                                        aHeader,
+                                        aTaxTable,
+                                        createPartyData (aUBLInvoice.getAccountingSupplierParty ().getParty ()),
+                                        createPartyData (aUBLInvoice.getAccountingCustomerParty ().getParty ()),
+                                        aUBLBuyer == null ? null : createPartyData (aUBLBuyer.getParty ()),
+                                        aLines);
+  }
+
+  /**
+   * Check the consistency of the passed UBL credit note and create the version
+   * independent part of it, so that it can be projected into several
+   * ebInterface versions without repeating the work.
+   *
+   * @param aUBLCreditNote
+   *        The UBL credit note. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        The error list to be filled. May not be <code>null</code>.
+   * @return <code>null</code> if the consistency check failed.
+   */
+  @Nullable
+  protected final IntermediateDocument <CreditNoteType> createIntermediateDocument (@NonNull final CreditNoteType aUBLCreditNote,
+                                                                                    @NonNull final ErrorList aTransformationErrorList)
+  {
+    checkCreditNoteConsistency (aUBLCreditNote, aTransformationErrorList);
+    if (aTransformationErrorList.containsAtLeastOneError ())
+      return null;
+    final DocumentHeader aHeader = createDocumentHeader (aUBLCreditNote, aTransformationErrorList);
+    final TaxTable aTaxTable = createTaxTable (aUBLCreditNote.getTaxTotal (), aTransformationErrorList);
+    final CustomerPartyType aUBLBuyer = aUBLCreditNote.getBuyerCustomerParty ();
+    final ICommonsList <LineData> aLines = new CommonsArrayList <> (aUBLCreditNote.getCreditNoteLineCount ());
+    for (final CreditNoteLineType aUBLLine : aUBLCreditNote.getCreditNoteLine ())
+      aLines.add (createLineData (aUBLLine, aTaxTable));
+    return new IntermediateDocument <> (aUBLCreditNote,
+                                        aHeader,
+                                        aTaxTable,
+                                        createPartyData (aUBLCreditNote.getAccountingSupplierParty ().getParty ()),
+                                        createPartyData (aUBLCreditNote.getAccountingCustomerParty ().getParty ()),
+                                        aUBLBuyer == null ? null : createPartyData (aUBLBuyer.getParty ()),
+                                        aLines);
+  }
+
+  /**
+   * Internal entry point for {@link ToEbInterfaceFanOutConverter}: project an
+   * intermediate document into the ebInterface version of this converter. The
+   * consistency check, the header data and the tax table are taken from the
+   * intermediate document and their errors are not reported again.
+   *
+   * @param aIntermediateDoc
+   *        The intermediate document created from a UBL document of the type
+   *        supported by this converter. May not be <code>null</code>.
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return The created ebInterface document or <code>null</code> in case of a
+   *         severe error.
+   */
+  @Nullable
+  protected abstract Object convertIntermediateDocument (@NonNull IntermediateDocument <?> aIntermediateDoc,
+                                                         @NonNull ErrorList aTransformationErrorList);
 }
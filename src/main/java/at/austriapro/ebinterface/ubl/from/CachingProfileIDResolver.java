@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.peppolid.IProcessIdentifier;
+
+import at.austriapro.ebinterface.ubl.helper.BoundedLRUCache;
+
+/**
+ * A {@link IProfileIDResolver} that caches the results of another resolver.
+ * Profile IDs that cannot be resolved are cached as well, so that an invalid
+ * profile ID is only resolved once. They are kept in a separate, smaller
+ * cache, so that a flood of invalid profile IDs cannot evict the valid ones.
+ * The number of cached profile IDs is bounded and the least recently used one
+ * is evicted if the limit is exceeded (see {@link BoundedLRUCache} for the
+ * approximated recency). Lookups of cached profile IDs don't need a lock and
+ * usually don't write shared state.
+ * <p>
+ * Usage:
+ * <code>aSettings.setProfileIDResolver (IProfileIDResolver.getDefault ().withCache (100))</code>
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class CachingProfileIDResolver implements IProfileIDResolver
+{
+  public static final int DEFAULT_MAX_SIZE = 100;
+  public static final int DEFAULT_MAX_NEGATIVE_SIZE = 10;
+
+  private final IProfileIDResolver m_aDelegate;
+  private final BoundedLRUCache <String, IProcessIdentifier> m_aCache;
+  // Profile IDs that could not be resolved - the cache does not accept null
+  private final BoundedLRUCache <String, Boolean> m_aNegativeCache;
+  private final LongAdder m_aHits = new LongAdder ();
+  private final LongAdder m_aMisses = new LongAdder ();
+
+  /**
+   * Constructor with the default maximum size of {@value #DEFAULT_MAX_SIZE}.
+   *
+   * @param aDelegate
+   *        The resolver to be cached. May not be <code>null</code>.
+   */
+  public CachingProfileIDResolver (@NonNull final IProfileIDResolver aDelegate)
+  {
+    this (aDelegate, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Constructor. At most {@value #DEFAULT_MAX_NEGATIVE_SIZE} profile IDs that
+   * cannot be resolved are cached, but not more than the passed maximum size.
+   *
+   * @param aDelegate
+   *        The resolver to be cached. May not be <code>null</code>.
+   * @param nMaxSize
+   *        The maximum number of resolvable profile IDs to cache. Must be
+   *        &gt; 0.
+   */
+  public CachingProfileIDResolver (@NonNull final IProfileIDResolver aDelegate, final int nMaxSize)
+  {
+    this (aDelegate, nMaxSize, Math.min (nMaxSize, DEFAULT_MAX_NEGATIVE_SIZE));
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aDelegate
+   *        The resolver to be cached. May not be <code>null</code>.
+   * @param nMaxSize
+   *        The maximum number of resolvable profile IDs to cache. Must be
+   *        &gt; 0.
+   * @param nMaxNegativeSize
+   *        The maximum number of profile IDs to cache that cannot be
+   *        resolved. Must be &gt; 0.
+   */
+  public CachingProfileIDResolver (@NonNull final IProfileIDResolver aDelegate,
+                                   final int nMaxSize,
+                                   final int nMaxNegativeSize)
+  {
+    ValueEnforcer.notNull (aDelegate, "Delegate");
+    ValueEnforcer.isGT0 (nMaxSize, "MaxSize");
+    ValueEnforcer.isGT0 (nMaxNegativeSize, "MaxNegativeSize");
+    m_aDelegate = aDelegate;
+    m_aCache = new BoundedLRUCache <> (nMaxSize);
+    m_aNegativeCache = new BoundedLRUCache <> (nMaxNegativeSize);
+  }
+
+  /**
+   * @return The resolver whose results are cached. Never <code>null</code>.
+   */
+  @NonNull
+  public final IProfileIDResolver getDelegate ()
+  {
+    return m_aDelegate;
+  }
+
+  /**
+   * @return The maximum number of cached resolvable profile IDs. Always &gt;
+   *         0.
+   */
+  @Nonnegative
+  public final int getMaxSize ()
+  {
+    return m_aCache.getMaxSize ();
+  }
+
+  /**
+   * @return The maximum number of cached profile IDs that cannot be resolved.
+   *         Always &gt; 0.
+   */
+  @Nonnegative
+  public final int getMaxNegativeSize ()
+  {
+    return m_aNegativeCache.getMaxSize ();
+  }
+
+  /**
+   * {@inheritDoc} Caching does not change the results, so this is the
+   * identity of the delegate resolver.
+   */
+  @Override
+  @Nullable
+  public String getCacheIdentity ()
+  {
+    return IProfileIDResolver.getCacheIdentityOf (m_aDelegate);
+  }
+
+  @Override
+  @Nullable
+  public IProcessIdentifier apply (@Nullable final String sProfileID)
+  {
+    if (sProfileID == null)
+    {
+      // Cannot be used as a key
+      return m_aDelegate.apply (sProfileID);
+    }
+
+    final IProcessIdentifier aCachedProcID = m_aCache.get (sProfileID);
+    if (aCachedProcID != null)
+    {
+      m_aHits.increment ();
+      return aCachedProcID;
+    }
+    if (m_aNegativeCache.get (sProfileID) != null)
+    {
+      m_aHits.increment ();
+      return null;
+    }
+
+    m_aMisses.increment ();
+    final IProcessIdentifier aProcID = m_aDelegate.apply (sProfileID);
+    if (aProcID != null)
+      m_aCache.put (sProfileID, aProcID);
+    else
+      m_aNegativeCache.put (sProfileID, Boolean.TRUE);
+    return aProcID;
+  }
+
+  /**
+   * @return The number of lookups that were answered from the cache.
+   */
+  @Nonnegative
+  public final long getHitCount ()
+  {
+    return m_aHits.sum ();
+  }
+
+  /**
+   * @return The number of lookups that needed the delegate resolver.
+   */
+  @Nonnegative
+  public final long getMissCount ()
+  {
+    return m_aMisses.sum ();
+  }
+
+  /**
+   * @return The number of currently cached profile IDs, including the ones
+   *         that could not be resolved.
+   */
+  @Nonnegative
+  public final int getCachedCount ()
+  {
+    return m_aCache.size () + m_aNegativeCache.size ();
+  }
+
+  /**
+   * @return The number of currently cached profile IDs that could not be
+   *         resolved.
+   */
+  @Nonnegative
+  public final int getCachedNegativeCount ()
+  {
+    return m_aNegativeCache.size ();
+  }
+
+  /**
+   * Remove all cached profile IDs. The hit and miss counters are not reset.
+   */
+  public final void clearCache ()
+  {
+    m_aCache.clear ();
+    m_aNegativeCache.clear ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Delegate", m_aDelegate)
+                                       .append ("MaxSize", getMaxSize ())
+                                       .append ("MaxNegativeSize", getMaxNegativeSize ())
+                                       .append ("CachedCount", m_aCache.size ())
+                                       .append ("CachedNegativeCount", m_aNegativeCache.size ())
+                                       .append ("Hits", getHitCount ())
+                                       .append ("Misses", getMissCount ())
+                                       .getToString ();
+  }
+}
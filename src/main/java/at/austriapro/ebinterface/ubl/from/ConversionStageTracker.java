@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.jfr.ConversionEvent;
+import at.austriapro.ebinterface.ubl.jfr.ConversionStageEvent;
+import at.austriapro.ebinterface.ubl.metrics.ConversionMetrics;
+
+/**
+ * Tracks a single conversion. The total duration and the error list are
+ * reported to the {@link ConversionMetrics} and, if recorded, as Java Flight
+ * Recorder event. The individual stages are reported to an optional
+ * {@link IConversionStageListener} and as Java Flight Recorder stage events.
+ * Starting a stage ends the previous one. Without a listener and without a
+ * running recording the stages cost only a field assignment.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ConversionStageTracker
+{
+  private final IConversionStageListener m_aListener;
+  private final Class <?> m_aConverterClass;
+  private final EConversionDirection m_eDirection;
+  private final EEbInterfaceVersion m_eVersion;
+  private final String m_sDocumentNumber;
+  private final ErrorList m_aErrorList;
+  private final long m_nConversionStartNanos;
+  private final ConversionEvent m_aConversionEvent;
+  private final boolean m_bStageEvents;
+  private final boolean m_bTrackStages;
+  private EConversionStage m_eStage;
+  private ConversionStageEvent m_aStageEvent;
+  private long m_nStartNanos;
+  private int m_nItemCount;
+  private int m_nStartErrorCount;
+  private int m_nLineCount;
+  private int m_nScannedErrorListSize;
+  private int m_nErrorCount;
+
+  private ConversionStageTracker (@Nullable final IConversionStageListener aListener,
+                                  @NonNull final EConversionDirection eDirection,
+                                  @NonNull final EEbInterfaceVersion eVersion,
+                                  @NonNull final Class <?> aConverterClass,
+                                  @Nullable final String sDocumentNumber,
+                                  @NonNull final ErrorList aErrorList)
+  {
+    m_aListener = aListener;
+    m_aConverterClass = aConverterClass;
+    m_eDirection = eDirection;
+    m_eVersion = eVersion;
+    m_sDocumentNumber = sDocumentNumber;
+    m_aErrorList = aErrorList;
+    m_aConversionEvent = ConversionEvent.isRecorded () ? ConversionEvent.start (eDirection, eVersion, aConverterClass)
+                                                       : null;
+    m_bStageEvents = ConversionStageEvent.isRecorded ();
+    m_bTrackStages = aListener != null || m_bStageEvents;
+    m_nConversionStartNanos = System.nanoTime ();
+  }
+
+  /**
+   * @param aListener
+   *        The listener to report the stages to. May be <code>null</code>.
+   * @param eDirection
+   *        The conversion direction. May not be <code>null</code>.
+   * @param eVersion
+   *        The target ebInterface version. May not be <code>null</code>.
+   * @param aConverterClass
+   *        The class of the converter. May not be <code>null</code>.
+   * @param sDocumentNumber
+   *        The number of the source document. May be <code>null</code>.
+   * @param aErrorList
+   *        The error list of the conversion. May not be <code>null</code>.
+   * @return A new tracker that must be ended with {@link #end()}. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public static ConversionStageTracker create (@Nullable final IConversionStageListener aListener,
+                                               @NonNull final EConversionDirection eDirection,
+                                               @NonNull final EEbInterfaceVersion eVersion,
+                                               @NonNull final Class <?> aConverterClass,
+                                               @Nullable final String sDocumentNumber,
+                                               @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (eDirection, "Direction");
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aConverterClass, "ConverterClass");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    return new ConversionStageTracker (aListener, eDirection, eVersion, aConverterClass, sDocumentNumber, aErrorList);
+  }
+
+  /**
+   * @return <code>true</code> if the individual stages are reported to a
+   *         listener or to a recording.
+   */
+  public boolean isTrackingStages ()
+  {
+    return m_bTrackStages;
+  }
+
+  private int _getErrorCount ()
+  {
+    final int nSize = m_aErrorList.size ();
+    if (nSize != m_nScannedErrorListSize)
+    {
+      if (nSize < m_nScannedErrorListSize)
+      {
+        // The list was modified externally - count again
+        m_nScannedErrorListSize = 0;
+        m_nErrorCount = 0;
+      }
+      // Entries are only appended, so only the new ones need to be counted.
+      // The list only offers iteration, so the old ones are still skipped one
+      // by one - this is only done if the list grew and error lists are short.
+      int nIndex = 0;
+      for (final IError aError : m_aErrorList)
+      {
+        if (nIndex >= m_nScannedErrorListSize && aError.isError ())
+          m_nErrorCount++;
+        nIndex++;
+      }
+      m_nScannedErrorListSize = nIndex;
+    }
+    return m_nErrorCount;
+  }
+
+  private void _endStage ()
+  {
+    if (m_eStage == null)
+      return;
+
+    final EConversionStage eStage = m_eStage;
+    m_eStage = null;
+    if (eStage == EConversionStage.LINE_ITEMS)
+      m_nLineCount = m_nItemCount;
+    if (!m_bTrackStages)
+      return;
+
+    final long nDurationNanos = System.nanoTime () - m_nStartNanos;
+    final int nErrorCount = _getErrorCount () - m_nStartErrorCount;
+    if (m_aStageEvent != null)
+    {
+      m_aStageEvent.finish (m_nItemCount, nErrorCount);
+      m_aStageEvent = null;
+    }
+    if (m_aListener != null)
+      m_aListener.onStageEnd (eStage, nDurationNanos, m_nItemCount, nErrorCount);
+  }
+
+  /**
+   * End the current stage, if any, and start the provided one.
+   *
+   * @param eStage
+   *        The stage to start. May not be <code>null</code>.
+   */
+  public void begin (@NonNull final EConversionStage eStage)
+  {
+    begin (eStage, 0);
+  }
+
+  /**
+   * End the current stage, if any, and start the provided one.
+   *
+   * @param eStage
+   *        The stage to start. May not be <code>null</code>.
+   * @param nItemCount
+   *        The number of items processed in the stage, if known upfront.
+   */
+  public void begin (@NonNull final EConversionStage eStage, @Nonnegative final int nItemCount)
+  {
+    _endStage ();
+    m_eStage = eStage;
+    m_nItemCount = nItemCount;
+    if (!m_bTrackStages)
+      return;
+
+    m_nStartErrorCount = _getErrorCount ();
+    if (m_aListener != null)
+      m_aListener.onStageStart (eStage);
+    if (m_bStageEvents)
+      m_aStageEvent = ConversionStageEvent.start (eStage);
+    // Start the clock after the listener was called
+    m_nStartNanos = System.nanoTime ();
+  }
+
+  /**
+   * Set the number of items processed in the current stage, if it is only
+   * known at the end.
+   *
+   * @param nItemCount
+   *        The number of items.
+   */
+  public void setItemCount (@Nonnegative final int nItemCount)
+  {
+    m_nItemCount = nItemCount;
+  }
+
+  /**
+   * End the current stage, if any, and the whole conversion. Must be called
+   * exactly once per conversion.
+   */
+  public void end ()
+  {
+    _endStage ();
+    ConversionMetrics.onConversion (m_aConverterClass,
+                                    m_eDirection,
+                                    m_eVersion,
+                                    System.nanoTime () - m_nConversionStartNanos,
+                                    m_aErrorList);
+    if (m_aConversionEvent != null)
+      m_aConversionEvent.finish (m_sDocumentNumber, m_nLineCount, m_aErrorList);
+  }
+}
@@ -0,0 +1,685 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+
+/**
+ * A persistent index of already processed invoices, to detect duplicates
+ * without a database. It is a hash table with open addressing in a
+ * memory-mapped file, that only stores a 64 bit fingerprint per
+ * {@link DuplicateInvoiceKey}. Entries are only ever added, never modified or
+ * removed, so a process crash cannot corrupt the index. When the table is half
+ * full, it is copied into a new file with twice the size, which is only used
+ * after it was completely written. The copy is done incrementally: every call
+ * to {@link #add(DuplicateInvoiceKey)} copies a few slots, so that no single
+ * call has to wait for the whole table to be copied. Until the copy is
+ * complete, the old table stays authoritative and new entries are added to
+ * both tables.
+ * <p>
+ * The index is kept in its own directory. Each slot needs 8 bytes, so e.g. 10
+ * million invoices need a file of 256 MB. The maximum number of invoices is
+ * about {@value #MAX_CAPACITY} * 7 / 8. Because only fingerprints are stored,
+ * two different invoices are mistaken as duplicates with a probability of
+ * about n / 2<sup>64</sup> (see {@link DuplicateInvoiceKey#getFingerprint()})
+ * - as this only leads to a warning, this is acceptable.<br>
+ * Added entries survive a crash of the process. Call {@link #flush()} to make
+ * them survive a crash of the operating system as well. An index directory
+ * can only be used by one instance at a time, which is enforced with a file
+ * lock.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class DuplicateInvoiceIndex implements AutoCloseable
+{
+  @Translatable
+  public enum EText implements IHasDisplayTextWithArgs
+  {
+    DUPLICATE_INVOICE ("Die Rechnung ''{1}'' vom {2} des Rechnungsstellers ''{0}'' wurde bereits verarbeitet.",
+                       "The invoice ''{1}'' of {2} from biller ''{0}'' was already processed."),
+    DUPLICATE_CHECK_FAILED ("Die Prüfung auf doppelte Rechnungen ist fehlgeschlagen: {0}",
+                            "Failed to check for duplicate invoices: {0}");
+
+    private final IMultilingualText m_aTP;
+
+    EText (@NonNull final String sDE, @NonNull final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  public static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+  /** The maximum number of slots, so that a file fits into a single mapping */
+  public static final int MAX_CAPACITY = 1 << 27;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (DuplicateInvoiceIndex.class);
+  private static final String FILE_PREFIX = "duplicate-index-";
+  private static final String FILE_EXTENSION = ".dat";
+  private static final int FILE_MAGIC = 0x45424449;
+  // Version 2: the fingerprint contains the document type
+  private static final int FILE_FORMAT_VERSION = 2;
+  // Magic, version, capacity and a reserved int
+  private static final int HEADER_SIZE = 16;
+  private static final int MIN_CAPACITY = 16;
+  private static final String LOCK_FILE_NAME = "duplicate-index.lock";
+  // The number of old slots copied into the grown table per added entry
+  static final int MIGRATION_SLOTS_PER_ADD = 256;
+
+  private final Path m_aDirectory;
+  // Holds the file lock of the directory
+  private final FileChannel m_aLockChannel;
+  private final LongAdder m_aDuplicates = new LongAdder ();
+  private final Object m_aLock = new Object ();
+  @GuardedBy ("m_aLock")
+  private Path m_aFile;
+  @GuardedBy ("m_aLock")
+  private MappedByteBuffer m_aBuffer;
+  @GuardedBy ("m_aLock")
+  private int m_nCapacity;
+  @GuardedBy ("m_aLock")
+  private int m_nEntryCount;
+  // The grown table while it is filled - null if not growing
+  @GuardedBy ("m_aLock")
+  private Path m_aNewFile;
+  @GuardedBy ("m_aLock")
+  private MappedByteBuffer m_aNewBuffer;
+  @GuardedBy ("m_aLock")
+  private int m_nNewCapacity;
+  @GuardedBy ("m_aLock")
+  private int m_nMigratedSlots;
+
+  /**
+   * Open or create an index with the default initial capacity.
+   *
+   * @param aDirectory
+   *        The directory of the index. May not be <code>null</code>. Is created
+   *        if it does not exist.
+   * @throws IOException
+   *         If the index cannot be opened or created, or if it is used by
+   *         another instance
+   */
+  public DuplicateInvoiceIndex (@NonNull final Path aDirectory) throws IOException
+  {
+    this (aDirectory, DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Open or create an index.
+   *
+   * @param aDirectory
+   *        The directory of the index. May not be <code>null</code>. Is created
+   *        if it does not exist.
+   * @param nInitialCapacity
+   *        The number of slots of a new index. Rounded up to the next power of
+   *        two. Must be &gt; 0. Ignored if the index already exists.
+   * @throws IOException
+   *         If the index cannot be opened or created, or if it is used by
+   *         another instance
+   */
+  public DuplicateInvoiceIndex (@NonNull final Path aDirectory, @Nonnegative final int nInitialCapacity) throws IOException
+  {
+    ValueEnforcer.notNull (aDirectory, "Directory");
+    ValueEnforcer.isBetweenInclusive (nInitialCapacity, "InitialCapacity", 1, MAX_CAPACITY);
+    m_aDirectory = aDirectory;
+    Files.createDirectories (aDirectory);
+    m_aLockChannel = _lockDirectory (aDirectory);
+    try
+    {
+      _open (nInitialCapacity);
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      m_aLockChannel.close ();
+      throw ex;
+    }
+  }
+
+  /**
+   * Lock the directory, so that it cannot be used by another instance, also
+   * not from another process.
+   *
+   * @return The channel holding the lock. Closing it releases the lock.
+   */
+  @NonNull
+  private static FileChannel _lockDirectory (@NonNull final Path aDirectory) throws IOException
+  {
+    final FileChannel aChannel = FileChannel.open (aDirectory.resolve (LOCK_FILE_NAME),
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE);
+    FileLock aFileLock;
+    try
+    {
+      aFileLock = aChannel.tryLock ();
+    }
+    catch (final OverlappingFileLockException ex)
+    {
+      // Locked by this process
+      aFileLock = null;
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      aChannel.close ();
+      throw ex;
+    }
+    if (aFileLock == null)
+    {
+      aChannel.close ();
+      throw new IOException ("The duplicate index " + aDirectory + " is already used by another instance");
+    }
+    return aChannel;
+  }
+
+  private void _open (final int nInitialCapacity) throws IOException
+  {
+    synchronized (m_aLock)
+    {
+      // Use the largest complete file - smaller ones are leftovers of a growth
+      Path aBestFile = null;
+      int nBestCapacity = 0;
+      try (final DirectoryStream <Path> aFiles = Files.newDirectoryStream (m_aDirectory,
+                                                                            FILE_PREFIX + "*" + FILE_EXTENSION))
+      {
+        for (final Path aFile : aFiles)
+        {
+          final int nCapacity = _readCapacity (aFile);
+          if (nCapacity > nBestCapacity)
+          {
+            aBestFile = aFile;
+            nBestCapacity = nCapacity;
+          }
+        }
+      }
+
+      if (aBestFile != null)
+      {
+        m_aFile = aBestFile;
+        m_nCapacity = nBestCapacity;
+        m_aBuffer = _map (aBestFile, nBestCapacity);
+        int nCount = 0;
+        for (int i = 0; i < nBestCapacity; ++i)
+          if (m_aBuffer.getLong (_getOffset (i)) != 0)
+            nCount++;
+        m_nEntryCount = nCount;
+      }
+      else
+      {
+        final int nCapacity = Math.max (MIN_CAPACITY, Integer.highestOneBit (nInitialCapacity - 1) << 1);
+        m_aFile = _getFile (nCapacity);
+        m_nCapacity = nCapacity;
+        m_aBuffer = _create (m_aFile, nCapacity);
+        _complete (m_aBuffer);
+        m_nEntryCount = 0;
+      }
+      _deleteOtherFiles ();
+    }
+  }
+
+  @NonNull
+  private Path _getFile (final int nCapacity)
+  {
+    return m_aDirectory.resolve (FILE_PREFIX + nCapacity + FILE_EXTENSION);
+  }
+
+  private static int _getOffset (final int nSlot)
+  {
+    return HEADER_SIZE + nSlot * Long.BYTES;
+  }
+
+  private static int _getSlot (final long nFingerprint, final int nCapacity)
+  {
+    return (int) (nFingerprint ^ (nFingerprint >>> 32)) & (nCapacity - 1);
+  }
+
+  /**
+   * @return The capacity of a complete index file or 0 if the file is
+   *         incomplete or no index file.
+   */
+  private static int _readCapacity (@NonNull final Path aFile)
+  {
+    try (final FileChannel aChannel = FileChannel.open (aFile, StandardOpenOption.READ))
+    {
+      if (aChannel.size () < HEADER_SIZE)
+        return 0;
+      final MappedByteBuffer aHeader = aChannel.map (FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (aHeader.getInt (0) != FILE_MAGIC || aHeader.getInt (4) != FILE_FORMAT_VERSION)
+        return 0;
+      final int nCapacity = aHeader.getInt (8);
+      if (nCapacity < MIN_CAPACITY ||
+          nCapacity > MAX_CAPACITY ||
+          Integer.bitCount (nCapacity) != 1 ||
+          aChannel.size () < _getOffset (nCapacity))
+        return 0;
+      return nCapacity;
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.warn ("Failed to read the duplicate index file " + aFile, ex);
+      return 0;
+    }
+  }
+
+  @NonNull
+  private static MappedByteBuffer _map (@NonNull final Path aFile, final int nCapacity) throws IOException
+  {
+    // The mapping stays valid after the channel is closed
+    try (final FileChannel aChannel = FileChannel.open (aFile, StandardOpenOption.READ, StandardOpenOption.WRITE))
+    {
+      return aChannel.map (FileChannel.MapMode.READ_WRITE, 0, _getOffset (nCapacity));
+    }
+  }
+
+  /**
+   * Create a new empty index file without the magic number, so that it is not
+   * used before {@link #_complete(MappedByteBuffer)} was called.
+   */
+  @NonNull
+  private static MappedByteBuffer _create (@NonNull final Path aFile, final int nCapacity) throws IOException
+  {
+    final MappedByteBuffer aBuffer;
+    try (final FileChannel aChannel = FileChannel.open (aFile,
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING,
+                                                        StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE))
+    {
+      aBuffer = aChannel.map (FileChannel.MapMode.READ_WRITE, 0, _getOffset (nCapacity));
+    }
+    aBuffer.putInt (4, FILE_FORMAT_VERSION);
+    aBuffer.putInt (8, nCapacity);
+    return aBuffer;
+  }
+
+  /**
+   * Mark an index file as complete. The magic number is written after all
+   * slots are on the storage device, so that an incomplete file is never used.
+   */
+  private static void _complete (@NonNull final MappedByteBuffer aBuffer)
+  {
+    aBuffer.force ();
+    aBuffer.putInt (0, FILE_MAGIC);
+    aBuffer.force ();
+  }
+
+  /**
+   * @return <code>true</code> if the fingerprint was added, <code>false</code>
+   *         if it was already contained.
+   */
+  private static boolean _insert (@NonNull final MappedByteBuffer aBuffer,
+                                  final int nCapacity,
+                                  final long nFingerprint)
+  {
+    int nSlot = _getSlot (nFingerprint, nCapacity);
+    while (true)
+    {
+      final int nOffset = _getOffset (nSlot);
+      final long nValue = aBuffer.getLong (nOffset);
+      if (nValue == nFingerprint)
+        return false;
+      if (nValue == 0)
+      {
+        aBuffer.putLong (nOffset, nFingerprint);
+        return true;
+      }
+      nSlot = (nSlot + 1) & (nCapacity - 1);
+    }
+  }
+
+  private void _deleteOtherFiles ()
+  {
+    try (final DirectoryStream <Path> aFiles = Files.newDirectoryStream (m_aDirectory,
+                                                                        FILE_PREFIX + "*" + FILE_EXTENSION))
+    {
+      for (final Path aFile : aFiles)
+        if (!aFile.equals (m_aFile))
+          try
+          {
+            Files.deleteIfExists (aFile);
+          }
+          catch (final IOException ex)
+          {
+            // E.g. still mapped on Windows - deleted on the next start
+            LOGGER.debug ("Failed to delete the old duplicate index file " + aFile, ex);
+          }
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.warn ("Failed to clean up the duplicate index directory " + m_aDirectory, ex);
+    }
+  }
+
+  @GuardedBy ("m_aLock")
+  private void _checkOpen ()
+  {
+    if (m_aBuffer == null)
+      throw new IllegalStateException ("The duplicate index " + m_aDirectory + " is closed");
+  }
+
+  @GuardedBy ("m_aLock")
+  private void _growIfNeeded () throws IOException
+  {
+    if (m_aNewBuffer != null)
+    {
+      _migrate ();
+      return;
+    }
+    if (m_nEntryCount < m_nCapacity / 2)
+      return;
+    if (m_nCapacity >= MAX_CAPACITY)
+    {
+      // Keep at least 1/8 of the slots free, so that the probe sequences stay
+      // short
+      if (m_nEntryCount >= m_nCapacity - m_nCapacity / 8)
+        throw new IllegalStateException ("The duplicate index " + m_aDirectory + " is full");
+      return;
+    }
+
+    // The old table receives at most m_nCapacity / MIGRATION_SLOTS_PER_ADD
+    // further entries until the copy is complete, so it cannot run full
+    final int nNewCapacity = m_nCapacity * 2;
+    final Path aNewFile = _getFile (nNewCapacity);
+    m_aNewBuffer = _create (aNewFile, nNewCapacity);
+    m_aNewFile = aNewFile;
+    m_nNewCapacity = nNewCapacity;
+    m_nMigratedSlots = 0;
+    _migrate ();
+  }
+
+  /**
+   * Copy the next slots of the old table into the grown table, and switch to
+   * the grown table when all slots are copied.
+   */
+  @GuardedBy ("m_aLock")
+  private void _migrate ()
+  {
+    final int nEnd = Math.min (m_nMigratedSlots + MIGRATION_SLOTS_PER_ADD, m_nCapacity);
+    for (int i = m_nMigratedSlots; i < nEnd; ++i)
+    {
+      final long nFingerprint = m_aBuffer.getLong (_getOffset (i));
+      if (nFingerprint != 0)
+        _insert (m_aNewBuffer, m_nNewCapacity, nFingerprint);
+    }
+    m_nMigratedSlots = nEnd;
+
+    if (nEnd == m_nCapacity)
+    {
+      _complete (m_aNewBuffer);
+      m_aFile = m_aNewFile;
+      m_aBuffer = m_aNewBuffer;
+      m_nCapacity = m_nNewCapacity;
+      m_aNewFile = null;
+      m_aNewBuffer = null;
+      _deleteOtherFiles ();
+      if (LOGGER.isDebugEnabled ())
+        LOGGER.debug ("Grew the duplicate index " + m_aDirectory + " to " + m_nCapacity + " slots");
+    }
+  }
+
+  /**
+   * Check if an invoice is contained, without adding it.
+   *
+   * @param aKey
+   *        The key of the invoice. May not be <code>null</code>.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean contains (@NonNull final DuplicateInvoiceKey aKey)
+  {
+    ValueEnforcer.notNull (aKey, "Key");
+    final long nFingerprint = aKey.getFingerprint ();
+    synchronized (m_aLock)
+    {
+      _checkOpen ();
+      int nSlot = _getSlot (nFingerprint, m_nCapacity);
+      while (true)
+      {
+        final long nValue = m_aBuffer.getLong (_getOffset (nSlot));
+        if (nValue == nFingerprint)
+          return true;
+        if (nValue == 0)
+          return false;
+        nSlot = (nSlot + 1) & (m_nCapacity - 1);
+      }
+    }
+  }
+
+  /**
+   * Add an invoice.
+   *
+   * @param aKey
+   *        The key of the invoice. May not be <code>null</code>.
+   * @return <code>true</code> if it was added, <code>false</code> if it was
+   *         already contained (duplicate).
+   * @throws UncheckedIOException
+   *         If the index needed to grow and the new file could not be created
+   */
+  public boolean add (@NonNull final DuplicateInvoiceKey aKey)
+  {
+    ValueEnforcer.notNull (aKey, "Key");
+    final long nFingerprint = aKey.getFingerprint ();
+    synchronized (m_aLock)
+    {
+      _checkOpen ();
+      try
+      {
+        _growIfNeeded ();
+      }
+      catch (final IOException ex)
+      {
+        throw new UncheckedIOException ("Failed to grow the duplicate index " + m_aDirectory, ex);
+      }
+      if (!_insert (m_aBuffer, m_nCapacity, nFingerprint))
+      {
+        m_aDuplicates.increment ();
+        return false;
+      }
+      // Slots that were already copied are not copied again
+      if (m_aNewBuffer != null)
+        _insert (m_aNewBuffer, m_nNewCapacity, nFingerprint);
+      m_nEntryCount++;
+      return true;
+    }
+  }
+
+  /**
+   * Add an invoice and add a warning to the error list if it was already
+   * contained. Errors of the index are reported as warnings as well, because
+   * the duplicate detection must not prevent the conversion.
+   *
+   * @param aKey
+   *        The key of the invoice. May be <code>null</code> if the invoice has
+   *        no key, in which case nothing happens.
+   * @param aErrorList
+   *        The error list to add the warning to. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for the warning. May not be <code>null</code>.
+   * @return <code>true</code> if the invoice is a duplicate.
+   */
+  public boolean checkAndRegister (@Nullable final DuplicateInvoiceKey aKey,
+                                   @NonNull final ErrorList aErrorList,
+                                   @NonNull final Locale aDisplayLocale)
+  {
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    if (aKey == null)
+      return false;
+
+    try
+    {
+      if (add (aKey))
+        return false;
+    }
+    catch (final UncheckedIOException | IllegalStateException ex)
+    {
+      aErrorList.add (SingleError.builderWarn ()
+                                 .errorID (EText.DUPLICATE_CHECK_FAILED.name ())
+                                 .errorText (new LazyErrorText (EText.DUPLICATE_CHECK_FAILED,
+                                                                aDisplayLocale,
+                                                                ex.getMessage ()))
+                                 .linkedException (ex)
+                                 .build ());
+      return false;
+    }
+
+    aErrorList.add (SingleError.builderWarn ()
+                               .errorFieldName ("ID")
+                               .errorID (EText.DUPLICATE_INVOICE.name ())
+                               .errorText (new LazyErrorText (EText.DUPLICATE_INVOICE,
+                                                              aDisplayLocale,
+                                                              aKey.getBillerID (),
+                                                              aKey.getInvoiceNumber (),
+                                                              aKey.getInvoiceDate ().toString ()))
+                               .build ());
+    return true;
+  }
+
+  /**
+   * @return The directory of the index. Never <code>null</code>.
+   */
+  @NonNull
+  public final Path getDirectory ()
+  {
+    return m_aDirectory;
+  }
+
+  /**
+   * @return The number of contained invoices. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getEntryCount ()
+  {
+    synchronized (m_aLock)
+    {
+      return m_nEntryCount;
+    }
+  }
+
+  /**
+   * @return The current number of slots. Always a power of two. While the
+   *         index grows, this is the number of slots before growing.
+   */
+  @Nonnegative
+  public int getCapacity ()
+  {
+    synchronized (m_aLock)
+    {
+      return m_nCapacity;
+    }
+  }
+
+  /**
+   * @return The number of duplicates found by this instance.
+   */
+  @Nonnegative
+  public long getDuplicateCount ()
+  {
+    return m_aDuplicates.sum ();
+  }
+
+  /**
+   * Write all changes to the storage device.
+   */
+  public void flush ()
+  {
+    synchronized (m_aLock)
+    {
+      _checkOpen ();
+      m_aBuffer.force ();
+    }
+  }
+
+  /**
+   * Flush and close the index and release the lock of the directory.
+   * Afterwards it cannot be used anymore. Closing more than once has no
+   * effect. If the index is growing, the incomplete grown table is discarded
+   * and created again after the next start.
+   */
+  @Override
+  public void close ()
+  {
+    synchronized (m_aLock)
+    {
+      if (m_aBuffer != null)
+      {
+        m_aBuffer.force ();
+        // The mappings themselves are released by the garbage collector
+        m_aBuffer = null;
+        m_aNewBuffer = null;
+        m_aNewFile = null;
+        try
+        {
+          m_aLockChannel.close ();
+        }
+        catch (final IOException ex)
+        {
+          LOGGER.warn ("Failed to release the lock of the duplicate index " + m_aDirectory, ex);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    synchronized (m_aLock)
+    {
+      return new ToStringGenerator (this).append ("Directory", m_aDirectory)
+                                         .append ("Capacity", m_nCapacity)
+                                         .append ("EntryCount", m_nEntryCount)
+                                         .append ("Growing", m_aNewBuffer != null)
+                                         .append ("Duplicates", getDuplicateCount ())
+                                         .append ("Closed", m_aBuffer == null)
+                                         .getToString ();
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.string.StringHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.datetime.xml.XMLOffsetDate;
+
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.SupplierPartyType;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * The identity of an invoice for the duplicate detection of a
+ * {@link DuplicateInvoiceIndex}: the document type, the biller identifier, the
+ * invoice number and the invoice date. An invoice and a credit note with the
+ * same number are no duplicates. The biller identifier is the VAT identification number of
+ * the supplier, as used for the ebInterface biller, or the endpoint ID of the
+ * supplier if no VAT number is present. Whitespaces in the biller identifier
+ * are ignored and it is compared case-insensitively.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class DuplicateInvoiceKey
+{
+  /**
+   * The type of the UBL document.
+   */
+  public enum EDocumentType
+  {
+    INVOICE,
+    CREDIT_NOTE;
+  }
+
+  private final EDocumentType m_eDocumentType;
+  private final String m_sBillerID;
+  private final String m_sInvoiceNumber;
+  private final LocalDate m_aInvoiceDate;
+
+  /**
+   * Constructor for an invoice.
+   *
+   * @param sBillerID
+   *        The biller identifier. May neither be <code>null</code> nor empty.
+   * @param sInvoiceNumber
+   *        The invoice number. May neither be <code>null</code> nor empty.
+   * @param aInvoiceDate
+   *        The invoice date. May not be <code>null</code>.
+   */
+  public DuplicateInvoiceKey (@NonNull final String sBillerID,
+                              @NonNull final String sInvoiceNumber,
+                              @NonNull final LocalDate aInvoiceDate)
+  {
+    this (EDocumentType.INVOICE, sBillerID, sInvoiceNumber, aInvoiceDate);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param eDocumentType
+   *        The document type. May not be <code>null</code>.
+   * @param sBillerID
+   *        The biller identifier. May neither be <code>null</code> nor empty.
+   * @param sInvoiceNumber
+   *        The invoice number. May neither be <code>null</code> nor empty.
+   * @param aInvoiceDate
+   *        The invoice date. May not be <code>null</code>.
+   */
+  public DuplicateInvoiceKey (@NonNull final EDocumentType eDocumentType,
+                              @NonNull final String sBillerID,
+                              @NonNull final String sInvoiceNumber,
+                              @NonNull final LocalDate aInvoiceDate)
+  {
+    ValueEnforcer.notNull (eDocumentType, "DocumentType");
+    ValueEnforcer.notEmpty (sBillerID, "BillerID");
+    ValueEnforcer.notEmpty (sInvoiceNumber, "InvoiceNumber");
+    ValueEnforcer.notNull (aInvoiceDate, "InvoiceDate");
+    m_sBillerID = _normalizeBillerID (sBillerID);
+    ValueEnforcer.notEmpty (m_sBillerID, "BillerID");
+    m_sInvoiceNumber = sInvoiceNumber.trim ();
+    ValueEnforcer.notEmpty (m_sInvoiceNumber, "InvoiceNumber");
+    m_eDocumentType = eDocumentType;
+    m_aInvoiceDate = aInvoiceDate;
+  }
+
+  @NonNull
+  private static String _normalizeBillerID (@NonNull final String s)
+  {
+    final StringBuilder aSB = new StringBuilder (s.length ());
+    for (int i = 0; i < s.length (); ++i)
+    {
+      final char c = s.charAt (i);
+      if (!Character.isWhitespace (c))
+        aSB.append (c);
+    }
+    return aSB.toString ().toUpperCase (Locale.ROOT);
+  }
+
+  /**
+   * @return The document type. Never <code>null</code>.
+   */
+  @NonNull
+  public EDocumentType getDocumentType ()
+  {
+    return m_eDocumentType;
+  }
+
+  /**
+   * @return The normalized biller identifier. Neither <code>null</code> nor
+   *         empty.
+   */
+  @NonNull
+  public String getBillerID ()
+  {
+    return m_sBillerID;
+  }
+
+  /**
+   * @return The invoice number. Neither <code>null</code> nor empty.
+   */
+  @NonNull
+  public String getInvoiceNumber ()
+  {
+    return m_sInvoiceNumber;
+  }
+
+  /**
+   * @return The invoice date. Never <code>null</code>.
+   */
+  @NonNull
+  public LocalDate getInvoiceDate ()
+  {
+    return m_aInvoiceDate;
+  }
+
+  /**
+   * Get the fingerprint stored in the {@link DuplicateInvoiceIndex}. It
+   * consists of the first 64 bits of the SHA-256 hash of all fields, so it is
+   * stable across JVMs. Different keys may have the same fingerprint: with n
+   * keys in an index, a new key is mistaken as a duplicate with a probability
+   * of about n / 2<sup>64</sup>, e.g. 5 * 10<sup>-13</sup> for 10 million
+   * invoices. This is accepted, because a duplicate only leads to a warning.
+   *
+   * @return A 64 bit hash of this key that is stable across JVMs. Never 0.
+   */
+  public long getFingerprint ()
+  {
+    final MessageDigest aMD;
+    try
+    {
+      aMD = MessageDigest.getInstance ("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("SHA-256 is not supported", ex);
+    }
+    // Neither the document type nor the biller ID contains whitespace and the
+    // date has a fixed format
+    final String sData = m_eDocumentType.name () +
+                         ' ' +
+                         m_sBillerID +
+                         ' ' +
+                         m_aInvoiceDate.toString () +
+                         ' ' +
+                         m_sInvoiceNumber;
+    final byte [] aDigest = aMD.digest (sData.getBytes (StandardCharsets.UTF_8));
+    long ret = 0;
+    for (int i = 0; i < Long.BYTES; ++i)
+      ret = (ret << 8) | (aDigest[i] & 0xff);
+    // 0 marks an empty slot in the index
+    return ret == 0 ? 1 : ret;
+  }
+
+  @Nullable
+  private static String _getBillerID (@Nullable final SupplierPartyType aUBLSupplier)
+  {
+    final PartyType aUBLParty = aUBLSupplier == null ? null : aUBLSupplier.getParty ();
+    if (aUBLParty == null)
+      return null;
+
+    // Same as for the ebInterface biller
+    for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
+      if (aUBLPartyTaxScheme.getTaxScheme () != null &&
+          AbstractToEbInterfaceConverter.isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
+      {
+        final String sVATIN = StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ());
+        if (StringHelper.isNotEmpty (sVATIN))
+          return sVATIN;
+      }
+
+    if (aUBLParty.getEndpointID () != null)
+    {
+      final String sEndpointID = StringHelper.trim (aUBLParty.getEndpointIDValue ());
+      if (StringHelper.isNotEmpty (sEndpointID))
+      {
+        final String sSchemeID = StringHelper.trim (aUBLParty.getEndpointID ().getSchemeID ());
+        return StringHelper.isEmpty (sSchemeID) ? sEndpointID : sSchemeID + ':' + sEndpointID;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static DuplicateInvoiceKey _create (@NonNull final EDocumentType eDocumentType,
+                                              @Nullable final String sBillerID,
+                                              @Nullable final String sInvoiceNumber,
+                                              @Nullable final XMLOffsetDate aInvoiceDate)
+  {
+    if (StringHelper.isEmpty (sBillerID) || StringHelper.isEmpty (sInvoiceNumber) || aInvoiceDate == null)
+      return null;
+    // Ignore the time zone, as the converters do
+    return new DuplicateInvoiceKey (eDocumentType, sBillerID, sInvoiceNumber, aInvoiceDate.toLocalDate ());
+  }
+
+  /**
+   * Create the key of a UBL invoice.
+   *
+   * @param aUBLInvoice
+   *        The UBL invoice. May not be <code>null</code>.
+   * @return <code>null</code> if the biller identifier, the invoice number or
+   *         the issue date is missing.
+   */
+  @Nullable
+  public static DuplicateInvoiceKey of (@NonNull final InvoiceType aUBLInvoice)
+  {
+    ValueEnforcer.notNull (aUBLInvoice, "UBLInvoice");
+    return _create (EDocumentType.INVOICE,
+                    _getBillerID (aUBLInvoice.getAccountingSupplierParty ()),
+                    StringHelper.trim (aUBLInvoice.getIDValue ()),
+                    aUBLInvoice.getIssueDateValue ());
+  }
+
+  /**
+   * Create the key of a UBL credit note.
+   *
+   * @param aUBLCreditNote
+   *        The UBL credit note. May not be <code>null</code>.
+   * @return <code>null</code> if the biller identifier, the credit note number
+   *         or the issue date is missing.
+   */
+  @Nullable
+  public static DuplicateInvoiceKey of (@NonNull final CreditNoteType aUBLCreditNote)
+  {
+    ValueEnforcer.notNull (aUBLCreditNote, "UBLCreditNote");
+    return _create (EDocumentType.CREDIT_NOTE,
+                    _getBillerID (aUBLCreditNote.getAccountingSupplierParty ()),
+                    StringHelper.trim (aUBLCreditNote.getIDValue ()),
+                    aUBLCreditNote.getIssueDateValue ());
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final DuplicateInvoiceKey rhs = (DuplicateInvoiceKey) o;
+    return m_eDocumentType == rhs.m_eDocumentType &&
+           m_sBillerID.equals (rhs.m_sBillerID) &&
+           m_sInvoiceNumber.equals (rhs.m_sInvoiceNumber) &&
+           m_aInvoiceDate.equals (rhs.m_aInvoiceDate);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_eDocumentType)
+                                       .append (m_sBillerID)
+                                       .append (m_sInvoiceNumber)
+                                       .append (m_aInvoiceDate)
+                                       .getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("DocumentType", m_eDocumentType)
+                                       .append ("BillerID", m_sBillerID)
+                                       .append ("InvoiceNumber", m_sInvoiceNumber)
+                                       .append ("InvoiceDate", m_aInvoiceDate)
+                                       .getToString ();
+  }
+}
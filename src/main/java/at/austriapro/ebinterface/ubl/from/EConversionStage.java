@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+/**
+ * The stages of a UBL to ebInterface conversion, as reported to an
+ * {@link IConversionStageListener}. The order in which the stages are run
+ * depends on the ebInterface version.
+ *
+ * @author Philip Helger
+ */
+public enum EConversionStage
+{
+  /** Consistency check of the UBL document */
+  CONSISTENCY_CHECK,
+  /** Document type, number, date, references and comment */
+  DOCUMENT_HEADER,
+  /** Biller (supplier) */
+  BILLER,
+  /** Invoice recipient (customer) */
+  INVOICE_RECIPIENT,
+  /** Ordering party (buyer) */
+  ORDERING_PARTY,
+  /** Order reference of the invoice recipient */
+  ORDER_REFERENCE,
+  /** Tax totals. The item count is the number of UBL tax subtotals. */
+  TAX_TOTALS,
+  /** Line items. The item count is the number of lines. */
+  LINE_ITEMS,
+  /** Global reductions and surcharges */
+  ALLOWANCE_CHARGE,
+  /** Document totals */
+  TOTALS,
+  /** Payment method */
+  PAYMENT,
+  /** Delivery */
+  DELIVERY,
+  /** Customizing by the custom converter, if any */
+  CUSTOMIZING;
+}
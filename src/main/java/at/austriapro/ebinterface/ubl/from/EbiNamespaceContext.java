@@ -16,10 +16,19 @@
  */
 package at.austriapro.ebinterface.ubl.from;
 
+import java.util.Iterator;
+
 import javax.xml.XMLConstants;
 
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
 import com.helger.ebinterface.CEbInterface;
 import com.helger.xml.CXML;
+import com.helger.xml.namespace.IIterableNamespaceContext;
 import com.helger.xml.namespace.MapBasedNamespaceContext;
 import com.helger.xsds.xmldsig.CXMLDSig;
 
@@ -31,6 +40,51 @@ import com.helger.xsds.xmldsig.CXMLDSig;
  */
 public class EbiNamespaceContext extends MapBasedNamespaceContext
 {
+  /**
+   * Read-only view on an {@link EbiNamespaceContext}. The wrapped context is
+   * private to this class, so the mappings can never change after class
+   * initialization.
+   *
+   * @author Philip Helger
+   */
+  private static final class ReadOnlyNamespaceContext implements IIterableNamespaceContext
+  {
+    private final EbiNamespaceContext m_aNSCtx = new EbiNamespaceContext ();
+
+    @Nullable
+    public String getNamespaceURI (final String sPrefix)
+    {
+      return m_aNSCtx.getNamespaceURI (sPrefix);
+    }
+
+    @Nullable
+    public String getPrefix (final String sNamespaceURI)
+    {
+      return m_aNSCtx.getPrefix (sNamespaceURI);
+    }
+
+    @NonNull
+    public Iterator <String> getPrefixes (final String sNamespaceURI)
+    {
+      // Copy, so that Iterator.remove cannot modify the wrapped context
+      final ICommonsList <String> ret = new CommonsArrayList <> ();
+      m_aNSCtx.getPrefixes (sNamespaceURI).forEachRemaining (ret::add);
+      return ret.iterator ();
+    }
+
+    @NonNull
+    public ICommonsMap <String, String> getPrefixToNamespaceURIMap ()
+    {
+      // Returns a copy
+      return m_aNSCtx.getPrefixToNamespaceURIMap ();
+    }
+  }
+
+  private static final class SingletonHolder
+  {
+    static final IIterableNamespaceContext INSTANCE = new ReadOnlyNamespaceContext ();
+  }
+
   public EbiNamespaceContext ()
   {
     addMapping (CXML.XML_NS_PREFIX_XSI, XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
@@ -63,4 +117,15 @@ public class EbiNamespaceContext extends MapBasedNamespaceContext
 
     addMapping ("eb61", CEbInterface.EBINTERFACE_61_NS);
   }
+
+  /**
+   * @return The read-only instance shared by all marshallers created in this
+   *         project. Use the public constructor to get a modifiable copy.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  public static IIterableNamespaceContext getInstance ()
+  {
+    return SingletonHolder.INSTANCE;
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+
+/**
+ * Instrumentation listener for the stages of a UBL to ebInterface conversion.
+ * It is invoked synchronously in the converting thread, so implementations
+ * must be fast, must not throw exceptions and must be thread-safe if the
+ * converter is shared.
+ *
+ * @author Philip Helger
+ */
+public interface IConversionStageListener
+{
+  /**
+   * Called when a stage starts.
+   *
+   * @param eStage
+   *        The stage that starts. Never <code>null</code>.
+   */
+  default void onStageStart (@NonNull final EConversionStage eStage)
+  {}
+
+  /**
+   * Called when a stage ends.
+   *
+   * @param eStage
+   *        The stage that ended. Never <code>null</code>.
+   * @param nDurationNanos
+   *        The duration of the stage in nanoseconds.
+   * @param nItemCount
+   *        The number of items processed in the stage - the lines for
+   *        {@link EConversionStage#LINE_ITEMS}, the tax subtotals for
+   *        {@link EConversionStage#TAX_TOTALS} and 0 otherwise.
+   * @param nErrorCount
+   *        The number of errors added during the stage. Warnings are not
+   *        counted.
+   */
+  void onStageEnd (@NonNull EConversionStage eStage,
+                   long nDurationNanos,
+                   @Nonnegative int nItemCount,
+                   @Nonnegative int nErrorCount);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.diagnostics.error.list.ErrorList;
+
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+
+/**
+ * Version independent view on a converter from UBL 2.1 credit note to
+ * ebInterface.
+ *
+ * @author Philip Helger
+ * @param <T>
+ *        The ebInterface invoice type created
+ */
+@FunctionalInterface
+public interface ICreditNoteToEbInterfaceConverter <T>
+{
+  /**
+   * Main conversion method to convert from UBL to ebInterface
+   *
+   * @param aUBLDoc
+   *        The UBL credit note to be converted
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return The created ebInterface document or <code>null</code> in case of a severe error.
+   */
+  @Nullable
+  T convertToEbInterface (@NonNull CreditNoteType aUBLDoc, @NonNull ErrorList aTransformationErrorList);
+}
@@ -19,6 +19,7 @@ package at.austriapro.ebinterface.ubl.from;
 import java.util.function.Function;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.peppolid.IProcessIdentifier;
 import com.helger.peppolid.factory.PeppolIdentifierFactory;
@@ -31,18 +32,69 @@ import com.helger.peppolid.peppol.process.PredefinedProcessIdentifierManager;
  */
 public interface IProfileIDResolver extends Function <String, IProcessIdentifier>
 {
-  /* empty */
+  /**
+   * The default resolver. It is stateless and therefore shared, so that
+   * settings objects using the default resolver compare as equal.
+   */
+  IProfileIDResolver DEFAULT = sProfileID -> {
+    IProcessIdentifier aProcID = PredefinedProcessIdentifierManager.getProcessIdentifierOfID (sProfileID);
+    if (aProcID == null)
+    {
+      // Parse basically
+      aProcID = PeppolIdentifierFactory.INSTANCE.parseProcessIdentifier (sProfileID);
+    }
+    return aProcID;
+  };
+
+  /**
+   * Get the identity of this resolver, which is part of the key of the
+   * conversion result cache. Two resolvers with the same identity must resolve
+   * every profile ID in the same way, also after a restart if the cache is
+   * persisted. The default implementation returns <code>null</code>, which
+   * means that the results of conversions using this resolver are not cached.
+   *
+   * @return The identity of this resolver or <code>null</code> if it has
+   *         none.
+   * @see at.austriapro.ebinterface.ubl.service.ConversionResultCache
+   */
+  @Nullable
+  default String getCacheIdentity ()
+  {
+    return null;
+  }
+
+  /**
+   * Get a resolver that caches the results of this resolver.
+   *
+   * @param nMaxSize
+   *        The maximum number of profile IDs to cache. Must be &gt; 0.
+   * @return A new {@link CachingProfileIDResolver} and never <code>null</code>.
+   * @see CachingProfileIDResolver
+   */
+  @NonNull
+  default CachingProfileIDResolver withCache (final int nMaxSize)
+  {
+    return new CachingProfileIDResolver (this, nMaxSize);
+  }
+
   @NonNull
   static IProfileIDResolver getDefault ()
   {
-    return sProfileID -> {
-      IProcessIdentifier aProcID = PredefinedProcessIdentifierManager.getProcessIdentifierOfID (sProfileID);
-      if (aProcID == null)
-      {
-        // Parse basically
-        aProcID = PeppolIdentifierFactory.INSTANCE.parseProcessIdentifier (sProfileID);
-      }
-      return aProcID;
-    };
+    return DEFAULT;
+  }
+
+  /**
+   * Get the cache identity of the passed resolver. This also works for the
+   * {@link #DEFAULT} resolver, which cannot override
+   * {@link #getCacheIdentity()} as it is a lambda.
+   *
+   * @param aResolver
+   *        The resolver to get the identity of. May not be <code>null</code>.
+   * @return The identity or <code>null</code> if the resolver has none.
+   */
+  @Nullable
+  static String getCacheIdentityOf (@NonNull final IProfileIDResolver aResolver)
+  {
+    return aResolver == DEFAULT ? "default" : aResolver.getCacheIdentity ();
   }
 }
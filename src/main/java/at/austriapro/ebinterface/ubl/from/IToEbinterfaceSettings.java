@@ -17,6 +17,9 @@
 package at.austriapro.ebinterface.ubl.from;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -107,4 +110,29 @@ public interface IToEbinterfaceSettings extends Serializable
    * @since v5.3.3
    */
   boolean isPrepaidAmountSupported ();
+
+  /**
+   * Get an immutable snapshot of all settings. Two settings objects with equal snapshots lead to the
+   * same conversion result, so the snapshot is used to identify settings in caches and registries.
+   * This method must be extended whenever a setting is added to this interface.
+   *
+   * @return All setting values in a fixed order. Never <code>null</code>.
+   * @since v6.1.3
+   */
+  @NonNull
+  default List <Object> getAllSettingValues ()
+  {
+    return Collections.unmodifiableList (Arrays.asList (Boolean.valueOf (isUBLVersionIDMandatory ()),
+                                                        Boolean.valueOf (isUBLProfileIDMandatory ()),
+                                                        getProfileIDResolver (),
+                                                        Boolean.valueOf (isOrderReferenceIDMandatory ()),
+                                                        Integer.valueOf (getOrderReferenceMaxLength ()),
+                                                        Boolean.valueOf (isDeliveryDateMandatory ()),
+                                                        Boolean.valueOf (isEnforceSupplierEmailAddress ()),
+                                                        getEnforcedSupplierEmailAddress (),
+                                                        getFallbackBillersInvoiceRecipientID (),
+                                                        Boolean.valueOf (isErrorOnPositionNumber ()),
+                                                        Boolean.valueOf (isInvoicePaymentMethodMandatory ()),
+                                                        Boolean.valueOf (isPrepaidAmountSupported ())));
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+import at.austriapro.ebinterface.ubl.from.helper.DocumentHeader;
+import at.austriapro.ebinterface.ubl.from.helper.LineData;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+
+/**
+ * The version independent part of a UBL invoice or credit note, created once
+ * by {@link AbstractToEbInterfaceConverter#createIntermediateDocument} and
+ * projected into any number of ebInterface versions. It contains the header,
+ * the tax table, the main parties and the resolved lines. An instance only
+ * exists for documents that passed the consistency check, so the projection
+ * does not repeat it.
+ *
+ * @author Philip Helger
+ * @param <T>
+ *        The UBL document type
+ */
+@Immutable
+public final class IntermediateDocument <T>
+{
+  private final T m_aSourceDoc;
+  private final DocumentHeader m_aDocumentHeader;
+  private final TaxTable m_aTaxTable;
+  private final PartyData m_aSupplierParty;
+  private final PartyData m_aCustomerParty;
+  private final PartyData m_aBuyerParty;
+  private final ICommonsList <LineData> m_aLines;
+
+  IntermediateDocument (@NonNull final T aSourceDoc,
+                        @NonNull final DocumentHeader aDocumentHeader,
+                        @NonNull final TaxTable aTaxTable,
+                        @Nullable final PartyData aSupplierParty,
+                        @Nullable final PartyData aCustomerParty,
+                        @Nullable final PartyData aBuyerParty,
+                        @NonNull final List <LineData> aLines)
+  {
+    ValueEnforcer.notNull (aSourceDoc, "SourceDoc");
+    ValueEnforcer.notNull (aDocumentHeader, "DocumentHeader");
+    ValueEnforcer.notNull (aTaxTable, "TaxTable");
+    ValueEnforcer.noNullValue (aLines, "Lines");
+    m_aSourceDoc = aSourceDoc;
+    m_aDocumentHeader = aDocumentHeader;
+    m_aTaxTable = aTaxTable;
+    m_aSupplierParty = aSupplierParty;
+    m_aCustomerParty = aCustomerParty;
+    m_aBuyerParty = aBuyerParty;
+    m_aLines = new CommonsArrayList <> (aLines);
+  }
+
+  /**
+   * @return The UBL document this object was created from. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public T getSourceDocument ()
+  {
+    return m_aSourceDoc;
+  }
+
+  /**
+   * @return The version independent header data. Never <code>null</code>.
+   */
+  @NonNull
+  public DocumentHeader getDocumentHeader ()
+  {
+    return m_aDocumentHeader;
+  }
+
+  /**
+   * @return The version independent tax table. Never <code>null</code>.
+   */
+  @NonNull
+  public TaxTable getTaxTable ()
+  {
+    return m_aTaxTable;
+  }
+
+  /**
+   * @return The party of the accounting supplier. May be <code>null</code> if
+   *         the UBL document has none.
+   */
+  @Nullable
+  public PartyData getSupplierParty ()
+  {
+    return m_aSupplierParty;
+  }
+
+  /**
+   * @return The party of the accounting customer. May be <code>null</code> if
+   *         the UBL document has none.
+   */
+  @Nullable
+  public PartyData getCustomerParty ()
+  {
+    return m_aCustomerParty;
+  }
+
+  /**
+   * @return The party of the buyer customer. May be <code>null</code> if the
+   *         UBL document has none.
+   */
+  @Nullable
+  public PartyData getBuyerParty ()
+  {
+    return m_aBuyerParty;
+  }
+
+  /**
+   * @return The number of lines. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getLineCount ()
+  {
+    return m_aLines.size ();
+  }
+
+  /**
+   * @param nIndex
+   *        The 0-based index of the line, in the order of the UBL document.
+   * @return The line at the passed index. Never <code>null</code>.
+   * @throws IndexOutOfBoundsException
+   *         if the index is invalid
+   */
+  @NonNull
+  public LineData getLineAtIndex (@Nonnegative final int nIndex)
+  {
+    return m_aLines.get (nIndex);
+  }
+
+  /**
+   * @return A copy of all lines. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <LineData> getAllLines ()
+  {
+    return m_aLines.getClone ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("DocumentHeader", m_aDocumentHeader)
+                                       .append ("TaxTable", m_aTaxTable)
+                                       .append ("SupplierParty", m_aSupplierParty)
+                                       .append ("CustomerParty", m_aCustomerParty)
+                                       .append ("BuyerParty", m_aBuyerParty)
+                                       .append ("Lines", m_aLines)
+                                       .getToString ();
+  }
+}
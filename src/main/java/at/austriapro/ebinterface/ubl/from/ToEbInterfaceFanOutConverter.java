@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsEnumMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Converts a single UBL invoice or credit note to several ebInterface versions
+ * in one call. The version independent part of the UBL document (consistency
+ * check, header data, tax table, parties and lines, see
+ * {@link IntermediateDocument}) is
+ * created only once and shared by all versions. Its errors and warnings are
+ * contained at the beginning of the error list of every version. If the
+ * consistency check fails, no version is converted at all. Afterwards the
+ * intermediate document is projected into each requested version.<br>
+ * Instances of this class are immutable and may be shared between threads.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class ToEbInterfaceFanOutConverter
+{
+  private final ICommonsList <EEbInterfaceVersion> m_aVersions = new CommonsArrayList <> ();
+  private final ICommonsMap <EEbInterfaceVersion, AbstractToEbInterfaceConverter> m_aInvoiceConverters = new CommonsEnumMap <> (EEbInterfaceVersion.class);
+  private final ICommonsMap <EEbInterfaceVersion, AbstractToEbInterfaceConverter> m_aCreditNoteConverters = new CommonsEnumMap <> (EEbInterfaceVersion.class);
+  // The intermediate document is version independent - any converter does
+  private final AbstractToEbInterfaceConverter m_aIntermediateDocumentFactory;
+
+  /**
+   * Constructor
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be
+   *        <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   * @param aVersions
+   *        The ebInterface versions to create. May neither be
+   *        <code>null</code> nor empty. Duplicates are ignored.
+   */
+  public ToEbInterfaceFanOutConverter (@NonNull final Locale aDisplayLocale,
+                                       @NonNull final Locale aContentLocale,
+                                       @NonNull final IToEbinterfaceSettings aSettings,
+                                       @NonNull final EEbInterfaceVersion... aVersions)
+  {
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+    ValueEnforcer.notNull (aSettings, "Settings");
+    ValueEnforcer.notEmptyNoNullValue (aVersions, "Versions");
+
+    for (final EEbInterfaceVersion eVersion : aVersions)
+      if (!m_aVersions.contains (eVersion))
+      {
+        m_aVersions.add (eVersion);
+
+        m_aInvoiceConverters.put (eVersion,
+                                  (AbstractToEbInterfaceConverter) eVersion.createInvoiceToEbInterfaceConverter (aDisplayLocale,
+                                                                                                                 aContentLocale,
+                                                                                                                 aSettings));
+        m_aCreditNoteConverters.put (eVersion,
+                                     (AbstractToEbInterfaceConverter) eVersion.createCreditNoteToEbInterfaceConverter (aDisplayLocale,
+                                                                                                                       aContentLocale,
+                                                                                                                       aSettings));
+      }
+    m_aIntermediateDocumentFactory = m_aInvoiceConverters.get (aVersions[0]);
+  }
+
+  /**
+   * @return The ebInterface versions created by this converter, in the order
+   *         of the constructor. Never <code>null</code> nor empty.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <EEbInterfaceVersion> getAllVersions ()
+  {
+    return m_aVersions.getClone ();
+  }
+
+  @NonNull
+  private static ErrorList _merge (@NonNull final ErrorList aSharedErrorList, @NonNull final ErrorList aErrorList)
+  {
+    final ErrorList ret = new ErrorList ();
+    ret.addAll (aSharedErrorList);
+    ret.addAll (aErrorList);
+    return ret;
+  }
+
+  @NonNull
+  private ToEbInterfaceFanOutResult _project (@Nullable final IntermediateDocument <?> aIntermediateDoc,
+                                              @NonNull final ErrorList aSharedErrorList,
+                                              @NonNull final ICommonsMap <EEbInterfaceVersion, AbstractToEbInterfaceConverter> aConverters)
+  {
+    final ToEbInterfaceFanOutResult ret = new ToEbInterfaceFanOutResult (m_aVersions);
+    for (final EEbInterfaceVersion eVersion : m_aVersions)
+    {
+      final ErrorList aErrorList = new ErrorList ();
+      final Object aEbiDoc = aIntermediateDoc == null ? null : aConverters.get (eVersion)
+                                                                          .convertIntermediateDocument (aIntermediateDoc,
+                                                                                                        aErrorList);
+      ret.setResult (eVersion, aEbiDoc, _merge (aSharedErrorList, aErrorList));
+    }
+    return ret;
+  }
+
+  /**
+   * Convert the passed UBL invoice to all ebInterface versions of this
+   * converter.
+   *
+   * @param aUBLDoc
+   *        The UBL invoice to be converted. May not be <code>null</code>.
+   * @return The documents and error lists per version. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ToEbInterfaceFanOutResult convertInvoice (@NonNull final InvoiceType aUBLDoc)
+  {
+    ValueEnforcer.notNull (aUBLDoc, "UBLInvoice");
+
+    final ErrorList aSharedErrorList = new ErrorList ();
+    final IntermediateDocument <InvoiceType> aIntermediateDoc = m_aIntermediateDocumentFactory.createIntermediateDocument (aUBLDoc,
+                                                                                                                          aSharedErrorList);
+    return _project (aIntermediateDoc, aSharedErrorList, m_aInvoiceConverters);
+  }
+
+  /**
+   * Convert the passed UBL credit note to all ebInterface versions of this
+   * converter.
+   *
+   * @param aUBLDoc
+   *        The UBL credit note to be converted. May not be <code>null</code>.
+   * @return The documents and error lists per version. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ToEbInterfaceFanOutResult convertCreditNote (@NonNull final CreditNoteType aUBLDoc)
+  {
+    ValueEnforcer.notNull (aUBLDoc, "UBLCreditNote");
+
+    final ErrorList aSharedErrorList = new ErrorList ();
+    final IntermediateDocument <CreditNoteType> aIntermediateDoc = m_aIntermediateDocumentFactory.createIntermediateDocument (aUBLDoc,
+                                                                                                                             aSharedErrorList);
+    return _project (aIntermediateDoc, aSharedErrorList, m_aCreditNoteConverters);
+  }
+}
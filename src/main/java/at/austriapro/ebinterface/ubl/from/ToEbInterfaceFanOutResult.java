@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsEnumMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+
+/**
+ * The result of a {@link ToEbInterfaceFanOutConverter} run: the created
+ * ebInterface document and the error list per requested version.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ToEbInterfaceFanOutResult
+{
+  private final ICommonsList <EEbInterfaceVersion> m_aVersions;
+  private final ICommonsMap <EEbInterfaceVersion, Object> m_aDocuments = new CommonsEnumMap <> (EEbInterfaceVersion.class);
+  private final ICommonsMap <EEbInterfaceVersion, ErrorList> m_aErrorLists = new CommonsEnumMap <> (EEbInterfaceVersion.class);
+
+  ToEbInterfaceFanOutResult (@NonNull final ICommonsList <EEbInterfaceVersion> aVersions)
+  {
+    m_aVersions = aVersions;
+  }
+
+  void setResult (@NonNull final EEbInterfaceVersion eVersion,
+                  @Nullable final Object aEbiDoc,
+                  @NonNull final ErrorList aErrorList)
+  {
+    if (aEbiDoc != null)
+      m_aDocuments.put (eVersion, aEbiDoc);
+    m_aErrorLists.put (eVersion, aErrorList);
+  }
+
+  /**
+   * @return All requested ebInterface versions in the order of the converter.
+   *         Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <EEbInterfaceVersion> getAllVersions ()
+  {
+    return new CommonsArrayList <> (m_aVersions);
+  }
+
+  /**
+   * @param eVersion
+   *        The ebInterface version to query. May not be <code>null</code>.
+   * @return The created ebInterface document (e.g.
+   *         <code>Ebi61InvoiceType</code> for version 6.1) or
+   *         <code>null</code> if the conversion failed or the version was not
+   *         requested.
+   */
+  @Nullable
+  public Object getDocument (@NonNull final EEbInterfaceVersion eVersion)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    return m_aDocuments.get (eVersion);
+  }
+
+  /**
+   * Get the created ebInterface document in a type safe way.
+   *
+   * @param eVersion
+   *        The ebInterface version to query. May not be <code>null</code>.
+   * @param aClass
+   *        The expected ebInterface document class, e.g.
+   *        <code>Ebi43InvoiceType.class</code>. May not be <code>null</code>.
+   * @return The created ebInterface document or <code>null</code> if the
+   *         conversion failed or the version was not requested.
+   * @param <T>
+   *        The ebInterface document type
+   * @throws ClassCastException
+   *         If the document is not of the expected class
+   */
+  @Nullable
+  public <T> T getDocument (@NonNull final EEbInterfaceVersion eVersion, @NonNull final Class <T> aClass)
+  {
+    ValueEnforcer.notNull (aClass, "Class");
+    return aClass.cast (getDocument (eVersion));
+  }
+
+  /**
+   * @param eVersion
+   *        The ebInterface version to query. May not be <code>null</code>.
+   * @return The errors and warnings of the conversion to the passed version,
+   *         including the ones of the shared consistency check, or
+   *         <code>null</code> if the version was not requested.
+   */
+  @Nullable
+  public ErrorList getErrorList (@NonNull final EEbInterfaceVersion eVersion)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    return m_aErrorLists.get (eVersion);
+  }
+
+  /**
+   * @param eVersion
+   *        The ebInterface version to query. May not be <code>null</code>.
+   * @return <code>true</code> if the document for the passed version was
+   *         created without errors.
+   */
+  public boolean isSuccess (@NonNull final EEbInterfaceVersion eVersion)
+  {
+    final ErrorList aErrorList = getErrorList (eVersion);
+    return m_aDocuments.containsKey (eVersion) && aErrorList != null && !aErrorList.containsAtLeastOneError ();
+  }
+
+  /**
+   * @return <code>true</code> if the documents for all requested versions were
+   *         created without errors.
+   */
+  public boolean isSuccessForAll ()
+  {
+    for (final EEbInterfaceVersion eVersion : m_aVersions)
+      if (!isSuccess (eVersion))
+        return false;
+    return true;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Versions", m_aVersions)
+                                       .append ("ErrorLists", m_aErrorLists)
+                                       .getToString ();
+  }
+}
@@ -21,6 +21,8 @@ import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonempty;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
 
 /**
  * Default implementation of {@link IToEbinterfaceSettings}.
@@ -83,6 +85,31 @@ public class ToEbinterfaceSettings implements IToEbinterfaceSettings
   public ToEbinterfaceSettings ()
   {}
 
+  /**
+   * Copy constructor. Creates a snapshot of the provided settings, so that
+   * later modifications of the source object are not reflected.
+   *
+   * @param aOther
+   *        The settings to copy from. May not be <code>null</code>.
+   */
+  public ToEbinterfaceSettings (@NonNull final IToEbinterfaceSettings aOther)
+  {
+    ValueEnforcer.notNull (aOther, "Other");
+    m_bUBLVersionIDMandatory = aOther.isUBLVersionIDMandatory ();
+    m_bUBLProfileIDMandatory = aOther.isUBLProfileIDMandatory ();
+    m_aProfileIDResolver = ValueEnforcer.notNull (aOther.getProfileIDResolver (), "ProfileIDResolver");
+    m_bOrderReferenceIDMandatory = aOther.isOrderReferenceIDMandatory ();
+    m_nOrderReferenceIDMaxLen = aOther.getOrderReferenceMaxLength ();
+    m_bDeliveryDateMandatory = aOther.isDeliveryDateMandatory ();
+    m_bEnforceSupplierEmailAddress = aOther.isEnforceSupplierEmailAddress ();
+    m_sEnforcedSupplierEmailAddress = ValueEnforcer.notEmpty (aOther.getEnforcedSupplierEmailAddress (),
+                                                              "EnforcedSupplierEmailAddress");
+    m_sFallbackBillersInvoiceRecipientID = aOther.getFallbackBillersInvoiceRecipientID ();
+    m_bErrorOnPositionNumber = aOther.isErrorOnPositionNumber ();
+    m_bInvoicePaymentMethodMandatory = aOther.isInvoicePaymentMethodMandatory ();
+    m_bIsPrepaidAmountSupported = aOther.isPrepaidAmountSupported ();
+  }
+
   public boolean isUBLVersionIDMandatory ()
   {
     return m_bUBLVersionIDMandatory;
@@ -233,6 +260,42 @@ public class ToEbinterfaceSettings implements IToEbinterfaceSettings
     return this;
   }
 
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final ToEbinterfaceSettings rhs = (ToEbinterfaceSettings) o;
+    return getAllSettingValues ().equals (rhs.getAllSettingValues ());
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (getAllSettingValues ()).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("UBLVersionIDMandatory", m_bUBLVersionIDMandatory)
+                                       .append ("UBLProfileIDMandatory", m_bUBLProfileIDMandatory)
+                                       .append ("ProfileIDResolver", m_aProfileIDResolver)
+                                       .append ("OrderReferenceIDMandatory", m_bOrderReferenceIDMandatory)
+                                       .append ("OrderReferenceIDMaxLen", m_nOrderReferenceIDMaxLen)
+                                       .append ("DeliveryDateMandatory", m_bDeliveryDateMandatory)
+                                       .append ("EnforceSupplierEmailAddress", m_bEnforceSupplierEmailAddress)
+                                       .append ("EnforcedSupplierEmailAddress", m_sEnforcedSupplierEmailAddress)
+                                       .appendIfNotNull ("FallbackBillersInvoiceRecipientID",
+                                                         m_sFallbackBillersInvoiceRecipientID)
+                                       .append ("ErrorOnPositionNumber", m_bErrorOnPositionNumber)
+                                       .append ("InvoicePaymentMethodMandatory", m_bInvoicePaymentMethodMandatory)
+                                       .append ("PrepaidAmountSupported", m_bIsPrepaidAmountSupported)
+                                       .getToString ();
+  }
+
   /**
    * @return Settings similar to what eRechnung.gv.at uses - mainly for testing purposes.
    */
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import java.io.InputStream;
+import java.util.Locale;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText;
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.helper.SafeXMLInputFactory;
+import at.austriapro.ebinterface.ubl.stream.UBLStreamReader;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * A fast check of the raw bytes of a UBL invoice or credit note, to reject
+ * documents that can never be converted before they are unmarshalled. Only
+ * the document header up to the first aggregate element (e.g.
+ * <code>cac:AccountingSupplierParty</code>) is read with StAX, so the costs
+ * don't depend on the size of the document.
+ * <p>
+ * The triage applies the same rules as the consistency check of the converters
+ * (<code>UBLVersionID</code>, <code>ProfileID</code> and
+ * <code>InvoiceTypeCode</code>) and additionally checks that the document
+ * number, the issue date and the document currency code are present.
+ * <code>CreditNoteTypeCode</code> is not checked, because the converters
+ * don't check it either. No XML Schema validation is performed.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class UBLTriage
+{
+  @Translatable
+  public enum ETriageText implements IHasDisplayTextWithArgs
+  {
+    UNSUPPORTED_DOCUMENT ("Das Dokument ist weder eine UBL 2.1 Rechnung noch eine UBL 2.1 Gutschrift.",
+                          "The document is neither a UBL 2.1 Invoice nor a UBL 2.1 CreditNote."),
+    READ_FAILED ("Das UBL Dokument konnte nicht gelesen werden: {0}", "Failed to read the UBL document: {0}"),
+    MISSING_CURRENCY_CODE ("Es wurde kein Währungscode angegeben.", "No document currency code provided.");
+
+    private final IMultilingualText m_aTP;
+
+    ETriageText (@NonNull final String sDE, @NonNull final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  public static final String UBL_CBC_NAMESPACE_URI = "urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2";
+
+  /**
+   * The header values relevant for the triage. A value is <code>null</code> if
+   * the element is not present.
+   */
+  private static final class Header
+  {
+    String m_sUBLVersionID;
+    String m_sProfileID;
+    String m_sID;
+    String m_sIssueDate;
+    String m_sInvoiceTypeCode;
+    String m_sDocumentCurrencyCode;
+  }
+
+  private final Locale m_aDisplayLocale;
+  // Only used for the consistency checks, which don't depend on the version
+  private final AbstractToEbInterfaceConverter m_aChecker;
+
+  /**
+   * Constructor
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aSettings
+   *        The conversion settings, that define e.g. if the UBLVersionID is
+   *        mandatory. Should be the same as for the conversion. May not be
+   *        <code>null</code>.
+   */
+  public UBLTriage (@NonNull final Locale aDisplayLocale, @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aSettings, "Settings");
+    m_aDisplayLocale = aDisplayLocale;
+    m_aChecker = new InvoiceToEbInterface61Converter (aDisplayLocale, aDisplayLocale, aSettings);
+  }
+
+  @NonNull
+  public final Locale getDisplayLocale ()
+  {
+    return m_aDisplayLocale;
+  }
+
+  /**
+   * Read the header of the document. Afterwards the reader is positioned on
+   * the first aggregate child element of the root element or on the end of the
+   * root element.
+   */
+  @NonNull
+  private static Header _readHeader (@NonNull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    final Header ret = new Header ();
+    while (aReader.nextTag () == XMLStreamConstants.START_ELEMENT)
+    {
+      if (!UBL_CBC_NAMESPACE_URI.equals (aReader.getNamespaceURI ()))
+      {
+        if (UBLStreamReader.UBL_CAC_NAMESPACE_URI.equals (aReader.getNamespaceURI ()))
+        {
+          // All relevant elements are located before the first aggregate
+          break;
+        }
+        // E.g. ext:UBLExtensions
+        UBLStreamReader.skipElement (aReader);
+        continue;
+      }
+
+      switch (aReader.getLocalName ())
+      {
+        case "UBLVersionID":
+          ret.m_sUBLVersionID = aReader.getElementText ();
+          break;
+        case "ProfileID":
+          ret.m_sProfileID = aReader.getElementText ();
+          break;
+        case "ID":
+          ret.m_sID = aReader.getElementText ();
+          break;
+        case "IssueDate":
+          ret.m_sIssueDate = aReader.getElementText ();
+          break;
+        case "InvoiceTypeCode":
+          ret.m_sInvoiceTypeCode = aReader.getElementText ();
+          break;
+        case "DocumentCurrencyCode":
+          ret.m_sDocumentCurrencyCode = aReader.getElementText ();
+          break;
+        default:
+          UBLStreamReader.skipElement (aReader);
+          break;
+      }
+    }
+    return ret;
+  }
+
+  private static boolean _isCurrencyCode (@NonNull final String s)
+  {
+    if (s.length () != 3)
+      return false;
+    for (int i = 0; i < 3; ++i)
+    {
+      final char c = s.charAt (i);
+      if (c < 'A' || c > 'Z')
+        return false;
+    }
+    return true;
+  }
+
+  private void _checkMandatoryFields (@NonNull final Header aHeader, @NonNull final ErrorList aErrorList)
+  {
+    if (StringHelper.isEmpty (StringHelper.trim (aHeader.m_sID)))
+      aErrorList.add (SingleError.builderError ()
+                                 .errorFieldName ("ID")
+                                 .errorID (EText.MISSING_INVOICE_NUMBER.name ())
+                                 .errorText (new LazyErrorText (EText.MISSING_INVOICE_NUMBER, m_aDisplayLocale))
+                                 .build ());
+
+    if (StringHelper.isEmpty (StringHelper.trim (aHeader.m_sIssueDate)))
+      aErrorList.add (SingleError.builderError ()
+                                 .errorFieldName ("IssueDate")
+                                 .errorID (EText.MISSING_INVOICE_DATE.name ())
+                                 .errorText (new LazyErrorText (EText.MISSING_INVOICE_DATE, m_aDisplayLocale))
+                                 .build ());
+
+    final String sCurrencyCode = StringHelper.trim (aHeader.m_sDocumentCurrencyCode);
+    if (StringHelper.isEmpty (sCurrencyCode))
+      aErrorList.add (SingleError.builderError ()
+                                 .errorFieldName ("DocumentCurrencyCode")
+                                 .errorID (ETriageText.MISSING_CURRENCY_CODE.name ())
+                                 .errorText (new LazyErrorText (ETriageText.MISSING_CURRENCY_CODE, m_aDisplayLocale))
+                                 .build ());
+    else
+      if (!_isCurrencyCode (sCurrencyCode))
+        aErrorList.add (SingleError.builderError ()
+                                   .errorFieldName ("DocumentCurrencyCode")
+                                   .errorID (EText.INVALID_CURRENCY_CODE.name ())
+                                   .errorText (new LazyErrorText (EText.INVALID_CURRENCY_CODE,
+                                                                  m_aDisplayLocale,
+                                                                  sCurrencyCode))
+                                   .build ());
+  }
+
+  /**
+   * Triage a single UBL document.
+   *
+   * @param aIS
+   *        The input stream to read from. It is only read partially and not
+   *        closed. May not be <code>null</code>.
+   * @return The verdict. Never <code>null</code>.
+   */
+  @NonNull
+  public UBLTriageResult triage (@NonNull final InputStream aIS)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+
+    final ErrorList aErrorList = new ErrorList ();
+    EConversionDirection eDirection = null;
+    try
+    {
+      final XMLStreamReader aReader = SafeXMLInputFactory.createXMLStreamReader (aIS);
+      try
+      {
+        aReader.nextTag ();
+        final QName aRootName = aReader.getName ();
+        if (UBLStreamReader.INVOICE.getRootElementName ().equals (aRootName))
+          eDirection = EConversionDirection.INVOICE_TO_EBINTERFACE;
+        else
+          if (UBLStreamReader.CREDIT_NOTE.getRootElementName ().equals (aRootName))
+            eDirection = EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE;
+
+        if (eDirection == null)
+        {
+          aErrorList.add (SingleError.builderError ()
+                                     .errorID (ETriageText.UNSUPPORTED_DOCUMENT.name ())
+                                     .errorText (new LazyErrorText (ETriageText.UNSUPPORTED_DOCUMENT, m_aDisplayLocale))
+                                     .build ());
+        }
+        else
+        {
+          final Header aHeader = _readHeader (aReader);
+
+          // Build a document with only the header values, so that exactly the
+          // same consistency check as in the converters can be used
+          if (eDirection == EConversionDirection.INVOICE_TO_EBINTERFACE)
+          {
+            final InvoiceType aUBLInvoice = new InvoiceType ();
+            if (aHeader.m_sUBLVersionID != null)
+              aUBLInvoice.setUBLVersionID (aHeader.m_sUBLVersionID);
+            if (aHeader.m_sProfileID != null)
+              aUBLInvoice.setProfileID (aHeader.m_sProfileID);
+            if (aHeader.m_sInvoiceTypeCode != null)
+              aUBLInvoice.setInvoiceTypeCode (aHeader.m_sInvoiceTypeCode);
+            m_aChecker.checkInvoiceConsistency (aUBLInvoice, aErrorList);
+          }
+          else
+          {
+            final CreditNoteType aUBLCreditNote = new CreditNoteType ();
+            if (aHeader.m_sUBLVersionID != null)
+              aUBLCreditNote.setUBLVersionID (aHeader.m_sUBLVersionID);
+            if (aHeader.m_sProfileID != null)
+              aUBLCreditNote.setProfileID (aHeader.m_sProfileID);
+            m_aChecker.checkCreditNoteConsistency (aUBLCreditNote, aErrorList);
+          }
+
+          _checkMandatoryFields (aHeader, aErrorList);
+        }
+      }
+      finally
+      {
+        aReader.close ();
+      }
+    }
+    catch (final XMLStreamException ex)
+    {
+      aErrorList.add (SingleError.builderError ()
+                                 .errorID (ETriageText.READ_FAILED.name ())
+                                 .errorText (new LazyErrorText (ETriageText.READ_FAILED,
+                                                                m_aDisplayLocale,
+                                                                ex.getMessage ()))
+                                 .linkedException (ex)
+                                 .build ());
+    }
+    return new UBLTriageResult (eDirection, aErrorList);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("DisplayLocale", m_aDisplayLocale)
+                                       .append ("Checker", m_aChecker)
+                                       .getToString ();
+  }
+}
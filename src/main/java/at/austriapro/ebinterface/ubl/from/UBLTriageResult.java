@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+
+/**
+ * The verdict of {@link UBLTriage} for a single UBL document.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class UBLTriageResult
+{
+  private final EConversionDirection m_eDirection;
+  private final ErrorList m_aErrorList;
+
+  UBLTriageResult (@Nullable final EConversionDirection eDirection, @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    m_eDirection = eDirection;
+    m_aErrorList = aErrorList;
+  }
+
+  /**
+   * @return {@link EConversionDirection#INVOICE_TO_EBINTERFACE} or
+   *         {@link EConversionDirection#CREDIT_NOTE_TO_EBINTERFACE} depending on
+   *         the root element, or <code>null</code> if the document is neither a
+   *         UBL invoice nor a UBL credit note.
+   */
+  @Nullable
+  public EConversionDirection getDirection ()
+  {
+    return m_eDirection;
+  }
+
+  /**
+   * @return All errors and warnings found. The same errors and warnings would
+   *         be reported by the consistency check of the converters. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ErrorList getErrorList ()
+  {
+    return m_aErrorList;
+  }
+
+  /**
+   * @return <code>true</code> if the document is a UBL invoice or credit note
+   *         and the triage found no error, so that it is worth to convert it.
+   *         The conversion may of course still fail for other reasons.
+   */
+  public boolean isConvertible ()
+  {
+    return m_eDirection != null && !m_aErrorList.containsAtLeastOneError ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Direction", m_eDirection)
+                                       .append ("ErrorList", m_aErrorList)
+                                       .getToString ();
+  }
+}
@@ -29,43 +29,42 @@ import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.numeric.BigHelper;
 import com.helger.base.state.ETriState;
 import com.helger.base.string.StringHelper;
-import com.helger.base.string.StringImplode;
-import com.helger.base.string.StringParser;
 import com.helger.collection.CollectionHelper;
-import com.helger.collection.commons.CommonsArrayList;
-import com.helger.collection.commons.CommonsHashMap;
-import com.helger.collection.commons.ICommonsList;
-import com.helger.collection.commons.ICommonsMap;
 import com.helger.datetime.xml.XMLOffsetDate;
 import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.level.EErrorLevel;
 import com.helger.diagnostics.error.list.ErrorList;
 import com.helger.ebinterface.codelist.EFurtherIdentification;
 import com.helger.ebinterface.codelist.ETaxCode;
 import com.helger.ebinterface.v43.*;
 
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import at.austriapro.ebinterface.ubl.from.AbstractToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.ConversionStageTracker;
+import at.austriapro.ebinterface.ubl.from.EConversionStage;
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
 import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
-import at.austriapro.ebinterface.ubl.from.helper.SchemedID;
-import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKey;
+import at.austriapro.ebinterface.ubl.from.IntermediateDocument;
+import at.austriapro.ebinterface.ubl.from.helper.AllowanceChargeData;
+import at.austriapro.ebinterface.ubl.from.helper.DocumentHeader;
+import at.austriapro.ebinterface.ubl.from.helper.ErrorFieldPath;
+import at.austriapro.ebinterface.ubl.from.helper.LazyError;
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+import at.austriapro.ebinterface.ubl.from.helper.LineData;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTableEntry;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AllowanceChargeType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CreditNoteLineType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CustomerPartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.DeliveryType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.MonetaryTotalType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderLineReferenceType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderReferenceType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PeriodType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.SupplierPartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSubtotalType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxTotalType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AdditionalAccountIDType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DescriptionType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NameType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NoteType;
 import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
 
 /**
@@ -74,7 +73,8 @@ import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
  * @author Philip Helger
  */
 @Immutable
-public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterface43Converter
+public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterface43Converter implements
+                                                      ICreditNoteToEbInterfaceConverter <Ebi43InvoiceType>
 {
   private ICustomCreditNoteToEbInterface43Converter m_aCustomizer;
 
@@ -114,17 +114,60 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
   @Nullable
   public Ebi43InvoiceType convertToEbInterface (@NonNull final CreditNoteType aUBLDoc,
                                                 @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convertToEbInterface (aUBLDoc, null, aTransformationErrorList);
+  }
+
+  @Override
+  @Nullable
+  protected Ebi43InvoiceType convertIntermediateDocument (@NonNull final IntermediateDocument <?> aIntermediateDoc,
+                                                          @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convertToEbInterface ((CreditNoteType) aIntermediateDoc.getSourceDocument (),
+                                  aIntermediateDoc,
+                                  aTransformationErrorList);
+  }
+
+  @Nullable
+  private Ebi43InvoiceType _convertToEbInterface (@NonNull final CreditNoteType aUBLDoc,
+                                                  @Nullable final IntermediateDocument <?> aIntermediateDoc,
+                                                  @NonNull final ErrorList aTransformationErrorList)
   {
     ValueEnforcer.notNull (aUBLDoc, "UBLCreditNote");
     ValueEnforcer.notNull (aTransformationErrorList, "TransformationErrorList");
     ValueEnforcer.isTrue (aTransformationErrorList.isEmpty (), "TransformationErrorList must be empty!");
 
+    final ConversionStageTracker aStages = createStageTracker (EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                                                               EEbInterfaceVersion.V43,
+                                                               aUBLDoc.getIDValue (),
+                                                               aTransformationErrorList);
+    try
+    {
+      return _convertDocument (aUBLDoc, aIntermediateDoc, aStages, aTransformationErrorList);
+    }
+    finally
+    {
+      aStages.end ();
+    }
+  }
+
+  @Nullable
+  private Ebi43InvoiceType _convertDocument (@NonNull final CreditNoteType aUBLDoc,
+                                             @Nullable final IntermediateDocument <?> aIntermediateDoc,
+                                             @NonNull final ConversionStageTracker aStages,
+                                             @NonNull final ErrorList aTransformationErrorList)
+  {
     // Consistency check before starting the conversion
-    checkCreditNoteConsistency (aUBLDoc, aTransformationErrorList);
-    if (aTransformationErrorList.containsAtLeastOneError ())
-      return null;
+    aStages.begin (EConversionStage.CONSISTENCY_CHECK);
+    if (aIntermediateDoc == null)
+    {
+      checkCreditNoteConsistency (aUBLDoc, aTransformationErrorList);
+      if (aTransformationErrorList.containsAtLeastOneError ())
+        return null;
+    }
 
     // Build ebInterface invoice
+    aStages.begin (EConversionStage.DOCUMENT_HEADER);
     final Ebi43InvoiceType aEbiDoc = new Ebi43InvoiceType ();
     aEbiDoc.setGeneratingSystem (EBI_GENERATING_SYSTEM_43);
     aEbiDoc.setDocumentType (getAsDocumentTypeType (aUBLDoc.getCreditNoteTypeCode () == null ? null : aUBLDoc
@@ -136,29 +179,19 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     // Cannot set the language, because the 3letter code is expected but we only
     // have the 2letter code!
 
-    final String sUBLCurrencyCode = StringHelper.trim (aUBLDoc.getDocumentCurrencyCodeValue ());
+    final DocumentHeader aHeader = aIntermediateDoc != null ? aIntermediateDoc.getDocumentHeader ()
+                                                            : createDocumentHeader (aUBLDoc, aTransformationErrorList);
+    final String sUBLCurrencyCode = aHeader.getCurrencyCode ();
     aEbiDoc.setInvoiceCurrency (sUBLCurrencyCode);
 
     // CreditNote Number
-    final String sCreditNoteNumber = StringHelper.trim (aUBLDoc.getIDValue ());
-    if (StringHelper.isEmpty (sCreditNoteNumber))
-      aTransformationErrorList.add (SingleError.builderError ()
-                                               .errorFieldName ("ID")
-                                               .errorText (EText.MISSING_INVOICE_NUMBER.getDisplayText (m_aDisplayLocale))
-                                               .build ());
+    final String sCreditNoteNumber = aHeader.getDocumentNumber ();
     aEbiDoc.setInvoiceNumber (sCreditNoteNumber);
-
-    // Ignore the time!
-    aEbiDoc.setInvoiceDate (aUBLDoc.getIssueDateValue ());
-    if (aEbiDoc.getInvoiceDate () == null)
-      aTransformationErrorList.add (SingleError.builderError ()
-                                               .errorFieldName ("IssueDate")
-                                               .errorText (EText.MISSING_INVOICE_DATE.getDisplayText (m_aDisplayLocale))
-                                               .build ());
+    aEbiDoc.setInvoiceDate (aHeader.getIssueDate ());
 
     // Is duplicate/copy indicator?
-    if (aUBLDoc.getCopyIndicator () != null)
-      aEbiDoc.setIsDuplicate (Boolean.valueOf (aUBLDoc.getCopyIndicator ().isValue ()));
+    if (aHeader.getCopyIndicator () != null)
+      aEbiDoc.setIsDuplicate (aHeader.getCopyIndicator ());
 
     // CancelledOriginalDocument
     convertRelatedDocuments (aUBLDoc.getBillingReference (), aEbiDoc);
@@ -170,39 +203,28 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     convertReferencedDocuments (aUBLDoc.getOriginatorDocumentReference (), aEbiDoc);
 
     // Global comment
-    {
-      final ICommonsList <String> aEbiComment = new CommonsArrayList <> ();
-      for (final NoteType aNote : aUBLDoc.getNote ())
-        if (StringHelper.isNotEmpty (aNote.getValue ()))
-          aEbiComment.add (aNote.getValue ());
-      if (!aEbiComment.isEmpty ())
-        aEbiDoc.setComment (StringImplode.getImplodedNonEmpty ('\n', aEbiComment));
-    }
+    if (aHeader.hasComment ())
+      aEbiDoc.setComment (aHeader.getComment ());
 
     // Biller/Supplier (creator of the invoice)
+    aStages.begin (EConversionStage.BILLER);
     {
       final SupplierPartyType aUBLSupplier = aUBLDoc.getAccountingSupplierParty ();
-      final PartyType aUBLParty = aUBLSupplier.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getSupplierParty ()
+                                                        : createPartyData (aUBLSupplier.getParty ());
 
       final Ebi43BillerType aEbiBiller = new Ebi43BillerType ();
       // Find the tax scheme that uses VAT
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiBiller.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiBiller.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiBiller.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aEbiBiller.setVATIdentificationNumber (AT_UNDEFINED_VATIN);
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("AccountingSupplierParty/Party/PartyTaxScheme")
-                                                 .errorText (EText.BILLER_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.BILLER_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.BILLER_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -215,12 +237,11 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         }
 
       if (StringHelper.isEmpty (aEbiBiller.getInvoiceRecipientsBillerID ()) &&
-          aUBLParty != null &&
-          aUBLParty.hasPartyIdentificationEntries ())
+          aParty != null &&
+          aParty.hasPartyIdentification ())
       {
         // New version for BIS V2
-        aEbiBiller.setInvoiceRecipientsBillerID (StringHelper.trim (aUBLParty.getPartyIdentificationAtIndex (0)
-                                                                             .getIDValue ()));
+        aEbiBiller.setInvoiceRecipientsBillerID (aParty.getFirstPartyIdentificationID ());
       }
 
       // Disabled because field is optional
@@ -230,7 +251,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
           // Mandatory field
           aTransformationErrorList.add (SingleError.builderError ()
                                                    .errorFieldName ("AccountingSupplierParty/CustomerAssignedAccountID")
-                                                   .errorText (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING.name ())
+                                                   .errorText (new LazyErrorText (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING, m_aDisplayLocale))
                                                    .build ());
         }
 
@@ -240,9 +262,9 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                                                                           aUBLAddAccountID.getValue ()));
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        aEbiBiller.setAddress (convertParty (aUBLParty,
+        aEbiBiller.setAddress (convertParty (aParty,
                                              "AccountingSupplierParty",
                                              aTransformationErrorList,
                                              m_aContentLocale,
@@ -255,36 +277,31 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
             aEbiBiller.getAddress ().setEmail (m_aSettings.getEnforcedSupplierEmailAddress ());
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (), aEbiBiller::addFurtherIdentification);
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (), aEbiBiller::addFurtherIdentification);
       }
 
       aEbiDoc.setBiller (aEbiBiller);
     }
 
     // CreditNote recipient
+    aStages.begin (EConversionStage.INVOICE_RECIPIENT);
     {
       final CustomerPartyType aUBLCustomer = aUBLDoc.getAccountingCustomerParty ();
-      final PartyType aUBLParty = aUBLCustomer.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getCustomerParty ()
+                                                        : createPartyData (aUBLCustomer.getParty ());
 
       final Ebi43InvoiceRecipientType aEbiRecipient = new Ebi43InvoiceRecipientType ();
       // Find the tax scheme that uses VAT#
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiRecipient.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiRecipient.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiRecipient.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aEbiRecipient.setVATIdentificationNumber (AT_UNDEFINED_VATIN);
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("AccountingCustomerParty/PartyTaxScheme")
-                                                 .errorText (EText.INVOICE_RECIPIENT_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.INVOICE_RECIPIENT_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.INVOICE_RECIPIENT_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
       if (aUBLCustomer.getSupplierAssignedAccountID () != null)
@@ -302,9 +319,9 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                                                                              aUBLAddAccountID.getValue ()));
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        aEbiRecipient.setAddress (convertParty (aUBLParty,
+        aEbiRecipient.setAddress (convertParty (aParty,
                                                 "AccountingCustomerParty",
                                                 aTransformationErrorList,
                                                 m_aContentLocale,
@@ -312,14 +329,15 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                                                 true));
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (), aEbiRecipient::addFurtherIdentification);
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (), aEbiRecipient::addFurtherIdentification);
       }
       if (aEbiRecipient.getAddress () == null)
       {
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("AccountingCustomerParty/Party")
-                                                 .errorText (EText.INVOICE_RECIPIENT_PARTY_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.INVOICE_RECIPIENT_PARTY_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.INVOICE_RECIPIENT_PARTY_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -327,35 +345,30 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // Ordering party
+    aStages.begin (EConversionStage.ORDERING_PARTY);
     final CustomerPartyType aUBLBuyer = aUBLDoc.getBuyerCustomerParty ();
     if (aUBLBuyer != null)
     {
-      final PartyType aUBLParty = aUBLBuyer.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getBuyerParty ()
+                                                        : createPartyData (aUBLBuyer.getParty ());
 
       final Ebi43OrderingPartyType aEbiOrderingParty = new Ebi43OrderingPartyType ();
       // Find the tax scheme that uses VAT
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiOrderingParty.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiOrderingParty.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiOrderingParty.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("BuyerCustomerParty/PartyTaxScheme")
-                                                 .errorText (EText.ORDERING_PARTY_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ORDERING_PARTY_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.ORDERING_PARTY_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        aEbiOrderingParty.setAddress (convertParty (aUBLParty,
+        aEbiOrderingParty.setAddress (convertParty (aParty,
                                                     "BuyerCustomerParty",
                                                     aTransformationErrorList,
                                                     m_aContentLocale,
@@ -363,7 +376,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                                                     true));
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (),
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (),
                                        aEbiOrderingParty::addFurtherIdentification);
       }
       if (aEbiOrderingParty.getAddress () == null)
@@ -371,7 +384,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("BuyerCustomerParty/Party")
-                                                 .errorText (EText.ORDERING_PARTY_PARTY_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ORDERING_PARTY_PARTY_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.ORDERING_PARTY_PARTY_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -383,12 +397,11 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
 
       if (false)
         if (StringHelper.isEmpty (aEbiOrderingParty.getBillersOrderingPartyID ()) &&
-            aUBLParty != null &&
-            aUBLParty.hasPartyIdentificationEntries ())
+            aParty != null &&
+            aParty.hasPartyIdentification ())
         {
           // New version for BIS V2
-          aEbiOrderingParty.setBillersOrderingPartyID (StringHelper.trim (aUBLParty.getPartyIdentificationAtIndex (0)
-                                                                                   .getIDValue ()));
+          aEbiOrderingParty.setBillersOrderingPartyID (aParty.getFirstPartyIdentificationID ());
         }
 
       if (StringHelper.isEmpty (aEbiOrderingParty.getBillersOrderingPartyID ()) &&
@@ -403,7 +416,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("BuyerCustomerParty/SupplierAssignedAccountID")
-                                                 .errorText (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -411,6 +425,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // Order reference of invoice recipient
+    aStages.begin (EConversionStage.ORDER_REFERENCE);
     String sUBLOrderReferenceID = null;
     {
       final OrderReferenceType aUBLOrderReference = aUBLDoc.getOrderReference ();
@@ -425,7 +440,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         if (m_aSettings.isOrderReferenceIDMandatory ())
           aTransformationErrorList.add (SingleError.builderError ()
                                                    .errorFieldName ("OrderReference/ID")
-                                                   .errorText (EText.ORDER_REFERENCE_MISSING.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ORDER_REFERENCE_MISSING.name ())
+                                                   .errorText (new LazyErrorText (EText.ORDER_REFERENCE_MISSING, m_aDisplayLocale))
                                                    .build ());
       }
       else
@@ -437,9 +453,11 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
           {
             aTransformationErrorList.add (SingleError.builderWarn ()
                                                      .errorFieldName ("OrderReference/ID")
-                                                     .errorText (EText.ORDER_REFERENCE_TOO_LONG.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                        sUBLOrderReferenceID,
-                                                                                                                        Integer.valueOf (nMaxLen)))
+                                                     .errorID (EText.ORDER_REFERENCE_TOO_LONG.name ())
+                                                     .errorText (new LazyErrorText (EText.ORDER_REFERENCE_TOO_LONG,
+                                                                                    m_aDisplayLocale,
+                                                                                    sUBLOrderReferenceID,
+                                                                                    Integer.valueOf (nMaxLen)))
                                                      .build ());
             sUBLOrderReferenceID = sUBLOrderReferenceID.substring (0, nMaxLen);
           }
@@ -452,202 +470,54 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // Tax totals
-    // Map from tax category to percentage
-    final ICommonsMap <TaxCategoryKey, BigDecimal> aTaxCategoryPercMap = new CommonsHashMap <> ();
+    aStages.begin (EConversionStage.TAX_TOTALS, getTaxSubtotalCount (aUBLDoc.getTaxTotal ()));
+    final TaxTable aTaxTable = aIntermediateDoc != null ? aIntermediateDoc.getTaxTable ()
+                                                        : createTaxTable (aUBLDoc.getTaxTotal (), aTransformationErrorList);
     final Ebi43TaxType aEbiTax = new Ebi43TaxType ();
     final Ebi43VATType aEbiVAT = new Ebi43VATType ();
     {
-      int nTaxTotalIndex = 0;
-      for (final TaxTotalType aUBLTaxTotal : aUBLDoc.getTaxTotal ())
+      for (final TaxTableEntry aTaxEntry : aTaxTable.getAllEntries ())
       {
-        int nTaxSubtotalIndex = 0;
-        for (final TaxSubtotalType aUBLSubtotal : aUBLTaxTotal.getTaxSubtotal ())
+        if (aTaxEntry.isVAT ())
         {
-          // Tax category is a mandatory element
-          final TaxCategoryType aUBLTaxCategory = aUBLSubtotal.getTaxCategory ();
-
-          final String sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getID ().getValue ());
-          final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
-          BigDecimal aUBLTaxAmount = aUBLSubtotal.getTaxAmountValue ();
-          BigDecimal aUBLTaxableAmount = aUBLSubtotal.getTaxableAmountValue ();
-
-          // Is the percentage value directly specified
-          BigDecimal aUBLPercentage = bTaxExemption ? BigDecimal.ZERO : aUBLTaxCategory.getPercentValue ();
-          if (aUBLPercentage == null)
+          // add VAT item
+          final Ebi43VATItemType aEbiVATItem = new Ebi43VATItemType ();
+          // Base amount
+          aEbiVATItem.setTaxedAmount (aTaxEntry.getTaxableAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          if (aTaxEntry.isTaxExemption ())
           {
-            // no it is not :(
-            if (aUBLTaxAmount != null && aUBLTaxableAmount != null)
-            {
-              // Calculate percentage
-              aUBLPercentage = BigHelper.isEQ0 (aUBLTaxableAmount) ? BigDecimal.ZERO : aUBLTaxAmount.multiply (
-                                                                                                               CGlobal.BIGDEC_100)
-                                                                                                    .divide (aUBLTaxableAmount,
-                                                                                                             SCALE_PERC,
-                                                                                                             ROUNDING_MODE);
-            }
+            String sReason = aTaxEntry.getTaxExemptionReason ();
+            if (StringHelper.isEmpty (sReason))
+              sReason = "Tax Exemption";
+            final Ebi43TaxExemptionType aEbiTaxEx = new Ebi43TaxExemptionType ();
+            aEbiTaxEx.setValue (sReason);
+            aEbiVATItem.setTaxExemption (aEbiTaxEx);
           }
-
-          if (aUBLPercentage != null)
-          {
-            // We have at least the percentage
-            if (aUBLTaxableAmount == null && aUBLTaxAmount != null)
-            {
-              // Cannot "back" calculate the taxable amount from 0 percentage!
-              if (BigHelper.isNE0 (aUBLPercentage))
-              {
-                // Calculate (inexact) subtotal
-                aUBLTaxableAmount = aUBLTaxAmount.multiply (CGlobal.BIGDEC_100)
-                                                 .divide (aUBLPercentage, SCALE_PRICE4, ROUNDING_MODE);
-              }
-            }
-            else
-              if (aUBLTaxableAmount != null && aUBLTaxAmount == null)
-              {
-                // Calculate (inexact) subtotal
-                aUBLTaxAmount = BigHelper.isEQ0 (aUBLPercentage) ? BigDecimal.ZERO : aUBLTaxableAmount.multiply (
-                                                                                                                 aUBLPercentage)
-                                                                                                      .divide (CGlobal.BIGDEC_100,
-                                                                                                               SCALE_PRICE4,
-                                                                                                               ROUNDING_MODE);
-              }
-          }
-
-          // Save item and put in map
-          final IDType aUBLTaxSchemeID = aUBLTaxCategory.getTaxScheme ().getID ();
-          if (aUBLTaxSchemeID == null)
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory/TaxScheme/ID")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
-          final String sUBLTaxSchemeSchemeID = StringHelper.trim (aUBLTaxSchemeID.getSchemeID ());
-          final String sUBLTaxSchemeID = StringHelper.trim (aUBLTaxSchemeID.getValue ());
-          if (StringHelper.isEmpty (sUBLTaxSchemeID))
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory/TaxScheme/ID")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID_VALUE.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
-
-          if (aUBLTaxCategory.getID () == null)
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_ID.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
-          if (StringHelper.isEmpty (sUBLTaxCategoryID))
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_ID_VALUE.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
-
-          final String sUBLTaxCategorySchemeID = StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ());
-
-          aTaxCategoryPercMap.put (new TaxCategoryKey (new SchemedID (sUBLTaxSchemeSchemeID, sUBLTaxSchemeID),
-                                                       new SchemedID (sUBLTaxCategorySchemeID, sUBLTaxCategoryID)),
-                                   aUBLPercentage);
-
+          else
           {
-            // Is it VAT?
-            if (isVATSchemeID (sUBLTaxSchemeID))
-            {
-              if (aUBLPercentage == null)
-              {
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("TaxTotal[" +
-                                                                          nTaxTotalIndex +
-                                                                          "]/TaxSubtotal[" +
-                                                                          nTaxSubtotalIndex +
-                                                                          "]/TaxCategory/Percent")
-                                                         .errorText (EText.TAX_PERCENT_MISSING.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-                if (aUBLTaxableAmount == null)
-                {
-                  aTransformationErrorList.add (SingleError.builderError ()
-                                                           .errorFieldName ("TaxTotal[" +
-                                                                            nTaxTotalIndex +
-                                                                            "]/TaxSubtotal[" +
-                                                                            nTaxSubtotalIndex +
-                                                                            "]/TaxableAmount")
-                                                           .errorText (EText.TAXABLE_AMOUNT_MISSING.getDisplayText (m_aDisplayLocale))
-                                                           .build ());
-                }
-                else
-                {
-                  // add VAT item
-                  final Ebi43VATItemType aEbiVATItem = new Ebi43VATItemType ();
-                  // Base amount
-                  aEbiVATItem.setTaxedAmount (aUBLTaxableAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-                  if (bTaxExemption)
-                  {
-                    String sReason = null;
-                    if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
-                      sReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
-                    if (sReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
-                      sReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
-                    if (StringHelper.isEmpty (sReason))
-                      sReason = "Tax Exemption";
-                    final Ebi43TaxExemptionType aEbiTaxEx = new Ebi43TaxExemptionType ();
-                    aEbiTaxEx.setValue (sReason);
-                    aEbiVATItem.setTaxExemption (aEbiTaxEx);
-                  }
-                  else
-                  {
-                    // tax rate
-                    final Ebi43VATRateType aEbiVATVATRate = new Ebi43VATRateType ();
-                    // Optional
-                    if (false)
-                      aEbiVATVATRate.setTaxCode (sUBLTaxCategoryID);
-                    aEbiVATVATRate.setValue (aUBLPercentage);
-                    aEbiVATItem.setVATRate (aEbiVATVATRate);
-                  }
-                  // Tax amount (mandatory)
-                  aEbiVATItem.setAmount (aUBLTaxAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-                  // Add to list
-                  aEbiVAT.addVATItem (aEbiVATItem);
-                }
-            }
-            else
-            {
-              // Other TAX
-              final Ebi43OtherTaxType aOtherTax = new Ebi43OtherTaxType ();
-              // As no comment is present, use the scheme ID
-              aOtherTax.setComment (sUBLTaxSchemeID);
-              // Tax amount (mandatory)
-              aOtherTax.setAmount (aUBLTaxAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-              aEbiTax.addOtherTax (aOtherTax);
-            }
+            // tax rate
+            final Ebi43VATRateType aEbiVATVATRate = new Ebi43VATRateType ();
+            // Optional
+            if (false)
+              aEbiVATVATRate.setTaxCode (aTaxEntry.getTaxCategoryID ());
+            aEbiVATVATRate.setValue (aTaxEntry.getPercentage ());
+            aEbiVATItem.setVATRate (aEbiVATVATRate);
           }
-          ++nTaxSubtotalIndex;
+          // Tax amount (mandatory)
+          aEbiVATItem.setAmount (aTaxEntry.getTaxAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          // Add to list
+          aEbiVAT.addVATItem (aEbiVATItem);
+        }
+        else
+        {
+          // Other TAX
+          final Ebi43OtherTaxType aOtherTax = new Ebi43OtherTaxType ();
+          // As no comment is present, use the scheme ID
+          aOtherTax.setComment (aTaxEntry.getTaxSchemeID ());
+          // Tax amount (mandatory)
+          aOtherTax.setAmount (aTaxEntry.getTaxAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          aEbiTax.addOtherTax (aOtherTax);
         }
-        ++nTaxTotalIndex;
       }
 
       aEbiTax.setVAT (aEbiVAT);
@@ -655,6 +525,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // Line items
+    aStages.begin (EConversionStage.LINE_ITEMS, aUBLDoc.getCreditNoteLineCount ());
     BigDecimal aTotalZeroPercLineExtensionAmount = BigDecimal.ZERO;
     {
       final Ebi43DetailsType aEbiDetails = new Ebi43DetailsType ();
@@ -662,83 +533,44 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
       int nLineIndex = 0;
       for (final CreditNoteLineType aUBLLine : aUBLDoc.getCreditNoteLine ())
       {
-        // Try to resolve tax category
-        TaxCategoryType aUBLTaxCategory = CollectionHelper.getAtIndex (aUBLLine.getItem ().getClassifiedTaxCategory (),
-                                                                       0);
-        if (aUBLTaxCategory == null)
-        {
-          // No direct tax category -> check if it is somewhere in the tax total
-          aUBLTaxCategory = findTaxCategory (aUBLLine.getTaxTotal ());
-        }
-
-        // Try to resolve tax percentage
-        BigDecimal aUBLPercent = null;
-        String sUBLTaxCategoryID = null;
-        if (aUBLTaxCategory != null)
-        {
-          sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getIDValue ());
-
-          // Specified at tax category?
-          if (aUBLTaxCategory.getPercent () != null)
-            aUBLPercent = aUBLTaxCategory.getPercentValue ();
-
-          if (aUBLPercent == null &&
-              aUBLTaxCategory.getID () != null &&
-              aUBLTaxCategory.getTaxScheme () != null &&
-              aUBLTaxCategory.getTaxScheme ().getID () != null)
-          {
-            // Not specified - check from previous map
-            final String sUBLTaxSchemeSchemeID = StringHelper.trim (aUBLTaxCategory.getTaxScheme ()
-                                                                                   .getID ()
-                                                                                   .getSchemeID ());
-            final String sUBLTaxSchemeID = StringHelper.trim (aUBLTaxCategory.getTaxScheme ().getIDValue ());
-
-            final String sUBLTaxCategorySchemeID = StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ());
-
-            // Avoid Exception
-            if (StringHelper.isNotEmpty (sUBLTaxSchemeID) && StringHelper.isNotEmpty (sUBLTaxCategoryID))
-            {
-              final TaxCategoryKey aKey = new TaxCategoryKey (new SchemedID (sUBLTaxSchemeSchemeID, sUBLTaxSchemeID),
-                                                              new SchemedID (sUBLTaxCategorySchemeID,
-                                                                             sUBLTaxCategoryID));
-              aUBLPercent = aTaxCategoryPercMap.get (aKey);
-            }
-          }
-        }
+        final LineData aLine = aIntermediateDoc != null ? aIntermediateDoc.getLineAtIndex (nLineIndex)
+                                                        : createLineData (aUBLLine, aTaxTable);
 
-        final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
-        if (bTaxExemption && aUBLPercent == null)
-          aUBLPercent = BigDecimal.ZERO;
+        // Tax category and percentage are resolved in the line data
+        final String sUBLTaxCategoryID = aLine.getTaxCategoryID ();
+        final boolean bTaxExemption = aLine.isTaxExemption ();
+        BigDecimal aUBLPercent = aLine.getTaxPercent ();
 
         if (aUBLPercent == null)
         {
           aUBLPercent = BigDecimal.ZERO;
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/Item/ClassifiedTaxCategory")
-                                                   .errorText (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                              aUBLPercent))
-                                                   .build ());
+          aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("Item")
+                                                                                                        .child ("ClassifiedTaxCategory"),
+                                                       EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND.name (),
+                                                       new LazyErrorText (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND,
+                                                                          m_aDisplayLocale,
+                                                                          aUBLPercent)));
         }
 
         // Start creating ebInterface line
         final Ebi43ListLineItemType aEbiListLineItem = new Ebi43ListLineItemType ();
 
         // CreditNote line number
-        final String sUBLPositionNumber = StringHelper.trim (aUBLLine.getIDValue ());
-        BigInteger aUBLPositionNumber = StringParser.parseBigInteger (sUBLPositionNumber);
+        final String sUBLPositionNumber = aLine.getID ();
+        BigInteger aUBLPositionNumber = aLine.getPositionNumber ();
         if (aUBLPositionNumber != null)
         {
           if (BigHelper.isLT1 (aUBLPositionNumber))
             if (m_aSettings.isErrorOnPositionNumber ())
             {
               // Must be &gt; 0
-              aTransformationErrorList.add (SingleError.builderError ()
-                                                       .errorFieldName ("CreditNoteLine[" + nLineIndex + "]/ID")
-                                                       .errorText (EText.DETAILS_INVALID_POSITION.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                          sUBLPositionNumber))
-                                                       .build ());
+              aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                           new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("ID"),
+                                                           EText.DETAILS_INVALID_POSITION.name (),
+                                                           new LazyErrorText (EText.DETAILS_INVALID_POSITION,
+                                                                              m_aDisplayLocale,
+                                                                              sUBLPositionNumber)));
             }
             else
             {
@@ -749,81 +581,58 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         if (aUBLPositionNumber == null)
         {
           aUBLPositionNumber = BigInteger.valueOf (nLineIndex + 1L);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" + nLineIndex + "]/ID")
-                                                   .errorText (EText.DETAILS_INVALID_POSITION_SET_TO_INDEX.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                                   sUBLPositionNumber,
-                                                                                                                                   aUBLPositionNumber))
-                                                   .build ());
+          aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("ID"),
+                                                       EText.DETAILS_INVALID_POSITION_SET_TO_INDEX.name (),
+                                                       new LazyErrorText (EText.DETAILS_INVALID_POSITION_SET_TO_INDEX,
+                                                                          m_aDisplayLocale,
+                                                                          sUBLPositionNumber,
+                                                                          aUBLPositionNumber)));
         }
         aEbiListLineItem.setPositionNumber (aUBLPositionNumber);
 
-        // Use item name as description
-        final NameType aUBLName = aUBLLine.getItem ().getName ();
-        if (aUBLName != null)
-        {
-          final String sDesc = StringHelper.trim (aUBLName.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
-        }
-        // Descriptions
-        for (final DescriptionType aUBLDescription : aUBLLine.getItem ().getDescription ())
-        {
-          final String sDesc = StringHelper.trim (aUBLDescription.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
-        }
-        // Add the Note elements as well (IBM, 2016-11)
-        for (final NoteType aUBLNote : aUBLLine.getNote ())
-        {
-          final String sDesc = StringHelper.trim (aUBLNote.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
-        }
+        // Use item name, descriptions and the Note elements as description
+        for (final String sDesc : aLine.getAllDescriptions ())
+          aEbiListLineItem.addDescription (sDesc);
 
         // Quantity
         final Ebi43UnitType aEbiQuantity = new Ebi43UnitType ();
-        if (aUBLLine.getCreditedQuantity () != null)
-        {
-          // Unit code is optional
-          if (aUBLLine.getCreditedQuantity ().getUnitCode () != null)
-            aEbiQuantity.setUnit (StringHelper.trim (aUBLLine.getCreditedQuantity ().getUnitCode ()));
-          aEbiQuantity.setValue (aUBLLine.getCreditedQuantityValue ());
-        }
+        // Unit code is optional
+        aEbiQuantity.setUnit (aLine.getQuantityUnit ());
+        aEbiQuantity.setValue (aLine.getQuantity ());
         if (aEbiQuantity.getUnit () == null)
         {
           // ebInterface requires a quantity!
           aEbiQuantity.setUnit (UOM_DEFAULT);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/CreditNotedQuantity/UnitCode")
-                                                   .errorText (EText.DETAILS_INVALID_UNIT.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                  aEbiQuantity.getUnit ()))
-                                                   .build ());
+          aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("CreditNotedQuantity")
+                                                                                                        .child ("UnitCode"),
+                                                       EText.DETAILS_INVALID_UNIT.name (),
+                                                       new LazyErrorText (EText.DETAILS_INVALID_UNIT,
+                                                                          m_aDisplayLocale,
+                                                                          aEbiQuantity.getUnit ())));
         }
         if (aEbiQuantity.getValue () == null)
         {
           aEbiQuantity.setValue (BigDecimal.ONE);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/CreditNotedQuantity")
-                                                   .errorText (EText.DETAILS_INVALID_QUANTITY.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                      aEbiQuantity.getValue ()))
-                                                   .build ());
+          aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("CreditNotedQuantity"),
+                                                       EText.DETAILS_INVALID_QUANTITY.name (),
+                                                       new LazyErrorText (EText.DETAILS_INVALID_QUANTITY,
+                                                                          m_aDisplayLocale,
+                                                                          aEbiQuantity.getValue ())));
         }
         aEbiListLineItem.setQuantity (aEbiQuantity);
 
         // Unit price
-        if (aUBLLine.getPrice () != null)
+        if (aLine.hasPrice ())
         {
           final Ebi43UnitPriceType aEbiUnitPrice = new Ebi43UnitPriceType ();
           // Unit price = priceAmount/baseQuantity (mandatory)
-          final BigDecimal aUBLPriceAmount = aUBLLine.getPrice ().getPriceAmountValue ();
+          final BigDecimal aUBLPriceAmount = aLine.getPriceAmount ();
           aEbiUnitPrice.setValue (aUBLPriceAmount);
           // If no base quantity is present, assume 1 (optional)
-          final BigDecimal aUBLBaseQuantity = aUBLLine.getPrice ().getBaseQuantityValue ();
+          final BigDecimal aUBLBaseQuantity = aLine.getPriceBaseQuantity ();
           if (aUBLBaseQuantity != null)
           {
             aEbiUnitPrice.setBaseQuantity (aUBLBaseQuantity);
@@ -835,7 +644,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         else
         {
           // Unit price = lineExtensionAmount / quantity (mandatory)
-          final BigDecimal aUBLLineExtensionAmount = aUBLLine.getLineExtensionAmountValue ();
+          final BigDecimal aUBLLineExtensionAmount = aLine.getLineExtensionAmount ();
           final Ebi43UnitPriceType aEbiUnitPrice = new Ebi43UnitPriceType ();
           if (BigHelper.isEQ0 (aEbiQuantity.getValue ()) || aUBLLineExtensionAmount == null)
             aEbiUnitPrice.setValue (BigDecimal.ZERO);
@@ -854,11 +663,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
         if (bTaxExemption)
         {
           // Tax exemption
-          String sReason = null;
-          if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
-            sReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
-          if (sReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
-            sReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
+          String sReason = aLine.getTaxExemptionReason ();
           if (StringHelper.isEmpty (sReason))
             sReason = "Tax Exemption";
           final Ebi43TaxExemptionType aEbiTaxEx = new Ebi43TaxExemptionType ();
@@ -870,92 +675,89 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
           // VAT rate (mandatory)
           final Ebi43VATRateType aEbiVATRate = new Ebi43VATRateType ();
           aEbiVATRate.setValue (aUBLPercent);
-          if (aUBLTaxCategory != null)
+          if (sUBLTaxCategoryID != null)
           {
             // Optional
             if (false)
-              aEbiVATRate.setTaxCode (aUBLTaxCategory.getIDValue ());
+              aEbiVATRate.setTaxCode (sUBLTaxCategoryID);
           }
           aEbiListLineItem.setVATRate (aEbiVATRate);
         }
 
         // Line item amount (quantity * unit price +- reduction / surcharge)
-        aEbiListLineItem.setLineItemAmount (aUBLLine.getLineExtensionAmountValue () == null ? BigDecimal.ZERO : aUBLLine
-                                                                                                                        .getLineExtensionAmountValue ()
-                                                                                                                        .setScale (SCALE_PRICE2,
-                                                                                                                                   ROUNDING_MODE));
+        aEbiListLineItem.setLineItemAmount (aLine.getLineExtensionAmount () == null ? BigDecimal.ZERO
+                                                                                    : aLine.getLineExtensionAmount ()
+                                                                                           .setScale (SCALE_PRICE2, ROUNDING_MODE));
 
         // Special handling in case no VAT item is present
         if (BigHelper.isEQ0 (aUBLPercent))
           aTotalZeroPercLineExtensionAmount = aTotalZeroPercLineExtensionAmount.add (aEbiListLineItem.getLineItemAmount ());
 
         // Order reference per line (UBL 2.1 only)
-        for (final OrderLineReferenceType aUBLOrderLineReference : aUBLLine.getOrderLineReference ())
-          if (StringHelper.isNotEmpty (aUBLOrderLineReference.getLineIDValue ()))
+        if (aLine.hasOrderLineReference ())
+        {
+          final Ebi43OrderReferenceDetailType aEbiOrderRefDetail = new Ebi43OrderReferenceDetailType ();
+
+          // order reference
+          String sUBLLineOrderReferenceID = aLine.getOrderLineReferenceOrderID ();
+          if (StringHelper.isEmpty (sUBLLineOrderReferenceID))
           {
-            final Ebi43OrderReferenceDetailType aEbiOrderRefDetail = new Ebi43OrderReferenceDetailType ();
+            // Use the global order reference from header level
+            sUBLLineOrderReferenceID = sUBLOrderReferenceID;
+          }
+          aEbiOrderRefDetail.setOrderID (sUBLLineOrderReferenceID);
 
-            // order reference
-            String sUBLLineOrderReferenceID = null;
-            if (aUBLOrderLineReference.getOrderReference () != null)
-              sUBLLineOrderReferenceID = StringHelper.trim (aUBLOrderLineReference.getOrderReference ().getIDValue ());
-            if (StringHelper.isEmpty (sUBLLineOrderReferenceID))
+          // Order position number
+          final String sOrderPosNumber = aLine.getOrderLineReferenceLineID ();
+          if (sOrderPosNumber != null)
+          {
+            if (sOrderPosNumber.length () == 0)
             {
-              // Use the global order reference from header level
-              sUBLLineOrderReferenceID = sUBLOrderReferenceID;
+              aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                           new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                            .child ("LineID"),
+                                                           EText.ORDERLINE_REF_ID_EMPTY.name (),
+                                                           new LazyErrorText (EText.ORDERLINE_REF_ID_EMPTY,
+                                                                              m_aDisplayLocale)));
             }
-            aEbiOrderRefDetail.setOrderID (sUBLLineOrderReferenceID);
-
-            // Order position number
-            final String sOrderPosNumber = StringHelper.trim (aUBLOrderLineReference.getLineIDValue ());
-            if (sOrderPosNumber != null)
+            else
             {
-              if (sOrderPosNumber.length () == 0)
-              {
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/LineID")
-                                                         .errorText (EText.ORDERLINE_REF_ID_EMPTY.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-              {
-                aEbiOrderRefDetail.setOrderPositionNumber (sOrderPosNumber);
-              }
+              aEbiOrderRefDetail.setOrderPositionNumber (sOrderPosNumber);
             }
-            if (StringHelper.isNotEmpty (aEbiOrderRefDetail.getOrderPositionNumber ()) &&
-                StringHelper.isEmpty (sUBLLineOrderReferenceID))
+          }
+          if (StringHelper.isNotEmpty (aEbiOrderRefDetail.getOrderPositionNumber ()) &&
+              StringHelper.isEmpty (sUBLLineOrderReferenceID))
+          {
+            if (m_aSettings.isOrderReferenceIDMandatory ())
             {
-              if (m_aSettings.isOrderReferenceIDMandatory ())
-              {
-                // The line order reference is mandatory
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/OrderReference/ID")
-                                                         .errorText (EText.ORDER_REFERENCE_MISSING.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-              {
-                aEbiOrderRefDetail.setOrderPositionNumber (null);
-                aTransformationErrorList.add (SingleError.builderWarn ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/OrderReference/ID")
-                                                         .errorText (EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
+              // The line order reference is mandatory
+              aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                           new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                            .child ("OrderReference")
+                                                                                                            .child ("ID"),
+                                                           EText.ORDER_REFERENCE_MISSING.name (),
+                                                           new LazyErrorText (EText.ORDER_REFERENCE_MISSING,
+                                                                              m_aDisplayLocale)));
+            }
+            else
+            {
+              aEbiOrderRefDetail.setOrderPositionNumber (null);
+              aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                           new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                            .child ("OrderReference")
+                                                                                                            .child ("ID"),
+                                                           EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS.name (),
+                                                           new LazyErrorText (EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS,
+                                                                              m_aDisplayLocale)));
             }
-
-            if (StringHelper.isNotEmpty (sUBLLineOrderReferenceID))
-              aEbiListLineItem.setInvoiceRecipientsOrderReference (aEbiOrderRefDetail);
-            break;
           }
 
+          if (StringHelper.isNotEmpty (sUBLLineOrderReferenceID))
+            aEbiListLineItem.setInvoiceRecipientsOrderReference (aEbiOrderRefDetail);
+        }
+
         // Reduction and surcharge (UBL 2.1 only)
-        if (aUBLLine.hasAllowanceChargeEntries ())
+        if (aLine.hasAllowanceCharges ())
         {
           // Start with quantity*unitPrice for base amount
           BigDecimal aEbiBaseAmount = aEbiListLineItem.getQuantity ().getValue ().multiply (aEbiUnitPriceValue);
@@ -963,9 +765,9 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
 
           // ebInterface can handle only Reduction or only Surcharge
           ETriState eSurcharge = ETriState.UNDEFINED;
-          for (final AllowanceChargeType aUBLAllowanceCharge : aUBLLine.getAllowanceCharge ())
+          for (final AllowanceChargeData aAllowanceCharge : aLine.getAllAllowanceCharges ())
           {
-            final boolean bItemIsSurcharge = aUBLAllowanceCharge.getChargeIndicator ().isValue ();
+            final boolean bItemIsSurcharge = aAllowanceCharge.isSurcharge ();
 
             // Remember for next item
             if (eSurcharge.isUndefined ())
@@ -974,20 +776,19 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
 
             final Ebi43ReductionAndSurchargeBaseType aEbiRSItem = new Ebi43ReductionAndSurchargeBaseType ();
             // Amount is mandatory
-            final BigDecimal aAmount = aUBLAllowanceCharge.getAmountValue ();
+            final BigDecimal aAmount = aAllowanceCharge.getAmount ();
             aEbiRSItem.setAmount ((bSwapSigns ? aAmount.negate () : aAmount).setScale (SCALE_PRICE2, ROUNDING_MODE));
 
             // Base amount is optional
-            if (aUBLAllowanceCharge.getBaseAmount () != null)
-              aEbiRSItem.setBaseAmount (aUBLAllowanceCharge.getBaseAmountValue ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+            if (aAllowanceCharge.getBaseAmount () != null)
+              aEbiRSItem.setBaseAmount (aAllowanceCharge.getBaseAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
             if (aEbiRSItem.getBaseAmount () == null)
               aEbiRSItem.setBaseAmount (aEbiBaseAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
 
-            if (aUBLAllowanceCharge.getMultiplierFactorNumeric () != null)
+            if (aAllowanceCharge.getMultiplierFactor () != null)
             {
               // Percentage is optional
-              final BigDecimal aPerc = aUBLAllowanceCharge.getMultiplierFactorNumericValue ()
-                                                          .multiply (CGlobal.BIGDEC_100);
+              final BigDecimal aPerc = aAllowanceCharge.getMultiplierFactor ().multiply (CGlobal.BIGDEC_100);
               aEbiRSItem.setPercentage (aPerc.setScale (SCALE_PERC, ROUNDING_MODE));
             }
 
@@ -1002,17 +803,17 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
               aEbiBaseAmount = aEbiBaseAmount.subtract (aEbiRSItem.getAmount ());
             }
 
-            aEbiRSItem.setComment (getAllowanceChargeComment (aUBLAllowanceCharge));
+            aEbiRSItem.setComment (aAllowanceCharge.getComment ());
           }
           aEbiListLineItem.setReductionAndSurchargeListLineItemDetails (aEbiRSDetails);
         }
 
         // Delivery per line item
-        if (aUBLLine.hasDeliveryEntries ())
+        final DeliveryType aUBLDelivery = aLine.getDelivery ();
+        if (aUBLDelivery != null)
         {
           // Delivery address
           final int nDeliveryIndex = 0;
-          final DeliveryType aUBLDelivery = aUBLLine.getDeliveryAtIndex (0);
 
           if (aUBLDelivery.getActualDeliveryDate () != null)
           {
@@ -1046,7 +847,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     {
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName ("CreditNote")
-                                               .errorText (EText.VAT_ITEM_MISSING.getDisplayText (m_aDisplayLocale))
+                                               .errorID (EText.VAT_ITEM_MISSING.name ())
+                                               .errorText (new LazyErrorText (EText.VAT_ITEM_MISSING, m_aDisplayLocale))
                                                .build ());
       if (false)
       {
@@ -1062,6 +864,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // Global reduction and surcharge
+    aStages.begin (EConversionStage.ALLOWANCE_CHARGE);
     if (aUBLDoc.hasAllowanceChargeEntries ())
     {
       // Start with quantity*unitPrice for base amount
@@ -1119,7 +922,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                                                    .errorFieldName ("CreditNote/AllowanceCharge[" +
                                                                     nAllowanceChargeIndex +
                                                                     "]")
-                                                   .errorText (EText.ALLOWANCE_CHARGE_NO_TAXRATE.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ALLOWANCE_CHARGE_NO_TAXRATE.name ())
+                                                   .errorText (new LazyErrorText (EText.ALLOWANCE_CHARGE_NO_TAXRATE, m_aDisplayLocale))
                                                    .build ());
           // No default in this case
           if (false)
@@ -1147,12 +951,14 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     }
 
     // PrepaidAmount is not supported!
+    aStages.begin (EConversionStage.TOTALS);
     final MonetaryTotalType aUBLMonetaryTotal = aUBLDoc.getLegalMonetaryTotal ();
     if (aUBLMonetaryTotal.getPrepaidAmount () != null && BigHelper.isNE0 (aUBLMonetaryTotal.getPrepaidAmountValue ()))
     {
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName ("CreditNote/LegalMonetaryTotal/PrepaidAmount")
-                                               .errorText (EText.PREPAID_NOT_SUPPORTED.getDisplayText (m_aDisplayLocale))
+                                               .errorID (EText.PREPAID_NOT_SUPPORTED.name ())
+                                               .errorText (new LazyErrorText (EText.PREPAID_NOT_SUPPORTED, m_aDisplayLocale))
                                                .build ());
     }
 
@@ -1167,6 +973,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
     aEbiDoc.setPayableAmount (aUBLMonetaryTotal.getPayableAmountValue ().setScale (SCALE_PRICE2, ROUNDING_MODE));
 
     // Payment method
+    aStages.begin (EConversionStage.PAYMENT);
     convertPayment ( () -> null,
                      aUBLDoc::getPaymentMeans,
                      aUBLDoc::getPayeeParty,
@@ -1178,6 +985,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
                      true);
 
     // Delivery
+    aStages.begin (EConversionStage.DELIVERY);
     Ebi43DeliveryType aEbiDelivery = null;
     {
       // Delivery address (since UBL 2.1)
@@ -1235,7 +1043,8 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
       if (aEbiDelivery.getDate () == null && aEbiDelivery.getPeriod () == null)
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("CreditNote")
-                                                 .errorText (EText.ERB_NO_DELIVERY_DATE.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ERB_NO_DELIVERY_DATE.name ())
+                                                 .errorText (new LazyErrorText (EText.ERB_NO_DELIVERY_DATE, m_aDisplayLocale))
                                                  .build ());
     }
 
@@ -1243,6 +1052,7 @@ public final class CreditNoteToEbInterface43Converter extends AbstractToEbInterf
       aEbiDoc.setDelivery (aEbiDelivery);
 
     // Perform customizing as last action
+    aStages.begin (EConversionStage.CUSTOMIZING);
     if (m_aCustomizer != null)
       m_aCustomizer.additionalGlobalMapping (aUBLDoc, aEbiDoc);
 
@@ -18,7 +18,10 @@ package at.austriapro.ebinterface.ubl.from.creditnote;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -29,43 +32,41 @@ import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.numeric.BigHelper;
 import com.helger.base.state.ETriState;
 import com.helger.base.string.StringHelper;
-import com.helger.base.string.StringImplode;
-import com.helger.base.string.StringParser;
 import com.helger.collection.CollectionHelper;
-import com.helger.collection.commons.CommonsArrayList;
-import com.helger.collection.commons.CommonsHashMap;
-import com.helger.collection.commons.ICommonsList;
-import com.helger.collection.commons.ICommonsMap;
 import com.helger.datetime.xml.XMLOffsetDate;
 import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.level.EErrorLevel;
 import com.helger.diagnostics.error.list.ErrorList;
 import com.helger.ebinterface.codelist.EFurtherIdentification;
 import com.helger.ebinterface.v61.*;
 
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import at.austriapro.ebinterface.ubl.from.AbstractToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.ConversionStageTracker;
+import at.austriapro.ebinterface.ubl.from.EConversionStage;
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
 import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
-import at.austriapro.ebinterface.ubl.from.helper.SchemedID;
-import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKey;
+import at.austriapro.ebinterface.ubl.from.IntermediateDocument;
+import at.austriapro.ebinterface.ubl.from.helper.AllowanceChargeData;
+import at.austriapro.ebinterface.ubl.from.helper.DocumentHeader;
+import at.austriapro.ebinterface.ubl.from.helper.ErrorFieldPath;
+import at.austriapro.ebinterface.ubl.from.helper.LazyError;
+import at.austriapro.ebinterface.ubl.from.helper.LazyErrorText;
+import at.austriapro.ebinterface.ubl.from.helper.LineData;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTableEntry;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AllowanceChargeType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CreditNoteLineType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CustomerPartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.DeliveryType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemPropertyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.MonetaryTotalType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderLineReferenceType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderReferenceType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PeriodType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.SupplierPartyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSubtotalType;
-import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxTotalType;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AdditionalAccountIDType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DescriptionType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NameType;
-import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NoteType;
 import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
 
 /**
@@ -74,7 +75,8 @@ import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
  * @author Philip Helger
  */
 @Immutable
-public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterface61Converter
+public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterface61Converter implements
+                                                      ICreditNoteToEbInterfaceConverter <Ebi61InvoiceType>
 {
   private ICustomCreditNoteToEbInterface61Converter m_aCustomizer;
 
@@ -95,6 +97,15 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     super (aDisplayLocale, aContentLocale, aSettings);
   }
 
+  /**
+   * @return The customizer to be used. May be <code>null</code>.
+   */
+  @Nullable
+  public ICustomCreditNoteToEbInterface61Converter getCustomizer ()
+  {
+    return m_aCustomizer;
+  }
+
   @NonNull
   public CreditNoteToEbInterface61Converter setCustomizer (@Nullable final ICustomCreditNoteToEbInterface61Converter aCustomizer)
   {
@@ -106,25 +117,128 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
    * Main conversion method to convert from UBL to ebInterface
    *
    * @param aUBLDoc
-   *        The UBL invoice to be converted
+   *        The UBL credit note to be converted
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return The created ebInterface document or <code>null</code> in case of a severe error.
+   */
+  @Nullable
+  public Ebi61InvoiceType convertToEbInterface (@NonNull final CreditNoteType aUBLDoc,
+                                                @NonNull final ErrorList aTransformationErrorList)
+  {
+    ValueEnforcer.notNull (aUBLDoc, "UBLCreditNote");
+
+    return _convertToEbInterface (aUBLDoc, aUBLDoc.getCreditNoteLine ().iterator (), null, null, null, aTransformationErrorList);
+  }
+
+  /**
+   * Conversion method that takes the UBL credit note lines separately from the
+   * document, so that they can be read and converted one after the other (see
+   * <code>UBLStreamReader</code>). The CreditNoteLine elements contained in the
+   * passed document itself are ignored.
+   *
+   * @param aUBLDoc
+   *        The UBL credit note to be converted. Only the header and trailer
+   *        information is used.
+   * @param aUBLLines
+   *        The UBL credit note lines to be converted, in document order. May not be
+   *        <code>null</code>.
+   * @param aEbiHeaderConsumer
+   *        The consumer that receives the ebInterface document after all
+   *        elements preceding the details were set and before the first line
+   *        is converted. May be <code>null</code>. Must be <code>null</code>
+   *        if a customizer is set, because the changes of the global mapping
+   *        would not reach the consumer.
+   * @param aEbiLineConsumer
+   *        The consumer that receives each created ebInterface line item. If
+   *        <code>null</code> all line items are collected in the details of
+   *        the returned document. If not <code>null</code> the returned
+   *        document has no details.
    * @param aTransformationErrorList
    *        Error list. Must be empty!
    * @return The created ebInterface document or <code>null</code> in case of a severe error.
+   * @throws IllegalStateException
+   *         If a header consumer is provided and a customizer is set
    */
   @Nullable
   public Ebi61InvoiceType convertToEbInterface (@NonNull final CreditNoteType aUBLDoc,
+                                                @NonNull final Iterator <? extends CreditNoteLineType> aUBLLines,
+                                                @Nullable final Consumer <? super Ebi61InvoiceType> aEbiHeaderConsumer,
+                                                @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
                                                 @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convertToEbInterface (aUBLDoc, aUBLLines, aEbiHeaderConsumer, aEbiLineConsumer, null, aTransformationErrorList);
+  }
+
+  @Override
+  @Nullable
+  protected Ebi61InvoiceType convertIntermediateDocument (@NonNull final IntermediateDocument <?> aIntermediateDoc,
+                                                          @NonNull final ErrorList aTransformationErrorList)
+  {
+    final CreditNoteType aUBLDoc = (CreditNoteType) aIntermediateDoc.getSourceDocument ();
+    return _convertToEbInterface (aUBLDoc,
+                                  aUBLDoc.getCreditNoteLine ().iterator (),
+                                  null,
+                                  null,
+                                  aIntermediateDoc,
+                                  aTransformationErrorList);
+  }
+
+  @Nullable
+  private Ebi61InvoiceType _convertToEbInterface (@NonNull final CreditNoteType aUBLDoc,
+                                                  @NonNull final Iterator <? extends CreditNoteLineType> aUBLLines,
+                                                  @Nullable final Consumer <? super Ebi61InvoiceType> aEbiHeaderConsumer,
+                                                  @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                                  @Nullable final IntermediateDocument <?> aIntermediateDoc,
+                                                  @NonNull final ErrorList aTransformationErrorList)
   {
     ValueEnforcer.notNull (aUBLDoc, "UBLCreditNote");
+    ValueEnforcer.notNull (aUBLLines, "UBLCreditNoteLines");
     ValueEnforcer.notNull (aTransformationErrorList, "TransformationErrorList");
     ValueEnforcer.isTrue (aTransformationErrorList.isEmpty (), "TransformationErrorList must be empty!");
+    if (aEbiHeaderConsumer != null && m_aCustomizer != null)
+      throw new IllegalStateException ("A customizer cannot be used together with a header consumer");
+
+    final ConversionStageTracker aStages = createStageTracker (EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                                                               EEbInterfaceVersion.V61,
+                                                               aUBLDoc.getIDValue (),
+                                                               aTransformationErrorList);
+    try
+    {
+      return _convertDocument (aUBLDoc,
+                               aUBLLines,
+                               aEbiHeaderConsumer,
+                               aEbiLineConsumer,
+                               aIntermediateDoc,
+                               aStages,
+                               aTransformationErrorList);
+    }
+    finally
+    {
+      aStages.end ();
+    }
+  }
 
+  @Nullable
+  private Ebi61InvoiceType _convertDocument (@NonNull final CreditNoteType aUBLDoc,
+                                             @NonNull final Iterator <? extends CreditNoteLineType> aUBLLines,
+                                             @Nullable final Consumer <? super Ebi61InvoiceType> aEbiHeaderConsumer,
+                                             @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                             @Nullable final IntermediateDocument <?> aIntermediateDoc,
+                                             @NonNull final ConversionStageTracker aStages,
+                                             @NonNull final ErrorList aTransformationErrorList)
+  {
     // Consistency check before starting the conversion
-    checkCreditNoteConsistency (aUBLDoc, aTransformationErrorList);
-    if (aTransformationErrorList.containsAtLeastOneError ())
-      return null;
+    aStages.begin (EConversionStage.CONSISTENCY_CHECK);
+    if (aIntermediateDoc == null)
+    {
+      checkCreditNoteConsistency (aUBLDoc, aTransformationErrorList);
+      if (aTransformationErrorList.containsAtLeastOneError ())
+        return null;
+    }
 
     // Build ebInterface invoice
+    aStages.begin (EConversionStage.DOCUMENT_HEADER);
     final Ebi61InvoiceType aEbiDoc = new Ebi61InvoiceType ();
     aEbiDoc.setGeneratingSystem (EBI_GENERATING_SYSTEM_61);
     aEbiDoc.setDocumentType (getAsDocumentTypeType (aUBLDoc.getCreditNoteTypeCode () == null ? null : aUBLDoc
@@ -136,29 +250,19 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     // Cannot set the language, because the 3letter code is expected but we only
     // have the 2letter code!
 
-    final String sUBLCurrencyCode = StringHelper.trim (aUBLDoc.getDocumentCurrencyCodeValue ());
+    final DocumentHeader aHeader = aIntermediateDoc != null ? aIntermediateDoc.getDocumentHeader ()
+                                                            : createDocumentHeader (aUBLDoc, aTransformationErrorList);
+    final String sUBLCurrencyCode = aHeader.getCurrencyCode ();
     aEbiDoc.setInvoiceCurrency (sUBLCurrencyCode);
 
     // CreditNote Number
-    final String sCreditNoteNumber = StringHelper.trim (aUBLDoc.getIDValue ());
-    if (StringHelper.isEmpty (sCreditNoteNumber))
-      aTransformationErrorList.add (SingleError.builderError ()
-                                               .errorFieldName ("ID")
-                                               .errorText (EText.MISSING_INVOICE_NUMBER.getDisplayText (m_aDisplayLocale))
-                                               .build ());
+    final String sCreditNoteNumber = aHeader.getDocumentNumber ();
     aEbiDoc.setInvoiceNumber (sCreditNoteNumber);
-
-    // Ignore the time!
-    aEbiDoc.setInvoiceDate (aUBLDoc.getIssueDateValue ());
-    if (aEbiDoc.getInvoiceDate () == null)
-      aTransformationErrorList.add (SingleError.builderError ()
-                                               .errorFieldName ("IssueDate")
-                                               .errorText (EText.MISSING_INVOICE_DATE.getDisplayText (m_aDisplayLocale))
-                                               .build ());
+    aEbiDoc.setInvoiceDate (aHeader.getIssueDate ());
 
     // Is duplicate/copy indicator?
-    if (aUBLDoc.getCopyIndicator () != null)
-      aEbiDoc.setIsDuplicate (Boolean.valueOf (aUBLDoc.getCopyIndicator ().isValue ()));
+    if (aHeader.getCopyIndicator () != null)
+      aEbiDoc.setIsDuplicate (aHeader.getCopyIndicator ());
 
     // CancelledOriginalDocument
     convertRelatedDocuments (aUBLDoc.getBillingReference (), aEbiDoc);
@@ -170,39 +274,28 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     convertReferencedDocuments (aUBLDoc.getOriginatorDocumentReference (), aEbiDoc);
 
     // Global comment
-    {
-      final ICommonsList <String> aEbiComment = new CommonsArrayList <> ();
-      for (final NoteType aNote : aUBLDoc.getNote ())
-        if (StringHelper.isNotEmpty (aNote.getValue ()))
-          aEbiComment.add (aNote.getValue ());
-      if (!aEbiComment.isEmpty ())
-        aEbiDoc.setComment (StringImplode.getImplodedNonEmpty ('\n', aEbiComment));
-    }
+    if (aHeader.hasComment ())
+      aEbiDoc.setComment (aHeader.getComment ());
 
     // Biller/Supplier (creator of the invoice)
+    aStages.begin (EConversionStage.BILLER);
     {
       final SupplierPartyType aUBLSupplier = aUBLDoc.getAccountingSupplierParty ();
-      final PartyType aUBLParty = aUBLSupplier.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getSupplierParty ()
+                                                        : createPartyData (aUBLSupplier.getParty ());
 
       final Ebi61BillerType aEbiBiller = new Ebi61BillerType ();
       // Find the tax scheme that uses VAT
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiBiller.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiBiller.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiBiller.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aEbiBiller.setVATIdentificationNumber (AT_UNDEFINED_VATIN);
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("AccountingSupplierParty/Party/PartyTaxScheme")
-                                                 .errorText (EText.BILLER_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.BILLER_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.BILLER_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -215,12 +308,11 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
         }
 
       if (StringHelper.isEmpty (aEbiBiller.getInvoiceRecipientsBillerID ()) &&
-          aUBLParty != null &&
-          aUBLParty.hasPartyIdentificationEntries ())
+          aParty != null &&
+          aParty.hasPartyIdentification ())
       {
         // New version for BIS V2
-        aEbiBiller.setInvoiceRecipientsBillerID (StringHelper.trim (aUBLParty.getPartyIdentificationAtIndex (0)
-                                                                             .getIDValue ()));
+        aEbiBiller.setInvoiceRecipientsBillerID (aParty.getFirstPartyIdentificationID ());
       }
 
       // Disabled because field is optional
@@ -230,7 +322,8 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
           // Mandatory field
           aTransformationErrorList.add (SingleError.builderError ()
                                                    .errorFieldName ("AccountingSupplierParty/CustomerAssignedAccountID")
-                                                   .errorText (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING.name ())
+                                                   .errorText (new LazyErrorText (EText.ERB_CUSTOMER_ASSIGNED_ACCOUNTID_MISSING, m_aDisplayLocale))
                                                    .build ());
         }
 
@@ -240,16 +333,16 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                                                                           aUBLAddAccountID.getValue ()));
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        final Ebi61AddressType aEbiAddress = convertParty (aUBLParty,
+        final Ebi61AddressType aEbiAddress = convertParty (aParty,
                                                            "AccountingSupplierParty",
                                                            aTransformationErrorList,
                                                            m_aContentLocale,
                                                            m_aDisplayLocale,
                                                            true);
         aEbiBiller.setAddress (aEbiAddress);
-        final Ebi61ContactType aEbiContact = convertContact (aUBLParty,
+        final Ebi61ContactType aEbiContact = convertContact (aParty,
                                                              "AccountingSupplierParty",
                                                              aEbiBiller.getAddress ().getName (),
                                                              aTransformationErrorList,
@@ -263,36 +356,31 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
             aEbiAddress.addEmail (m_aSettings.getEnforcedSupplierEmailAddress ());
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (), aEbiBiller::addFurtherIdentification);
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (), aEbiBiller::addFurtherIdentification);
       }
 
       aEbiDoc.setBiller (aEbiBiller);
     }
 
     // CreditNote recipient
+    aStages.begin (EConversionStage.INVOICE_RECIPIENT);
     {
       final CustomerPartyType aUBLCustomer = aUBLDoc.getAccountingCustomerParty ();
-      final PartyType aUBLParty = aUBLCustomer.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getCustomerParty ()
+                                                        : createPartyData (aUBLCustomer.getParty ());
 
       final Ebi61InvoiceRecipientType aEbiRecipient = new Ebi61InvoiceRecipientType ();
       // Find the tax scheme that uses VAT
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiRecipient.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiRecipient.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiRecipient.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aEbiRecipient.setVATIdentificationNumber (AT_UNDEFINED_VATIN);
         aTransformationErrorList.add (SingleError.builderWarn ()
                                                  .errorFieldName ("AccountingCustomerParty/PartyTaxScheme")
-                                                 .errorText (EText.INVOICE_RECIPIENT_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.INVOICE_RECIPIENT_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.INVOICE_RECIPIENT_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
       if (aUBLCustomer.getSupplierAssignedAccountID () != null)
@@ -310,15 +398,15 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                                                                              aUBLAddAccountID.getValue ()));
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        aEbiRecipient.setAddress (convertParty (aUBLParty,
+        aEbiRecipient.setAddress (convertParty (aParty,
                                                 "AccountingCustomerParty",
                                                 aTransformationErrorList,
                                                 m_aContentLocale,
                                                 m_aDisplayLocale,
                                                 true));
-        aEbiRecipient.setContact (convertContact (aUBLParty,
+        aEbiRecipient.setContact (convertContact (aParty,
                                                   "AccountingCustomerParty",
                                                   aEbiRecipient.getAddress ().getName (),
                                                   aTransformationErrorList,
@@ -326,48 +414,43 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                                                   true));
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (), aEbiRecipient::addFurtherIdentification);
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (), aEbiRecipient::addFurtherIdentification);
       }
 
       aEbiDoc.setInvoiceRecipient (aEbiRecipient);
     }
 
     // Ordering party
+    aStages.begin (EConversionStage.ORDERING_PARTY);
     final CustomerPartyType aUBLBuyer = aUBLDoc.getBuyerCustomerParty ();
     if (aUBLBuyer != null)
     {
-      final PartyType aUBLParty = aUBLBuyer.getParty ();
+      final PartyData aParty = aIntermediateDoc != null ? aIntermediateDoc.getBuyerParty ()
+                                                        : createPartyData (aUBLBuyer.getParty ());
 
       final Ebi61OrderingPartyType aEbiOrderingParty = new Ebi61OrderingPartyType ();
       // Find the tax scheme that uses VAT
-      if (aUBLParty != null)
-        for (final PartyTaxSchemeType aUBLPartyTaxScheme : aUBLParty.getPartyTaxScheme ())
-        {
-          // TaxScheme is a mandatory field
-          if (isVATSchemeID (aUBLPartyTaxScheme.getTaxScheme ().getIDValue ()))
-          {
-            aEbiOrderingParty.setVATIdentificationNumber (StringHelper.trim (aUBLPartyTaxScheme.getCompanyIDValue ()));
-            break;
-          }
-        }
+      if (aParty != null)
+        aEbiOrderingParty.setVATIdentificationNumber (aParty.getVATIdentificationNumber ());
       if (StringHelper.isEmpty (aEbiOrderingParty.getVATIdentificationNumber ()))
       {
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("BuyerCustomerParty/PartyTaxScheme")
-                                                 .errorText (EText.ORDERING_PARTY_VAT_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ORDERING_PARTY_VAT_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.ORDERING_PARTY_VAT_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
-      if (aUBLParty != null)
+      if (aParty != null)
       {
-        aEbiOrderingParty.setAddress (convertParty (aUBLParty,
+        aEbiOrderingParty.setAddress (convertParty (aParty,
                                                     "BuyerCustomerParty",
                                                     aTransformationErrorList,
                                                     m_aContentLocale,
                                                     m_aDisplayLocale,
                                                     true));
-        aEbiOrderingParty.setContact (convertContact (aUBLParty,
+        aEbiOrderingParty.setContact (convertContact (aParty,
                                                       "BuyerCustomerParty",
                                                       aEbiOrderingParty.getAddress ().getName (),
                                                       aTransformationErrorList,
@@ -375,7 +458,7 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                                                       true));
 
         // Add all further identifications
-        convertFurtherIdentifications (aUBLParty.getPartyIdentification (),
+        convertFurtherIdentifications (aParty.getAllPartyIdentifications (),
                                        aEbiOrderingParty::addFurtherIdentification);
       }
 
@@ -387,12 +470,11 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
 
       if (false)
         if (StringHelper.isEmpty (aEbiOrderingParty.getBillersOrderingPartyID ()) &&
-            aUBLParty != null &&
-            aUBLParty.hasPartyIdentificationEntries ())
+            aParty != null &&
+            aParty.hasPartyIdentification ())
         {
           // New version for BIS V2
-          aEbiOrderingParty.setBillersOrderingPartyID (StringHelper.trim (aUBLParty.getPartyIdentificationAtIndex (0)
-                                                                                   .getIDValue ()));
+          aEbiOrderingParty.setBillersOrderingPartyID (aParty.getFirstPartyIdentificationID ());
         }
 
       if (StringHelper.isEmpty (aEbiOrderingParty.getBillersOrderingPartyID ()) &&
@@ -407,7 +489,8 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
         // Required by ebInterface
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("BuyerCustomerParty/SupplierAssignedAccountID")
-                                                 .errorText (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING.name ())
+                                                 .errorText (new LazyErrorText (EText.ORDERING_PARTY_SUPPLIER_ASSIGNED_ACCOUNT_ID_MISSING, m_aDisplayLocale))
                                                  .build ());
       }
 
@@ -415,6 +498,7 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     }
 
     // Order reference of invoice recipient
+    aStages.begin (EConversionStage.ORDER_REFERENCE);
     String sUBLOrderReferenceID = null;
     {
       final OrderReferenceType aUBLOrderReference = aUBLDoc.getOrderReference ();
@@ -429,7 +513,8 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
         if (m_aSettings.isOrderReferenceIDMandatory ())
           aTransformationErrorList.add (SingleError.builderError ()
                                                    .errorFieldName ("OrderReference/ID")
-                                                   .errorText (EText.ORDER_REFERENCE_MISSING.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ORDER_REFERENCE_MISSING.name ())
+                                                   .errorText (new LazyErrorText (EText.ORDER_REFERENCE_MISSING, m_aDisplayLocale))
                                                    .build ());
       }
       else
@@ -441,9 +526,11 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
           {
             aTransformationErrorList.add (SingleError.builderWarn ()
                                                      .errorFieldName ("OrderReference/ID")
-                                                     .errorText (EText.ORDER_REFERENCE_TOO_LONG.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                        sUBLOrderReferenceID,
-                                                                                                                        Integer.valueOf (nMaxLen)))
+                                                     .errorID (EText.ORDER_REFERENCE_TOO_LONG.name ())
+                                                     .errorText (new LazyErrorText (EText.ORDER_REFERENCE_TOO_LONG,
+                                                                                    m_aDisplayLocale,
+                                                                                    sUBLOrderReferenceID,
+                                                                                    Integer.valueOf (nMaxLen)))
                                                      .build ());
             sUBLOrderReferenceID = sUBLOrderReferenceID.substring (0, nMaxLen);
           }
@@ -456,651 +543,190 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     }
 
     // Tax totals
-    // Map from tax category to percentage
-    final ICommonsMap <TaxCategoryKey, BigDecimal> aTaxCategoryPercMap = new CommonsHashMap <> ();
+    aStages.begin (EConversionStage.TAX_TOTALS, getTaxSubtotalCount (aUBLDoc.getTaxTotal ()));
+    final TaxTable aTaxTable = aIntermediateDoc != null ? aIntermediateDoc.getTaxTable ()
+                                                        : createTaxTable (aUBLDoc.getTaxTotal (), aTransformationErrorList);
     final Ebi61TaxType aEbiTax = new Ebi61TaxType ();
     {
-      int nTaxTotalIndex = 0;
-      for (final TaxTotalType aUBLTaxTotal : aUBLDoc.getTaxTotal ())
+      for (final TaxTableEntry aTaxEntry : aTaxTable.getAllEntries ())
       {
-        int nTaxSubtotalIndex = 0;
-        for (final TaxSubtotalType aUBLSubtotal : aUBLTaxTotal.getTaxSubtotal ())
+        if (aTaxEntry.isVAT ())
         {
-          // Tax category is a mandatory element
-          final TaxCategoryType aUBLTaxCategory = aUBLSubtotal.getTaxCategory ();
-
-          final String sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getIDValue ());
-          final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
-          BigDecimal aUBLTaxAmount = aUBLSubtotal.getTaxAmountValue ();
-          BigDecimal aUBLTaxableAmount = aUBLSubtotal.getTaxableAmountValue ();
-
-          // Is the percentage value directly specified
-          BigDecimal aUBLPercentage = bTaxExemption ? BigDecimal.ZERO : aUBLTaxCategory.getPercentValue ();
-          if (aUBLPercentage == null)
-          {
-            // no it is not :(
-            if (aUBLTaxAmount != null && aUBLTaxableAmount != null)
-            {
-              // Calculate percentage
-              aUBLPercentage = BigHelper.isEQ0 (aUBLTaxableAmount) ? BigDecimal.ZERO : aUBLTaxAmount.multiply (
-                                                                                                               CGlobal.BIGDEC_100)
-                                                                                                    .divide (aUBLTaxableAmount,
-                                                                                                             SCALE_PERC,
-                                                                                                             ROUNDING_MODE);
-            }
-          }
-
-          if (aUBLPercentage != null)
-          {
-            // We have at least the percentage
-            if (aUBLTaxableAmount == null && aUBLTaxAmount != null)
-            {
-              // Cannot "back" calculate the taxable amount from 0 percentage!
-              if (BigHelper.isNE0 (aUBLPercentage))
-              {
-                // Calculate (inexact) subtotal
-                aUBLTaxableAmount = aUBLTaxAmount.multiply (CGlobal.BIGDEC_100)
-                                                 .divide (aUBLPercentage, SCALE_PRICE4, ROUNDING_MODE);
-              }
-            }
-            else
-              if (aUBLTaxableAmount != null && aUBLTaxAmount == null)
-              {
-                // Calculate (inexact) subtotal
-                aUBLTaxAmount = BigHelper.isEQ0 (aUBLPercentage) ? BigDecimal.ZERO : aUBLTaxableAmount.multiply (
-                                                                                                                 aUBLPercentage)
-                                                                                                      .divide (CGlobal.BIGDEC_100,
-                                                                                                               SCALE_PRICE4,
-                                                                                                               ROUNDING_MODE);
-              }
-          }
-
-          // Save item and put in map
-          final IDType aUBLTaxSchemeID = aUBLTaxCategory.getTaxScheme ().getID ();
-          if (aUBLTaxSchemeID == null)
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory/TaxScheme/ID")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
-          final String sUBLTaxSchemeSchemeID = StringHelper.trim (aUBLTaxSchemeID.getSchemeID ());
-          final String sUBLTaxSchemeID = StringHelper.trim (aUBLTaxSchemeID.getValue ());
-          if (StringHelper.isEmpty (sUBLTaxSchemeID))
+          // add VAT item
+          final Ebi61TaxItemType aEbiTaxItem = new Ebi61TaxItemType ();
+          // Base amount
+          aEbiTaxItem.setTaxableAmount (aTaxEntry.getTaxableAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          // Tax Category and percentage
+          final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
+          aEbiTaxPerc.setTaxCategoryCode (aTaxEntry.getTaxCategoryID ());
+          if (aTaxEntry.isTaxExemption ())
           {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory/TaxScheme/ID")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_TAXSCHEME_ID_VALUE.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
-          }
+            aEbiTaxPerc.setValue (BigDecimal.ZERO);
 
-          if (aUBLTaxCategory.getID () == null)
-          {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_ID.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
+            final String sReason = aTaxEntry.getTaxExemptionReason ();
+            if (StringHelper.isNotEmpty (sReason))
+              aEbiTaxItem.setComment (sReason);
           }
-          if (StringHelper.isEmpty (sUBLTaxCategoryID))
+          else
           {
-            aTransformationErrorList.add (SingleError.builderError ()
-                                                     .errorFieldName ("TaxTotal[" +
-                                                                      nTaxTotalIndex +
-                                                                      "]/TaxSubtotal[" +
-                                                                      nTaxSubtotalIndex +
-                                                                      "]/TaxCategory")
-                                                     .errorText (EText.MISSING_TAXCATEGORY_ID_VALUE.getDisplayText (m_aDisplayLocale))
-                                                     .build ());
-            break;
+            // tax rate
+            aEbiTaxPerc.setValue (aTaxEntry.getPercentage ());
           }
-
-          final String sUBLTaxCategorySchemeID = StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ());
-
-          aTaxCategoryPercMap.put (new TaxCategoryKey (new SchemedID (sUBLTaxSchemeSchemeID, sUBLTaxSchemeID),
-                                                       new SchemedID (sUBLTaxCategorySchemeID, sUBLTaxCategoryID)),
-                                   aUBLPercentage);
-
+          aEbiTaxItem.setTaxPercent (aEbiTaxPerc);
+          // Tax amount (mandatory)
+          aEbiTaxItem.setTaxAmount (aTaxEntry.getTaxAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          // Add to list
+          aEbiTax.addTaxItem (aEbiTaxItem);
+        }
+        else
+        {
+          // Other TAX
+          final Ebi61OtherTaxType aOtherTax = new Ebi61OtherTaxType ();
+          // Tax percentage (optional)
+          if (aTaxEntry.getPercentage () != null)
           {
-            // Is it VAT?
-            if (isVATSchemeID (sUBLTaxSchemeID))
-            {
-              if (aUBLPercentage == null)
-              {
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("TaxTotal[" +
-                                                                          nTaxTotalIndex +
-                                                                          "]/TaxSubtotal[" +
-                                                                          nTaxSubtotalIndex +
-                                                                          "]/TaxCategory/Percent")
-                                                         .errorText (EText.TAX_PERCENT_MISSING.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-                if (aUBLTaxableAmount == null)
-                {
-                  aTransformationErrorList.add (SingleError.builderError ()
-                                                           .errorFieldName ("TaxTotal[" +
-                                                                            nTaxTotalIndex +
-                                                                            "]/TaxSubtotal[" +
-                                                                            nTaxSubtotalIndex +
-                                                                            "]/TaxableAmount")
-                                                           .errorText (EText.TAXABLE_AMOUNT_MISSING.getDisplayText (m_aDisplayLocale))
-                                                           .build ());
-                }
-                else
-                {
-                  // add VAT item
-                  final Ebi61TaxItemType aEbiTaxItem = new Ebi61TaxItemType ();
-                  // Base amount
-                  aEbiTaxItem.setTaxableAmount (aUBLTaxableAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-                  // Tax Category and percentage
-                  final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
-                  aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
-                  if (bTaxExemption)
-                  {
-                    aEbiTaxPerc.setValue (BigDecimal.ZERO);
-
-                    String sReason = null;
-                    if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
-                      sReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
-                    if (sReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
-                      sReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
-                    if (StringHelper.isNotEmpty (sReason))
-                      aEbiTaxItem.setComment (sReason);
-                  }
-                  else
-                  {
-                    // tax rate
-                    aEbiTaxPerc.setValue (aUBLPercentage);
-                  }
-                  aEbiTaxItem.setTaxPercent (aEbiTaxPerc);
-                  // Tax amount (mandatory)
-                  aEbiTaxItem.setTaxAmount (aUBLTaxAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-                  // Add to list
-                  aEbiTax.addTaxItem (aEbiTaxItem);
-                }
-            }
-            else
-            {
-              // Other TAX
-              final Ebi61OtherTaxType aOtherTax = new Ebi61OtherTaxType ();
-              // Tax percentage (optional)
-              if (aUBLPercentage != null)
-              {
-                final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
-                aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
-                aEbiTaxPerc.setValue (aUBLPercentage);
-                aOtherTax.setTaxPercent (aEbiTaxPerc);
-              }
-              // Tax amount (mandatory)
-              aOtherTax.setTaxAmount (aUBLTaxAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-              // As no comment is present, use the scheme ID
-              aOtherTax.setComment (sUBLTaxSchemeID);
-              aEbiTax.addOtherTax (aOtherTax);
-            }
+            final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
+            aEbiTaxPerc.setTaxCategoryCode (aTaxEntry.getTaxCategoryID ());
+            aEbiTaxPerc.setValue (aTaxEntry.getPercentage ());
+            aOtherTax.setTaxPercent (aEbiTaxPerc);
           }
-          ++nTaxSubtotalIndex;
+          // Tax amount (mandatory)
+          aOtherTax.setTaxAmount (aTaxEntry.getTaxAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+          // As no comment is present, use the scheme ID
+          aOtherTax.setComment (aTaxEntry.getTaxSchemeID ());
+          aEbiTax.addOtherTax (aOtherTax);
         }
-        ++nTaxTotalIndex;
       }
 
       aEbiDoc.setTax (aEbiTax);
     }
 
-    // Line items
-    BigDecimal aTotalZeroPercLineExtensionAmount = BigDecimal.ZERO;
+    // Delivery
+    aStages.begin (EConversionStage.DELIVERY);
+    Ebi61DeliveryType aEbiDelivery = null;
     {
-      final Ebi61DetailsType aEbiDetails = new Ebi61DetailsType ();
-      final Ebi61ItemListType aEbiItemList = new Ebi61ItemListType ();
-      int nLineIndex = 0;
-      for (final CreditNoteLineType aUBLLine : aUBLDoc.getCreditNoteLine ())
+      // Delivery address (since UBL 2.1)
+      int nDeliveryIndex = 0;
+      for (final DeliveryType aUBLDelivery : aUBLDoc.getDelivery ())
       {
-        // Try to resolve tax category
-        TaxCategoryType aUBLTaxCategory = CollectionHelper.getAtIndex (aUBLLine.getItem ().getClassifiedTaxCategory (),
-                                                                       0);
-        if (aUBLTaxCategory == null)
-        {
-          // No direct tax category -> check if it is somewhere in the tax total
-          aUBLTaxCategory = findTaxCategory (aUBLLine.getTaxTotal ());
-        }
-
-        // Try to resolve tax percentage
-        BigDecimal aUBLPercent = null;
-        String sUBLTaxCategoryID = null;
-        if (aUBLTaxCategory != null)
-        {
-          sUBLTaxCategoryID = StringHelper.trim (aUBLTaxCategory.getIDValue ());
-
-          // Specified at tax category?
-          if (aUBLTaxCategory.getPercent () != null)
-            aUBLPercent = aUBLTaxCategory.getPercentValue ();
-
-          if (aUBLPercent == null &&
-              aUBLTaxCategory.getID () != null &&
-              aUBLTaxCategory.getTaxScheme () != null &&
-              aUBLTaxCategory.getTaxScheme ().getID () != null)
-          {
-            // Not specified - check from previous map
-            final String sUBLTaxSchemeSchemeID = StringHelper.trim (aUBLTaxCategory.getTaxScheme ()
-                                                                                   .getID ()
-                                                                                   .getSchemeID ());
-            final String sUBLTaxSchemeID = StringHelper.trim (aUBLTaxCategory.getTaxScheme ().getIDValue ());
-
-            final String sUBLTaxCategorySchemeID = StringHelper.trim (aUBLTaxCategory.getID ().getSchemeID ());
-
-            // Avoid Exception
-            if (StringHelper.isNotEmpty (sUBLTaxSchemeID) && StringHelper.isNotEmpty (sUBLTaxCategoryID))
-            {
-              final TaxCategoryKey aKey = new TaxCategoryKey (new SchemedID (sUBLTaxSchemeSchemeID, sUBLTaxSchemeID),
-                                                              new SchemedID (sUBLTaxCategorySchemeID,
-                                                                             sUBLTaxCategoryID));
-              aUBLPercent = aTaxCategoryPercMap.get (aKey);
-            }
-          }
-        }
-
-        final boolean bTaxExemption = isTaxExemptionCategoryID (sUBLTaxCategoryID);
-        if (bTaxExemption && aUBLPercent == null)
-          aUBLPercent = BigDecimal.ZERO;
-
-        if (aUBLPercent == null)
-        {
-          aUBLPercent = BigDecimal.ZERO;
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/Item/ClassifiedTaxCategory")
-                                                   .errorText (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                              aUBLPercent))
-                                                   .build ());
-        }
-
-        // Start creating ebInterface line
-        final Ebi61ListLineItemType aEbiListLineItem = new Ebi61ListLineItemType ();
-
-        // CreditNote line number
-        final String sUBLPositionNumber = StringHelper.trim (aUBLLine.getIDValue ());
-        BigInteger aUBLPositionNumber = StringParser.parseBigInteger (sUBLPositionNumber);
-        if (aUBLPositionNumber != null)
-        {
-          if (BigHelper.isLT1 (aUBLPositionNumber))
-            if (m_aSettings.isErrorOnPositionNumber ())
-            {
-              // Must be &gt; 0
-              aTransformationErrorList.add (SingleError.builderError ()
-                                                       .errorFieldName ("CreditNoteLine[" + nLineIndex + "]/ID")
-                                                       .errorText (EText.DETAILS_INVALID_POSITION.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                          sUBLPositionNumber))
-                                                       .build ());
-            }
-            else
-            {
-              // Swallow the error
-              aUBLPositionNumber = null;
-            }
-        }
-        if (aUBLPositionNumber == null)
-        {
-          aUBLPositionNumber = BigInteger.valueOf (nLineIndex + 1L);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" + nLineIndex + "]/ID")
-                                                   .errorText (EText.DETAILS_INVALID_POSITION_SET_TO_INDEX.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                                   sUBLPositionNumber,
-                                                                                                                                   aUBLPositionNumber))
-                                                   .build ());
-        }
-        aEbiListLineItem.setPositionNumber (aUBLPositionNumber);
-
-        // Use item name as description
-        final NameType aUBLName = aUBLLine.getItem ().getName ();
-        if (aUBLName != null)
-        {
-          final String sDesc = StringHelper.trim (aUBLName.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
-        }
-        // Descriptions
-        for (final DescriptionType aUBLDescription : aUBLLine.getItem ().getDescription ())
-        {
-          final String sDesc = StringHelper.trim (aUBLDescription.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
-        }
-        // Add the Note elements as well (IBM, 2016-11)
-        for (final NoteType aUBLNote : aUBLLine.getNote ())
+        // Use the first delivery with a delivery date
+        if (aUBLDelivery.getActualDeliveryDate () != null)
         {
-          final String sDesc = StringHelper.trim (aUBLNote.getValue ());
-          if (StringHelper.isNotEmpty (sDesc))
-            aEbiListLineItem.addDescription (sDesc);
+          aEbiDelivery = convertDelivery (aUBLDelivery,
+                                          "/Delivery[" + nDeliveryIndex + "]",
+                                          aUBLDoc.getAccountingCustomerParty (),
+                                          aTransformationErrorList,
+                                          m_aContentLocale,
+                                          m_aDisplayLocale);
+          break;
         }
+        ++nDeliveryIndex;
+      }
 
-        // Quantity
-        final Ebi61UnitType aEbiQuantity = new Ebi61UnitType ();
-        if (aUBLLine.getCreditedQuantity () != null)
-        {
-          // Unit code is optional
-          if (aUBLLine.getCreditedQuantity ().getUnitCode () != null)
-            aEbiQuantity.setUnit (StringHelper.trim (aUBLLine.getCreditedQuantity ().getUnitCode ()));
-          aEbiQuantity.setValue (aUBLLine.getCreditedQuantityValue ());
-        }
-        if (aEbiQuantity.getUnit () == null)
-        {
-          // ebInterface requires a quantity!
-          aEbiQuantity.setUnit (UOM_DEFAULT);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/CreditNotedQuantity/UnitCode")
-                                                   .errorText (EText.DETAILS_INVALID_UNIT.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                  aEbiQuantity.getUnit ()))
-                                                   .build ());
-        }
-        if (aEbiQuantity.getValue () == null)
-        {
-          aEbiQuantity.setValue (BigDecimal.ONE);
-          aTransformationErrorList.add (SingleError.builderWarn ()
-                                                   .errorFieldName ("CreditNoteLine[" +
-                                                                    nLineIndex +
-                                                                    "]/CreditNotedQuantity")
-                                                   .errorText (EText.DETAILS_INVALID_QUANTITY.getDisplayTextWithArgs (m_aDisplayLocale,
-                                                                                                                      aEbiQuantity.getValue ()))
-                                                   .build ());
-        }
-        aEbiListLineItem.setQuantity (aEbiQuantity);
+      if (aEbiDelivery == null)
+        aEbiDelivery = new Ebi61DeliveryType ();
 
-        // Unit price
-        if (aUBLLine.getPrice () != null)
+      // No delivery date is present - check for service period
+      final PeriodType aUBLCreditNotePeriod = CollectionHelper.getAtIndex (aUBLDoc.getInvoicePeriod (), 0);
+      if (aUBLCreditNotePeriod != null)
+      {
+        final XMLOffsetDate aStartDate = aUBLCreditNotePeriod.getStartDateValue ();
+        final XMLOffsetDate aEndDate = aUBLCreditNotePeriod.getEndDateValue ();
+        if (aStartDate != null)
         {
-          final Ebi61UnitPriceType aEbiUnitPrice = new Ebi61UnitPriceType ();
-          // Unit price = priceAmount/baseQuantity (mandatory)
-          final BigDecimal aUBLPriceAmount = aUBLLine.getPrice ().getPriceAmountValue ();
-          aEbiUnitPrice.setValue (aUBLPriceAmount);
-          // If no base quantity is present, assume 1 (optional)
-          final BigDecimal aUBLBaseQuantity = aUBLLine.getPrice ().getBaseQuantityValue ();
-          if (aUBLBaseQuantity != null)
+          if (aEndDate == null)
           {
-            aEbiUnitPrice.setBaseQuantity (aUBLBaseQuantity);
-            if (BigHelper.isEQ0 (aUBLBaseQuantity))
-              aEbiUnitPrice.setValue (BigDecimal.ZERO);
+            // It's just a date - prefer the delivery date over the
+            // InvoicePeriod/StartDate
+            if (aEbiDelivery.getDate () == null)
+              aEbiDelivery.setDate (aStartDate);
           }
-          aEbiListLineItem.setUnitPrice (aEbiUnitPrice);
-        }
-        else
-        {
-          // Unit price = lineExtensionAmount / quantity (mandatory)
-          final BigDecimal aUBLLineExtensionAmount = aUBLLine.getLineExtensionAmountValue ();
-          final Ebi61UnitPriceType aEbiUnitPrice = new Ebi61UnitPriceType ();
-          if (BigHelper.isEQ0 (aEbiQuantity.getValue ()) || aUBLLineExtensionAmount == null)
-            aEbiUnitPrice.setValue (BigDecimal.ZERO);
           else
-            aEbiUnitPrice.setValue (aUBLLineExtensionAmount.divide (aEbiQuantity.getValue (),
-                                                                    SCALE_PRICE4,
-                                                                    ROUNDING_MODE));
-          aEbiListLineItem.setUnitPrice (aEbiUnitPrice);
-        }
-
-        BigDecimal aEbiUnitPriceValue = aEbiListLineItem.getUnitPrice ().getValue ();
-        final BigDecimal aBQ = aEbiListLineItem.getUnitPrice ().getBaseQuantity ();
-        if (aBQ != null && BigHelper.isNE0 (aBQ))
-          aEbiUnitPriceValue = aEbiUnitPriceValue.divide (aBQ, SCALE_PRICE4, ROUNDING_MODE);
-
-        // Line item amount (quantity * unit price +- reduction / surcharge)
-        aEbiListLineItem.setLineItemAmount (aUBLLine.getLineExtensionAmountValue () == null ? BigDecimal.ZERO : aUBLLine
-                                                                                                                        .getLineExtensionAmountValue ()
-                                                                                                                        .setScale (SCALE_PRICE2,
-                                                                                                                                   ROUNDING_MODE));
-
-        final Ebi61TaxItemType aEbiTaxItem = new Ebi61TaxItemType ();
-        aEbiTaxItem.setTaxableAmount (aEbiListLineItem.getLineItemAmount ());
-
-        final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
-        if (bTaxExemption)
-        {
-          // Tax exemption
-          aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
-          aEbiTaxPerc.setValue (BigDecimal.ZERO);
-
-          String sReason = null;
-          if (aUBLTaxCategory.hasTaxExemptionReasonEntries ())
-            sReason = aUBLTaxCategory.getTaxExemptionReasonAtIndex (0).getValue ();
-          if (sReason == null && aUBLTaxCategory.getTaxExemptionReasonCode () != null)
-            sReason = aUBLTaxCategory.getTaxExemptionReasonCode ().getValue ();
-          if (StringHelper.isNotEmpty (sReason))
-            aEbiTaxItem.setComment (sReason);
-        }
-        else
-        {
-          // VAT rate (mandatory)
-          aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
-          aEbiTaxPerc.setValue (aUBLPercent);
-        }
-        aEbiTaxItem.setTaxPercent (aEbiTaxPerc);
-        // Tax amount (mandatory)
-        if (bTaxExemption)
-          aEbiTaxItem.setTaxAmount (BigDecimal.ZERO);
-        else
-          aEbiTaxItem.setTaxAmount (BigHelper.getPercentValue (aEbiTaxItem.getTaxableAmount (),
-                                                               aUBLPercent,
-                                                               SCALE_PRICE2,
-                                                               ROUNDING_MODE));
-        aEbiListLineItem.setTaxItem (aEbiTaxItem);
-
-        // Special handling in case no VAT item is present
-        if (BigHelper.isEQ0 (aUBLPercent))
-          aTotalZeroPercLineExtensionAmount = aTotalZeroPercLineExtensionAmount.add (aEbiListLineItem.getLineItemAmount ());
-
-        // Order reference per line (UBL 2.1 only)
-        for (final OrderLineReferenceType aUBLOrderLineReference : aUBLLine.getOrderLineReference ())
-          if (StringHelper.isNotEmpty (aUBLOrderLineReference.getLineIDValue ()))
-          {
-            final Ebi61OrderReferenceDetailType aEbiOrderRefDetail = new Ebi61OrderReferenceDetailType ();
-
-            // order reference
-            String sUBLLineOrderReferenceID = null;
-            if (aUBLOrderLineReference.getOrderReference () != null)
-              sUBLLineOrderReferenceID = StringHelper.trim (aUBLOrderLineReference.getOrderReference ().getIDValue ());
-            if (StringHelper.isEmpty (sUBLLineOrderReferenceID))
-            {
-              // Use the global order reference from header level
-              sUBLLineOrderReferenceID = sUBLOrderReferenceID;
-            }
-            aEbiOrderRefDetail.setOrderID (sUBLLineOrderReferenceID);
-
-            // Order position number
-            final String sOrderPosNumber = StringHelper.trim (aUBLOrderLineReference.getLineIDValue ());
-            if (sOrderPosNumber != null)
-            {
-              if (sOrderPosNumber.length () == 0)
-              {
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/LineID")
-                                                         .errorText (EText.ORDERLINE_REF_ID_EMPTY.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-              {
-                aEbiOrderRefDetail.setOrderPositionNumber (sOrderPosNumber);
-              }
-            }
-            if (StringHelper.isNotEmpty (aEbiOrderRefDetail.getOrderPositionNumber ()) &&
-                StringHelper.isEmpty (sUBLLineOrderReferenceID))
-            {
-              if (m_aSettings.isOrderReferenceIDMandatory ())
-              {
-                // The line order reference is mandatory
-                aTransformationErrorList.add (SingleError.builderError ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/OrderReference/ID")
-                                                         .errorText (EText.ORDER_REFERENCE_MISSING.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-              else
-              {
-                aEbiOrderRefDetail.setOrderPositionNumber (null);
-                aTransformationErrorList.add (SingleError.builderWarn ()
-                                                         .errorFieldName ("CreditNoteLine[" +
-                                                                          nLineIndex +
-                                                                          "]/OrderLineReference/OrderReference/ID")
-                                                         .errorText (EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS.getDisplayText (m_aDisplayLocale))
-                                                         .build ());
-              }
-            }
-
-            if (StringHelper.isNotEmpty (sUBLLineOrderReferenceID))
-              aEbiListLineItem.setInvoiceRecipientsOrderReference (aEbiOrderRefDetail);
-            break;
-          }
-
-        // Reduction and surcharge (UBL 2.1 only)
-        if (aUBLLine.hasAllowanceChargeEntries ())
-        {
-          // Start with quantity*unitPrice for base amount
-          BigDecimal aEbiBaseAmount = aEbiListLineItem.getQuantity ().getValue ().multiply (aEbiUnitPriceValue);
-          final Ebi61ReductionAndSurchargeListLineItemDetailsType aEbiRSDetails = new Ebi61ReductionAndSurchargeListLineItemDetailsType ();
-
-          // ebInterface can handle only Reduction or only Surcharge
-          ETriState eSurcharge = ETriState.UNDEFINED;
-          for (final AllowanceChargeType aUBLAllowanceCharge : aUBLLine.getAllowanceCharge ())
           {
-            final boolean bItemIsSurcharge = aUBLAllowanceCharge.getChargeIndicator ().isValue ();
-
-            // Remember for next item
-            if (eSurcharge.isUndefined ())
-              eSurcharge = ETriState.valueOf (bItemIsSurcharge);
-            final boolean bSwapSigns = bItemIsSurcharge != eSurcharge.isTrue ();
-
-            final Ebi61ReductionAndSurchargeBaseType aEbiRSItem = new Ebi61ReductionAndSurchargeBaseType ();
-            // Amount is mandatory
-            final BigDecimal aAmount = aUBLAllowanceCharge.getAmountValue ();
-            aEbiRSItem.setAmount ((bSwapSigns ? aAmount.negate () : aAmount).setScale (SCALE_PRICE2, ROUNDING_MODE));
-
-            // Base amount is optional
-            if (aUBLAllowanceCharge.getBaseAmount () != null)
-              aEbiRSItem.setBaseAmount (aUBLAllowanceCharge.getBaseAmountValue ().setScale (SCALE_PRICE2, ROUNDING_MODE));
-            if (aEbiRSItem.getBaseAmount () == null)
-              aEbiRSItem.setBaseAmount (aEbiBaseAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
-
-            if (aUBLAllowanceCharge.getMultiplierFactorNumeric () != null)
-            {
-              // Percentage is optional
-              final BigDecimal aPerc = aUBLAllowanceCharge.getMultiplierFactorNumericValue ()
-                                                          .multiply (CGlobal.BIGDEC_100);
-              aEbiRSItem.setPercentage (aPerc.setScale (SCALE_PERC, ROUNDING_MODE));
-            }
-
-            if (eSurcharge.isTrue ())
-            {
-              aEbiRSDetails.addReductionListLineItemOrSurchargeListLineItemOrOtherVATableTaxListLineItem (new ObjectFactory ().createSurchargeListLineItem (aEbiRSItem));
-              aEbiBaseAmount = aEbiBaseAmount.add (aEbiRSItem.getAmount ());
-            }
-            else
-            {
-              aEbiRSDetails.addReductionListLineItemOrSurchargeListLineItemOrOtherVATableTaxListLineItem (new ObjectFactory ().createReductionListLineItem (aEbiRSItem));
-              aEbiBaseAmount = aEbiBaseAmount.subtract (aEbiRSItem.getAmount ());
-            }
-
-            aEbiRSItem.setComment (getAllowanceChargeComment (aUBLAllowanceCharge));
-          }
-          aEbiListLineItem.setReductionAndSurchargeListLineItemDetails (aEbiRSDetails);
-        }
-
-        // Delivery per line item
-        if (aUBLLine.hasDeliveryEntries ())
-        {
-          // Delivery address
-          final int nDeliveryIndex = 0;
-          final DeliveryType aUBLDelivery = aUBLLine.getDeliveryAtIndex (0);
-
-          if (aUBLDelivery.getActualDeliveryDate () != null)
-          {
-            final Ebi61DeliveryType aEbiDelivery = convertDelivery (aUBLDelivery,
-                                                                    "CreditNoteLine[" +
-                                                                                  nLineIndex +
-                                                                                  "]/Delivery[" +
-                                                                                  nDeliveryIndex +
-                                                                                  "]",
-                                                                    aUBLDoc.getAccountingCustomerParty (),
-                                                                    aTransformationErrorList,
-                                                                    m_aContentLocale,
-                                                                    m_aDisplayLocale);
-            aEbiListLineItem.setDelivery (aEbiDelivery);
+            // It's a period!
+            final Ebi61PeriodType aEbiPeriod = new Ebi61PeriodType ();
+            aEbiPeriod.setFromDate (aStartDate);
+            aEbiPeriod.setToDate (aEndDate);
+            aEbiDelivery.setPeriod (aEbiPeriod);
+            // Has precedence over date!
+            aEbiDelivery.setDate ((XMLOffsetDate) null);
           }
         }
+      }
+    }
 
-        // Additional item properties (available since ebi 5.0)
-        for (final ItemPropertyType aAdditionalItem : aUBLLine.getItem ().getAdditionalItemProperty ())
-        {
-          String sKey = null;
-          // Key is Name or ID
-          if (aAdditionalItem.getName () != null)
-            sKey = aAdditionalItem.getName ().getValue ();
-          if (StringHelper.isEmpty (sKey))
-            sKey = aAdditionalItem.getIDValue ();
-
-          // Value is Value :)
-          final String sValue = aAdditionalItem.getValueValue ();
+    if (m_aSettings.isDeliveryDateMandatory ())
+    {
+      if (aEbiDelivery.getDate () == null && aEbiDelivery.getPeriod () == null)
+        aTransformationErrorList.add (SingleError.builderError ()
+                                                 .errorFieldName ("CreditNote")
+                                                 .errorID (EText.ERB_NO_DELIVERY_DATE.name ())
+                                                 .errorText (new LazyErrorText (EText.ERB_NO_DELIVERY_DATE, m_aDisplayLocale))
+                                                 .build ());
+    }
 
-          if (StringHelper.isNotEmpty (sKey) && StringHelper.isNotEmpty (sValue))
-          {
-            // Set only, if both fields are present
-            final Ebi61AdditionalInformationType aEbiAddInfo = new Ebi61AdditionalInformationType ();
-            aEbiAddInfo.setKey (sKey);
-            aEbiAddInfo.setValue (sValue);
-            aEbiListLineItem.addAdditionalInformation (aEbiAddInfo);
-          }
-        }
+    if (aEbiDelivery.getDate () != null || aEbiDelivery.getPeriod () != null)
+      aEbiDoc.setDelivery (aEbiDelivery);
 
-        // Perform customizing as last action
-        if (m_aCustomizer != null)
-          m_aCustomizer.additionalItemMapping (aUBLLine, aEbiListLineItem);
+    // Everything preceding the line items is known now
+    if (aEbiHeaderConsumer != null)
+      aEbiHeaderConsumer.accept (aEbiDoc);
 
-        // Add the item to the list
-        aEbiItemList.addListLineItem (aEbiListLineItem);
+    // Line items
+    aStages.begin (EConversionStage.LINE_ITEMS);
+    BigDecimal aTotalLineItemAmount = BigDecimal.ZERO;
+    {
+      // Without a consumer, all line items are collected in the document
+      final Ebi61ItemListType aEbiItemList = aEbiLineConsumer == null ? new Ebi61ItemListType () : null;
+      int nLineIndex = 0;
+      while (aUBLLines.hasNext ())
+      {
+        final CreditNoteLineType aUBLLine = aUBLLines.next ();
+        final LineData aLine = aIntermediateDoc != null ? aIntermediateDoc.getLineAtIndex (nLineIndex)
+                                                        : createLineData (aUBLLine, aTaxTable);
+        final Ebi61ListLineItemType aEbiListLineItem = _convertLine (aUBLLine,
+                                                                     aLine,
+                                                                     nLineIndex,
+                                                                     sUBLOrderReferenceID,
+                                                                     aUBLDoc.getAccountingCustomerParty (),
+                                                                     aTransformationErrorList);
+        aTotalLineItemAmount = aTotalLineItemAmount.add (aEbiListLineItem.getLineItemAmount ());
+
+        if (aEbiItemList != null)
+          aEbiItemList.addListLineItem (aEbiListLineItem);
+        else
+          aEbiLineConsumer.accept (aEbiListLineItem);
         nLineIndex++;
       }
-      aEbiDetails.addItemList (aEbiItemList);
-      aEbiDoc.setDetails (aEbiDetails);
+      aStages.setItemCount (nLineIndex);
+
+      if (aEbiItemList != null)
+      {
+        final Ebi61DetailsType aEbiDetails = new Ebi61DetailsType ();
+        aEbiDetails.addItemList (aEbiItemList);
+        aEbiDoc.setDetails (aEbiDetails);
+      }
     }
 
     if (aEbiTax.hasNoTaxItemEntries ())
     {
       aTransformationErrorList.add (SingleError.builderError ()
                                                .errorFieldName ("CreditNote")
-                                               .errorText (EText.VAT_ITEM_MISSING.getDisplayText (m_aDisplayLocale))
+                                               .errorID (EText.VAT_ITEM_MISSING.name ())
+                                               .errorText (new LazyErrorText (EText.VAT_ITEM_MISSING, m_aDisplayLocale))
                                                .build ());
     }
 
     // Global reduction and surcharge
+    aStages.begin (EConversionStage.ALLOWANCE_CHARGE);
     if (aUBLDoc.hasAllowanceChargeEntries ())
     {
       // Start with quantity*unitPrice for base amount
       BigDecimal aEbiBaseAmount = aUBLDoc.getLegalMonetaryTotal ().getLineExtensionAmountValue ();
       if (aEbiBaseAmount == null)
       {
-        // No global LineExtensionAmount is present - sum all rows
-        BigDecimal tmp = BigDecimal.ZERO;
-        for (final Ebi61ItemListType aEbiItemList : aEbiDoc.getDetails ().getItemList ())
-          for (final Ebi61ListLineItemType aEbiListLineItem : aEbiItemList.getListLineItem ())
-            tmp = tmp.add (aEbiListLineItem.getLineItemAmount ());
-        aEbiBaseAmount = tmp;
+        // No global LineExtensionAmount is present - use the sum of all rows
+        aEbiBaseAmount = aTotalLineItemAmount;
       }
 
       final Ebi61ReductionAndSurchargeDetailsType aEbiRS = new Ebi61ReductionAndSurchargeDetailsType ();
@@ -1145,7 +771,8 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                                                    .errorFieldName ("CreditNote/AllowanceCharge[" +
                                                                     nAllowanceChargeIndex +
                                                                     "]")
-                                                   .errorText (EText.ALLOWANCE_CHARGE_NO_TAXRATE.getDisplayText (m_aDisplayLocale))
+                                                   .errorID (EText.ALLOWANCE_CHARGE_NO_TAXRATE.name ())
+                                                   .errorText (new LazyErrorText (EText.ALLOWANCE_CHARGE_NO_TAXRATE, m_aDisplayLocale))
                                                    .build ());
           // No default in this case
         }
@@ -1173,13 +800,15 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     }
 
     // PrepaidAmount is not supported!
+    aStages.begin (EConversionStage.TOTALS);
     final MonetaryTotalType aUBLMonetaryTotal = aUBLDoc.getLegalMonetaryTotal ();
     if (aUBLMonetaryTotal.getPrepaidAmount () != null && BigHelper.isNE0 (aUBLMonetaryTotal.getPrepaidAmountValue ()))
     {
       if (!m_aSettings.isPrepaidAmountSupported ())
         aTransformationErrorList.add (SingleError.builderError ()
                                                  .errorFieldName ("CreditNote/LegalMonetaryTotal/PrepaidAmount")
-                                                 .errorText (EText.PREPAID_NOT_SUPPORTED.getDisplayText (m_aDisplayLocale))
+                                                 .errorID (EText.PREPAID_NOT_SUPPORTED.name ())
+                                                 .errorText (new LazyErrorText (EText.PREPAID_NOT_SUPPORTED, m_aDisplayLocale))
                                                  .build ());
       else
         aEbiDoc.setPrepaidAmount (aUBLMonetaryTotal.getPrepaidAmountValue ());
@@ -1201,6 +830,7 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
     aEbiDoc.setPayableAmount (aUBLMonetaryTotal.getPayableAmountValue ().setScale (SCALE_PRICE2, ROUNDING_MODE));
 
     // Payment method
+    aStages.begin (EConversionStage.PAYMENT);
     convertPayment ( () -> null,
                      aUBLDoc::getPaymentMeans,
                      aUBLDoc::getPayeeParty,
@@ -1211,75 +841,333 @@ public final class CreditNoteToEbInterface61Converter extends AbstractToEbInterf
                      aEbiDoc,
                      true);
 
-    // Delivery
-    Ebi61DeliveryType aEbiDelivery = null;
+    // Perform customizing as last action
+    aStages.begin (EConversionStage.CUSTOMIZING);
+    if (m_aCustomizer != null)
+      m_aCustomizer.additionalGlobalMapping (aUBLDoc, aEbiDoc);
+
+    return aEbiDoc;
+  }
+
+  @NonNull
+  private Ebi61ListLineItemType _convertLine (@NonNull final CreditNoteLineType aUBLLine,
+                                              @NonNull final LineData aLine,
+                                              final int nLineIndex,
+                                              @Nullable final String sUBLOrderReferenceID,
+                                              @Nullable final CustomerPartyType aUBLAccountingCustomerParty,
+                                              @NonNull final ErrorList aTransformationErrorList)
+  {
+    // Tax category and percentage are resolved in the line data
+    final String sUBLTaxCategoryID = aLine.getTaxCategoryID ();
+    final boolean bTaxExemption = aLine.isTaxExemption ();
+    BigDecimal aUBLPercent = aLine.getTaxPercent ();
+
+    if (aUBLPercent == null)
     {
-      // Delivery address (since UBL 2.1)
-      int nDeliveryIndex = 0;
-      for (final DeliveryType aUBLDelivery : aUBLDoc.getDelivery ())
+      aUBLPercent = BigDecimal.ZERO;
+      aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                   new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("Item")
+                                                                                                    .child ("ClassifiedTaxCategory"),
+                                                   EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND.name (),
+                                                   new LazyErrorText (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND,
+                                                                      m_aDisplayLocale,
+                                                                      aUBLPercent)));
+    }
+
+    // Start creating ebInterface line
+    final Ebi61ListLineItemType aEbiListLineItem = new Ebi61ListLineItemType ();
+
+    // CreditNote line number
+    final String sUBLPositionNumber = aLine.getID ();
+    BigInteger aUBLPositionNumber = aLine.getPositionNumber ();
+    if (aUBLPositionNumber != null)
+    {
+      if (BigHelper.isLT1 (aUBLPositionNumber))
+        if (m_aSettings.isErrorOnPositionNumber ())
+        {
+          // Must be &gt; 0
+          aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("ID"),
+                                                       EText.DETAILS_INVALID_POSITION.name (),
+                                                       new LazyErrorText (EText.DETAILS_INVALID_POSITION,
+                                                                          m_aDisplayLocale,
+                                                                          sUBLPositionNumber)));
+        }
+        else
+        {
+          // Swallow the error
+          aUBLPositionNumber = null;
+        }
+    }
+    if (aUBLPositionNumber == null)
+    {
+      aUBLPositionNumber = BigInteger.valueOf (nLineIndex + 1L);
+      aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                   new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("ID"),
+                                                   EText.DETAILS_INVALID_POSITION_SET_TO_INDEX.name (),
+                                                   new LazyErrorText (EText.DETAILS_INVALID_POSITION_SET_TO_INDEX,
+                                                                      m_aDisplayLocale,
+                                                                      sUBLPositionNumber,
+                                                                      aUBLPositionNumber)));
+    }
+    aEbiListLineItem.setPositionNumber (aUBLPositionNumber);
+
+    // Use item name, descriptions and the Note elements as description
+    for (final String sDesc : aLine.getAllDescriptions ())
+      aEbiListLineItem.addDescription (sDesc);
+
+    // Quantity
+    final Ebi61UnitType aEbiQuantity = new Ebi61UnitType ();
+    // Unit code is optional
+    aEbiQuantity.setUnit (aLine.getQuantityUnit ());
+    aEbiQuantity.setValue (aLine.getQuantity ());
+    if (aEbiQuantity.getUnit () == null)
+    {
+      // ebInterface requires a quantity!
+      aEbiQuantity.setUnit (UOM_DEFAULT);
+      aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                   new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("CreditNotedQuantity")
+                                                                                                    .child ("UnitCode"),
+                                                   EText.DETAILS_INVALID_UNIT.name (),
+                                                   new LazyErrorText (EText.DETAILS_INVALID_UNIT,
+                                                                      m_aDisplayLocale,
+                                                                      aEbiQuantity.getUnit ())));
+    }
+    if (aEbiQuantity.getValue () == null)
+    {
+      aEbiQuantity.setValue (BigDecimal.ONE);
+      aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                   new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("CreditNotedQuantity"),
+                                                   EText.DETAILS_INVALID_QUANTITY.name (),
+                                                   new LazyErrorText (EText.DETAILS_INVALID_QUANTITY,
+                                                                      m_aDisplayLocale,
+                                                                      aEbiQuantity.getValue ())));
+    }
+    aEbiListLineItem.setQuantity (aEbiQuantity);
+
+    // Unit price
+    if (aLine.hasPrice ())
+    {
+      final Ebi61UnitPriceType aEbiUnitPrice = new Ebi61UnitPriceType ();
+      // Unit price = priceAmount/baseQuantity (mandatory)
+      final BigDecimal aUBLPriceAmount = aLine.getPriceAmount ();
+      aEbiUnitPrice.setValue (aUBLPriceAmount);
+      // If no base quantity is present, assume 1 (optional)
+      final BigDecimal aUBLBaseQuantity = aLine.getPriceBaseQuantity ();
+      if (aUBLBaseQuantity != null)
       {
-        // Use the first delivery with a delivery date
-        if (aUBLDelivery.getActualDeliveryDate () != null)
+        aEbiUnitPrice.setBaseQuantity (aUBLBaseQuantity);
+        if (BigHelper.isEQ0 (aUBLBaseQuantity))
+          aEbiUnitPrice.setValue (BigDecimal.ZERO);
+      }
+      aEbiListLineItem.setUnitPrice (aEbiUnitPrice);
+    }
+    else
+    {
+      // Unit price = lineExtensionAmount / quantity (mandatory)
+      final BigDecimal aUBLLineExtensionAmount = aLine.getLineExtensionAmount ();
+      final Ebi61UnitPriceType aEbiUnitPrice = new Ebi61UnitPriceType ();
+      if (BigHelper.isEQ0 (aEbiQuantity.getValue ()) || aUBLLineExtensionAmount == null)
+        aEbiUnitPrice.setValue (BigDecimal.ZERO);
+      else
+        aEbiUnitPrice.setValue (aUBLLineExtensionAmount.divide (aEbiQuantity.getValue (),
+                                                                SCALE_PRICE4,
+                                                                ROUNDING_MODE));
+      aEbiListLineItem.setUnitPrice (aEbiUnitPrice);
+    }
+
+    BigDecimal aEbiUnitPriceValue = aEbiListLineItem.getUnitPrice ().getValue ();
+    final BigDecimal aBQ = aEbiListLineItem.getUnitPrice ().getBaseQuantity ();
+    if (aBQ != null && BigHelper.isNE0 (aBQ))
+      aEbiUnitPriceValue = aEbiUnitPriceValue.divide (aBQ, SCALE_PRICE4, ROUNDING_MODE);
+
+    // Line item amount (quantity * unit price +- reduction / surcharge)
+    aEbiListLineItem.setLineItemAmount (aLine.getLineExtensionAmount () == null ? BigDecimal.ZERO
+                                                                                : aLine.getLineExtensionAmount ()
+                                                                                       .setScale (SCALE_PRICE2, ROUNDING_MODE));
+
+    final Ebi61TaxItemType aEbiTaxItem = new Ebi61TaxItemType ();
+    aEbiTaxItem.setTaxableAmount (aEbiListLineItem.getLineItemAmount ());
+
+    final Ebi61TaxPercentType aEbiTaxPerc = new Ebi61TaxPercentType ();
+    if (bTaxExemption)
+    {
+      // Tax exemption
+      aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
+      aEbiTaxPerc.setValue (BigDecimal.ZERO);
+
+      final String sReason = aLine.getTaxExemptionReason ();
+      if (StringHelper.isNotEmpty (sReason))
+        aEbiTaxItem.setComment (sReason);
+    }
+    else
+    {
+      // VAT rate (mandatory)
+      aEbiTaxPerc.setTaxCategoryCode (sUBLTaxCategoryID);
+      aEbiTaxPerc.setValue (aUBLPercent);
+    }
+    aEbiTaxItem.setTaxPercent (aEbiTaxPerc);
+    // Tax amount (mandatory)
+    if (bTaxExemption)
+      aEbiTaxItem.setTaxAmount (BigDecimal.ZERO);
+    else
+      aEbiTaxItem.setTaxAmount (BigHelper.getPercentValue (aEbiTaxItem.getTaxableAmount (),
+                                                           aUBLPercent,
+                                                           SCALE_PRICE2,
+                                                           ROUNDING_MODE));
+    aEbiListLineItem.setTaxItem (aEbiTaxItem);
+
+    // Order reference per line (UBL 2.1 only)
+    if (aLine.hasOrderLineReference ())
+    {
+      final Ebi61OrderReferenceDetailType aEbiOrderRefDetail = new Ebi61OrderReferenceDetailType ();
+
+      // order reference
+      String sUBLLineOrderReferenceID = aLine.getOrderLineReferenceOrderID ();
+      if (StringHelper.isEmpty (sUBLLineOrderReferenceID))
+      {
+        // Use the global order reference from header level
+        sUBLLineOrderReferenceID = sUBLOrderReferenceID;
+      }
+      aEbiOrderRefDetail.setOrderID (sUBLLineOrderReferenceID);
+
+      // Order position number
+      final String sOrderPosNumber = aLine.getOrderLineReferenceLineID ();
+      if (sOrderPosNumber != null)
+      {
+        if (sOrderPosNumber.length () == 0)
         {
-          aEbiDelivery = convertDelivery (aUBLDelivery,
-                                          "/Delivery[" + nDeliveryIndex + "]",
-                                          aUBLDoc.getAccountingCustomerParty (),
-                                          aTransformationErrorList,
-                                          m_aContentLocale,
-                                          m_aDisplayLocale);
-          break;
+          aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                        .child ("LineID"),
+                                                       EText.ORDERLINE_REF_ID_EMPTY.name (),
+                                                       new LazyErrorText (EText.ORDERLINE_REF_ID_EMPTY,
+                                                                          m_aDisplayLocale)));
+        }
+        else
+        {
+          aEbiOrderRefDetail.setOrderPositionNumber (sOrderPosNumber);
+        }
+      }
+      if (StringHelper.isNotEmpty (aEbiOrderRefDetail.getOrderPositionNumber ()) &&
+          StringHelper.isEmpty (sUBLLineOrderReferenceID))
+      {
+        if (m_aSettings.isOrderReferenceIDMandatory ())
+        {
+          // The line order reference is mandatory
+          aTransformationErrorList.add (new LazyError (EErrorLevel.ERROR,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                        .child ("OrderReference")
+                                                                                                        .child ("ID"),
+                                                       EText.ORDER_REFERENCE_MISSING.name (),
+                                                       new LazyErrorText (EText.ORDER_REFERENCE_MISSING,
+                                                                          m_aDisplayLocale)));
+        }
+        else
+        {
+          aEbiOrderRefDetail.setOrderPositionNumber (null);
+          aTransformationErrorList.add (new LazyError (EErrorLevel.WARN,
+                                                       new ErrorFieldPath ("CreditNoteLine", nLineIndex).child ("OrderLineReference")
+                                                                                                        .child ("OrderReference")
+                                                                                                        .child ("ID"),
+                                                       EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS.name (),
+                                                       new LazyErrorText (EText.ORDER_REFERENCE_MISSING_IGNORE_ORDER_POS,
+                                                                          m_aDisplayLocale)));
         }
-        ++nDeliveryIndex;
       }
 
-      if (aEbiDelivery == null)
-        aEbiDelivery = new Ebi61DeliveryType ();
+      if (StringHelper.isNotEmpty (sUBLLineOrderReferenceID))
+        aEbiListLineItem.setInvoiceRecipientsOrderReference (aEbiOrderRefDetail);
+    }
 
-      // No delivery date is present - check for service period
-      final PeriodType aUBLCreditNotePeriod = CollectionHelper.getAtIndex (aUBLDoc.getInvoicePeriod (), 0);
-      if (aUBLCreditNotePeriod != null)
+    // Reduction and surcharge (UBL 2.1 only)
+    if (aLine.hasAllowanceCharges ())
+    {
+      // Start with quantity*unitPrice for base amount
+      BigDecimal aEbiBaseAmount = aEbiListLineItem.getQuantity ().getValue ().multiply (aEbiUnitPriceValue);
+      final Ebi61ReductionAndSurchargeListLineItemDetailsType aEbiRSDetails = new Ebi61ReductionAndSurchargeListLineItemDetailsType ();
+
+      // ebInterface can handle only Reduction or only Surcharge
+      ETriState eSurcharge = ETriState.UNDEFINED;
+      for (final AllowanceChargeData aAllowanceCharge : aLine.getAllAllowanceCharges ())
       {
-        final XMLOffsetDate aStartDate = aUBLCreditNotePeriod.getStartDateValue ();
-        final XMLOffsetDate aEndDate = aUBLCreditNotePeriod.getEndDateValue ();
-        if (aStartDate != null)
+        final boolean bItemIsSurcharge = aAllowanceCharge.isSurcharge ();
+
+        // Remember for next item
+        if (eSurcharge.isUndefined ())
+          eSurcharge = ETriState.valueOf (bItemIsSurcharge);
+        final boolean bSwapSigns = bItemIsSurcharge != eSurcharge.isTrue ();
+
+        final Ebi61ReductionAndSurchargeBaseType aEbiRSItem = new Ebi61ReductionAndSurchargeBaseType ();
+        // Amount is mandatory
+        final BigDecimal aAmount = aAllowanceCharge.getAmount ();
+        aEbiRSItem.setAmount ((bSwapSigns ? aAmount.negate () : aAmount).setScale (SCALE_PRICE2, ROUNDING_MODE));
+
+        // Base amount is optional
+        if (aAllowanceCharge.getBaseAmount () != null)
+          aEbiRSItem.setBaseAmount (aAllowanceCharge.getBaseAmount ().setScale (SCALE_PRICE2, ROUNDING_MODE));
+        if (aEbiRSItem.getBaseAmount () == null)
+          aEbiRSItem.setBaseAmount (aEbiBaseAmount.setScale (SCALE_PRICE2, ROUNDING_MODE));
+
+        if (aAllowanceCharge.getMultiplierFactor () != null)
         {
-          if (aEndDate == null)
-          {
-            // It's just a date - prefer the delivery date over the
-            // InvoicePeriod/StartDate
-            if (aEbiDelivery.getDate () == null)
-              aEbiDelivery.setDate (aStartDate);
-          }
-          else
-          {
-            // It's a period!
-            final Ebi61PeriodType aEbiPeriod = new Ebi61PeriodType ();
-            aEbiPeriod.setFromDate (aStartDate);
-            aEbiPeriod.setToDate (aEndDate);
-            aEbiDelivery.setPeriod (aEbiPeriod);
-            // Has precedence over date!
-            aEbiDelivery.setDate ((XMLOffsetDate) null);
-          }
+          // Percentage is optional
+          final BigDecimal aPerc = aAllowanceCharge.getMultiplierFactor ().multiply (CGlobal.BIGDEC_100);
+          aEbiRSItem.setPercentage (aPerc.setScale (SCALE_PERC, ROUNDING_MODE));
+        }
+
+        if (eSurcharge.isTrue ())
+        {
+          aEbiRSDetails.addReductionListLineItemOrSurchargeListLineItemOrOtherVATableTaxListLineItem (new ObjectFactory ().createSurchargeListLineItem (aEbiRSItem));
+          aEbiBaseAmount = aEbiBaseAmount.add (aEbiRSItem.getAmount ());
         }
+        else
+        {
+          aEbiRSDetails.addReductionListLineItemOrSurchargeListLineItemOrOtherVATableTaxListLineItem (new ObjectFactory ().createReductionListLineItem (aEbiRSItem));
+          aEbiBaseAmount = aEbiBaseAmount.subtract (aEbiRSItem.getAmount ());
+        }
+
+        aEbiRSItem.setComment (aAllowanceCharge.getComment ());
       }
+      aEbiListLineItem.setReductionAndSurchargeListLineItemDetails (aEbiRSDetails);
     }
 
-    if (m_aSettings.isDeliveryDateMandatory ())
+    // Delivery per line item
+    final DeliveryType aUBLDelivery = aLine.getDelivery ();
+    if (aUBLDelivery != null)
     {
-      if (aEbiDelivery.getDate () == null && aEbiDelivery.getPeriod () == null)
-        aTransformationErrorList.add (SingleError.builderError ()
-                                                 .errorFieldName ("CreditNote")
-                                                 .errorText (EText.ERB_NO_DELIVERY_DATE.getDisplayText (m_aDisplayLocale))
-                                                 .build ());
+      // Delivery address
+      final int nDeliveryIndex = 0;
+
+      if (aUBLDelivery.getActualDeliveryDate () != null)
+      {
+        final Ebi61DeliveryType aEbiDelivery = convertDelivery (aUBLDelivery,
+                                                                "CreditNoteLine[" +
+                                                                              nLineIndex +
+                                                                              "]/Delivery[" +
+                                                                              nDeliveryIndex +
+                                                                              "]",
+                                                                aUBLAccountingCustomerParty,
+                                                                aTransformationErrorList,
+                                                                m_aContentLocale,
+                                                                m_aDisplayLocale);
+        aEbiListLineItem.setDelivery (aEbiDelivery);
+      }
     }
 
-    if (aEbiDelivery.getDate () != null || aEbiDelivery.getPeriod () != null)
-      aEbiDoc.setDelivery (aEbiDelivery);
+    // Additional item properties (available since ebi 5.0)
+    for (final Map.Entry <String, String> aEntry : aLine.getAllAdditionalProperties ())
+    {
+      final Ebi61AdditionalInformationType aEbiAddInfo = new Ebi61AdditionalInformationType ();
+      aEbiAddInfo.setKey (aEntry.getKey ());
+      aEbiAddInfo.setValue (aEntry.getValue ());
+      aEbiListLineItem.addAdditionalInformation (aEbiAddInfo);
+    }
 
     // Perform customizing as last action
     if (m_aCustomizer != null)
-      m_aCustomizer.additionalGlobalMapping (aUBLDoc, aEbiDoc);
+      m_aCustomizer.additionalItemMapping (aUBLLine, aEbiListLineItem);
 
-    return aEbiDoc;
+    return aEbiListLineItem;
   }
 }
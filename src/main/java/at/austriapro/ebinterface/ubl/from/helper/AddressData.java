@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The version independent data of a UBL postal address. All values are
+ * trimmed. The country name is taken from the UBL document only - the
+ * fallback to the display name of the country code depends on the content
+ * locale and is therefore part of the projection.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class AddressData
+{
+  private final String m_sStreet;
+  private final String m_sPOBox;
+  private final String m_sTown;
+  private final String m_sZIP;
+  private final boolean m_bHasCountry;
+  private final String m_sCountryCode;
+  private final String m_sCountryName;
+
+  public AddressData (@Nullable final String sStreet,
+                      @Nullable final String sPOBox,
+                      @Nullable final String sTown,
+                      @Nullable final String sZIP,
+                      final boolean bHasCountry,
+                      @Nullable final String sCountryCode,
+                      @Nullable final String sCountryName)
+  {
+    m_sStreet = sStreet;
+    m_sPOBox = sPOBox;
+    m_sTown = sTown;
+    m_sZIP = sZIP;
+    m_bHasCountry = bHasCountry;
+    m_sCountryCode = sCountryCode;
+    m_sCountryName = sCountryName;
+  }
+
+  /**
+   * @return Street name and building number separated by a blank. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public String getStreet ()
+  {
+    return m_sStreet;
+  }
+
+  @Nullable
+  public String getPOBox ()
+  {
+    return m_sPOBox;
+  }
+
+  @Nullable
+  public String getTown ()
+  {
+    return m_sTown;
+  }
+
+  @Nullable
+  public String getZIP ()
+  {
+    return m_sZIP;
+  }
+
+  /**
+   * @return <code>true</code> if the UBL address contains a
+   *         <code>Country</code> element.
+   */
+  public boolean hasCountry ()
+  {
+    return m_bHasCountry;
+  }
+
+  @Nullable
+  public String getCountryCode ()
+  {
+    return m_sCountryCode;
+  }
+
+  @Nullable
+  public String getCountryName ()
+  {
+    return m_sCountryName;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Street", m_sStreet)
+                                       .append ("POBox", m_sPOBox)
+                                       .append ("Town", m_sTown)
+                                       .append ("ZIP", m_sZIP)
+                                       .append ("HasCountry", m_bHasCountry)
+                                       .append ("CountryCode", m_sCountryCode)
+                                       .append ("CountryName", m_sCountryName)
+                                       .getToString ();
+  }
+}
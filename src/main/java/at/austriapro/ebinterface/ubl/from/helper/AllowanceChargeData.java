@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The version independent data of a UBL allowance or charge on line level.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class AllowanceChargeData
+{
+  private final boolean m_bSurcharge;
+  private final BigDecimal m_aAmount;
+  private final BigDecimal m_aBaseAmount;
+  private final BigDecimal m_aMultiplierFactor;
+  private final String m_sComment;
+
+  public AllowanceChargeData (final boolean bSurcharge,
+                              @Nullable final BigDecimal aAmount,
+                              @Nullable final BigDecimal aBaseAmount,
+                              @Nullable final BigDecimal aMultiplierFactor,
+                              @NonNull final String sComment)
+  {
+    m_bSurcharge = bSurcharge;
+    m_aAmount = aAmount;
+    m_aBaseAmount = aBaseAmount;
+    m_aMultiplierFactor = aMultiplierFactor;
+    m_sComment = sComment;
+  }
+
+  /**
+   * @return <code>true</code> for a charge, <code>false</code> for an
+   *         allowance.
+   */
+  public boolean isSurcharge ()
+  {
+    return m_bSurcharge;
+  }
+
+  /**
+   * @return The amount. Mandatory in UBL.
+   */
+  @Nullable
+  public BigDecimal getAmount ()
+  {
+    return m_aAmount;
+  }
+
+  /**
+   * @return The base amount or <code>null</code> if none is present.
+   */
+  @Nullable
+  public BigDecimal getBaseAmount ()
+  {
+    return m_aBaseAmount;
+  }
+
+  /**
+   * @return The multiplier factor (not the percentage) or <code>null</code> if
+   *         none is present.
+   */
+  @Nullable
+  public BigDecimal getMultiplierFactor ()
+  {
+    return m_aMultiplierFactor;
+  }
+
+  /**
+   * @return All reasons separated by a newline. Never <code>null</code> but
+   *         maybe empty.
+   */
+  @NonNull
+  public String getComment ()
+  {
+    return m_sComment;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Surcharge", m_bSurcharge)
+                                       .append ("Amount", m_aAmount)
+                                       .append ("BaseAmount", m_aBaseAmount)
+                                       .append ("MultiplierFactor", m_aMultiplierFactor)
+                                       .append ("Comment", m_sComment)
+                                       .getToString ();
+  }
+}
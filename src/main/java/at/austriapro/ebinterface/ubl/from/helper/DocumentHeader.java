@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.string.StringHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.datetime.xml.XMLOffsetDate;
+
+/**
+ * The version independent header data of a UBL invoice or credit note, built
+ * once from the UBL document. Together with the {@link TaxTable},
+ * {@link PartyData} and {@link LineData} it forms the part of the intermediate
+ * model that is identical for all ebInterface versions. Document level
+ * allowances/charges and payment are not part of it, because their mapping
+ * rules differ per version.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class DocumentHeader
+{
+  private final String m_sDocumentNumber;
+  private final XMLOffsetDate m_aIssueDate;
+  private final String m_sCurrencyCode;
+  private final Boolean m_aCopyIndicator;
+  private final String m_sComment;
+
+  public DocumentHeader (@Nullable final String sDocumentNumber,
+                         @Nullable final XMLOffsetDate aIssueDate,
+                         @Nullable final String sCurrencyCode,
+                         @Nullable final Boolean aCopyIndicator,
+                         @Nullable final String sComment)
+  {
+    m_sDocumentNumber = sDocumentNumber;
+    m_aIssueDate = aIssueDate;
+    m_sCurrencyCode = sCurrencyCode;
+    m_aCopyIndicator = aCopyIndicator;
+    m_sComment = sComment;
+  }
+
+  /**
+   * @return The trimmed document number (UBL <code>ID</code>). May be
+   *         <code>null</code> or empty.
+   */
+  @Nullable
+  public String getDocumentNumber ()
+  {
+    return m_sDocumentNumber;
+  }
+
+  /**
+   * @return The issue date without time. May be <code>null</code>.
+   */
+  @Nullable
+  public XMLOffsetDate getIssueDate ()
+  {
+    return m_aIssueDate;
+  }
+
+  /**
+   * @return The trimmed document currency code. May be <code>null</code>.
+   */
+  @Nullable
+  public String getCurrencyCode ()
+  {
+    return m_sCurrencyCode;
+  }
+
+  /**
+   * @return The copy indicator or <code>null</code> if none is present.
+   */
+  @Nullable
+  public Boolean getCopyIndicator ()
+  {
+    return m_aCopyIndicator;
+  }
+
+  /**
+   * @return All non-empty notes separated by a newline or <code>null</code> if
+   *         there is none.
+   */
+  @Nullable
+  public String getComment ()
+  {
+    return m_sComment;
+  }
+
+  /**
+   * @return <code>true</code> if a comment is present.
+   */
+  public boolean hasComment ()
+  {
+    return StringHelper.isNotEmpty (m_sComment);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("DocumentNumber", m_sDocumentNumber)
+                                       .append ("IssueDate", m_aIssueDate)
+                                       .append ("CurrencyCode", m_sCurrencyCode)
+                                       .appendIfNotNull ("CopyIndicator", m_aCopyIndicator)
+                                       .appendIfNotNull ("Comment", m_sComment)
+                                       .getToString ();
+  }
+}
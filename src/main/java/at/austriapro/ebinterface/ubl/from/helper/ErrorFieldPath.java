@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.CheckForSigned;
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The structured path of the UBL element an error refers to, e.g.
+ * <code>InvoiceLine[3]/Item/ClassifiedTaxCategory</code>. Each path element
+ * has a name, an optional index and a reference to its parent. The string
+ * representation is only created when it is read for the first time, so that
+ * the errors of invoice and credit note lines don't need to concatenate it
+ * eagerly.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ErrorFieldPath
+{
+  /** The index value of path elements without an index */
+  public static final int NO_INDEX = -1;
+
+  private final ErrorFieldPath m_aParent;
+  private final String m_sName;
+  private final int m_nIndex;
+  // Rendering twice in a race is harmless
+  private volatile String m_sAsString;
+
+  private ErrorFieldPath (@Nullable final ErrorFieldPath aParent,
+                          @NonNull @Nonempty final String sName,
+                          final int nIndex)
+  {
+    ValueEnforcer.notEmpty (sName, "Name");
+    m_aParent = aParent;
+    m_sName = sName;
+    m_nIndex = nIndex;
+  }
+
+  /**
+   * Create a new root path element without an index.
+   *
+   * @param sName
+   *        The element name. May neither be <code>null</code> nor empty.
+   */
+  public ErrorFieldPath (@NonNull @Nonempty final String sName)
+  {
+    this (null, sName, NO_INDEX);
+  }
+
+  /**
+   * Create a new root path element with an index.
+   *
+   * @param sName
+   *        The element name. May neither be <code>null</code> nor empty.
+   * @param nIndex
+   *        The 0-based index of the element. Must be &ge; 0.
+   */
+  public ErrorFieldPath (@NonNull @Nonempty final String sName, @Nonnegative final int nIndex)
+  {
+    this (null, sName, ValueEnforcer.isGE0 (nIndex, "Index"));
+  }
+
+  /**
+   * @return The parent path or <code>null</code> if this is a root element.
+   */
+  @Nullable
+  public ErrorFieldPath getParent ()
+  {
+    return m_aParent;
+  }
+
+  /**
+   * @return The name of this path element. Neither <code>null</code> nor
+   *         empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getName ()
+  {
+    return m_sName;
+  }
+
+  /**
+   * @return The 0-based index of this path element or {@link #NO_INDEX}.
+   */
+  @CheckForSigned
+  public int getIndex ()
+  {
+    return m_nIndex;
+  }
+
+  public boolean hasIndex ()
+  {
+    return m_nIndex != NO_INDEX;
+  }
+
+  /**
+   * Create a child path element without an index.
+   *
+   * @param sName
+   *        The element name. May neither be <code>null</code> nor empty.
+   * @return A new path with this path as its parent. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ErrorFieldPath child (@NonNull @Nonempty final String sName)
+  {
+    return new ErrorFieldPath (this, sName, NO_INDEX);
+  }
+
+  /**
+   * Create a child path element with an index.
+   *
+   * @param sName
+   *        The element name. May neither be <code>null</code> nor empty.
+   * @param nIndex
+   *        The 0-based index of the element. Must be &ge; 0.
+   * @return A new path with this path as its parent. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ErrorFieldPath child (@NonNull @Nonempty final String sName, @Nonnegative final int nIndex)
+  {
+    return new ErrorFieldPath (this, sName, ValueEnforcer.isGE0 (nIndex, "Index"));
+  }
+
+  private void _appendTo (@NonNull final StringBuilder aSB)
+  {
+    if (m_aParent != null)
+    {
+      m_aParent._appendTo (aSB);
+      aSB.append ('/');
+    }
+    aSB.append (m_sName);
+    if (m_nIndex != NO_INDEX)
+      aSB.append ('[').append (m_nIndex).append (']');
+  }
+
+  /**
+   * @return The path as a string, as used for the error field name, e.g.
+   *         <code>InvoiceLine[3]/Item/ClassifiedTaxCategory</code>. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @Nonempty
+  public String getAsString ()
+  {
+    String ret = m_sAsString;
+    if (ret == null)
+    {
+      final StringBuilder aSB = new StringBuilder ();
+      _appendTo (aSB);
+      ret = aSB.toString ();
+      m_sAsString = ret;
+    }
+    return ret;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final ErrorFieldPath rhs = (ErrorFieldPath) o;
+    return m_sName.equals (rhs.m_sName) && m_nIndex == rhs.m_nIndex && EqualsHelper.equals (m_aParent, rhs.m_aParent);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_aParent).append (m_sName).append (m_nIndex).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Path", getAsString ()).getToString ();
+  }
+}
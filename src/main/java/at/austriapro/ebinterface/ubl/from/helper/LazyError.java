@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.level.IErrorLevel;
+
+/**
+ * A deferred error as raised by the UBL to ebInterface converters. It keeps
+ * the error ID, the structured {@link ErrorFieldPath} and the
+ * {@link LazyErrorText} and only renders the field name and the text when they
+ * are read. It is used for the errors of invoice and credit note lines, where a
+ * broken document may raise many errors of which only few are ever displayed.
+ * All other errors are created as {@link com.helger.diagnostics.error.SingleError}
+ * with a plain field name.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class LazyError implements IError
+{
+  private final IErrorLevel m_aErrorLevel;
+  private final String m_sErrorID;
+  private final ErrorFieldPath m_aErrorFieldPath;
+  private final LazyErrorText m_aErrorText;
+
+  public LazyError (@NonNull final IErrorLevel aErrorLevel,
+                    @Nullable final String sErrorID,
+                    @Nullable final ErrorFieldPath aErrorFieldPath,
+                    @NonNull final LazyErrorText aErrorText)
+  {
+    ValueEnforcer.notNull (aErrorLevel, "ErrorLevel");
+    ValueEnforcer.notNull (aErrorText, "ErrorText");
+    m_aErrorLevel = aErrorLevel;
+    m_sErrorID = sErrorID;
+    m_aErrorFieldPath = aErrorFieldPath;
+    m_aErrorText = aErrorText;
+  }
+
+  @Override
+  @NonNull
+  public IErrorLevel getErrorLevel ()
+  {
+    return m_aErrorLevel;
+  }
+
+  @Override
+  @Nullable
+  public String getErrorID ()
+  {
+    return m_sErrorID;
+  }
+
+  /**
+   * @return The structured path of the erroneous element as passed in the
+   *         constructor. May be <code>null</code>.
+   */
+  @Nullable
+  public ErrorFieldPath getErrorFieldPath ()
+  {
+    return m_aErrorFieldPath;
+  }
+
+  @Override
+  @Nullable
+  public String getErrorFieldName ()
+  {
+    return m_aErrorFieldPath == null ? null : m_aErrorFieldPath.getAsString ();
+  }
+
+  /**
+   * @return The error text as passed in the constructor. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public LazyErrorText getLazyErrorText ()
+  {
+    return m_aErrorText;
+  }
+
+  @Override
+  @Nullable
+  public String getErrorText (@NonNull final Locale aContentLocale)
+  {
+    return m_aErrorText.getDisplayText (aContentLocale);
+  }
+
+  @Override
+  @Nullable
+  public Throwable getLinkedException ()
+  {
+    return null;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final LazyError rhs = (LazyError) o;
+    return m_aErrorLevel.equals (rhs.m_aErrorLevel) &&
+           EqualsHelper.equals (m_sErrorID, rhs.m_sErrorID) &&
+           EqualsHelper.equals (m_aErrorFieldPath, rhs.m_aErrorFieldPath) &&
+           m_aErrorText.equals (rhs.m_aErrorText);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_aErrorLevel)
+                                       .append (m_sErrorID)
+                                       .append (m_aErrorFieldPath)
+                                       .append (m_aErrorText)
+                                       .getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ErrorLevel", m_aErrorLevel)
+                                       .appendIfNotNull ("ErrorID", m_sErrorID)
+                                       .appendIfNotNull ("ErrorFieldPath", m_aErrorFieldPath)
+                                       .append ("ErrorText", m_aErrorText)
+                                       .getToString ();
+  }
+}
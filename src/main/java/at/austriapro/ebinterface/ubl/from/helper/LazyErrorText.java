@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.text.IHasErrorText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+
+/**
+ * An error text that only keeps the text key, the display locale and the
+ * arguments and renders the message when it is read for the first time. The
+ * converters may raise a lot of errors and warnings for bogus input, and most
+ * of them are only counted or checked for their level but never displayed.
+ * <p>
+ * The text is always rendered in the display locale of the converter, so that
+ * the result is the same as with an eagerly rendered text.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class LazyErrorText implements IHasErrorText
+{
+  private final IHasDisplayTextWithArgs m_aText;
+  private final Locale m_aDisplayLocale;
+  private final Object [] m_aArgs;
+  // Rendering twice in a race is harmless
+  private volatile String m_sRendered;
+
+  public LazyErrorText (@NonNull final IHasDisplayTextWithArgs aText,
+                        @NonNull final Locale aDisplayLocale,
+                        @Nullable final Object... aArgs)
+  {
+    ValueEnforcer.notNull (aText, "Text");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    m_aText = aText;
+    m_aDisplayLocale = aDisplayLocale;
+    // The caller may reuse the array after the error was raised
+    m_aArgs = aArgs == null ? null : aArgs.clone ();
+  }
+
+  /**
+   * @return The text key as passed in the constructor. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public IHasDisplayTextWithArgs getText ()
+  {
+    return m_aText;
+  }
+
+  /**
+   * @return <code>true</code> if the text was already rendered.
+   */
+  public boolean isRendered ()
+  {
+    return m_sRendered != null;
+  }
+
+  @Override
+  @Nullable
+  public String getDisplayText (@Nullable final Locale aContentLocale)
+  {
+    String ret = m_sRendered;
+    if (ret == null)
+    {
+      // Texts without arguments must not run through the message format
+      if (m_aArgs == null || m_aArgs.length == 0)
+        ret = m_aText.getDisplayText (m_aDisplayLocale);
+      else
+        ret = m_aText.getDisplayTextWithArgs (m_aDisplayLocale, m_aArgs);
+      m_sRendered = ret;
+    }
+    return ret;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final LazyErrorText rhs = (LazyErrorText) o;
+    return m_aText.equals (rhs.m_aText) &&
+           m_aDisplayLocale.equals (rhs.m_aDisplayLocale) &&
+           Arrays.equals (m_aArgs, rhs.m_aArgs);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_aText).append (m_aDisplayLocale).append (m_aArgs).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Text", m_aText)
+                                       .append ("DisplayLocale", m_aDisplayLocale)
+                                       .append ("Args", m_aArgs)
+                                       .append ("Rendered", m_sRendered)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsImmutableObject;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.DeliveryType;
+
+/**
+ * The version independent data of a UBL invoice line or credit note line,
+ * built once from the UBL document and the {@link TaxTable}. All texts are
+ * trimmed and the tax percentage is already resolved. Missing or invalid
+ * values are kept as they are, because the defaults and the errors are part
+ * of the projection into an ebInterface version.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class LineData
+{
+  private final String m_sID;
+  private final BigInteger m_aPositionNumber;
+  private final List <String> m_aDescriptions;
+  private final String m_sQuantityUnit;
+  private final BigDecimal m_aQuantity;
+  private final boolean m_bHasPrice;
+  private final BigDecimal m_aPriceAmount;
+  private final BigDecimal m_aPriceBaseQuantity;
+  private final BigDecimal m_aLineExtensionAmount;
+  private final String m_sTaxCategoryID;
+  private final BigDecimal m_aTaxPercent;
+  private final boolean m_bTaxExemption;
+  private final String m_sTaxExemptionReason;
+  private final boolean m_bHasOrderLineReference;
+  private final String m_sOrderLineReferenceOrderID;
+  private final String m_sOrderLineReferenceLineID;
+  private final List <AllowanceChargeData> m_aAllowanceCharges;
+  private final DeliveryType m_aDelivery;
+  private final List <Map.Entry <String, String>> m_aAdditionalProperties;
+
+  public LineData (@Nullable final String sID,
+                   @Nullable final BigInteger aPositionNumber,
+                   @NonNull final List <String> aDescriptions,
+                   @Nullable final String sQuantityUnit,
+                   @Nullable final BigDecimal aQuantity,
+                   final boolean bHasPrice,
+                   @Nullable final BigDecimal aPriceAmount,
+                   @Nullable final BigDecimal aPriceBaseQuantity,
+                   @Nullable final BigDecimal aLineExtensionAmount,
+                   @Nullable final String sTaxCategoryID,
+                   @Nullable final BigDecimal aTaxPercent,
+                   final boolean bTaxExemption,
+                   @Nullable final String sTaxExemptionReason,
+                   final boolean bHasOrderLineReference,
+                   @Nullable final String sOrderLineReferenceOrderID,
+                   @Nullable final String sOrderLineReferenceLineID,
+                   @NonNull final List <AllowanceChargeData> aAllowanceCharges,
+                   @Nullable final DeliveryType aDelivery,
+                   @NonNull final List <Map.Entry <String, String>> aAdditionalProperties)
+  {
+    ValueEnforcer.notNullNoNullValue (aDescriptions, "Descriptions");
+    ValueEnforcer.notNullNoNullValue (aAllowanceCharges, "AllowanceCharges");
+    ValueEnforcer.notNullNoNullValue (aAdditionalProperties, "AdditionalProperties");
+    m_sID = sID;
+    m_aPositionNumber = aPositionNumber;
+    m_aDescriptions = Collections.unmodifiableList (new CommonsArrayList <> (aDescriptions));
+    m_sQuantityUnit = sQuantityUnit;
+    m_aQuantity = aQuantity;
+    m_bHasPrice = bHasPrice;
+    m_aPriceAmount = aPriceAmount;
+    m_aPriceBaseQuantity = aPriceBaseQuantity;
+    m_aLineExtensionAmount = aLineExtensionAmount;
+    m_sTaxCategoryID = sTaxCategoryID;
+    m_aTaxPercent = aTaxPercent;
+    m_bTaxExemption = bTaxExemption;
+    m_sTaxExemptionReason = sTaxExemptionReason;
+    m_bHasOrderLineReference = bHasOrderLineReference;
+    m_sOrderLineReferenceOrderID = sOrderLineReferenceOrderID;
+    m_sOrderLineReferenceLineID = sOrderLineReferenceLineID;
+    m_aAllowanceCharges = Collections.unmodifiableList (new CommonsArrayList <> (aAllowanceCharges));
+    m_aDelivery = aDelivery;
+    m_aAdditionalProperties = Collections.unmodifiableList (new CommonsArrayList <> (aAdditionalProperties));
+  }
+
+  /**
+   * @return The trimmed line ID. May be <code>null</code>.
+   */
+  @Nullable
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  /**
+   * @return The line ID as a number or <code>null</code> if it is not
+   *         numeric. The number is not checked for validity.
+   */
+  @Nullable
+  public BigInteger getPositionNumber ()
+  {
+    return m_aPositionNumber;
+  }
+
+  /**
+   * @return The item name, the item descriptions and the notes of the line
+   *         without empty values. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsImmutableObject
+  public List <String> getAllDescriptions ()
+  {
+    return m_aDescriptions;
+  }
+
+  /**
+   * @return The unit code of the quantity or <code>null</code> if none is
+   *         present.
+   */
+  @Nullable
+  public String getQuantityUnit ()
+  {
+    return m_sQuantityUnit;
+  }
+
+  /**
+   * @return The quantity or <code>null</code> if none is present.
+   */
+  @Nullable
+  public BigDecimal getQuantity ()
+  {
+    return m_aQuantity;
+  }
+
+  /**
+   * @return <code>true</code> if the line has a <code>Price</code> element.
+   */
+  public boolean hasPrice ()
+  {
+    return m_bHasPrice;
+  }
+
+  @Nullable
+  public BigDecimal getPriceAmount ()
+  {
+    return m_aPriceAmount;
+  }
+
+  @Nullable
+  public BigDecimal getPriceBaseQuantity ()
+  {
+    return m_aPriceBaseQuantity;
+  }
+
+  @Nullable
+  public BigDecimal getLineExtensionAmount ()
+  {
+    return m_aLineExtensionAmount;
+  }
+
+  /**
+   * @return The ID of the tax category of the line or of its tax total. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public String getTaxCategoryID ()
+  {
+    return m_sTaxCategoryID;
+  }
+
+  /**
+   * @return The tax percentage from the tax category, from the tax table or 0
+   *         for a tax exemption. <code>null</code> if it cannot be resolved.
+   */
+  @Nullable
+  public BigDecimal getTaxPercent ()
+  {
+    return m_aTaxPercent;
+  }
+
+  /**
+   * @return <code>true</code> if the tax category is a tax exemption.
+   */
+  public boolean isTaxExemption ()
+  {
+    return m_bTaxExemption;
+  }
+
+  /**
+   * @return The first tax exemption reason or as fallback the tax exemption
+   *         reason code, not trimmed. May be <code>null</code>.
+   */
+  @Nullable
+  public String getTaxExemptionReason ()
+  {
+    return m_sTaxExemptionReason;
+  }
+
+  /**
+   * @return <code>true</code> if the line has an
+   *         <code>OrderLineReference</code> with a line ID.
+   */
+  public boolean hasOrderLineReference ()
+  {
+    return m_bHasOrderLineReference;
+  }
+
+  /**
+   * @return The order ID of the first order line reference with a line ID.
+   *         May be <code>null</code>.
+   */
+  @Nullable
+  public String getOrderLineReferenceOrderID ()
+  {
+    return m_sOrderLineReferenceOrderID;
+  }
+
+  /**
+   * @return The line ID of the first order line reference with a line ID. May
+   *         be <code>null</code>.
+   */
+  @Nullable
+  public String getOrderLineReferenceLineID ()
+  {
+    return m_sOrderLineReferenceLineID;
+  }
+
+  /**
+   * @return <code>true</code> if the line has at least one allowance or
+   *         charge.
+   */
+  public boolean hasAllowanceCharges ()
+  {
+    return !m_aAllowanceCharges.isEmpty ();
+  }
+
+  /**
+   * @return All allowances and charges of the line in document order. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsImmutableObject
+  public List <AllowanceChargeData> getAllAllowanceCharges ()
+  {
+    return m_aAllowanceCharges;
+  }
+
+  /**
+   * @return The first delivery of the line or <code>null</code> if none is
+   *         present. It is converted per version, because the delivery party
+   *         falls back to the accounting customer party.
+   */
+  @Nullable
+  public DeliveryType getDelivery ()
+  {
+    return m_aDelivery;
+  }
+
+  /**
+   * @return The name (or ID) and value of all additional item properties that
+   *         have both. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsImmutableObject
+  public List <Map.Entry <String, String>> getAllAdditionalProperties ()
+  {
+    return m_aAdditionalProperties;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ID", m_sID)
+                                       .append ("PositionNumber", m_aPositionNumber)
+                                       .append ("Descriptions", m_aDescriptions)
+                                       .append ("QuantityUnit", m_sQuantityUnit)
+                                       .append ("Quantity", m_aQuantity)
+                                       .append ("HasPrice", m_bHasPrice)
+                                       .append ("PriceAmount", m_aPriceAmount)
+                                       .append ("PriceBaseQuantity", m_aPriceBaseQuantity)
+                                       .append ("LineExtensionAmount", m_aLineExtensionAmount)
+                                       .append ("TaxCategoryID", m_sTaxCategoryID)
+                                       .append ("TaxPercent", m_aTaxPercent)
+                                       .append ("TaxExemption", m_bTaxExemption)
+                                       .append ("TaxExemptionReason", m_sTaxExemptionReason)
+                                       .append ("HasOrderLineReference", m_bHasOrderLineReference)
+                                       .append ("OrderLineReferenceOrderID", m_sOrderLineReferenceOrderID)
+                                       .append ("OrderLineReferenceLineID", m_sOrderLineReferenceLineID)
+                                       .append ("AllowanceCharges", m_aAllowanceCharges)
+                                       .append ("HasDelivery", m_aDelivery != null)
+                                       .append ("AdditionalProperties", m_aAdditionalProperties)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsImmutableObject;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyIdentificationType;
+
+/**
+ * The version independent data of a UBL party, built once from the UBL
+ * document. All texts are trimmed. The ebInterface versions differ in where
+ * they put the contact data and which address identifiers they support, so
+ * the party identifications are kept as they are and errors are only
+ * reported when projecting the party into a version.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class PartyData
+{
+  private final boolean m_bMultiplePartyNames;
+  private final String m_sName;
+  private final AddressData m_aPostalAddress;
+  private final boolean m_bHasContactData;
+  private final String m_sPhone;
+  private final String m_sEmail;
+  private final String m_sContactName;
+  private final String m_sSalutation;
+  private final String m_sEndpointID;
+  private final String m_sEndpointSchemeID;
+  private final List <PartyIdentificationType> m_aPartyIdentifications;
+  private final String m_sFirstPartyIdentificationID;
+  private final String m_sVATIdentificationNumber;
+
+  public PartyData (final boolean bMultiplePartyNames,
+                    @Nullable final String sName,
+                    @Nullable final AddressData aPostalAddress,
+                    final boolean bHasContactData,
+                    @Nullable final String sPhone,
+                    @Nullable final String sEmail,
+                    @Nullable final String sContactName,
+                    @Nullable final String sSalutation,
+                    @Nullable final String sEndpointID,
+                    @Nullable final String sEndpointSchemeID,
+                    @NonNull final List <PartyIdentificationType> aPartyIdentifications,
+                    @Nullable final String sVATIdentificationNumber)
+  {
+    ValueEnforcer.notNullNoNullValue (aPartyIdentifications, "PartyIdentifications");
+    m_bMultiplePartyNames = bMultiplePartyNames;
+    m_sName = sName;
+    m_aPostalAddress = aPostalAddress;
+    m_bHasContactData = bHasContactData;
+    m_sPhone = sPhone;
+    m_sEmail = sEmail;
+    m_sContactName = sContactName;
+    m_sSalutation = sSalutation;
+    m_sEndpointID = sEndpointID;
+    m_sEndpointSchemeID = sEndpointSchemeID;
+    m_aPartyIdentifications = Collections.unmodifiableList (new CommonsArrayList <> (aPartyIdentifications));
+    m_sFirstPartyIdentificationID = aPartyIdentifications.isEmpty () ? null
+                                                                    : StringHelper.trim (aPartyIdentifications.get (0)
+                                                                                                              .getIDValue ());
+    m_sVATIdentificationNumber = sVATIdentificationNumber;
+  }
+
+  /**
+   * @return <code>true</code> if the party has more than one
+   *         <code>PartyName</code>.
+   */
+  public boolean hasMultiplePartyNames ()
+  {
+    return m_bMultiplePartyNames;
+  }
+
+  /**
+   * @return The first party name or as fallback the registration name of the
+   *         first legal entity. May be <code>null</code>.
+   */
+  @Nullable
+  public String getName ()
+  {
+    return m_sName;
+  }
+
+  /**
+   * @return The postal address or <code>null</code> if none is present.
+   */
+  @Nullable
+  public AddressData getPostalAddress ()
+  {
+    return m_aPostalAddress;
+  }
+
+  /**
+   * @return <code>true</code> if the party has a <code>Contact</code> or at
+   *         least one <code>Person</code>.
+   */
+  public boolean hasContactData ()
+  {
+    return m_bHasContactData;
+  }
+
+  /**
+   * @return The telephone number of the contact. May be <code>null</code>.
+   */
+  @Nullable
+  public String getPhone ()
+  {
+    return m_sPhone;
+  }
+
+  /**
+   * @return The email address of the contact. May be <code>null</code>.
+   */
+  @Nullable
+  public String getEmail ()
+  {
+    return m_sEmail;
+  }
+
+  /**
+   * @return The contact name and the names of all persons separated by a
+   *         newline or <code>null</code> if there is none.
+   */
+  @Nullable
+  public String getContactName ()
+  {
+    return m_sContactName;
+  }
+
+  /**
+   * @return The first gender code of all persons. May be <code>null</code>.
+   */
+  @Nullable
+  public String getSalutation ()
+  {
+    return m_sSalutation;
+  }
+
+  /**
+   * @return The endpoint ID or <code>null</code> if none is present.
+   */
+  @Nullable
+  public String getEndpointID ()
+  {
+    return m_sEndpointID;
+  }
+
+  /**
+   * @return The scheme ID of the endpoint ID as contained in the document, not
+   *         trimmed. May be <code>null</code>.
+   */
+  @Nullable
+  public String getEndpointSchemeID ()
+  {
+    return m_sEndpointSchemeID;
+  }
+
+  /**
+   * @return All party identifications in document order. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsImmutableObject
+  public List <PartyIdentificationType> getAllPartyIdentifications ()
+  {
+    return m_aPartyIdentifications;
+  }
+
+  /**
+   * @return <code>true</code> if at least one party identification is present.
+   */
+  public boolean hasPartyIdentification ()
+  {
+    return !m_aPartyIdentifications.isEmpty ();
+  }
+
+  /**
+   * @return The trimmed ID of the first party identification. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public String getFirstPartyIdentificationID ()
+  {
+    return m_sFirstPartyIdentificationID;
+  }
+
+  /**
+   * @return The company ID of the first VAT party tax scheme. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public String getVATIdentificationNumber ()
+  {
+    return m_sVATIdentificationNumber;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("MultiplePartyNames", m_bMultiplePartyNames)
+                                       .append ("Name", m_sName)
+                                       .append ("PostalAddress", m_aPostalAddress)
+                                       .append ("HasContactData", m_bHasContactData)
+                                       .append ("Phone", m_sPhone)
+                                       .append ("Email", m_sEmail)
+                                       .append ("ContactName", m_sContactName)
+                                       .append ("Salutation", m_sSalutation)
+                                       .append ("EndpointID", m_sEndpointID)
+                                       .append ("EndpointSchemeID", m_sEndpointSchemeID)
+                                       .append ("PartyIdentifications", m_aPartyIdentifications)
+                                       .append ("VATIdentificationNumber", m_sVATIdentificationNumber)
+                                       .getToString ();
+  }
+}
@@ -23,7 +23,6 @@ import com.helger.annotation.Nonempty;
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.equals.EqualsHelper;
-import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.tostring.ToStringGenerator;
 
 /**
@@ -36,11 +35,14 @@ public final class SchemedID
 {
   private final String m_sSchemeID;
   private final String m_sID;
+  // Keys are looked up for every line, so calculate the hash code only once
+  private final int m_nHashCode;
 
   public SchemedID (@Nullable final String sSchemeID, @NonNull @Nonempty final String sID)
   {
     m_sSchemeID = sSchemeID;
     m_sID = ValueEnforcer.notEmpty (sID, "ID");
+    m_nHashCode = getHashCode (sSchemeID, sID);
   }
 
   @Nullable
@@ -56,6 +58,21 @@ public final class SchemedID
     return m_sID;
   }
 
+  /**
+   * Check if this ID consists of the passed values, without the need to
+   * create a new object.
+   *
+   * @param sSchemeID
+   *        The scheme ID to compare. May be <code>null</code>.
+   * @param sID
+   *        The ID value to compare. May be <code>null</code>.
+   * @return <code>true</code> if both values are equal.
+   */
+  public boolean matches (@Nullable final String sSchemeID, @Nullable final String sID)
+  {
+    return m_sID.equals (sID) && EqualsHelper.equals (m_sSchemeID, sSchemeID);
+  }
+
   @Override
   public boolean equals (final Object o)
   {
@@ -64,13 +81,28 @@ public final class SchemedID
     if (o == null || !getClass ().equals (o.getClass ()))
       return false;
     final SchemedID rhs = (SchemedID) o;
-    return EqualsHelper.equals (m_sSchemeID, rhs.m_sSchemeID) && m_sID.equals (rhs.m_sID);
+    return m_nHashCode == rhs.m_nHashCode && matches (rhs.m_sSchemeID, rhs.m_sID);
   }
 
   @Override
   public int hashCode ()
   {
-    return new HashCodeGenerator (this).append (m_sSchemeID).append (m_sID).getHashCode ();
+    return m_nHashCode;
+  }
+
+  /**
+   * Get the hash code a {@link SchemedID} with the passed values has, without
+   * the need to create it.
+   *
+   * @param sSchemeID
+   *        The scheme ID. May be <code>null</code>.
+   * @param sID
+   *        The ID value. May not be <code>null</code>.
+   * @return The hash code.
+   */
+  public static int getHashCode (@Nullable final String sSchemeID, @NonNull final String sID)
+  {
+    return 31 * (sSchemeID == null ? 0 : sSchemeID.hashCode ()) + sID.hashCode ();
   }
 
   @Override
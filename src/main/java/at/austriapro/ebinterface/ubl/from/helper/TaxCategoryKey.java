@@ -17,10 +17,10 @@
 package at.austriapro.ebinterface.ubl.from.helper;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.base.enforce.ValueEnforcer;
-import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.tostring.ToStringGenerator;
 
 /**
@@ -35,6 +35,7 @@ public final class TaxCategoryKey
 {
   private final SchemedID m_aTaxCategoryScheme;
   private final SchemedID m_aTaxCategoryID;
+  private final int m_nHashCode;
 
   public TaxCategoryKey (@NonNull final SchemedID aTaxCategoryScheme, @NonNull final SchemedID aTaxCategoryID)
   {
@@ -42,6 +43,7 @@ public final class TaxCategoryKey
     ValueEnforcer.notNull (aTaxCategoryID, "TaxCategoryID");
     m_aTaxCategoryScheme = aTaxCategoryScheme;
     m_aTaxCategoryID = aTaxCategoryID;
+    m_nHashCode = 31 * aTaxCategoryScheme.hashCode () + aTaxCategoryID.hashCode ();
   }
 
   @NonNull
@@ -56,6 +58,29 @@ public final class TaxCategoryKey
     return m_aTaxCategoryID;
   }
 
+  /**
+   * Check if this key consists of the passed values, without the need to
+   * create a new object.
+   *
+   * @param sTaxSchemeSchemeID
+   *        The scheme ID of the tax scheme. May be <code>null</code>.
+   * @param sTaxSchemeID
+   *        The tax scheme ID. May be <code>null</code>.
+   * @param sTaxCategorySchemeID
+   *        The scheme ID of the tax category. May be <code>null</code>.
+   * @param sTaxCategoryID
+   *        The tax category ID. May be <code>null</code>.
+   * @return <code>true</code> if all values are equal.
+   */
+  public boolean matches (@Nullable final String sTaxSchemeSchemeID,
+                          @Nullable final String sTaxSchemeID,
+                          @Nullable final String sTaxCategorySchemeID,
+                          @Nullable final String sTaxCategoryID)
+  {
+    return m_aTaxCategoryID.matches (sTaxCategorySchemeID, sTaxCategoryID) &&
+           m_aTaxCategoryScheme.matches (sTaxSchemeSchemeID, sTaxSchemeID);
+  }
+
   @Override
   public boolean equals (final Object o)
   {
@@ -64,13 +89,38 @@ public final class TaxCategoryKey
     if (o == null || !getClass ().equals (o.getClass ()))
       return false;
     final TaxCategoryKey rhs = (TaxCategoryKey) o;
-    return m_aTaxCategoryScheme.equals (rhs.m_aTaxCategoryScheme) && m_aTaxCategoryID.equals (rhs.m_aTaxCategoryID);
+    return m_nHashCode == rhs.m_nHashCode &&
+           m_aTaxCategoryID.equals (rhs.m_aTaxCategoryID) &&
+           m_aTaxCategoryScheme.equals (rhs.m_aTaxCategoryScheme);
   }
 
   @Override
   public int hashCode ()
   {
-    return new HashCodeGenerator (this).append (m_aTaxCategoryScheme).append (m_aTaxCategoryID).getHashCode ();
+    return m_nHashCode;
+  }
+
+  /**
+   * Get the hash code a {@link TaxCategoryKey} with the passed values has,
+   * without the need to create it.
+   *
+   * @param sTaxSchemeSchemeID
+   *        The scheme ID of the tax scheme. May be <code>null</code>.
+   * @param sTaxSchemeID
+   *        The tax scheme ID. May not be <code>null</code>.
+   * @param sTaxCategorySchemeID
+   *        The scheme ID of the tax category. May be <code>null</code>.
+   * @param sTaxCategoryID
+   *        The tax category ID. May not be <code>null</code>.
+   * @return The hash code.
+   */
+  public static int getHashCode (@Nullable final String sTaxSchemeSchemeID,
+                                 @NonNull final String sTaxSchemeID,
+                                 @Nullable final String sTaxCategorySchemeID,
+                                 @NonNull final String sTaxCategoryID)
+  {
+    return 31 * SchemedID.getHashCode (sTaxSchemeSchemeID, sTaxSchemeID) +
+           SchemedID.getHashCode (sTaxCategorySchemeID, sTaxCategoryID);
   }
 
   @Override
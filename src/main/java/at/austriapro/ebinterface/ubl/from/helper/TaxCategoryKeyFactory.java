@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * A flyweight factory for {@link TaxCategoryKey} objects. Equal keys are only
+ * created once, and existing keys can be looked up by their string values
+ * without creating any object. A document only uses a handful of tax
+ * categories, so a new instance should be used per document.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class TaxCategoryKeyFactory
+{
+  private static final int INITIAL_CAPACITY = 16;
+
+  // Open addressing with linear probing; at most half full
+  private TaxCategoryKey [] m_aTable = new TaxCategoryKey [INITIAL_CAPACITY];
+  private int m_nSize = 0;
+
+  public TaxCategoryKeyFactory ()
+  {}
+
+  private static int _getIndex (final int nHashCode, final int nMask)
+  {
+    // Spread the higher bits, as the table is small
+    return (nHashCode ^ (nHashCode >>> 16)) & nMask;
+  }
+
+  private void _add (@NonNull final TaxCategoryKey aKey)
+  {
+    if ((m_nSize + 1) * 2 > m_aTable.length)
+    {
+      // Grow
+      final TaxCategoryKey [] aOldTable = m_aTable;
+      m_aTable = new TaxCategoryKey [aOldTable.length * 2];
+      for (final TaxCategoryKey aOldKey : aOldTable)
+        if (aOldKey != null)
+          _insert (aOldKey);
+    }
+    _insert (aKey);
+    m_nSize++;
+  }
+
+  private void _insert (@NonNull final TaxCategoryKey aKey)
+  {
+    final int nMask = m_aTable.length - 1;
+    int nIndex = _getIndex (aKey.hashCode (), nMask);
+    while (m_aTable[nIndex] != null)
+      nIndex = (nIndex + 1) & nMask;
+    m_aTable[nIndex] = aKey;
+  }
+
+  /**
+   * Get an existing key without creating any object.
+   *
+   * @param sTaxSchemeSchemeID
+   *        The scheme ID of the tax scheme. May be <code>null</code>.
+   * @param sTaxSchemeID
+   *        The tax scheme ID. May be <code>null</code>.
+   * @param sTaxCategorySchemeID
+   *        The scheme ID of the tax category. May be <code>null</code>.
+   * @param sTaxCategoryID
+   *        The tax category ID. May be <code>null</code>.
+   * @return The existing key or <code>null</code> if no such key was created
+   *         by this factory.
+   */
+  @Nullable
+  public TaxCategoryKey getKey (@Nullable final String sTaxSchemeSchemeID,
+                                @Nullable final String sTaxSchemeID,
+                                @Nullable final String sTaxCategorySchemeID,
+                                @Nullable final String sTaxCategoryID)
+  {
+    if (sTaxSchemeID == null || sTaxCategoryID == null)
+      return null;
+
+    final int nHashCode = TaxCategoryKey.getHashCode (sTaxSchemeSchemeID,
+                                                      sTaxSchemeID,
+                                                      sTaxCategorySchemeID,
+                                                      sTaxCategoryID);
+    final int nMask = m_aTable.length - 1;
+    int nIndex = _getIndex (nHashCode, nMask);
+    TaxCategoryKey aKey;
+    while ((aKey = m_aTable[nIndex]) != null)
+    {
+      if (aKey.hashCode () == nHashCode &&
+          aKey.matches (sTaxSchemeSchemeID, sTaxSchemeID, sTaxCategorySchemeID, sTaxCategoryID))
+        return aKey;
+      nIndex = (nIndex + 1) & nMask;
+    }
+    return null;
+  }
+
+  /**
+   * Get an existing key or create a new one.
+   *
+   * @param sTaxSchemeSchemeID
+   *        The scheme ID of the tax scheme. May be <code>null</code>.
+   * @param sTaxSchemeID
+   *        The tax scheme ID. May neither be <code>null</code> nor empty.
+   * @param sTaxCategorySchemeID
+   *        The scheme ID of the tax category. May be <code>null</code>.
+   * @param sTaxCategoryID
+   *        The tax category ID. May neither be <code>null</code> nor empty.
+   * @return The shared key. Never <code>null</code>.
+   */
+  @NonNull
+  public TaxCategoryKey getOrCreateKey (@Nullable final String sTaxSchemeSchemeID,
+                                        @NonNull @Nonempty final String sTaxSchemeID,
+                                        @Nullable final String sTaxCategorySchemeID,
+                                        @NonNull @Nonempty final String sTaxCategoryID)
+  {
+    TaxCategoryKey ret = getKey (sTaxSchemeSchemeID, sTaxSchemeID, sTaxCategorySchemeID, sTaxCategoryID);
+    if (ret == null)
+    {
+      ret = new TaxCategoryKey (new SchemedID (sTaxSchemeSchemeID, sTaxSchemeID),
+                                new SchemedID (sTaxCategorySchemeID, sTaxCategoryID));
+      _add (ret);
+    }
+    return ret;
+  }
+
+  /**
+   * Get the shared instance of the passed key. If no equal key is contained,
+   * the passed key is added and returned.
+   *
+   * @param aKey
+   *        The key to intern. May not be <code>null</code>.
+   * @return The shared key. Never <code>null</code>.
+   */
+  @NonNull
+  public TaxCategoryKey intern (@NonNull final TaxCategoryKey aKey)
+  {
+    ValueEnforcer.notNull (aKey, "Key");
+
+    final TaxCategoryKey ret = getKey (aKey.getTaxCategoryScheme ().getSchemeID (),
+                                       aKey.getTaxCategoryScheme ().getID (),
+                                       aKey.getTaxCategoryID ().getSchemeID (),
+                                       aKey.getTaxCategoryID ().getID ());
+    if (ret != null)
+      return ret;
+    _add (aKey);
+    return aKey;
+  }
+
+  /**
+   * @return The number of distinct keys in this factory. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_nSize;
+  }
+}
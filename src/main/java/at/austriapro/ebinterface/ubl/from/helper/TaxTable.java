@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsMap;
+
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
+
+/**
+ * The version independent tax table of a UBL document, built once from all
+ * <code>TaxTotal</code> elements. It contains all tax subtotals that can be
+ * mapped to ebInterface as well as the tax percentage per tax category, which
+ * is needed for lines without an explicit percentage. Each ebInterface version
+ * only projects this table onto its own JAXB types. Together with the
+ * {@link DocumentHeader} it forms the version independent intermediate model.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class TaxTable
+{
+  private final ICommonsList <TaxTableEntry> m_aEntries;
+  private final ICommonsMap <TaxCategoryKey, BigDecimal> m_aPercentages;
+  private final TaxCategoryKeyFactory m_aKeyFactory = new TaxCategoryKeyFactory ();
+
+  public TaxTable (@NonNull final ICommonsList <TaxTableEntry> aEntries,
+                   @NonNull final ICommonsMap <TaxCategoryKey, BigDecimal> aPercentages)
+  {
+    ValueEnforcer.notNullNoNullValue (aEntries, "Entries");
+    ValueEnforcer.notNull (aPercentages, "Percentages");
+    m_aEntries = new CommonsArrayList <> (aEntries);
+    m_aPercentages = new CommonsHashMap <> (aPercentages);
+    for (final TaxCategoryKey aKey : aPercentages.keySet ())
+      m_aKeyFactory.intern (aKey);
+  }
+
+  /**
+   * @return All mappable tax subtotals in document order. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <TaxTableEntry> getAllEntries ()
+  {
+    return m_aEntries.getClone ();
+  }
+
+  /**
+   * @param aKey
+   *        The tax category to query. May be <code>null</code>.
+   * @return <code>true</code> if the tax category is contained in the
+   *         <code>TaxTotal</code> elements, even if it has no percentage.
+   */
+  public boolean containsTaxCategory (@Nullable final TaxCategoryKey aKey)
+  {
+    return m_aPercentages.containsKey (aKey);
+  }
+
+  /**
+   * @param aKey
+   *        The tax category to query. May be <code>null</code>.
+   * @return The tax percentage of the passed tax category or <code>null</code>
+   *         if the tax category is unknown or has no percentage.
+   */
+  @Nullable
+  public BigDecimal getPercentage (@Nullable final TaxCategoryKey aKey)
+  {
+    return m_aPercentages.get (aKey);
+  }
+
+  /**
+   * Get the tax percentage of a tax category by its values. This is meant for
+   * the lookup per line and does not create any object.
+   *
+   * @param sTaxSchemeSchemeID
+   *        The scheme ID of the tax scheme. May be <code>null</code>.
+   * @param sTaxSchemeID
+   *        The tax scheme ID. May be <code>null</code>.
+   * @param sTaxCategorySchemeID
+   *        The scheme ID of the tax category. May be <code>null</code>.
+   * @param sTaxCategoryID
+   *        The tax category ID. May be <code>null</code>.
+   * @return The tax percentage of the tax category or <code>null</code> if the
+   *         tax category is unknown or has no percentage.
+   */
+  @Nullable
+  public BigDecimal getPercentage (@Nullable final String sTaxSchemeSchemeID,
+                                   @Nullable final String sTaxSchemeID,
+                                   @Nullable final String sTaxCategorySchemeID,
+                                   @Nullable final String sTaxCategoryID)
+  {
+    final TaxCategoryKey aKey = m_aKeyFactory.getKey (sTaxSchemeSchemeID,
+                                                      sTaxSchemeID,
+                                                      sTaxCategorySchemeID,
+                                                      sTaxCategoryID);
+    return aKey == null ? null : m_aPercentages.get (aKey);
+  }
+
+  /**
+   * Get the tax percentage of the tax category of a line. The values of the
+   * tax category are first looked up as they are, because they usually don't
+   * contain any surrounding whitespace. Only if that fails they are trimmed
+   * and looked up again, so that the common case neither trims nor allocates
+   * anything.
+   *
+   * @param aUBLTaxCategory
+   *        The tax category of the line. May be <code>null</code>.
+   * @return The tax percentage of the tax category or <code>null</code> if the
+   *         tax category is incomplete, unknown or has no percentage.
+   */
+  @Nullable
+  public BigDecimal getPercentage (@Nullable final TaxCategoryType aUBLTaxCategory)
+  {
+    if (aUBLTaxCategory == null)
+      return null;
+
+    final IDType aUBLTaxCategoryID = aUBLTaxCategory.getID ();
+    final TaxSchemeType aUBLTaxScheme = aUBLTaxCategory.getTaxScheme ();
+    if (aUBLTaxCategoryID == null || aUBLTaxScheme == null)
+      return null;
+    final IDType aUBLTaxSchemeID = aUBLTaxScheme.getID ();
+    if (aUBLTaxSchemeID == null)
+      return null;
+
+    final String sTaxSchemeSchemeID = aUBLTaxSchemeID.getSchemeID ();
+    final String sTaxSchemeID = aUBLTaxSchemeID.getValue ();
+    final String sTaxCategorySchemeID = aUBLTaxCategoryID.getSchemeID ();
+    final String sTaxCategoryID = aUBLTaxCategoryID.getValue ();
+    TaxCategoryKey aKey = m_aKeyFactory.getKey (sTaxSchemeSchemeID,
+                                                sTaxSchemeID,
+                                                sTaxCategorySchemeID,
+                                                sTaxCategoryID);
+    if (aKey == null)
+    {
+      // All keys are created from trimmed values
+      aKey = m_aKeyFactory.getKey (StringHelper.trim (sTaxSchemeSchemeID),
+                                   StringHelper.trim (sTaxSchemeID),
+                                   StringHelper.trim (sTaxCategorySchemeID),
+                                   StringHelper.trim (sTaxCategoryID));
+    }
+    return aKey == null ? null : m_aPercentages.get (aKey);
+  }
+
+  /**
+   * @return A copy of the map from tax category to tax percentage. The values
+   *         may be <code>null</code>. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsMap <TaxCategoryKey, BigDecimal> getAllPercentages ()
+  {
+    return m_aPercentages.getClone ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Entries", m_aEntries)
+                                       .append ("Percentages", m_aPercentages)
+                                       .getToString ();
+  }
+}
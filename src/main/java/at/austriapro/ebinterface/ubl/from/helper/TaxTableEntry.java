@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * A single resolved UBL <code>TaxSubtotal</code> in a version independent
+ * form. Missing percentages and amounts are already calculated from the other
+ * values where possible.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class TaxTableEntry
+{
+  private final TaxCategoryKey m_aKey;
+  private final boolean m_bVAT;
+  private final boolean m_bTaxExemption;
+  private final String m_sTaxExemptionReason;
+  private final BigDecimal m_aPercentage;
+  private final BigDecimal m_aTaxableAmount;
+  private final BigDecimal m_aTaxAmount;
+
+  public TaxTableEntry (@NonNull final TaxCategoryKey aKey,
+                        final boolean bVAT,
+                        final boolean bTaxExemption,
+                        @Nullable final String sTaxExemptionReason,
+                        @Nullable final BigDecimal aPercentage,
+                        @Nullable final BigDecimal aTaxableAmount,
+                        @Nullable final BigDecimal aTaxAmount)
+  {
+    ValueEnforcer.notNull (aKey, "Key");
+    m_aKey = aKey;
+    m_bVAT = bVAT;
+    m_bTaxExemption = bTaxExemption;
+    m_sTaxExemptionReason = sTaxExemptionReason;
+    m_aPercentage = aPercentage;
+    m_aTaxableAmount = aTaxableAmount;
+    m_aTaxAmount = aTaxAmount;
+  }
+
+  /**
+   * @return The tax scheme and tax category of this entry. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public TaxCategoryKey getKey ()
+  {
+    return m_aKey;
+  }
+
+  /**
+   * @return The trimmed tax scheme ID value (e.g. "VAT"). Neither
+   *         <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getTaxSchemeID ()
+  {
+    return m_aKey.getTaxCategoryScheme ().getID ();
+  }
+
+  /**
+   * @return The trimmed tax category ID value (e.g. "S"). Neither
+   *         <code>null</code> nor empty.
+   */
+  @NonNull
+  @Nonempty
+  public String getTaxCategoryID ()
+  {
+    return m_aKey.getTaxCategoryID ().getID ();
+  }
+
+  /**
+   * @return <code>true</code> if this is a VAT entry, <code>false</code> if it
+   *         is another tax. VAT entries always have a percentage and a taxable
+   *         amount.
+   */
+  public boolean isVAT ()
+  {
+    return m_bVAT;
+  }
+
+  /**
+   * @return <code>true</code> if the tax category is a tax exemption category
+   *         (AE, E or O). The percentage is 0 in this case.
+   */
+  public boolean isTaxExemption ()
+  {
+    return m_bTaxExemption;
+  }
+
+  /**
+   * @return The first tax exemption reason or the tax exemption reason code.
+   *         Only present for tax exemptions. May be <code>null</code>.
+   */
+  @Nullable
+  public String getTaxExemptionReason ()
+  {
+    return m_sTaxExemptionReason;
+  }
+
+  /**
+   * @return The specified or calculated tax percentage. May be
+   *         <code>null</code> for other taxes.
+   */
+  @Nullable
+  public BigDecimal getPercentage ()
+  {
+    return m_aPercentage;
+  }
+
+  /**
+   * @return The specified or calculated taxable amount. Never
+   *         <code>null</code> for VAT entries.
+   */
+  @Nullable
+  public BigDecimal getTaxableAmount ()
+  {
+    return m_aTaxableAmount;
+  }
+
+  /**
+   * @return The specified or calculated tax amount. May be <code>null</code>.
+   */
+  @Nullable
+  public BigDecimal getTaxAmount ()
+  {
+    return m_aTaxAmount;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Key", m_aKey)
+                                       .append ("VAT", m_bVAT)
+                                       .append ("TaxExemption", m_bTaxExemption)
+                                       .appendIfNotNull ("TaxExemptionReason", m_sTaxExemptionReason)
+                                       .append ("Percentage", m_aPercentage)
+                                       .append ("TaxableAmount", m_aTaxableAmount)
+                                       .append ("TaxAmount", m_aTaxAmount)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+
+import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+
+/**
+ * Syntax checks for BICs and IBANs that scan the characters directly. They
+ * don't use regular expressions and only create an object for IBANs in the
+ * paper format, so that they can be used for every payment means of large
+ * batches.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class BankAccountValidator
+{
+  /** The minimum length of an IBAN: country code, check digits and one char */
+  public static final int IBAN_MIN_LENGTH = 5;
+
+  private BankAccountValidator ()
+  {}
+
+  private static boolean _isAsciiDigit (final char c)
+  {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean _isAsciiLetter (final char c)
+  {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  /**
+   * Check if the passed value is a syntactically valid BIC. This matches
+   * exactly the same values as {@link AbstractEbInterfaceUBLConverter#REGEX_BIC}:
+   * 8 or 11 ASCII letters or digits.
+   *
+   * @param sBIC
+   *        The value to check. May be <code>null</code>.
+   * @return <code>true</code> if it is a valid BIC.
+   */
+  public static boolean isValidBIC (@Nullable final String sBIC)
+  {
+    if (sBIC == null)
+      return false;
+    final int nLength = sBIC.length ();
+    if (nLength != 8 && nLength != 11)
+      return false;
+    for (int i = 0; i < nLength; ++i)
+    {
+      final char c = sBIC.charAt (i);
+      if (!_isAsciiDigit (c) && !_isAsciiLetter (c))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Get the electronic format of the passed IBAN, i.e. without the spaces of
+   * the paper format (e.g. <code>AT61 1904 3002 3457 3201</code>). All
+   * whitespace characters are removed. No object is created if the value
+   * contains no whitespace.
+   *
+   * @param sIBAN
+   *        The IBAN to compact. May be <code>null</code>.
+   * @return <code>null</code> if the input is <code>null</code>.
+   */
+  @Nullable
+  public static String getCompactIBAN (@Nullable final String sIBAN)
+  {
+    if (sIBAN == null)
+      return null;
+    final int nLength = sIBAN.length ();
+    int nFirstWhitespace = 0;
+    while (nFirstWhitespace < nLength && !Character.isWhitespace (sIBAN.charAt (nFirstWhitespace)))
+      ++nFirstWhitespace;
+    if (nFirstWhitespace == nLength)
+      return sIBAN;
+
+    final StringBuilder aSB = new StringBuilder (nLength);
+    aSB.append (sIBAN, 0, nFirstWhitespace);
+    for (int i = nFirstWhitespace + 1; i < nLength; ++i)
+    {
+      final char c = sIBAN.charAt (i);
+      if (!Character.isWhitespace (c))
+        aSB.append (c);
+    }
+    return aSB.toString ();
+  }
+
+  private static boolean _isValidIBANFormat (@NonNull final String sCompactIBAN)
+  {
+    final int nLength = sCompactIBAN.length ();
+    if (nLength < IBAN_MIN_LENGTH || nLength > AbstractEbInterfaceUBLConverter.IBAN_MAX_LENGTH)
+      return false;
+    if (!_isAsciiLetter (sCompactIBAN.charAt (0)) ||
+        !_isAsciiLetter (sCompactIBAN.charAt (1)) ||
+        !_isAsciiDigit (sCompactIBAN.charAt (2)) ||
+        !_isAsciiDigit (sCompactIBAN.charAt (3)))
+      return false;
+    for (int i = 4; i < nLength; ++i)
+    {
+      final char c = sCompactIBAN.charAt (i);
+      if (!_isAsciiDigit (c) && !_isAsciiLetter (c))
+        return false;
+    }
+    return true;
+  }
+
+  private static boolean _hasValidIBANChecksum (@NonNull final String sCompactIBAN)
+  {
+    // The first 4 chars are moved to the end; letters count as 10 to 35
+    final int nLength = sCompactIBAN.length ();
+    int nRemainder = 0;
+    for (int i = 0; i < nLength; ++i)
+    {
+      final char c = sCompactIBAN.charAt ((i + 4) % nLength);
+      if (_isAsciiDigit (c))
+        nRemainder = (nRemainder * 10 + (c - '0')) % 97;
+      else
+        nRemainder = (nRemainder * 100 + (Character.toUpperCase (c) - 'A' + 10)) % 97;
+    }
+    return nRemainder == 1;
+  }
+
+  /**
+   * Check if the passed value has the format of an IBAN, without verifying
+   * the check digits. After removing all whitespace (see
+   * {@link #getCompactIBAN(String)}) it must start with a two letter country
+   * code, followed by two check digits and at least one letter or digit, with
+   * a total length of at most
+   * {@value AbstractEbInterfaceUBLConverter#IBAN_MAX_LENGTH}. Lower case
+   * letters are accepted as well.
+   *
+   * @param sIBAN
+   *        The value to check. May be <code>null</code>.
+   * @return <code>true</code> if it has the format of an IBAN.
+   */
+  public static boolean isValidIBANFormat (@Nullable final String sIBAN)
+  {
+    final String sCompactIBAN = getCompactIBAN (sIBAN);
+    return sCompactIBAN != null && _isValidIBANFormat (sCompactIBAN);
+  }
+
+  /**
+   * Check if the passed value is a valid IBAN. It must have a valid format
+   * (see {@link #isValidIBANFormat(String)}) and the check digits are verified
+   * with the ISO 7064 mod 97-10 algorithm. Whitespace as used in the paper
+   * format is ignored.
+   *
+   * @param sIBAN
+   *        The value to check. May be <code>null</code>.
+   * @return <code>true</code> if it is a valid IBAN.
+   */
+  public static boolean isValidIBAN (@Nullable final String sIBAN)
+  {
+    final String sCompactIBAN = getCompactIBAN (sIBAN);
+    return sCompactIBAN != null && _isValidIBANFormat (sCompactIBAN) && _hasValidIBANChecksum (sCompactIBAN);
+  }
+
+  /**
+   * Check many BICs at once, e.g. of all payment means of a batch.
+   *
+   * @param aBICs
+   *        The values to check. May not be <code>null</code> but may contain
+   *        <code>null</code> values.
+   * @return The indices of all invalid BICs. Never <code>null</code>.
+   */
+  @NonNull
+  public static BitSet getInvalidBICIndices (@NonNull final List <String> aBICs)
+  {
+    ValueEnforcer.notNull (aBICs, "BICs");
+    final BitSet ret = new BitSet (aBICs.size ());
+    int nIndex = 0;
+    for (final String sBIC : aBICs)
+    {
+      if (!isValidBIC (sBIC))
+        ret.set (nIndex);
+      ++nIndex;
+    }
+    return ret;
+  }
+
+  /**
+   * Check many IBANs at once, e.g. of all payment means of a batch.
+   *
+   * @param aIBANs
+   *        The values to check. May not be <code>null</code> but may contain
+   *        <code>null</code> values.
+   * @return The indices of all invalid IBANs. Never <code>null</code>.
+   */
+  @NonNull
+  public static BitSet getInvalidIBANIndices (@NonNull final List <String> aIBANs)
+  {
+    ValueEnforcer.notNull (aIBANs, "IBANs");
+    final BitSet ret = new BitSet (aIBANs.size ());
+    int nIndex = 0;
+    for (final String sIBAN : aIBANs)
+    {
+      if (!isValidIBAN (sIBAN))
+        ret.set (nIndex);
+      ++nIndex;
+    }
+    return ret;
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * A concurrent map with a maximum size that evicts the least recently used
+ * entry if the maximum size is exceeded. Lookups don't need a lock.
+ * <p>
+ * The recency is approximated, so that lookups scale: a logical clock only
+ * advances when an entry is added. An entry that is read remembers the
+ * current clock value, but only if it does not have it already. So a lookup
+ * never writes to shared state, unless it is the first lookup of the entry
+ * since the last addition. All entries that were read between two additions
+ * are equally recent. When evicting, the entry that was just added is never
+ * chosen.
+ *
+ * @author Philip Helger
+ * @param <K>
+ *        Key type
+ * @param <V>
+ *        Value type
+ */
+@ThreadSafe
+public final class BoundedLRUCache <K, V>
+{
+  private static final class Entry <V>
+  {
+    private final V m_aValue;
+    private volatile long m_nLastAccess;
+
+    Entry (@NonNull final V aValue, final long nLastAccess)
+    {
+      m_aValue = aValue;
+      m_nLastAccess = nLastAccess;
+    }
+  }
+
+  private final int m_nMaxSize;
+  private final Map <K, Entry <V>> m_aMap = new ConcurrentHashMap <> ();
+  private final AtomicLong m_aClock = new AtomicLong ();
+  private final Object m_aEvictionLock = new Object ();
+
+  /**
+   * Constructor
+   *
+   * @param nMaxSize
+   *        The maximum number of entries. Must be &gt; 0.
+   */
+  public BoundedLRUCache (@Nonnegative final int nMaxSize)
+  {
+    ValueEnforcer.isGT0 (nMaxSize, "MaxSize");
+    m_nMaxSize = nMaxSize;
+  }
+
+  /**
+   * @return The maximum number of entries. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxSize ()
+  {
+    return m_nMaxSize;
+  }
+
+  /**
+   * Get the value of a key and mark it as recently used.
+   *
+   * @param aKey
+   *        The key to look up. May not be <code>null</code>.
+   * @return <code>null</code> if no value is contained.
+   */
+  @Nullable
+  public V get (@NonNull final K aKey)
+  {
+    final Entry <V> aEntry = m_aMap.get (aKey);
+    if (aEntry == null)
+      return null;
+    final long nNow = m_aClock.get ();
+    // Only write if something was added since the last access
+    if (aEntry.m_nLastAccess != nNow)
+      aEntry.m_nLastAccess = nNow;
+    return aEntry.m_aValue;
+  }
+
+  /**
+   * Add or replace a value and evict the least recently used entries if the
+   * maximum size is exceeded.
+   *
+   * @param aKey
+   *        The key to use. May not be <code>null</code>.
+   * @param aValue
+   *        The value to store. May not be <code>null</code>.
+   * @return The number of evicted entries. Always &ge; 0.
+   */
+  @Nonnegative
+  public int put (@NonNull final K aKey, @NonNull final V aValue)
+  {
+    ValueEnforcer.notNull (aKey, "Key");
+    ValueEnforcer.notNull (aValue, "Value");
+    // Entries read afterwards are more recent than this one
+    m_aMap.put (aKey, new Entry <> (aValue, m_aClock.getAndIncrement ()));
+    if (m_aMap.size () <= m_nMaxSize)
+      return 0;
+    synchronized (m_aEvictionLock)
+    {
+      return _evictLocked (aKey);
+    }
+  }
+
+  @GuardedBy ("m_aEvictionLock")
+  private int _evictLocked (@NonNull final K aNewKey)
+  {
+    // Only executed when an entry is added to a full map
+    int ret = 0;
+    while (m_aMap.size () > m_nMaxSize)
+    {
+      K aOldestKey = null;
+      Entry <V> aOldestEntry = null;
+      for (final Map.Entry <K, Entry <V>> aEntry : m_aMap.entrySet ())
+        if (!aEntry.getKey ().equals (aNewKey) &&
+            (aOldestEntry == null || aEntry.getValue ().m_nLastAccess < aOldestEntry.m_nLastAccess))
+        {
+          aOldestKey = aEntry.getKey ();
+          aOldestEntry = aEntry.getValue ();
+        }
+      if (aOldestKey == null)
+        break;
+      if (m_aMap.remove (aOldestKey, aOldestEntry))
+        ret++;
+    }
+    return ret;
+  }
+
+  /**
+   * Remove a key, but only if it is still mapped to the passed value.
+   *
+   * @param aKey
+   *        The key to remove. May not be <code>null</code>.
+   * @param aValue
+   *        The expected value. May not be <code>null</code>.
+   * @return <code>true</code> if the entry was removed.
+   */
+  public boolean remove (@NonNull final K aKey, @NonNull final V aValue)
+  {
+    final Entry <V> aEntry = m_aMap.get (aKey);
+    return aEntry != null && aEntry.m_aValue.equals (aValue) && m_aMap.remove (aKey, aEntry);
+  }
+
+  /**
+   * Remove all entries whose value matches the passed filter.
+   *
+   * @param aFilter
+   *        The filter to use. May not be <code>null</code>.
+   * @return The number of removed entries. Always &ge; 0.
+   */
+  @Nonnegative
+  public int removeIf (@NonNull final Predicate <? super V> aFilter)
+  {
+    ValueEnforcer.notNull (aFilter, "Filter");
+    int ret = 0;
+    for (final Map.Entry <K, Entry <V>> aEntry : m_aMap.entrySet ())
+      if (aFilter.test (aEntry.getValue ().m_aValue) && m_aMap.remove (aEntry.getKey (), aEntry.getValue ()))
+        ret++;
+    return ret;
+  }
+
+  /**
+   * @return The number of contained entries. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_aMap.size ();
+  }
+
+  /**
+   * Remove all entries.
+   */
+  public void clear ()
+  {
+    m_aMap.clear ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("MaxSize", m_nMaxSize).append ("Size", m_aMap.size ()).getToString ();
+  }
+}
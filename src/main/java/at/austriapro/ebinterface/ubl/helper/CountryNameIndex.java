@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * Read-only hash index from unified country names to ISO country codes. The index is created by
+ * {@link CountryNameIndexWriter}, committed as a class path resource and is either memory mapped (when the class path
+ * resource is a file) or read once into a buffer (e.g. when located in a JAR file). Lookups are
+ * a hash probe over the buffer and don't need any JDK locale data.<br>
+ * Binary layout (big endian):
+ * <ul>
+ * <li>Header: magic number, format version, slot count (power of 2), entry count - 4 bytes
+ * each</li>
+ * <li>Slots: FNV-1a hash of the UTF-8 name (4 bytes) and absolute entry offset (4 bytes, 0 for an
+ * empty slot) - linear probing</li>
+ * <li>Entries: 1 byte country code length, ASCII country code, 2 bytes name length, UTF-8 name
+ * bytes</li>
+ * </ul>
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CountryNameIndex
+{
+  /** The class path resource containing the precomputed index */
+  public static final String RESOURCE_PATH = "at/austriapro/ebinterface/ubl/helper/country-names.idx";
+
+  static final int MAGIC = 0x4542434e;
+  // Version 2: fixed, locale independent indexing order
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 16;
+  static final int SLOT_SIZE = 8;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (CountryNameIndex.class);
+
+  private static final class SingletonHolder
+  {
+    static final CountryNameIndex INSTANCE = _readDefault ();
+  }
+
+  private final ByteBuffer m_aBuffer;
+  private final int m_nSlotMask;
+  private final int m_nEntryCount;
+
+  private CountryNameIndex (@NonNull final ByteBuffer aBuffer, final int nSlotCount, final int nEntryCount)
+  {
+    m_aBuffer = aBuffer;
+    m_nSlotMask = nSlotCount - 1;
+    m_nEntryCount = nEntryCount;
+  }
+
+  static int getHash (@NonNull final byte [] aBytes)
+  {
+    // 32 bit FNV-1a
+    int ret = 0x811c9dc5;
+    for (final byte b : aBytes)
+    {
+      ret ^= b & 0xff;
+      ret *= 0x01000193;
+    }
+    return ret;
+  }
+
+  /**
+   * @return The number of country names contained.
+   */
+  public int getEntryCount ()
+  {
+    return m_nEntryCount;
+  }
+
+  /**
+   * Find the country code of the provided name.
+   *
+   * @param sUnifiedName
+   *        The unified (lower case) country name. May not be <code>null</code>.
+   * @return The country code or <code>null</code> if the name is unknown.
+   */
+  @Nullable
+  public String getCountryCode (@NonNull final String sUnifiedName)
+  {
+    final byte [] aName = sUnifiedName.getBytes (StandardCharsets.UTF_8);
+    final int nHash = getHash (aName);
+    int nSlot = nHash & m_nSlotMask;
+    while (true)
+    {
+      final int nSlotPos = HEADER_SIZE + nSlot * SLOT_SIZE;
+      final int nEntryPos = m_aBuffer.getInt (nSlotPos + 4);
+      if (nEntryPos == 0)
+      {
+        // Empty slot
+        return null;
+      }
+
+      final int nCodeLen = m_aBuffer.get (nEntryPos);
+      if (m_aBuffer.getInt (nSlotPos) == nHash && _nameEquals (nEntryPos + 1 + nCodeLen, aName))
+      {
+        final char [] aCode = new char [nCodeLen];
+        for (int i = 0; i < nCodeLen; ++i)
+          aCode[i] = (char) m_aBuffer.get (nEntryPos + 1 + i);
+        return new String (aCode);
+      }
+
+      // Linear probing
+      nSlot = (nSlot + 1) & m_nSlotMask;
+    }
+  }
+
+  private boolean _nameEquals (final int nPos, @NonNull final byte [] aName)
+  {
+    final int nLen = m_aBuffer.getShort (nPos) & 0xffff;
+    if (nLen != aName.length)
+      return false;
+    for (int i = 0; i < nLen; ++i)
+      if (m_aBuffer.get (nPos + 2 + i) != aName[i])
+        return false;
+    return true;
+  }
+
+  /**
+   * Create an index on the provided buffer.
+   *
+   * @param aBuffer
+   *        The buffer with the index data starting at position 0. May not be <code>null</code>. The
+   *        buffer may not be modified afterwards.
+   * @return The index and never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the buffer does not contain a valid index.
+   */
+  @NonNull
+  public static CountryNameIndex createFromBuffer (@NonNull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    if (aBuffer.capacity () < HEADER_SIZE || aBuffer.getInt (0) != MAGIC)
+      throw new IllegalArgumentException ("Buffer does not contain a country name index");
+    if (aBuffer.getInt (4) != VERSION)
+      throw new IllegalArgumentException ("Unsupported country name index version " + aBuffer.getInt (4));
+
+    final int nSlotCount = aBuffer.getInt (8);
+    final int nEntryCount = aBuffer.getInt (12);
+    if (nSlotCount <= nEntryCount ||
+        Integer.bitCount (nSlotCount) != 1 ||
+        aBuffer.capacity () < HEADER_SIZE + (long) nSlotCount * SLOT_SIZE)
+      throw new IllegalArgumentException ("Country name index is corrupt");
+    return new CountryNameIndex (aBuffer, nSlotCount, nEntryCount);
+  }
+
+  @Nullable
+  private static CountryNameIndex _readDefault ()
+  {
+    final URL aURL = CountryNameIndex.class.getClassLoader ().getResource (RESOURCE_PATH);
+    if (aURL == null)
+    {
+      LOGGER.info ("No precomputed country name index found - resolving country names at runtime");
+      return null;
+    }
+
+    try
+    {
+      final ByteBuffer aBuffer;
+      if ("file".equals (aURL.getProtocol ()))
+      {
+        // Memory map - the mapping stays valid after closing the channel
+        try (final FileChannel aChannel = FileChannel.open (Paths.get (aURL.toURI ()), StandardOpenOption.READ))
+        {
+          aBuffer = aChannel.map (FileChannel.MapMode.READ_ONLY, 0, aChannel.size ());
+        }
+      }
+      else
+      {
+        // E.g. inside a JAR file - entries may be compressed so read it once
+        try (final InputStream aIS = aURL.openStream ())
+        {
+          aBuffer = ByteBuffer.wrap (aIS.readAllBytes ());
+        }
+      }
+      return createFromBuffer (aBuffer);
+    }
+    catch (final IOException | URISyntaxException | IllegalArgumentException ex)
+    {
+      LOGGER.warn ("Failed to read country name index from '" + aURL + "' - resolving country names at runtime", ex);
+      return null;
+    }
+  }
+
+  /**
+   * @return The precomputed index or <code>null</code> if the resource is not available or
+   *         invalid.
+   */
+  @Nullable
+  public static CountryNameIndex getDefaultInstance ()
+  {
+    return SingletonHolder.INSTANCE;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+
+/**
+ * Creates the binary {@link CountryNameIndex}. The index is committed as a resource, so that it
+ * does not depend on the locale data of the JDK that builds the project. It is only regenerated
+ * explicitly with <code>mvn process-classes -P country-index</code>.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CountryNameIndexWriter
+{
+  private CountryNameIndexWriter ()
+  {}
+
+  /**
+   * @return All unified country names in all display languages, mapped to the country code. The
+   *         same language order as for the lazy index of {@link MultilingualCountryCache} is used,
+   *         so German and English names take precedence over other languages.
+   */
+  @NonNull
+  public static ICommonsOrderedMap <String, String> createNameToCodeMap ()
+  {
+    final ICommonsOrderedMap <String, String> ret = new CommonsLinkedHashMap <> ();
+    final ICommonsList <Locale> aCountryLocales = MultilingualCountryCache.getAllCountryLocales ();
+    for (final ICommonsList <Locale> aDisplayLocales : MultilingualCountryCache.getDisplayLanguagesInIndexOrder ())
+      MultilingualCountryCache.indexDisplayLocales (aCountryLocales, aDisplayLocales, ret);
+    return ret;
+  }
+
+  /**
+   * Create the binary index.
+   *
+   * @param aNameToCode
+   *        Unified country names to country codes. May not be <code>null</code>.
+   * @return The index bytes. Never <code>null</code>.
+   */
+  @NonNull
+  public static byte [] createIndexBytes (@NonNull final Map <String, String> aNameToCode)
+  {
+    ValueEnforcer.notNull (aNameToCode, "NameToCode");
+
+    final int nEntryCount = aNameToCode.size ();
+    // Load factor at most 0.5
+    final int nSlotCount = Integer.highestOneBit (Math.max (nEntryCount, 1) * 2 - 1) << 1;
+
+    // Determine the total size
+    int nEntriesSize = 0;
+    for (final Map.Entry <String, String> aEntry : aNameToCode.entrySet ())
+      nEntriesSize += 3 + aEntry.getValue ().length () + aEntry.getKey ().getBytes (StandardCharsets.UTF_8).length;
+    final int nEntriesStart = CountryNameIndex.HEADER_SIZE + nSlotCount * CountryNameIndex.SLOT_SIZE;
+
+    final ByteBuffer aBuffer = ByteBuffer.allocate (nEntriesStart + nEntriesSize);
+    aBuffer.putInt (CountryNameIndex.MAGIC);
+    aBuffer.putInt (CountryNameIndex.VERSION);
+    aBuffer.putInt (nSlotCount);
+    aBuffer.putInt (nEntryCount);
+
+    int nEntryPos = nEntriesStart;
+    for (final Map.Entry <String, String> aEntry : aNameToCode.entrySet ())
+    {
+      final byte [] aName = aEntry.getKey ().getBytes (StandardCharsets.UTF_8);
+      final String sCode = aEntry.getValue ();
+      ValueEnforcer.isTrue (sCode.length () > 0 && sCode.length () <= 0x7f, () -> "Invalid country code '" + sCode + "'");
+      ValueEnforcer.isTrue (aName.length <= 0xffff, "Country name is too long");
+
+      // Find free slot
+      final int nHash = CountryNameIndex.getHash (aName);
+      int nSlot = nHash & (nSlotCount - 1);
+      while (aBuffer.getInt (CountryNameIndex.HEADER_SIZE + nSlot * CountryNameIndex.SLOT_SIZE + 4) != 0)
+        nSlot = (nSlot + 1) & (nSlotCount - 1);
+      aBuffer.putInt (CountryNameIndex.HEADER_SIZE + nSlot * CountryNameIndex.SLOT_SIZE, nHash);
+      aBuffer.putInt (CountryNameIndex.HEADER_SIZE + nSlot * CountryNameIndex.SLOT_SIZE + 4, nEntryPos);
+
+      // Write entry
+      final byte [] aCode = sCode.getBytes (StandardCharsets.US_ASCII);
+      aBuffer.put (nEntryPos, (byte) aCode.length);
+      aBuffer.put (nEntryPos + 1, aCode);
+      aBuffer.putShort (nEntryPos + 1 + aCode.length, (short) aName.length);
+      aBuffer.put (nEntryPos + 3 + aCode.length, aName);
+      nEntryPos += 3 + aCode.length + aName.length;
+    }
+    return aBuffer.array ();
+  }
+
+  /**
+   * Write the index of all country names to the provided file.
+   *
+   * @param aArgs
+   *        Exactly one argument: the target file.
+   * @throws IOException
+   *         in case of a write error
+   */
+  public static void main (final String [] aArgs) throws IOException
+  {
+    if (aArgs.length != 1)
+      throw new IllegalArgumentException ("Expected exactly one argument: the target file");
+
+    final File aTargetFile = new File (aArgs[0]);
+    final File aParent = aTargetFile.getAbsoluteFile ().getParentFile ();
+    if (aParent != null)
+      Files.createDirectories (aParent.toPath ());
+    Files.write (aTargetFile.toPath (), createIndexBytes (createNameToCodeMap ()));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The resolved texts of all constants of a translatable enum for a single
+ * display locale, indexed by the ordinal of the constants. Texts with
+ * arguments are parsed only once into a {@link MessageFormat}, which is cloned
+ * for every use because it is not thread-safe.
+ *
+ * @author Philip Helger
+ * @param <E>
+ *        The enum type
+ */
+@Immutable
+public final class EnumTextTable <E extends Enum <E>>
+{
+  private final Locale m_aContentLocale;
+  private final String [] m_aTexts;
+  private final MessageFormat [] m_aFormats;
+
+  /**
+   * Constructor
+   *
+   * @param aEnumClass
+   *        The enum class to resolve the texts of. May not be
+   *        <code>null</code>.
+   * @param aContentLocale
+   *        The display locale to resolve the texts in. May not be
+   *        <code>null</code>.
+   * @param aResolver
+   *        The function to resolve the text of a single constant. May not be
+   *        <code>null</code>.
+   */
+  public EnumTextTable (@NonNull final Class <E> aEnumClass,
+                        @NonNull final Locale aContentLocale,
+                        @NonNull final BiFunction <? super E, Locale, String> aResolver)
+  {
+    ValueEnforcer.notNull (aEnumClass, "EnumClass");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+    ValueEnforcer.notNull (aResolver, "Resolver");
+
+    final E [] aConstants = aEnumClass.getEnumConstants ();
+    m_aContentLocale = aContentLocale;
+    m_aTexts = new String [aConstants.length];
+    m_aFormats = new MessageFormat [aConstants.length];
+    for (final E e : aConstants)
+    {
+      final String sText = aResolver.apply (e, aContentLocale);
+      m_aTexts[e.ordinal ()] = sText;
+      // Only texts with placeholders or quotes need the message format
+      if (sText != null && (sText.indexOf ('{') >= 0 || sText.indexOf ('\'') >= 0))
+        m_aFormats[e.ordinal ()] = new MessageFormat (sText, aContentLocale);
+    }
+  }
+
+  /**
+   * @return The display locale of all texts. Never <code>null</code>.
+   */
+  @NonNull
+  public Locale getContentLocale ()
+  {
+    return m_aContentLocale;
+  }
+
+  /**
+   * @param e
+   *        The enum constant to get the text of. May not be <code>null</code>.
+   * @return The unformatted text. May be <code>null</code>.
+   */
+  @Nullable
+  public String getText (@NonNull final E e)
+  {
+    return m_aTexts[e.ordinal ()];
+  }
+
+  /**
+   * @param e
+   *        The enum constant to get the text of. May not be <code>null</code>.
+   * @param aArgs
+   *        The arguments to fill in. May be <code>null</code>.
+   * @return The text with all arguments filled in. May be <code>null</code>.
+   */
+  @Nullable
+  public String getFormattedText (@NonNull final E e, @Nullable final Object... aArgs)
+  {
+    final MessageFormat aFormat = m_aFormats[e.ordinal ()];
+    if (aFormat == null)
+      return m_aTexts[e.ordinal ()];
+    return ((MessageFormat) aFormat.clone ()).format (aArgs);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ContentLocale", m_aContentLocale)
+                                       .append ("TextCount", m_aTexts.length)
+                                       .getToString ();
+  }
+}
@@ -16,50 +16,250 @@
  */
 package at.austriapro.ebinterface.ubl.helper;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
-import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
 import com.helger.base.string.StringHelper;
-import com.helger.collection.commons.CommonsTreeMap;
-import com.helger.collection.commons.ICommonsCollection;
-import com.helger.collection.commons.ICommonsMap;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
 import com.helger.text.locale.LocaleCache;
 import com.helger.text.locale.LocaleHelper;
 import com.helger.text.locale.country.CountryCache;
 
-@Immutable
+/**
+ * Resolve country names in any display language to ISO country codes. If the precomputed
+ * {@link CountryNameIndex} shipped as a resource is present, it is used first, and names not
+ * contained in it are only checked against the German and English names of the runtime JDK.
+ * Without the precomputed index, names are resolved with a name index that is built lazily, one
+ * display language at a time: first the most common languages (German and English), and only if a
+ * name cannot be resolved with them, the remaining languages are indexed until the name is found.
+ * Lookups of already indexed names never block.
+ * Threads looking up a name that is not yet indexed share the indexing of the remaining languages,
+ * which is done without holding a lock. The indexed languages are published in a fixed order, so
+ * the result does not depend on thread scheduling. Names known to be unknown are cached.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
 public final class MultilingualCountryCache
 {
-  // Cache all country codes in all display languages
-  private static ICommonsMap <String, Locale> s_aNameToCodeMap = new CommonsTreeMap <> ();
+  /** The display languages to be indexed first, before all other languages sorted by language code */
+  private static final String [] PREFERRED_LANGUAGES = { "de", "en" };
+
+  // Unified country name to country code - only filled, never modified
+  private static final Map <String, String> s_aNameToCodeMap = new ConcurrentHashMap <> ();
+
+  // Unified names that are known to be no country name - bounded
+  private static final Set <String> s_aUnknownNames = ConcurrentHashMap.newKeySet ();
+  private static final int MAX_UNKNOWN_NAMES = 10_000;
+
+  private static final Object s_aLock = new Object ();
+  // One country locale per country code - never modified after creation
+  @GuardedBy ("s_aLock")
+  private static ICommonsList <Locale> s_aCountryLocales;
+  // Display locales, grouped by language in indexing order
+  @GuardedBy ("s_aLock")
+  private static ICommonsList <ICommonsList <Locale>> s_aLanguages;
+  @GuardedBy ("s_aLock")
+  private static int s_nNextLanguageToClaim = 0;
+  @GuardedBy ("s_aLock")
+  private static int s_nNextLanguageToPublish = 0;
+  // Copy of s_nNextLanguageToPublish that can be read without the lock
+  private static volatile int s_nPublishedLanguageCount = 0;
+  // Indexed languages that cannot be published yet, because an earlier
+  // language is still being indexed
+  @GuardedBy ("s_aLock")
+  private static final Map <Integer, Map <String, String>> s_aCompletedLanguages = new HashMap <> ();
+  private static volatile boolean s_bFullyIndexed = false;
 
   @NonNull
-  private static String _unify (@NonNull final String s)
+  static String unify (@NonNull final String s)
   {
     return s.toLowerCase (Locale.US);
   }
 
-  static
+  private MultilingualCountryCache ()
+  {}
+
+  /**
+   * @return One locale per available country code, sorted by country code. The display name of a
+   *         country only depends on the country code.
+   */
+  @NonNull
+  static ICommonsList <Locale> getAllCountryLocales ()
   {
-    final Locale aDefaultDisplayLocale = Locale.getDefault (Locale.Category.DISPLAY);
+    final ICommonsOrderedMap <String, Locale> aCountryLocales = new CommonsLinkedHashMap <> ();
+    for (final Locale aLocale : _getAllLocalesSorted ())
+      if (aLocale.getCountry ().length () > 0)
+        aCountryLocales.putIfAbsent (aLocale.getCountry (), aLocale);
+    final ICommonsList <Locale> ret = aCountryLocales.copyOfValues ();
+    ret.sort (Comparator.comparing (Locale::getCountry));
+    return ret;
+  }
 
-    final ICommonsCollection <Locale> aAllLocales = LocaleCache.getInstance ().getAllLocales ();
-    for (final Locale aCountryLocale : aAllLocales)
+  @NonNull
+  private static ICommonsList <Locale> _getAllLocalesSorted ()
+  {
+    final ICommonsList <Locale> ret = new CommonsArrayList <> (LocaleCache.getInstance ().getAllLocales ());
+    ret.sort (Comparator.comparing (Locale::toLanguageTag));
+    return ret;
+  }
+
+  /**
+   * The indexing order is fixed and independent of the default locale, so that the precomputed
+   * index and the lazy runtime index resolve ambiguous names the same way: German and English
+   * first, followed by all other languages sorted by language code.
+   *
+   * @return All display locales grouped by language, in the order they should be indexed.
+   */
+  @NonNull
+  static ICommonsList <ICommonsList <Locale>> getDisplayLanguagesInIndexOrder ()
+  {
+    final ICommonsOrderedMap <String, ICommonsList <Locale>> aLanguages = new CommonsLinkedHashMap <> ();
+    for (final String sLanguage : PREFERRED_LANGUAGES)
+      aLanguages.put (sLanguage, new CommonsArrayList <> ());
+    final ICommonsList <Locale> aAllLocales = new CommonsArrayList <> (LocaleCache.getInstance ().getAllLocales ());
+    aAllLocales.sort (Comparator.comparing (Locale::getLanguage).thenComparing (Locale::toLanguageTag));
+    for (final Locale aDisplayLocale : aAllLocales)
+      aLanguages.computeIfAbsent (aDisplayLocale.getLanguage (), k -> new CommonsArrayList <> ()).add (aDisplayLocale);
+    return aLanguages.copyOfValues ();
+  }
+
+  /**
+   * Add the unified names of all countries in all provided display locales to the target map. Only
+   * names not yet contained are added, so that earlier indexed languages win.
+   *
+   * @param aCountryLocales
+   *        The countries to index. May not be <code>null</code>.
+   * @param aDisplayLocales
+   *        The display locales to use. May not be <code>null</code>.
+   * @param aTarget
+   *        The unified name to country code map to fill. May not be <code>null</code>.
+   */
+  static void indexDisplayLocales (@NonNull final ICommonsList <Locale> aCountryLocales,
+                                   @NonNull final ICommonsList <Locale> aDisplayLocales,
+                                   @NonNull final Map <String, String> aTarget)
+  {
+    for (final Locale aDisplayLocale : aDisplayLocales)
+      for (final Locale aCountryLocale : aCountryLocales)
+      {
+        final String sName = aCountryLocale.getDisplayCountry (aDisplayLocale);
+        if (sName.length () > 0)
+          aTarget.putIfAbsent (unify (sName), aCountryLocale.getCountry ());
+      }
+  }
+
+  private static void _publishCompletedLanguages ()
+  {
+    // Apply in indexing order, so that the result does not depend on thread
+    // scheduling
+    while (true)
     {
-      s_aNameToCodeMap.put (_unify (aCountryLocale.getDisplayCountry (aDefaultDisplayLocale)), aCountryLocale);
-      for (final Locale aDisplayLocale : aAllLocales)
-        s_aNameToCodeMap.put (_unify (aCountryLocale.getDisplayCountry (aDisplayLocale)), aCountryLocale);
+      final Map <String, String> aNames = s_aCompletedLanguages.remove (Integer.valueOf (s_nNextLanguageToPublish));
+      if (aNames == null)
+        break;
+      for (final Map.Entry <String, String> aEntry : aNames.entrySet ())
+        s_aNameToCodeMap.putIfAbsent (aEntry.getKey (), aEntry.getValue ());
+      s_nNextLanguageToPublish++;
     }
+    s_nPublishedLanguageCount = s_nNextLanguageToPublish;
+    if (s_nNextLanguageToPublish == s_aLanguages.size ())
+      s_bFullyIndexed = true;
+    s_aLock.notifyAll ();
   }
 
-  private MultilingualCountryCache ()
-  {}
+  /**
+   * Index display languages in order until the name is found or the first
+   * <code>nLanguageCount</code> languages are indexed.
+   */
+  @Nullable
+  private static String _indexUntilFound (@NonNull final String sKey, final int nLanguageCount)
+  {
+    while (true)
+    {
+      final ICommonsList <Locale> aCountryLocales;
+      final ICommonsList <Locale> aDisplayLocales;
+      final int nLanguageIndex;
+      synchronized (s_aLock)
+      {
+        final String ret = s_aNameToCodeMap.get (sKey);
+        if (ret != null || s_bFullyIndexed)
+          return ret;
+
+        if (s_aLanguages == null)
+        {
+          s_aCountryLocales = getAllCountryLocales ();
+          s_aLanguages = getDisplayLanguagesInIndexOrder ();
+        }
+
+        final int nMaxLanguages = Math.min (nLanguageCount, s_aLanguages.size ());
+        if (s_nNextLanguageToPublish >= nMaxLanguages)
+          return null;
+
+        if (s_nNextLanguageToClaim >= nMaxLanguages)
+        {
+          // All remaining languages are indexed by other threads
+          try
+          {
+            s_aLock.wait ();
+          }
+          catch (final InterruptedException ex)
+          {
+            Thread.currentThread ().interrupt ();
+            return null;
+          }
+          continue;
+        }
+        nLanguageIndex = s_nNextLanguageToClaim++;
+        aCountryLocales = s_aCountryLocales;
+        aDisplayLocales = s_aLanguages.get (nLanguageIndex);
+      }
+
+      // Index one language without holding the lock
+      final Map <String, String> aNames = new HashMap <> ();
+      try
+      {
+        indexDisplayLocales (aCountryLocales, aDisplayLocales, aNames);
+      }
+      finally
+      {
+        synchronized (s_aLock)
+        {
+          s_aCompletedLanguages.put (Integer.valueOf (nLanguageIndex), aNames);
+          _publishCompletedLanguages ();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return <code>true</code> if all display languages were indexed, <code>false</code> if there
+   *         are still display languages that were not yet needed.
+   */
+  public static boolean isFullyIndexed ()
+  {
+    return s_bFullyIndexed;
+  }
 
   @Nullable
   public static String getRealCountryCode (@Nullable final String sCountry)
+  {
+    return getRealCountryCode (sCountry, CountryNameIndex.getDefaultInstance ());
+  }
+
+  @Nullable
+  static String getRealCountryCode (@Nullable final String sCountry, @Nullable final CountryNameIndex aIndex)
   {
     // Empty
     if (StringHelper.isEmpty (sCountry))
@@ -75,11 +275,41 @@ public final class MultilingualCountryCache
       return LocaleHelper.getValidCountryCode (sRealCountry);
 
     // Is it a country display name?
-    final Locale aCountry = s_aNameToCodeMap.get (_unify (sRealCountry));
-    if (aCountry != null)
-      return aCountry.getCountry ();
+    final String sKey = unify (sRealCountry);
+
+    // Use the precomputed index, if available
+    if (aIndex != null)
+    {
+      final String sIndexCode = aIndex.getCountryCode (sKey);
+      if (sIndexCode != null)
+        return sIndexCode;
+
+      // The runtime JDK may use different German or English names than the
+      // JDK that created the index. Other languages are not checked, as
+      // indexing them is expensive and the index already contains them.
+      final String sCode = s_aNameToCodeMap.get (sKey);
+      if (sCode != null || s_nPublishedLanguageCount >= PREFERRED_LANGUAGES.length)
+        return sCode;
+      return _indexUntilFound (sKey, PREFERRED_LANGUAGES.length);
+    }
+
+    final String sCode = s_aNameToCodeMap.get (sKey);
+    if (sCode != null)
+      return sCode;
+
+    // Known to be unknown?
+    if (s_aUnknownNames.contains (sKey))
+      return null;
 
-    // absolutely not found
-    return null;
+    // Index more display languages, if any
+    final String ret = s_bFullyIndexed ? null : _indexUntilFound (sKey, Integer.MAX_VALUE);
+    if (ret == null && s_bFullyIndexed)
+    {
+      // absolutely not found
+      if (s_aUnknownNames.size () >= MAX_UNKNOWN_NAMES)
+        s_aUnknownNames.clear ();
+      s_aUnknownNames.add (sKey);
+    }
+    return ret;
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import java.io.InputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+
+/**
+ * The shared StAX factory for all places that read untrusted UBL documents
+ * directly. DTDs and external entities are disabled, and if the StAX
+ * implementation supports it, external DTDs and schemas may not be accessed.
+ * The factory is configured once and is not handed out, so that nobody can
+ * weaken its configuration. Creating readers is thread-safe.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class SafeXMLInputFactory
+{
+  private static final XMLInputFactory XML_INPUT_FACTORY = _createFactory ();
+
+  private SafeXMLInputFactory ()
+  {}
+
+  private static void _setPropertyIfSupported (@NonNull final XMLInputFactory aFactory,
+                                               @NonNull final String sName,
+                                               @NonNull final Object aValue)
+  {
+    // Not all StAX implementations know the JAXP 1.5 properties
+    if (aFactory.isPropertySupported (sName))
+      aFactory.setProperty (sName, aValue);
+  }
+
+  @NonNull
+  private static XMLInputFactory _createFactory ()
+  {
+    final XMLInputFactory ret = XMLInputFactory.newFactory ();
+    ret.setProperty (XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    ret.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    _setPropertyIfSupported (ret, XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    _setPropertyIfSupported (ret, XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    return ret;
+  }
+
+  /**
+   * Create a new hardened stream reader.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>. It is
+   *        not closed by the reader.
+   * @return A new reader. Never <code>null</code>.
+   * @throws XMLStreamException
+   *         If the reader cannot be created.
+   */
+  @NonNull
+  public static XMLStreamReader createXMLStreamReader (@NonNull final InputStream aIS) throws XMLStreamException
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    return XML_INPUT_FACTORY.createXMLStreamReader (aIS);
+  }
+}
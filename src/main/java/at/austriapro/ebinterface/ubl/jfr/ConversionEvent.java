@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.jfr;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single document conversion. It is enabled
+ * by default, so it is contained in every recording. If no recording is
+ * running, creating and finishing the event is a no-op.
+ *
+ * @author Philip Helger
+ */
+@Name (ConversionEvent.NAME)
+@Label ("Document Conversion")
+@Description ("Conversion of a single document between UBL and ebInterface")
+@Category ({ "ebInterface", "UBL Mapping" })
+@StackTrace (false)
+public final class ConversionEvent extends jdk.jfr.Event
+{
+  public static final String NAME = "at.austriapro.ebinterface.ubl.Conversion";
+  public static final String UBL_VERSION = "UBL 2.1";
+
+  private static final EventType TYPE = EventType.getEventType (ConversionEvent.class);
+
+  // The field names are the names of the event fields
+  @Label ("Direction")
+  private String direction;
+
+  @Label ("Source Version")
+  private String sourceVersion;
+
+  @Label ("Target Version")
+  private String targetVersion;
+
+  @Label ("Converter")
+  private Class <?> converter;
+
+  @Label ("Document Number")
+  private String documentNumber;
+
+  @Label ("Line Count")
+  private int lineCount;
+
+  @Label ("Error Count")
+  private int errorCount;
+
+  @Label ("Warning Count")
+  private int warningCount;
+
+  private ConversionEvent ()
+  {}
+
+  /**
+   * @return <code>true</code> if the event is enabled in at least one running
+   *         recording.
+   */
+  public static boolean isRecorded ()
+  {
+    return TYPE.isEnabled ();
+  }
+
+  /**
+   * Create a new event and start its clock.
+   *
+   * @param eDirection
+   *        The conversion direction. May not be <code>null</code>.
+   * @param eVersion
+   *        The ebInterface version converted to or from. May not be
+   *        <code>null</code>.
+   * @param aConverterClass
+   *        The class of the converter. May not be <code>null</code>.
+   * @return The started event. Never <code>null</code>.
+   */
+  @NonNull
+  public static ConversionEvent start (@NonNull final EConversionDirection eDirection,
+                                       @NonNull final EEbInterfaceVersion eVersion,
+                                       @NonNull final Class <?> aConverterClass)
+  {
+    ValueEnforcer.notNull (eDirection, "Direction");
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aConverterClass, "ConverterClass");
+
+    final ConversionEvent ret = new ConversionEvent ();
+    if (ret.isEnabled ())
+    {
+      ret.direction = eDirection.name ();
+      if (eDirection == EConversionDirection.EBINTERFACE_TO_INVOICE)
+      {
+        ret.sourceVersion = eVersion.getID ();
+        ret.targetVersion = UBL_VERSION;
+      }
+      else
+      {
+        ret.sourceVersion = UBL_VERSION;
+        ret.targetVersion = eVersion.getID ();
+      }
+      ret.converter = aConverterClass;
+    }
+    ret.begin ();
+    return ret;
+  }
+
+  /**
+   * Stop the clock and commit the event if it is recorded.
+   *
+   * @param sDocumentNumber
+   *        The number of the converted document. May be <code>null</code>.
+   * @param nLineCount
+   *        The number of converted lines.
+   * @param aErrorList
+   *        The error list of the conversion to count errors and warnings. May
+   *        be <code>null</code>.
+   */
+  public void finish (@Nullable final String sDocumentNumber,
+                      @Nonnegative final int nLineCount,
+                      @Nullable final ErrorList aErrorList)
+  {
+    end ();
+    if (shouldCommit ())
+    {
+      documentNumber = sDocumentNumber;
+      lineCount = nLineCount;
+      if (aErrorList != null)
+        for (final IError aError : aErrorList)
+        {
+          if (aError.isError ())
+            errorCount++;
+          else
+            if (aError.getErrorLevel ().isGE (EErrorLevel.WARN))
+              warningCount++;
+        }
+      commit ();
+    }
+  }
+}
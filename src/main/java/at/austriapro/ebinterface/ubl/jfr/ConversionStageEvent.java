@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.jfr;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+
+import at.austriapro.ebinterface.ubl.from.EConversionStage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single stage of a UBL to ebInterface
+ * conversion. It is disabled by default and must be enabled explicitly in the
+ * recording settings, e.g. with
+ * <code>-XX:StartFlightRecording:at.austriapro.ebinterface.ubl.ConversionStage#enabled=true</code>.
+ *
+ * @author Philip Helger
+ */
+@Name (ConversionStageEvent.NAME)
+@Label ("Document Conversion Stage")
+@Description ("A single stage of the conversion of a UBL document to ebInterface")
+@Category ({ "ebInterface", "UBL Mapping" })
+@Enabled (false)
+@StackTrace (false)
+public final class ConversionStageEvent extends jdk.jfr.Event
+{
+  public static final String NAME = "at.austriapro.ebinterface.ubl.ConversionStage";
+
+  private static final EventType TYPE = EventType.getEventType (ConversionStageEvent.class);
+
+  // The field names are the names of the event fields
+  @Label ("Stage")
+  private String stage;
+
+  @Label ("Item Count")
+  private int itemCount;
+
+  @Label ("Error Count")
+  private int errorCount;
+
+  private ConversionStageEvent ()
+  {}
+
+  /**
+   * @return <code>true</code> if the event is enabled in at least one running
+   *         recording.
+   */
+  public static boolean isRecorded ()
+  {
+    return TYPE.isEnabled ();
+  }
+
+  /**
+   * Create a new event and start its clock.
+   *
+   * @param eStage
+   *        The stage that starts. May not be <code>null</code>.
+   * @return The started event. Never <code>null</code>.
+   */
+  @NonNull
+  public static ConversionStageEvent start (@NonNull final EConversionStage eStage)
+  {
+    final ConversionStageEvent ret = new ConversionStageEvent ();
+    ret.stage = eStage.name ();
+    ret.begin ();
+    return ret;
+  }
+
+  /**
+   * Stop the clock and commit the event if it is recorded.
+   *
+   * @param nItemCount
+   *        The number of items processed in the stage.
+   * @param nErrorCount
+   *        The number of errors added in the stage.
+   */
+  public void finish (@Nonnegative final int nItemCount, @Nonnegative final int nErrorCount)
+  {
+    end ();
+    if (shouldCommit ())
+    {
+      itemCount = nItemCount;
+      errorCount = nErrorCount;
+      commit ();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import java.util.ServiceLoader;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.IErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+
+/**
+ * Dispatches the conversion metrics to all {@link IConversionMetricsSPI}
+ * implementations found via {@link ServiceLoader}. If none is registered, a
+ * {@link DefaultConversionMetrics} instance is used.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ConversionMetrics
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (ConversionMetrics.class);
+
+  private static final ICommonsList <IConversionMetricsSPI> SPIS = new CommonsArrayList <> ();
+  private static final DefaultConversionMetrics DEFAULT_METRICS;
+
+  static
+  {
+    for (final IConversionMetricsSPI aSPI : ServiceLoader.load (IConversionMetricsSPI.class,
+                                                                ConversionMetrics.class.getClassLoader ()))
+      SPIS.add (aSPI);
+    if (SPIS.isEmpty ())
+    {
+      DEFAULT_METRICS = new DefaultConversionMetrics ();
+      SPIS.add (DEFAULT_METRICS);
+    }
+    else
+    {
+      DEFAULT_METRICS = null;
+      LOGGER.info ("Using " + SPIS.size () + " conversion metrics SPI implementation(s)");
+    }
+  }
+
+  private ConversionMetrics ()
+  {}
+
+  /**
+   * @return The default metrics instance if no SPI implementation is
+   *         registered, <code>null</code> otherwise.
+   */
+  @Nullable
+  public static DefaultConversionMetrics getDefaultMetrics ()
+  {
+    return DEFAULT_METRICS;
+  }
+
+  /**
+   * @return All active metrics implementations. Never <code>null</code> nor
+   *         empty.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public static ICommonsList <IConversionMetricsSPI> getAllMetrics ()
+  {
+    return SPIS.getClone ();
+  }
+
+  /**
+   * Report a finished conversion to all metrics implementations. Exceptions
+   * of an implementation are logged and do not affect the conversion.
+   *
+   * @param aConverterClass
+   *        The class of the converter that was used. May not be
+   *        <code>null</code>.
+   * @param eDirection
+   *        The conversion direction. May not be <code>null</code>.
+   * @param eVersion
+   *        The ebInterface version converted to or from. May not be
+   *        <code>null</code>.
+   * @param nDurationNanos
+   *        The duration of the conversion in nanoseconds.
+   * @param aErrorList
+   *        The errors and warnings of the conversion. May not be
+   *        <code>null</code>.
+   */
+  public static void onConversion (@NonNull final Class <?> aConverterClass,
+                                   @NonNull final EConversionDirection eDirection,
+                                   @NonNull final EEbInterfaceVersion eVersion,
+                                   final long nDurationNanos,
+                                   @NonNull final IErrorList aErrorList)
+  {
+    for (final IConversionMetricsSPI aSPI : SPIS)
+      try
+      {
+        aSPI.onConversion (aConverterClass, eDirection, eVersion, nDurationNanos, aErrorList);
+      }
+      catch (final RuntimeException ex)
+      {
+        LOGGER.error ("Conversion metrics SPI implementation " + aSPI + " failed", ex);
+      }
+  }
+}
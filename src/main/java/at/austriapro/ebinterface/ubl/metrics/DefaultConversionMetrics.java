@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.string.StringHelper;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.IErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+
+/**
+ * The dependency-free default metrics implementation. It keeps lock-free
+ * counters and a {@link LatencyHistogram} per converter class and per
+ * ebInterface version, and counts the errors per error ID.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class DefaultConversionMetrics implements IConversionMetricsSPI
+{
+  /** Error ID used for errors without an ID */
+  public static final String UNKNOWN_ERROR_ID = "unknown";
+
+  private final LatencyHistogram m_aTotal = new LatencyHistogram ();
+  private final LongAdder m_aFailed = new LongAdder ();
+  private final Map <Class <?>, LatencyHistogram> m_aPerConverter = new ConcurrentHashMap <> ();
+  private final LatencyHistogram [] m_aPerVersion = new LatencyHistogram [EEbInterfaceVersion.values ().length];
+  private final Map <String, LongAdder> m_aErrorCounts = new ConcurrentHashMap <> ();
+
+  public DefaultConversionMetrics ()
+  {
+    for (int i = 0; i < m_aPerVersion.length; ++i)
+      m_aPerVersion[i] = new LatencyHistogram ();
+  }
+
+  @Override
+  public void onConversion (@NonNull final Class <?> aConverterClass,
+                            @NonNull final EConversionDirection eDirection,
+                            @NonNull final EEbInterfaceVersion eVersion,
+                            final long nDurationNanos,
+                            @NonNull final IErrorList aErrorList)
+  {
+    m_aTotal.record (nDurationNanos);
+    m_aPerConverter.computeIfAbsent (aConverterClass, k -> new LatencyHistogram ()).record (nDurationNanos);
+    m_aPerVersion[eVersion.ordinal ()].record (nDurationNanos);
+
+    boolean bFailed = false;
+    for (final IError aError : aErrorList)
+      if (aError.isError ())
+      {
+        bFailed = true;
+        final String sErrorID = aError.getErrorID ();
+        m_aErrorCounts.computeIfAbsent (StringHelper.isEmpty (sErrorID) ? UNKNOWN_ERROR_ID : sErrorID,
+                                        k -> new LongAdder ())
+                      .increment ();
+      }
+    if (bFailed)
+      m_aFailed.increment ();
+  }
+
+  /**
+   * @return The histogram over all conversions. Never <code>null</code>.
+   */
+  @NonNull
+  public final LatencyHistogram getTotalHistogram ()
+  {
+    return m_aTotal;
+  }
+
+  /**
+   * @return The number of conversions with at least one error. Always &ge; 0.
+   */
+  @Nonnegative
+  public final long getFailedCount ()
+  {
+    return m_aFailed.sum ();
+  }
+
+  /**
+   * @param aConverterClass
+   *        The converter class to query. May be <code>null</code>.
+   * @return The histogram of the converter class or <code>null</code> if the
+   *         converter was not used yet.
+   */
+  @Nullable
+  public final LatencyHistogram getConverterHistogram (@Nullable final Class <?> aConverterClass)
+  {
+    return aConverterClass == null ? null : m_aPerConverter.get (aConverterClass);
+  }
+
+  /**
+   * @return All converter classes used so far. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public final ICommonsList <Class <?>> getAllConverterClasses ()
+  {
+    return new CommonsArrayList <> (m_aPerConverter.keySet ());
+  }
+
+  /**
+   * @param eVersion
+   *        The ebInterface version to query. May not be <code>null</code>.
+   * @return The histogram of the ebInterface version. Never <code>null</code>.
+   */
+  @NonNull
+  public final LatencyHistogram getVersionHistogram (@NonNull final EEbInterfaceVersion eVersion)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    return m_aPerVersion[eVersion.ordinal ()];
+  }
+
+  /**
+   * @param sErrorID
+   *        The error ID to query. May be <code>null</code>.
+   * @return How often an error with this ID was raised. Always &ge; 0.
+   */
+  @Nonnegative
+  public final long getErrorCount (@Nullable final String sErrorID)
+  {
+    final LongAdder aCounter = sErrorID == null ? null : m_aErrorCounts.get (sErrorID);
+    return aCounter == null ? 0 : aCounter.sum ();
+  }
+
+  /**
+   * Get the most frequently raised errors.
+   *
+   * @param nMaxCount
+   *        The maximum number of entries to return. Must be &gt; 0.
+   * @return A map from error ID to count, ordered by descending count. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public final ICommonsOrderedMap <String, Long> getTopErrors (@Nonnegative final int nMaxCount)
+  {
+    ValueEnforcer.isGT0 (nMaxCount, "MaxCount");
+
+    final ICommonsOrderedMap <String, Long> ret = new CommonsLinkedHashMap <> ();
+    m_aErrorCounts.entrySet ()
+                  .stream ()
+                  .map (x -> Map.entry (x.getKey (), Long.valueOf (x.getValue ().sum ())))
+                  .sorted (Map.Entry.<String, Long> comparingByValue (Comparator.reverseOrder ())
+                                    .thenComparing (Map.Entry.comparingByKey ()))
+                  .limit (nMaxCount)
+                  .forEach (x -> ret.put (x.getKey (), x.getValue ()));
+    return ret;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.style.IsSPIInterface;
+import com.helger.diagnostics.error.list.IErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+
+/**
+ * SPI interface to collect metrics of all conversions. Implementations are
+ * loaded via {@link java.util.ServiceLoader} and are invoked synchronously after
+ * each conversion in the converting thread, so they must be thread-safe and
+ * fast. If no implementation is registered, {@link DefaultConversionMetrics} is
+ * used.
+ *
+ * @author Philip Helger
+ */
+@IsSPIInterface
+public interface IConversionMetricsSPI
+{
+  /**
+   * Called after each conversion.
+   *
+   * @param aConverterClass
+   *        The class of the converter that was used. Never <code>null</code>.
+   * @param eDirection
+   *        The conversion direction. Never <code>null</code>.
+   * @param eVersion
+   *        The ebInterface version converted to or from. Never
+   *        <code>null</code>.
+   * @param nDurationNanos
+   *        The duration of the conversion in nanoseconds.
+   * @param aErrorList
+   *        The errors and warnings of the conversion. The error ID of each
+   *        entry is the name of the respective
+   *        {@link at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText}.
+   *        Never <code>null</code> but maybe empty.
+   */
+  void onConversion (@NonNull Class <?> aConverterClass,
+                     @NonNull EConversionDirection eDirection,
+                     @NonNull EEbInterfaceVersion eVersion,
+                     long nDurationNanos,
+                     @NonNull IErrorList aErrorList);
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * A lock-free, log-bucketed histogram for durations in nanoseconds. Each power
+ * of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so the
+ * relative error of a percentile is at most 1/{@value #SUB_BUCKETS} (12.5%),
+ * independent of the magnitude. Recording a value is a few atomic increments
+ * and never allocates.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class LatencyHistogram
+{
+  private static final int SUB_BUCKET_BITS = 3;
+  public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // Exponents 0..63, but all values < SUB_BUCKETS share the first bucket row
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray m_aBuckets = new AtomicLongArray (BUCKET_COUNT);
+  private final LongAdder m_aCount = new LongAdder ();
+  private final LongAdder m_aSum = new LongAdder ();
+  private final LongAccumulator m_aMax = new LongAccumulator (Math::max, 0);
+
+  static int getBucketIndex (final long nValue)
+  {
+    if (nValue < SUB_BUCKETS)
+      return (int) nValue;
+    // Position of the highest bit, at least SUB_BUCKET_BITS
+    final int nExponent = Long.SIZE - 1 - Long.numberOfLeadingZeros (nValue);
+    final int nShift = nExponent - SUB_BUCKET_BITS;
+    final int nSubBucket = (int) (nValue >>> nShift) & (SUB_BUCKETS - 1);
+    return (nShift + 1) * SUB_BUCKETS + nSubBucket;
+  }
+
+  static long getBucketUpperBound (final int nIndex)
+  {
+    if (nIndex < SUB_BUCKETS)
+      return nIndex;
+    final int nShift = nIndex / SUB_BUCKETS - 1;
+    final long nLowerBound = (long) (SUB_BUCKETS + nIndex % SUB_BUCKETS) << nShift;
+    return nLowerBound + (1L << nShift) - 1;
+  }
+
+  /**
+   * Record a single value.
+   *
+   * @param nValueNanos
+   *        The duration in nanoseconds. Negative values are treated as 0.
+   */
+  public void record (final long nValueNanos)
+  {
+    final long nValue = Math.max (nValueNanos, 0);
+    m_aBuckets.incrementAndGet (getBucketIndex (nValue));
+    m_aCount.increment ();
+    m_aSum.add (nValue);
+    m_aMax.accumulate (nValue);
+  }
+
+  /**
+   * @return The number of recorded values. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getCount ()
+  {
+    return m_aCount.sum ();
+  }
+
+  /**
+   * @return The sum of all recorded values in nanoseconds. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getSum ()
+  {
+    return m_aSum.sum ();
+  }
+
+  /**
+   * @return The largest recorded value in nanoseconds or 0 if nothing was
+   *         recorded.
+   */
+  @Nonnegative
+  public long getMax ()
+  {
+    return m_aMax.get ();
+  }
+
+  /**
+   * @return The mean of all recorded values in nanoseconds or 0 if nothing was
+   *         recorded.
+   */
+  public double getMean ()
+  {
+    final long nCount = getCount ();
+    return nCount == 0 ? 0 : (double) getSum () / nCount;
+  }
+
+  /**
+   * Get the value at the provided percentile. The result is the upper bound of
+   * the bucket containing the percentile, but never more than the maximum.
+   *
+   * @param dPercentile
+   *        The percentile between 0 and 100, e.g. 99.9 for p999.
+   * @return The value at the percentile in nanoseconds or 0 if nothing was
+   *         recorded.
+   */
+  @Nonnegative
+  public long getValueAtPercentile (final double dPercentile)
+  {
+    ValueEnforcer.isBetweenInclusive (dPercentile, "Percentile", 0, 100);
+
+    // Take a snapshot, as values may be recorded concurrently
+    final long [] aCounts = new long [BUCKET_COUNT];
+    long nTotal = 0;
+    for (int i = 0; i < BUCKET_COUNT; ++i)
+    {
+      aCounts[i] = m_aBuckets.get (i);
+      nTotal += aCounts[i];
+    }
+    if (nTotal == 0)
+      return 0;
+
+    final long nRank = Math.max (1, (long) Math.ceil (dPercentile / 100 * nTotal));
+    long nSeen = 0;
+    for (int i = 0; i < BUCKET_COUNT; ++i)
+    {
+      nSeen += aCounts[i];
+      if (nSeen >= nRank)
+        return Math.min (getBucketUpperBound (i), getMax ());
+    }
+    return getMax ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Count", getCount ())
+                                       .append ("Mean", getMean ())
+                                       .append ("P50", getValueAtPercentile (50))
+                                       .append ("P99", getValueAtPercentile (99))
+                                       .append ("P999", getValueAtPercentile (99.9))
+                                       .append ("Max", getMax ())
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableObject;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.state.ESuccess;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceKey;
+
+/**
+ * A conversion result stored in a {@link ConversionResultCache}: the
+ * serialized target document (if any), the errors and warnings of the
+ * conversion and the key of the source document for the duplicate detection.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CachedConversionResult
+{
+  private final ESuccess m_eSuccess;
+  private final byte [] m_aDocumentBytes;
+  private final ICommonsList <IError> m_aErrors;
+  private final DuplicateInvoiceKey m_aDuplicateInvoiceKey;
+  private final long m_nCreationTimeMillis;
+
+  CachedConversionResult (@NonNull final ESuccess eSuccess,
+                          @Nullable final byte [] aDocumentBytes,
+                          @NonNull final Iterable <? extends IError> aErrors,
+                          @Nullable final DuplicateInvoiceKey aDuplicateInvoiceKey,
+                          final long nCreationTimeMillis)
+  {
+    ValueEnforcer.notNull (eSuccess, "Success");
+    ValueEnforcer.notNull (aErrors, "Errors");
+    m_eSuccess = eSuccess;
+    m_aDocumentBytes = aDocumentBytes;
+    m_aErrors = new CommonsArrayList <> ();
+    for (final IError aError : aErrors)
+      m_aErrors.add (aError);
+    m_aDuplicateInvoiceKey = aDuplicateInvoiceKey;
+    m_nCreationTimeMillis = nCreationTimeMillis;
+  }
+
+  /**
+   * @return {@link ESuccess#SUCCESS} if the target document was written and no
+   *         error occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess getSuccess ()
+  {
+    return m_eSuccess;
+  }
+
+  /**
+   * @return The serialized target document. Only present in case of success.
+   */
+  @Nullable
+  @ReturnsMutableObject ("Avoid copying large documents")
+  public byte [] getDocumentBytes ()
+  {
+    return m_aDocumentBytes;
+  }
+
+  /**
+   * @return A copy of the errors and warnings of the conversion. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public ErrorList getErrorList ()
+  {
+    final ErrorList ret = new ErrorList ();
+    addErrorsTo (ret);
+    return ret;
+  }
+
+  /**
+   * Add all errors and warnings of the conversion to the provided list.
+   *
+   * @param aErrorList
+   *        The list to add to. May not be <code>null</code>.
+   */
+  public void addErrorsTo (@NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    for (final IError aError : m_aErrors)
+      aErrorList.add (aError);
+  }
+
+  @NonNull
+  Iterable <IError> errors ()
+  {
+    return m_aErrors;
+  }
+
+  /**
+   * @return The key of the source document, to check for duplicates when the
+   *         result is taken from the cache. Only present if the source
+   *         document was converted without errors and has a key.
+   */
+  @Nullable
+  public DuplicateInvoiceKey getDuplicateInvoiceKey ()
+  {
+    return m_aDuplicateInvoiceKey;
+  }
+
+  /**
+   * @return The time the result was created, in milliseconds since the epoch.
+   */
+  public long getCreationTimeMillis ()
+  {
+    return m_nCreationTimeMillis;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Success", m_eSuccess)
+                                       .append ("DocumentBytes",
+                                                m_aDocumentBytes == null ? -1 : m_aDocumentBytes.length)
+                                       .append ("Errors", m_aErrors)
+                                       .append ("DuplicateInvoiceKey", m_aDuplicateInvoiceKey)
+                                       .append ("CreationTimeMillis", m_nCreationTimeMillis)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.diagnostics.error.list.ErrorList;
+
+/**
+ * The outcome of a single UBL to ebInterface conversion: the created document
+ * (if any) and the error list filled by the converter.
+ *
+ * @author Philip Helger
+ * @param <T>
+ *        The ebInterface invoice type
+ */
+@Immutable
+public final class ConversionResult <T>
+{
+  private final T m_aDocument;
+  private final ErrorList m_aErrorList;
+
+  public ConversionResult (@Nullable final T aDocument, @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+    m_aDocument = aDocument;
+    m_aErrorList = aErrorList;
+  }
+
+  /**
+   * @return The created ebInterface document or <code>null</code> in case of a
+   *         severe error.
+   */
+  @Nullable
+  public T getDocument ()
+  {
+    return m_aDocument;
+  }
+
+  /**
+   * @return The errors and warnings of the conversion. Never <code>null</code>.
+   */
+  @NonNull
+  public ErrorList getErrorList ()
+  {
+    return m_aErrorList;
+  }
+
+  /**
+   * @return <code>true</code> if a document was created and no error occurred.
+   */
+  public boolean isSuccess ()
+  {
+    return m_aDocument != null && !m_aErrorList.containsAtLeastOneError ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Document", m_aDocument)
+                                       .append ("ErrorList", m_aErrorList)
+                                       .getToString ();
+  }
+}
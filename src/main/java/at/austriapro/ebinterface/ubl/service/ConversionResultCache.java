@@ -0,0 +1,964 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.state.ESuccess;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.diagnostics.error.level.IErrorLevel;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceKey;
+import at.austriapro.ebinterface.ubl.from.IProfileIDResolver;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.helper.BoundedLRUCache;
+
+/**
+ * A cache for conversion results, keyed by the content of the source document.
+ * The key is the SHA-256 hash of the source bytes together with the identity
+ * of the converter (ebInterface version, direction, locales and settings), so
+ * that a byte-identical document that is submitted again (e.g. because the
+ * sender retries) can be answered without reading and converting it again.
+ * Failed conversions are cached as well, because the conversion is
+ * deterministic.
+ * <p>
+ * The number of cached results in memory is bounded and the least recently
+ * used one is evicted if the limit is exceeded (see {@link BoundedLRUCache}).
+ * Results older than the maximum age are never returned. Optionally the
+ * results are also stored in a directory, so that they survive a restart. The
+ * total size of the files in the directory is bounded as well; if it is
+ * exceeded, the oldest files are deleted. Use {@link #removeExpired()} to
+ * remove expired files regularly. Persisted errors only contain the error text
+ * in the display locale and no linked exceptions. Results of a different
+ * library version are never used, and files that are too large or broken are
+ * treated as a miss.
+ * <p>
+ * Usage:
+ * <code>aDocumentConverter.setResultCache (new ConversionResultCache (1000, Duration.ofHours (1)))</code>
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class ConversionResultCache
+{
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+  public static final Duration DEFAULT_MAX_AGE = Duration.ofHours (1);
+  public static final long DEFAULT_MAX_DISK_BYTES = 1024L * 1024 * 1024;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (ConversionResultCache.class);
+  private static final String FILE_EXTENSION = ".result";
+  private static final int FILE_MAGIC = 0x45424352;
+  // Version 2: the duplicate invoice key is stored after the errors
+  private static final int FILE_FORMAT_VERSION = 2;
+  // The minimum size of a persisted error: level and 4 string lengths
+  private static final int MIN_ERROR_BYTES = 5 * Integer.BYTES;
+  // Shrink the directory a bit more than necessary, so that not every write
+  // needs to scan it
+  private static final double DISK_SHRINK_FACTOR = 0.9;
+  // Part of every converter identity, so that persisted results of another
+  // version are not used
+  private static final String IMPLEMENTATION_VERSION;
+  static
+  {
+    final String sVersion = ConversionResultCache.class.getPackage ().getImplementationVersion ();
+    IMPLEMENTATION_VERSION = sVersion != null ? sVersion : "dev";
+  }
+
+  private final long m_nMaxAgeMillis;
+  private final Path m_aPersistenceDir;
+  private final long m_nMaxDiskBytes;
+  private final LongSupplier m_aClock;
+  private final BoundedLRUCache <String, CachedConversionResult> m_aCache;
+  // The total size of the files in the persistence directory
+  private final AtomicLong m_aDiskBytes = new AtomicLong ();
+  private final LongAdder m_aHits = new LongAdder ();
+  private final LongAdder m_aDiskHits = new LongAdder ();
+  private final LongAdder m_aMisses = new LongAdder ();
+  private final LongAdder m_aEvictions = new LongAdder ();
+  private final Object m_aDiskLock = new Object ();
+
+  /**
+   * Constructor for a memory-only cache with {@value #DEFAULT_MAX_ENTRIES}
+   * entries and the default maximum age of 1 hour.
+   */
+  public ConversionResultCache ()
+  {
+    this (DEFAULT_MAX_ENTRIES, DEFAULT_MAX_AGE);
+  }
+
+  /**
+   * Constructor for a memory-only cache.
+   *
+   * @param nMaxEntries
+   *        The maximum number of results kept in memory. Must be &gt; 0.
+   * @param aMaxAge
+   *        The maximum age of a result. May not be <code>null</code> and must
+   *        be positive.
+   */
+  public ConversionResultCache (@Nonnegative final int nMaxEntries, @NonNull final Duration aMaxAge)
+  {
+    this (nMaxEntries, aMaxAge, null);
+  }
+
+  /**
+   * Constructor with a maximum directory size of
+   * {@value #DEFAULT_MAX_DISK_BYTES} bytes.
+   *
+   * @param nMaxEntries
+   *        The maximum number of results kept in memory. Must be &gt; 0.
+   * @param aMaxAge
+   *        The maximum age of a result. May not be <code>null</code> and must
+   *        be positive.
+   * @param aPersistenceDir
+   *        The directory to store the results in. May be <code>null</code> to
+   *        keep the results in memory only. Is created if it does not exist.
+   *        Should not be shared with other cache instances using a different
+   *        maximum age.
+   */
+  public ConversionResultCache (@Nonnegative final int nMaxEntries,
+                                @NonNull final Duration aMaxAge,
+                                @Nullable final Path aPersistenceDir)
+  {
+    this (nMaxEntries, aMaxAge, aPersistenceDir, DEFAULT_MAX_DISK_BYTES);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nMaxEntries
+   *        The maximum number of results kept in memory. Must be &gt; 0.
+   * @param aMaxAge
+   *        The maximum age of a result. May not be <code>null</code> and must
+   *        be positive.
+   * @param aPersistenceDir
+   *        The directory to store the results in. May be <code>null</code> to
+   *        keep the results in memory only. Is created if it does not exist.
+   *        Should not be shared with other cache instances.
+   * @param nMaxDiskBytes
+   *        The maximum total size of the files in the persistence directory.
+   *        Must be &gt; 0. Results that are larger are not persisted.
+   */
+  public ConversionResultCache (@Nonnegative final int nMaxEntries,
+                                @NonNull final Duration aMaxAge,
+                                @Nullable final Path aPersistenceDir,
+                                @Nonnegative final long nMaxDiskBytes)
+  {
+    this (nMaxEntries, aMaxAge, aPersistenceDir, nMaxDiskBytes, System::currentTimeMillis);
+  }
+
+  ConversionResultCache (@Nonnegative final int nMaxEntries,
+                         @NonNull final Duration aMaxAge,
+                         @Nullable final Path aPersistenceDir,
+                         @Nonnegative final long nMaxDiskBytes,
+                         @NonNull final LongSupplier aClock)
+  {
+    ValueEnforcer.notNull (aMaxAge, "MaxAge");
+    ValueEnforcer.isTrue (aMaxAge.toMillis () > 0, "MaxAge must be positive");
+    ValueEnforcer.isGT0 (nMaxDiskBytes, "MaxDiskBytes");
+    ValueEnforcer.notNull (aClock, "Clock");
+    m_aCache = new BoundedLRUCache <> (nMaxEntries);
+    m_nMaxAgeMillis = aMaxAge.toMillis ();
+    m_aPersistenceDir = aPersistenceDir;
+    m_nMaxDiskBytes = nMaxDiskBytes;
+    m_aClock = aClock;
+    if (aPersistenceDir != null)
+    {
+      try
+      {
+        Files.createDirectories (aPersistenceDir);
+      }
+      catch (final IOException ex)
+      {
+        throw new UncheckedIOException ("Failed to create the cache directory " + aPersistenceDir, ex);
+      }
+      // The files of a previous run count as well
+      _shrinkDirectory ();
+    }
+  }
+
+  /**
+   * @return The maximum number of results kept in memory. Always &gt; 0.
+   */
+  @Nonnegative
+  public final int getMaxEntries ()
+  {
+    return m_aCache.getMaxSize ();
+  }
+
+  /**
+   * @return The maximum age of a result. Never <code>null</code>.
+   */
+  @NonNull
+  public final Duration getMaxAge ()
+  {
+    return Duration.ofMillis (m_nMaxAgeMillis);
+  }
+
+  /**
+   * @return The directory the results are stored in. May be <code>null</code>
+   *         if the results are kept in memory only.
+   */
+  @Nullable
+  public final Path getPersistenceDirectory ()
+  {
+    return m_aPersistenceDir;
+  }
+
+  /**
+   * @return The maximum total size of the files in the persistence directory.
+   *         Always &gt; 0.
+   */
+  @Nonnegative
+  public final long getMaxDiskBytes ()
+  {
+    return m_nMaxDiskBytes;
+  }
+
+  private static void _appendValue (@NonNull final StringBuilder aSB, @Nullable final Object aValue)
+  {
+    if (aValue == null)
+      aSB.append ('-');
+    else
+    {
+      // Length prefix, so that a separator inside a value is unambiguous
+      final String sValue = aValue.toString ();
+      aSB.append (sValue.length ()).append (':').append (sValue);
+    }
+  }
+
+  /**
+   * Create the identity of a converter to ebInterface. It contains everything
+   * besides the source document that influences the conversion result. The
+   * settings are taken from {@link IToEbinterfaceSettings#getAllSettingValues()},
+   * so that every setting that distinguishes settings objects also
+   * distinguishes cache entries. The {@link IProfileIDResolver} is identified
+   * by {@link IProfileIDResolver#getCacheIdentity()}.
+   *
+   * @param eVersion
+   *        The ebInterface version to create. May not be <code>null</code>.
+   * @param eDirection
+   *        The conversion direction. May not be <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be
+   *        <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   * @return The converter identity to be used with
+   *         {@link #createKey(String, byte[])}. <code>null</code> if the
+   *         profile ID resolver of the settings has no cache identity, so that
+   *         the results cannot be cached.
+   */
+  @Nullable
+  public static String createConverterIdentity (@NonNull final EEbInterfaceVersion eVersion,
+                                                @NonNull final EConversionDirection eDirection,
+                                                @NonNull final Locale aDisplayLocale,
+                                                @NonNull final Locale aContentLocale,
+                                                @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (eDirection, "Direction");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    ValueEnforcer.notNull (aContentLocale, "ContentLocale");
+    ValueEnforcer.notNull (aSettings, "Settings");
+    final StringBuilder aSB = new StringBuilder ();
+    aSB.append (IMPLEMENTATION_VERSION)
+       .append ('|')
+       .append (eVersion.getID ())
+       .append ('|')
+       .append (eDirection.name ())
+       .append ('|')
+       .append (aDisplayLocale.toLanguageTag ())
+       .append ('|')
+       .append (aContentLocale.toLanguageTag ());
+    // Use the same snapshot as equals, so that new settings are never missed
+    for (final Object aValue : aSettings.getAllSettingValues ())
+    {
+      aSB.append ('|');
+      if (aValue instanceof IProfileIDResolver)
+      {
+        final String sResolverIdentity = IProfileIDResolver.getCacheIdentityOf ((IProfileIDResolver) aValue);
+        if (sResolverIdentity == null)
+          return null;
+        _appendValue (aSB, sResolverIdentity);
+      }
+      else
+        _appendValue (aSB, aValue);
+    }
+    return aSB.toString ();
+  }
+
+  /**
+   * Create the cache key for a source document.
+   *
+   * @param sConverterIdentity
+   *        The converter identity as created by
+   *        {@link #createConverterIdentity(EEbInterfaceVersion, EConversionDirection, Locale, Locale, IToEbinterfaceSettings)}.
+   *        May not be <code>null</code>.
+   * @param aSourceBytes
+   *        The serialized source document. May not be <code>null</code>.
+   * @return The hex encoded SHA-256 hash. Never <code>null</code>.
+   */
+  @NonNull
+  public static String createKey (@NonNull final String sConverterIdentity, @NonNull final byte [] aSourceBytes)
+  {
+    ValueEnforcer.notNull (sConverterIdentity, "ConverterIdentity");
+    ValueEnforcer.notNull (aSourceBytes, "SourceBytes");
+    final MessageDigest aMD;
+    try
+    {
+      aMD = MessageDigest.getInstance ("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("SHA-256 is not supported", ex);
+    }
+    aMD.update (sConverterIdentity.getBytes (StandardCharsets.UTF_8));
+    // Separator that cannot occur in the identity
+    aMD.update ((byte) 0);
+    aMD.update (aSourceBytes);
+    return HexFormat.of ().formatHex (aMD.digest ());
+  }
+
+  private boolean _isExpired (final long nCreationTimeMillis, final long nNow)
+  {
+    return nNow - nCreationTimeMillis >= m_nMaxAgeMillis;
+  }
+
+  /**
+   * Get a cached result.
+   *
+   * @param sKey
+   *        The key as created by {@link #createKey(String, byte[])}. May not be
+   *        <code>null</code>.
+   * @return <code>null</code> if no result that is young enough is cached.
+   */
+  @Nullable
+  public CachedConversionResult get (@NonNull final String sKey)
+  {
+    ValueEnforcer.notNull (sKey, "Key");
+
+    final long nNow = m_aClock.getAsLong ();
+    final CachedConversionResult aCachedResult = m_aCache.get (sKey);
+    if (aCachedResult != null)
+    {
+      if (!_isExpired (aCachedResult.getCreationTimeMillis (), nNow))
+      {
+        m_aHits.increment ();
+        return aCachedResult;
+      }
+      m_aCache.remove (sKey, aCachedResult);
+    }
+
+    if (m_aPersistenceDir != null)
+    {
+      final CachedConversionResult aResult = _readFromDisk (sKey, nNow);
+      if (aResult != null)
+      {
+        m_aHits.increment ();
+        m_aDiskHits.increment ();
+        _putInMemory (sKey, aResult);
+        return aResult;
+      }
+    }
+
+    m_aMisses.increment ();
+    return null;
+  }
+
+  /**
+   * Store a conversion result.
+   *
+   * @param sKey
+   *        The key as created by {@link #createKey(String, byte[])}. May not be
+   *        <code>null</code>.
+   * @param eSuccess
+   *        The outcome of the conversion. May not be <code>null</code>.
+   * @param aDocumentBytes
+   *        The serialized target document. May be <code>null</code>.
+   * @param aErrorList
+   *        The errors and warnings of the conversion. May not be
+   *        <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale to render the error texts in, if the result is persisted.
+   *        Should be the display locale of the converter. May not be
+   *        <code>null</code>.
+   * @return The cached result. Never <code>null</code>.
+   */
+  @NonNull
+  public CachedConversionResult put (@NonNull final String sKey,
+                                     @NonNull final ESuccess eSuccess,
+                                     @Nullable final byte [] aDocumentBytes,
+                                     @NonNull final ErrorList aErrorList,
+                                     @NonNull final Locale aDisplayLocale)
+  {
+    return put (sKey, eSuccess, aDocumentBytes, aErrorList, null, aDisplayLocale);
+  }
+
+  /**
+   * Store a conversion result.
+   *
+   * @param sKey
+   *        The key as created by {@link #createKey(String, byte[])}. May not be
+   *        <code>null</code>.
+   * @param eSuccess
+   *        The outcome of the conversion. May not be <code>null</code>.
+   * @param aDocumentBytes
+   *        The serialized target document. May be <code>null</code>.
+   * @param aErrorList
+   *        The errors and warnings of the conversion. May not be
+   *        <code>null</code>.
+   * @param aDuplicateInvoiceKey
+   *        The key of the source document for the duplicate detection. May be
+   *        <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale to render the error texts in, if the result is persisted.
+   *        Should be the display locale of the converter. May not be
+   *        <code>null</code>.
+   * @return The cached result. Never <code>null</code>.
+   */
+  @NonNull
+  public CachedConversionResult put (@NonNull final String sKey,
+                                     @NonNull final ESuccess eSuccess,
+                                     @Nullable final byte [] aDocumentBytes,
+                                     @NonNull final ErrorList aErrorList,
+                                     @Nullable final DuplicateInvoiceKey aDuplicateInvoiceKey,
+                                     @NonNull final Locale aDisplayLocale)
+  {
+    ValueEnforcer.notNull (sKey, "Key");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+
+    final CachedConversionResult aResult = new CachedConversionResult (eSuccess,
+                                                                       aDocumentBytes,
+                                                                       aErrorList,
+                                                                       aDuplicateInvoiceKey,
+                                                                       m_aClock.getAsLong ());
+    _putInMemory (sKey, aResult);
+    if (m_aPersistenceDir != null)
+      _writeToDisk (sKey, aResult, aDisplayLocale);
+    return aResult;
+  }
+
+  private void _putInMemory (@NonNull final String sKey, @NonNull final CachedConversionResult aResult)
+  {
+    final int nEvicted = m_aCache.put (sKey, aResult);
+    if (nEvicted > 0)
+      m_aEvictions.add (nEvicted);
+  }
+
+  @NonNull
+  private Path _getFile (@NonNull final String sKey)
+  {
+    return m_aPersistenceDir.resolve (sKey + FILE_EXTENSION);
+  }
+
+  @NonNull
+  private static EErrorLevel _getErrorLevel (@NonNull final IErrorLevel aErrorLevel)
+  {
+    final EErrorLevel [] aLevels = EErrorLevel.values ();
+    for (int i = aLevels.length - 1; i > 0; --i)
+      if (aErrorLevel.isGE (aLevels[i]))
+        return aLevels[i];
+    return aLevels[0];
+  }
+
+  private static void _writeString (@NonNull final DataOutputStream aDOS, @Nullable final String s) throws IOException
+  {
+    if (s == null)
+      aDOS.writeInt (-1);
+    else
+    {
+      final byte [] aBytes = s.getBytes (StandardCharsets.UTF_8);
+      aDOS.writeInt (aBytes.length);
+      aDOS.write (aBytes);
+    }
+  }
+
+  @Nullable
+  private static byte [] _readBytes (@NonNull final DataInputStream aDIS, final long nFileSize) throws IOException
+  {
+    final int nLength = aDIS.readInt ();
+    if (nLength == -1)
+      return null;
+    // Don't trust the length of a broken file
+    if (nLength < 0 || nLength > nFileSize)
+      throw new IOException ("Invalid length " + nLength + " in a file of " + nFileSize + " bytes");
+    final byte [] ret = new byte [nLength];
+    aDIS.readFully (ret);
+    return ret;
+  }
+
+  @Nullable
+  private static String _readString (@NonNull final DataInputStream aDIS, final long nFileSize) throws IOException
+  {
+    final byte [] aBytes = _readBytes (aDIS, nFileSize);
+    return aBytes == null ? null : new String (aBytes, StandardCharsets.UTF_8);
+  }
+
+  private void _writeToDisk (@NonNull final String sKey,
+                             @NonNull final CachedConversionResult aResult,
+                             @NonNull final Locale aDisplayLocale)
+  {
+    final Path aFile = _getFile (sKey);
+    Path aTempFile = null;
+    try
+    {
+      // Write to a temporary file first, so that readers never see a partial
+      // file
+      aTempFile = Files.createTempFile (m_aPersistenceDir, sKey, ".tmp");
+      try (final OutputStream aOS = Files.newOutputStream (aTempFile);
+           final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (aOS)))
+      {
+        aDOS.writeInt (FILE_MAGIC);
+        aDOS.writeInt (FILE_FORMAT_VERSION);
+        aDOS.writeLong (aResult.getCreationTimeMillis ());
+        aDOS.writeBoolean (aResult.getSuccess ().isSuccess ());
+        final byte [] aDocumentBytes = aResult.getDocumentBytes ();
+        if (aDocumentBytes == null)
+          aDOS.writeInt (-1);
+        else
+        {
+          aDOS.writeInt (aDocumentBytes.length);
+          aDOS.write (aDocumentBytes);
+        }
+
+        final ICommonsList <IError> aErrors = new CommonsArrayList <> ();
+        for (final IError aError : aResult.errors ())
+          aErrors.add (aError);
+        aDOS.writeInt (aErrors.size ());
+        for (final IError aError : aErrors)
+        {
+          aDOS.writeInt (_getErrorLevel (aError.getErrorLevel ()).ordinal ());
+          _writeString (aDOS, aError.getErrorID ());
+          _writeString (aDOS, aError.getErrorFieldName ());
+          _writeString (aDOS, aError.hasErrorLocation () ? aError.getErrorLocation ().getAsString () : null);
+          _writeString (aDOS, aError.getErrorText (aDisplayLocale));
+        }
+
+        final DuplicateInvoiceKey aDuplicateInvoiceKey = aResult.getDuplicateInvoiceKey ();
+        aDOS.writeBoolean (aDuplicateInvoiceKey != null);
+        if (aDuplicateInvoiceKey != null)
+        {
+          _writeString (aDOS, aDuplicateInvoiceKey.getDocumentType ().name ());
+          _writeString (aDOS, aDuplicateInvoiceKey.getBillerID ());
+          _writeString (aDOS, aDuplicateInvoiceKey.getInvoiceNumber ());
+          _writeString (aDOS, aDuplicateInvoiceKey.getInvoiceDate ().toString ());
+        }
+      }
+      final long nNewSize = Files.size (aTempFile);
+      if (nNewSize > m_nMaxDiskBytes)
+      {
+        LOGGER.debug ("The cached conversion result " + aFile + " is too large to be persisted");
+        return;
+      }
+      final long nOldSize = _getFileSize (aFile);
+      Files.move (aTempFile, aFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      aTempFile = null;
+      if (m_aDiskBytes.addAndGet (nNewSize - nOldSize) > m_nMaxDiskBytes)
+        _shrinkDirectory ();
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      // The cache is only an optimization
+      LOGGER.warn ("Failed to persist the cached conversion result " + aFile, ex);
+    }
+    finally
+    {
+      if (aTempFile != null)
+        _deleteQuietly (aTempFile);
+    }
+  }
+
+  private static void _deleteQuietly (@NonNull final Path aFile)
+  {
+    try
+    {
+      Files.deleteIfExists (aFile);
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.debug ("Failed to delete " + aFile, ex);
+    }
+  }
+
+  /**
+   * @return The size of the passed file or 0 if it does not exist.
+   */
+  @Nonnegative
+  private static long _getFileSize (@NonNull final Path aFile)
+  {
+    try
+    {
+      return Files.size (aFile);
+    }
+    catch (final IOException ex)
+    {
+      return 0;
+    }
+  }
+
+  /**
+   * Delete a result file and update the directory size.
+   *
+   * @return <code>true</code> if the file was deleted.
+   */
+  private boolean _deleteResultFile (@NonNull final Path aFile)
+  {
+    final long nSize = _getFileSize (aFile);
+    try
+    {
+      if (Files.deleteIfExists (aFile))
+      {
+        m_aDiskBytes.addAndGet (-nSize);
+        return true;
+      }
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.debug ("Failed to delete " + aFile, ex);
+    }
+    return false;
+  }
+
+  private static final class ResultFile
+  {
+    private final Path m_aFile;
+    private final long m_nSize;
+    private final FileTime m_aLastModified;
+
+    ResultFile (@NonNull final Path aFile, final long nSize, @NonNull final FileTime aLastModified)
+    {
+      m_aFile = aFile;
+      m_nSize = nSize;
+      m_aLastModified = aLastModified;
+    }
+  }
+
+  /**
+   * Determine the real size of the persistence directory and delete the
+   * oldest files if it exceeds the maximum size.
+   */
+  private void _shrinkDirectory ()
+  {
+    synchronized (m_aDiskLock)
+    {
+      _shrinkDirectoryLocked ();
+    }
+  }
+
+  @GuardedBy ("m_aDiskLock")
+  private void _shrinkDirectoryLocked ()
+  {
+    final ICommonsList <ResultFile> aFiles = new CommonsArrayList <> ();
+    long nTotalSize = 0;
+    try (final DirectoryStream <Path> aDS = Files.newDirectoryStream (m_aPersistenceDir, "*" + FILE_EXTENSION))
+    {
+      for (final Path aFile : aDS)
+        try
+        {
+          final ResultFile aResultFile = new ResultFile (aFile, Files.size (aFile), Files.getLastModifiedTime (aFile));
+          aFiles.add (aResultFile);
+          nTotalSize += aResultFile.m_nSize;
+        }
+        catch (final IOException ex)
+        {
+          // Deleted in the meantime
+        }
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.warn ("Failed to determine the size of the cache directory " + m_aPersistenceDir, ex);
+      return;
+    }
+
+    if (nTotalSize > m_nMaxDiskBytes)
+    {
+      // Oldest first
+      aFiles.sort ( (x, y) -> x.m_aLastModified.compareTo (y.m_aLastModified));
+      final long nTargetSize = (long) (m_nMaxDiskBytes * DISK_SHRINK_FACTOR);
+      for (final ResultFile aResultFile : aFiles)
+      {
+        if (nTotalSize <= nTargetSize)
+          break;
+        _deleteQuietly (aResultFile.m_aFile);
+        nTotalSize -= aResultFile.m_nSize;
+      }
+    }
+    // Writes in the meantime are contained in the scan anyway
+    m_aDiskBytes.set (nTotalSize);
+  }
+
+  /**
+   * Read the header of a persisted result.
+   *
+   * @return The creation time or -1 if the file is not a valid result file.
+   */
+  private static long _readHeader (@NonNull final DataInputStream aDIS) throws IOException
+  {
+    if (aDIS.readInt () != FILE_MAGIC || aDIS.readInt () != FILE_FORMAT_VERSION)
+      return -1;
+    return aDIS.readLong ();
+  }
+
+  @Nullable
+  private CachedConversionResult _readFromDisk (@NonNull final String sKey, final long nNow)
+  {
+    final Path aFile = _getFile (sKey);
+    if (!Files.isRegularFile (aFile))
+      return null;
+
+    boolean bDelete = true;
+    try (final InputStream aIS = Files.newInputStream (aFile);
+         final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (aIS)))
+    {
+      // No valid file can be larger
+      final long nFileSize = Files.size (aFile);
+      if (nFileSize > m_nMaxDiskBytes)
+        return null;
+
+      final long nCreationTimeMillis = _readHeader (aDIS);
+      if (nCreationTimeMillis < 0 || _isExpired (nCreationTimeMillis, nNow))
+        return null;
+
+      final ESuccess eSuccess = ESuccess.valueOf (aDIS.readBoolean ());
+      final byte [] aDocumentBytes = _readBytes (aDIS, nFileSize);
+      final EErrorLevel [] aLevels = EErrorLevel.values ();
+      final int nErrors = aDIS.readInt ();
+      if (nErrors < 0 || nErrors > nFileSize / MIN_ERROR_BYTES)
+        throw new IOException ("Invalid error count " + nErrors + " in a file of " + nFileSize + " bytes");
+      final ICommonsList <IError> aErrors = new CommonsArrayList <> (nErrors);
+      for (int i = 0; i < nErrors; ++i)
+      {
+        final int nErrorLevel = aDIS.readInt ();
+        if (nErrorLevel < 0 || nErrorLevel >= aLevels.length)
+          throw new IOException ("Invalid error level " + nErrorLevel);
+        final EErrorLevel eErrorLevel = aLevels[nErrorLevel];
+        final String sErrorID = _readString (aDIS, nFileSize);
+        final String sFieldName = _readString (aDIS, nFileSize);
+        final String sLocation = _readString (aDIS, nFileSize);
+        final String sText = _readString (aDIS, nFileSize);
+        final var aBuilder = SingleError.builder ()
+                                        .errorLevel (eErrorLevel)
+                                        .errorID (sErrorID)
+                                        .errorFieldName (sFieldName)
+                                        .errorText (sText);
+        if (sLocation != null)
+          aBuilder.errorLocation (sLocation);
+        aErrors.add (aBuilder.build ());
+      }
+
+      DuplicateInvoiceKey aDuplicateInvoiceKey = null;
+      if (aDIS.readBoolean ())
+      {
+        // Throws an exception if a value is missing or invalid
+        final String sDocumentType = _readString (aDIS, nFileSize);
+        final String sBillerID = _readString (aDIS, nFileSize);
+        final String sInvoiceNumber = _readString (aDIS, nFileSize);
+        final String sInvoiceDate = _readString (aDIS, nFileSize);
+        aDuplicateInvoiceKey = new DuplicateInvoiceKey (DuplicateInvoiceKey.EDocumentType.valueOf (sDocumentType),
+                                                        sBillerID,
+                                                        sInvoiceNumber,
+                                                        LocalDate.parse (sInvoiceDate));
+      }
+      bDelete = false;
+      return new CachedConversionResult (eSuccess, aDocumentBytes, aErrors, aDuplicateInvoiceKey, nCreationTimeMillis);
+    }
+    catch (final IOException | RuntimeException ex)
+    {
+      LOGGER.debug ("Failed to read the cached conversion result " + aFile, ex);
+      return null;
+    }
+    finally
+    {
+      // Expired, too large or broken
+      if (bDelete)
+        _deleteResultFile (aFile);
+    }
+  }
+
+  /**
+   * Remove all results that are older than the maximum age, from memory and
+   * from the persistence directory.
+   *
+   * @return The number of removed results. Always &ge; 0.
+   */
+  @Nonnegative
+  public int removeExpired ()
+  {
+    final long nNow = m_aClock.getAsLong ();
+    int ret = m_aCache.removeIf (x -> _isExpired (x.getCreationTimeMillis (), nNow));
+
+    if (m_aPersistenceDir != null)
+      try (final DirectoryStream <Path> aFiles = Files.newDirectoryStream (m_aPersistenceDir, "*" + FILE_EXTENSION))
+      {
+        for (final Path aFile : aFiles)
+        {
+          long nCreationTimeMillis;
+          try (final InputStream aIS = Files.newInputStream (aFile);
+               final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (aIS)))
+          {
+            nCreationTimeMillis = _readHeader (aDIS);
+          }
+          catch (final IOException ex)
+          {
+            nCreationTimeMillis = -1;
+          }
+          if (nCreationTimeMillis < 0 || _isExpired (nCreationTimeMillis, nNow))
+            if (_deleteResultFile (aFile))
+              ret++;
+        }
+      }
+      catch (final IOException ex)
+      {
+        LOGGER.warn ("Failed to clean up the cache directory " + m_aPersistenceDir, ex);
+      }
+    return ret;
+  }
+
+  /**
+   * Remove all results from memory and from the persistence directory. The
+   * statistics are not reset.
+   */
+  public void clear ()
+  {
+    m_aCache.clear ();
+    if (m_aPersistenceDir != null)
+      try (final DirectoryStream <Path> aFiles = Files.newDirectoryStream (m_aPersistenceDir, "*" + FILE_EXTENSION))
+      {
+        for (final Path aFile : aFiles)
+          _deleteResultFile (aFile);
+      }
+      catch (final IOException ex)
+      {
+        LOGGER.warn ("Failed to clear the cache directory " + m_aPersistenceDir, ex);
+      }
+  }
+
+  /**
+   * @return The number of lookups that were answered from the cache,
+   *         including the ones answered from the persistence directory.
+   */
+  @Nonnegative
+  public final long getHitCount ()
+  {
+    return m_aHits.sum ();
+  }
+
+  /**
+   * @return The number of lookups that were answered from the persistence
+   *         directory.
+   */
+  @Nonnegative
+  public final long getDiskHitCount ()
+  {
+    return m_aDiskHits.sum ();
+  }
+
+  /**
+   * @return The number of lookups that found no result.
+   */
+  @Nonnegative
+  public final long getMissCount ()
+  {
+    return m_aMisses.sum ();
+  }
+
+  /**
+   * @return The share of lookups that were answered from the cache, between
+   *         0 and 1. 0 if there was no lookup yet.
+   */
+  public final double getHitRate ()
+  {
+    final long nHits = getHitCount ();
+    final long nTotal = nHits + getMissCount ();
+    return nTotal == 0 ? 0 : (double) nHits / nTotal;
+  }
+
+  /**
+   * @return The number of results that were removed from memory because the
+   *         maximum number of entries was exceeded.
+   */
+  @Nonnegative
+  public final long getEvictionCount ()
+  {
+    return m_aEvictions.sum ();
+  }
+
+  /**
+   * @return The number of results currently kept in memory.
+   */
+  @Nonnegative
+  public final int getCachedCount ()
+  {
+    return m_aCache.size ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("MaxEntries", getMaxEntries ())
+                                       .append ("MaxAgeMillis", m_nMaxAgeMillis)
+                                       .appendIfNotNull ("PersistenceDir", m_aPersistenceDir)
+                                       .append ("MaxDiskBytes", m_nMaxDiskBytes)
+                                       .append ("CachedCount", m_aCache.size ())
+                                       .append ("Hits", getHitCount ())
+                                       .append ("DiskHits", getDiskHitCount ())
+                                       .append ("Misses", getMissCount ())
+                                       .append ("Evictions", getEvictionCount ())
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.to.IEbInterfaceToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * A service facade for request/response style usage. Every submitted document
+ * runs read &rarr; convert &rarr; write on its own thread - a virtual thread if
+ * the runtime supports them (Java 21+), otherwise a thread of a fixed pool
+ * with one thread per available processor.
+ * Reading and writing may block freely, but the CPU-bound conversion step is
+ * limited by a semaphore, so that thousands of requests in flight do not
+ * compete for the carrier threads.<br>
+ * The conversion itself is delegated unchanged to the provided converters.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class EbInterfaceConversionService implements AutoCloseable
+{
+  /**
+   * A blocking step that consumes the conversion result, e.g. writing it to a
+   * file or a response.
+   *
+   * @author Philip Helger
+   * @param <T>
+   *        The type to be written
+   */
+  @FunctionalInterface
+  public interface IDocumentWriter <T>
+  {
+    void write (T aDocument) throws Exception;
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (EbInterfaceConversionService.class);
+
+  private final ExecutorService m_aExecutor;
+  private final int m_nMaxConcurrentConversions;
+  private final Semaphore m_aConversionPermits;
+  private final AtomicInteger m_aInFlight = new AtomicInteger (0);
+  private final AtomicInteger m_aQueued = new AtomicInteger (0);
+  private final AtomicInteger m_aConverting = new AtomicInteger (0);
+
+  /**
+   * Constructor with one concurrent conversion per available processor.
+   */
+  public EbInterfaceConversionService ()
+  {
+    this (Runtime.getRuntime ().availableProcessors ());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nMaxConcurrentConversions
+   *        The maximum number of conversions running at the same time. Must be
+   *        &gt; 0.
+   */
+  public EbInterfaceConversionService (@Nonnegative final int nMaxConcurrentConversions)
+  {
+    this (createDefaultExecutor (), nMaxConcurrentConversions);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aExecutor
+   *        The executor to run each document on. It should create a new thread
+   *        per task, as reading and writing may block. It is shut down when
+   *        this service is closed. May not be <code>null</code>.
+   * @param nMaxConcurrentConversions
+   *        The maximum number of conversions running at the same time. Must be
+   *        &gt; 0.
+   */
+  public EbInterfaceConversionService (@NonNull final ExecutorService aExecutor,
+                                       @Nonnegative final int nMaxConcurrentConversions)
+  {
+    ValueEnforcer.notNull (aExecutor, "Executor");
+    ValueEnforcer.isGT0 (nMaxConcurrentConversions, "MaxConcurrentConversions");
+    m_aExecutor = aExecutor;
+    m_nMaxConcurrentConversions = nMaxConcurrentConversions;
+    m_aConversionPermits = new Semaphore (nMaxConcurrentConversions, true);
+  }
+
+  /**
+   * @return A virtual thread per task executor if the runtime supports it (Java
+   *         21+), a fixed thread pool with one thread per available processor
+   *         otherwise. Never <code>null</code>.
+   */
+  @NonNull
+  public static ExecutorService createDefaultExecutor ()
+  {
+    try
+    {
+      // Resolved dynamically, because the baseline is Java 17
+      final Method aMethod = Executors.class.getMethod ("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) aMethod.invoke (null);
+    }
+    catch (final ReflectiveOperationException | RuntimeException ex)
+    {
+      LOGGER.debug ("Virtual threads are not available - using a fixed thread pool instead");
+      // Bounded, so that many requests in flight don't create as many threads
+      return Executors.newFixedThreadPool (Runtime.getRuntime ().availableProcessors ());
+    }
+  }
+
+  /**
+   * @return The maximum number of conversions running at the same time. Always
+   *         &gt; 0.
+   */
+  @Nonnegative
+  public final int getMaxConcurrentConversions ()
+  {
+    return m_nMaxConcurrentConversions;
+  }
+
+  /**
+   * @return The number of submitted documents that are not yet completed,
+   *         regardless of their current step. Always &ge; 0.
+   */
+  @Nonnegative
+  public final int getInFlightCount ()
+  {
+    return m_aInFlight.get ();
+  }
+
+  /**
+   * @return The number of documents that were read and are waiting for a
+   *         conversion permit. Always &ge; 0.
+   */
+  @Nonnegative
+  public final int getQueueDepth ()
+  {
+    return m_aQueued.get ();
+  }
+
+  /**
+   * @return The number of conversions currently running. Always &ge; 0 and
+   *         &le; {@link #getMaxConcurrentConversions()}.
+   */
+  @Nonnegative
+  public final int getActiveConversionCount ()
+  {
+    return m_aConverting.get ();
+  }
+
+  @Nullable
+  private <T> T _convert (@NonNull final Callable <T> aConversion) throws Exception
+  {
+    m_aQueued.incrementAndGet ();
+    try
+    {
+      m_aConversionPermits.acquire ();
+    }
+    finally
+    {
+      m_aQueued.decrementAndGet ();
+    }
+
+    m_aConverting.incrementAndGet ();
+    try
+    {
+      return aConversion.call ();
+    }
+    finally
+    {
+      m_aConverting.decrementAndGet ();
+      m_aConversionPermits.release ();
+    }
+  }
+
+  /**
+   * Submit a generic read &rarr; convert &rarr; write job.
+   *
+   * @param <S>
+   *        Source document type
+   * @param <T>
+   *        Target document type
+   * @param aReader
+   *        The blocking reader of the source document. May not be
+   *        <code>null</code>.
+   * @param aConversion
+   *        The CPU-bound conversion. May not be <code>null</code>.
+   * @param aWriter
+   *        The optional blocking writer of the result. May be <code>null</code>.
+   * @return The future that completes after the writer finished. Never
+   *         <code>null</code>. It completes exceptionally if any of the steps
+   *         failed.
+   */
+  @NonNull
+  public <S, T> CompletableFuture <T> submit (@NonNull final Callable <? extends S> aReader,
+                                             @NonNull final Function <? super S, ? extends T> aConversion,
+                                             @Nullable final IDocumentWriter <? super T> aWriter)
+  {
+    ValueEnforcer.notNull (aReader, "Reader");
+    ValueEnforcer.notNull (aConversion, "Conversion");
+
+    final CompletableFuture <T> ret = new CompletableFuture <> ();
+    m_aInFlight.incrementAndGet ();
+    try
+    {
+      m_aExecutor.execute ( () -> {
+        T aResult = null;
+        Throwable aFailure = null;
+        try
+        {
+          final S aSource = aReader.call ();
+          aResult = _convert ( () -> aConversion.apply (aSource));
+          if (aWriter != null)
+            aWriter.write (aResult);
+        }
+        catch (final InterruptedException ex)
+        {
+          Thread.currentThread ().interrupt ();
+          aFailure = ex;
+        }
+        catch (final Exception | Error ex)
+        {
+          aFailure = ex;
+        }
+        finally
+        {
+          // Decrement before completing, so that the counters are consistent
+          // for anyone waiting on the future
+          m_aInFlight.decrementAndGet ();
+        }
+
+        if (aFailure != null)
+          ret.completeExceptionally (aFailure);
+        else
+          ret.complete (aResult);
+      });
+    }
+    catch (final RuntimeException ex)
+    {
+      // E.g. rejected because the service is closed
+      m_aInFlight.decrementAndGet ();
+      throw ex;
+    }
+    return ret;
+  }
+
+  /**
+   * Submit a UBL invoice to ebInterface conversion.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aReader
+   *        The blocking reader of the UBL invoice. May not be <code>null</code>.
+   * @param aConverter
+   *        The converter to use. Must be thread-safe, e.g. from the
+   *        {@link at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry}.
+   *        May not be <code>null</code>.
+   * @param aWriter
+   *        The optional blocking writer of the result. May be <code>null</code>.
+   * @return The future with the conversion result. Never <code>null</code>.
+   */
+  @NonNull
+  public <T> CompletableFuture <ConversionResult <T>> submitInvoiceToEbInterface (@NonNull final Callable <? extends InvoiceType> aReader,
+                                                                                @NonNull final IInvoiceToEbInterfaceConverter <T> aConverter,
+                                                                                @Nullable final IDocumentWriter <? super ConversionResult <T>> aWriter)
+  {
+    ValueEnforcer.notNull (aConverter, "Converter");
+    return submit (aReader, aUBLDoc -> {
+      final ErrorList aErrorList = new ErrorList ();
+      return new ConversionResult <> (aConverter.convertToEbInterface (aUBLDoc, aErrorList), aErrorList);
+    }, aWriter);
+  }
+
+  /**
+   * Submit a UBL credit note to ebInterface conversion.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aReader
+   *        The blocking reader of the UBL credit note. May not be
+   *        <code>null</code>.
+   * @param aConverter
+   *        The converter to use. Must be thread-safe, e.g. from the
+   *        {@link at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry}.
+   *        May not be <code>null</code>.
+   * @param aWriter
+   *        The optional blocking writer of the result. May be <code>null</code>.
+   * @return The future with the conversion result. Never <code>null</code>.
+   */
+  @NonNull
+  public <T> CompletableFuture <ConversionResult <T>> submitCreditNoteToEbInterface (@NonNull final Callable <? extends CreditNoteType> aReader,
+                                                                                   @NonNull final ICreditNoteToEbInterfaceConverter <T> aConverter,
+                                                                                   @Nullable final IDocumentWriter <? super ConversionResult <T>> aWriter)
+  {
+    ValueEnforcer.notNull (aConverter, "Converter");
+    return submit (aReader, aUBLDoc -> {
+      final ErrorList aErrorList = new ErrorList ();
+      return new ConversionResult <> (aConverter.convertToEbInterface (aUBLDoc, aErrorList), aErrorList);
+    }, aWriter);
+  }
+
+  /**
+   * Submit an ebInterface to UBL invoice conversion.
+   *
+   * @param <T>
+   *        The ebInterface invoice type
+   * @param aReader
+   *        The blocking reader of the ebInterface invoice. May not be
+   *        <code>null</code>.
+   * @param aConverter
+   *        The converter to use. Must be thread-safe, e.g. from the
+   *        {@link at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry}.
+   *        May not be <code>null</code>.
+   * @param aWriter
+   *        The optional blocking writer of the result. May be <code>null</code>.
+   * @return The future with the created UBL invoice. Never <code>null</code>.
+   */
+  @NonNull
+  public <T> CompletableFuture <InvoiceType> submitEbInterfaceToInvoice (@NonNull final Callable <? extends T> aReader,
+                                                                        @NonNull final IEbInterfaceToInvoiceConverter <T> aConverter,
+                                                                        @Nullable final IDocumentWriter <? super InvoiceType> aWriter)
+  {
+    ValueEnforcer.notNull (aConverter, "Converter");
+    return submit (aReader, aConverter::convertInvoice, aWriter);
+  }
+
+  /**
+   * Stop accepting new documents and wait for the documents in flight to
+   * complete.
+   */
+  @Override
+  public void close ()
+  {
+    m_aExecutor.shutdown ();
+    try
+    {
+      while (!m_aExecutor.awaitTermination (1, TimeUnit.MINUTES))
+        LOGGER.info ("Still waiting for " + m_aInFlight.get () + " documents to complete");
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      m_aExecutor.shutdownNow ();
+    }
+  }
+}
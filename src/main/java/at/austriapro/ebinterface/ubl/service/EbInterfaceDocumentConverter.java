@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.misc.Translatable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.io.nonblocking.NonBlockingByteArrayInputStream;
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.base.state.ESuccess;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.jaxb.GenericJAXBMarshaller;
+import com.helger.jaxb.validation.WrappedCollectingValidationEventHandler;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayText;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceIndex;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceKey;
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.to.IEbInterfaceToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * A bytes-in/bytes-out facade for a single ebInterface version. It reads the
+ * source document from a stream, converts it with the shared converters of the
+ * {@link EbInterfaceConverterRegistry} and writes the result to a stream.<br>
+ * A new marshaller is created for every call, so that no validation event
+ * handler or error list is retained after the call. This is cheap, as the JAXB
+ * context and the XML Schema are cached by the marshallers. All ebInterface
+ * marshallers use the shared
+ * {@link at.austriapro.ebinterface.ubl.from.EbiNamespaceContext}.
+ * The provided streams are neither buffered nor closed.<br>
+ * Optionally a {@link ConversionResultCache} can be set, so that repeated
+ * conversions of byte-identical UBL documents to ebInterface are answered from
+ * the cache without reading and converting them again. Optionally a
+ * {@link DuplicateInvoiceIndex} can be set, to warn about invoices that were
+ * already converted.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public class EbInterfaceDocumentConverter
+{
+  @Translatable
+  public enum EText implements IHasDisplayText
+  {
+    READ_FAILED ("Das Quelldokument konnte nicht gelesen werden.", "Failed to read the source document."),
+    WRITE_FAILED ("Das Zieldokument konnte nicht geschrieben werden.", "Failed to write the target document.");
+
+    private final IMultilingualText m_aTP;
+
+    EText (@NonNull final String sDE, @NonNull final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  private final EEbInterfaceVersion m_eVersion;
+  private final Locale m_aDisplayLocale;
+  private final IInvoiceToEbInterfaceConverter <?> m_aInvoiceConverter;
+  private final ICreditNoteToEbInterfaceConverter <?> m_aCreditNoteConverter;
+  private final IEbInterfaceToInvoiceConverter <?> m_aToInvoiceConverter;
+  private final Supplier <? extends GenericJAXBMarshaller <InvoiceType>> m_aUBLInvoiceMarshallerFactory;
+  private final Supplier <? extends GenericJAXBMarshaller <CreditNoteType>> m_aUBLCreditNoteMarshallerFactory;
+  private final Supplier <? extends GenericJAXBMarshaller <?>> m_aEbiMarshallerFactory;
+  // null if the results cannot be cached
+  private final String m_sInvoiceCacheIdentity;
+  private final String m_sCreditNoteCacheIdentity;
+  private volatile ConversionResultCache m_aResultCache;
+  private volatile DuplicateInvoiceIndex m_aDuplicateInvoiceIndex;
+
+  /**
+   * A single read &rarr; convert &rarr; write step. The key handler is called
+   * with the duplicate invoice key and the conversion errors, if the source
+   * document was converted without errors.
+   */
+  @FunctionalInterface
+  private interface IStreamConversion
+  {
+    @NonNull
+    ESuccess convert (@NonNull InputStream aIS,
+                      @NonNull OutputStream aOS,
+                      @NonNull ErrorList aErrorList,
+                      @Nullable BiConsumer <DuplicateInvoiceKey, ErrorList> aKeyHandler);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param eVersion
+   *        The ebInterface version to convert from and to. May not be
+   *        <code>null</code>.
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used for the conversion to ebInterface. May
+   *        not be <code>null</code>.
+   */
+  public EbInterfaceDocumentConverter (@NonNull final EEbInterfaceVersion eVersion,
+                                       @NonNull final Locale aDisplayLocale,
+                                       @NonNull final Locale aContentLocale,
+                                       @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (eVersion, "Version");
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    m_eVersion = eVersion;
+    m_aDisplayLocale = aDisplayLocale;
+    // The shared converters are thread-safe
+    final EbInterfaceConverterRegistry aRegistry = EbInterfaceConverterRegistry.getInstance ();
+    m_aInvoiceConverter = aRegistry.getInvoiceToEbInterfaceConverter (eVersion,
+                                                                      aDisplayLocale,
+                                                                      aContentLocale,
+                                                                      aSettings);
+    m_aCreditNoteConverter = aRegistry.getCreditNoteToEbInterfaceConverter (eVersion,
+                                                                            aDisplayLocale,
+                                                                            aContentLocale,
+                                                                            aSettings);
+    m_aToInvoiceConverter = aRegistry.getEbInterfaceToInvoiceConverter (eVersion, aDisplayLocale, aContentLocale);
+    m_aUBLInvoiceMarshallerFactory = UBL21Marshaller::invoice;
+    m_aUBLCreditNoteMarshallerFactory = UBL21Marshaller::creditNote;
+    m_aEbiMarshallerFactory = eVersion::createMarshaller;
+    m_sInvoiceCacheIdentity = ConversionResultCache.createConverterIdentity (eVersion,
+                                                                            EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                            aDisplayLocale,
+                                                                            aContentLocale,
+                                                                            aSettings);
+    m_sCreditNoteCacheIdentity = ConversionResultCache.createConverterIdentity (eVersion,
+                                                                               EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                                                                               aDisplayLocale,
+                                                                               aContentLocale,
+                                                                               aSettings);
+  }
+
+  /**
+   * @return The ebInterface version this object converts from and to. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public final EEbInterfaceVersion getVersion ()
+  {
+    return m_eVersion;
+  }
+
+  /**
+   * @return The locale used for error messages. Never <code>null</code>.
+   */
+  @NonNull
+  public final Locale getDisplayLocale ()
+  {
+    return m_aDisplayLocale;
+  }
+
+  /**
+   * @return The cache for the results of the conversions to ebInterface. May
+   *         be <code>null</code>.
+   */
+  @Nullable
+  public final ConversionResultCache getResultCache ()
+  {
+    return m_aResultCache;
+  }
+
+  /**
+   * Set the cache for the results of the conversions to ebInterface. The
+   * conversion from ebInterface to UBL is never cached. With a cache, the
+   * source document is read completely into memory and the target document is
+   * only written after the conversion finished. A cache may be shared between
+   * different converters. If the profile ID resolver of the settings has no
+   * cache identity (see
+   * {@link at.austriapro.ebinterface.ubl.from.IProfileIDResolver#getCacheIdentity()}),
+   * the results are not cached.
+   *
+   * @param aResultCache
+   *        The cache to use. May be <code>null</code> to disable caching.
+   * @return this for chaining
+   */
+  @NonNull
+  public final EbInterfaceDocumentConverter setResultCache (@Nullable final ConversionResultCache aResultCache)
+  {
+    m_aResultCache = aResultCache;
+    return this;
+  }
+
+  /**
+   * @return The index used to detect duplicate invoices. May be
+   *         <code>null</code>.
+   */
+  @Nullable
+  public final DuplicateInvoiceIndex getDuplicateInvoiceIndex ()
+  {
+    return m_aDuplicateInvoiceIndex;
+  }
+
+  /**
+   * Set the index used to detect duplicate invoices. Every UBL invoice and
+   * credit note that was converted to ebInterface without errors is added to
+   * the index. If it was already contained, a
+   * {@link DuplicateInvoiceIndex.EText#DUPLICATE_INVOICE} warning is added to
+   * the error list. Conversions answered by the result cache are checked as
+   * well, so that a resubmitted document is always reported. The index is not
+   * closed by this class.
+   *
+   * @param aDuplicateInvoiceIndex
+   *        The index to use. May be <code>null</code> to disable the duplicate
+   *        detection.
+   * @return this for chaining
+   */
+  @NonNull
+  public final EbInterfaceDocumentConverter setDuplicateInvoiceIndex (@Nullable final DuplicateInvoiceIndex aDuplicateInvoiceIndex)
+  {
+    m_aDuplicateInvoiceIndex = aDuplicateInvoiceIndex;
+    return this;
+  }
+
+  @Nullable
+  private BiConsumer <DuplicateInvoiceKey, ErrorList> _getDuplicateCheck ()
+  {
+    final DuplicateInvoiceIndex aIndex = m_aDuplicateInvoiceIndex;
+    if (aIndex == null)
+      return null;
+    return (aKey, aErrors) -> aIndex.checkAndRegister (aKey, aErrors, m_aDisplayLocale);
+  }
+
+  @Nullable
+  private static Object _handleKey (@Nullable final Object aEbiDoc,
+                                    @NonNull final Supplier <DuplicateInvoiceKey> aKeySupplier,
+                                    @Nullable final BiConsumer <DuplicateInvoiceKey, ErrorList> aKeyHandler,
+                                    @NonNull final ErrorList aConversionErrors)
+  {
+    if (aKeyHandler != null && aEbiDoc != null && !aConversionErrors.containsAtLeastOneError ())
+      aKeyHandler.accept (aKeySupplier.get (), aConversionErrors);
+    return aEbiDoc;
+  }
+
+  @SuppressWarnings ("unchecked")
+  @NonNull
+  private static <T> ESuccess _write (@NonNull final GenericJAXBMarshaller <T> aMarshaller,
+                                      @NonNull final Object aDoc,
+                                      @NonNull final OutputStream aOS)
+  {
+    return aMarshaller.write ((T) aDoc, new StreamResult (aOS));
+  }
+
+  @SuppressWarnings ("unchecked")
+  @Nullable
+  private static <T> InvoiceType _convertToInvoice (@NonNull final IEbInterfaceToInvoiceConverter <T> aConverter,
+                                                    @NonNull final Object aEbiDoc)
+  {
+    return aConverter.convertInvoice ((T) aEbiDoc);
+  }
+
+  @NonNull
+  private ESuccess _readConvertWrite (@NonNull final InputStream aIS,
+                                      @NonNull final Supplier <? extends GenericJAXBMarshaller <?>> aSrcMarshallerFactory,
+                                      @NonNull final BiFunction <Object, ErrorList, Object> aConversion,
+                                      @NonNull final Supplier <? extends GenericJAXBMarshaller <?>> aDstMarshallerFactory,
+                                      @NonNull final OutputStream aOS,
+                                      @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    ValueEnforcer.notNull (aOS, "OutputStream");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+
+    final GenericJAXBMarshaller <?> aSrcMarshaller = aSrcMarshallerFactory.get ();
+    aSrcMarshaller.setValidationEventHandler (new WrappedCollectingValidationEventHandler (aErrorList));
+    final Object aSrcDoc = aSrcMarshaller.read (new StreamSource (aIS));
+    if (aSrcDoc == null)
+    {
+      aErrorList.add (SingleError.builderError ().errorText (EText.READ_FAILED.getDisplayText (m_aDisplayLocale)).build ());
+      return ESuccess.FAILURE;
+    }
+
+    // The conversion requires an empty error list
+    final ErrorList aConversionErrors = new ErrorList ();
+    final Object aDstDoc = aConversion.apply (aSrcDoc, aConversionErrors);
+    aErrorList.addAll (aConversionErrors);
+    if (aDstDoc == null || aConversionErrors.containsAtLeastOneError ())
+      return ESuccess.FAILURE;
+
+    final GenericJAXBMarshaller <?> aDstMarshaller = aDstMarshallerFactory.get ();
+    aDstMarshaller.setValidationEventHandler (new WrappedCollectingValidationEventHandler (aErrorList));
+    if (_write (aDstMarshaller, aDstDoc, aOS).isFailure ())
+    {
+      aErrorList.add (SingleError.builderError ()
+                                 .errorText (EText.WRITE_FAILED.getDisplayText (m_aDisplayLocale))
+                                 .build ());
+      return ESuccess.FAILURE;
+    }
+    return ESuccess.SUCCESS;
+  }
+
+  @NonNull
+  private ESuccess _convertCached (@NonNull final ConversionResultCache aCache,
+                                   @NonNull final String sConverterIdentity,
+                                   @NonNull final byte [] aBytes,
+                                   @NonNull final IStreamConversion aConversion,
+                                   @NonNull final OutputStream aOS,
+                                   @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aOS, "OutputStream");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+
+    final String sKey = ConversionResultCache.createKey (sConverterIdentity, aBytes);
+    CachedConversionResult aResult = aCache.get (sKey);
+    if (aResult == null)
+    {
+      final ErrorList aOwnErrorList = new ErrorList ();
+      final NonBlockingByteArrayOutputStream aBAOS = new NonBlockingByteArrayOutputStream ();
+      // The duplicate check is not part of the cached result
+      final AtomicReference <DuplicateInvoiceKey> aDuplicateInvoiceKey = new AtomicReference <> ();
+      final ESuccess eSuccess = aConversion.convert (new NonBlockingByteArrayInputStream (aBytes),
+                                                     aBAOS,
+                                                     aOwnErrorList,
+                                                     (aKey, aErrors) -> aDuplicateInvoiceKey.set (aKey));
+      aResult = aCache.put (sKey,
+                            eSuccess,
+                            eSuccess.isSuccess () ? aBAOS.toByteArray () : null,
+                            aOwnErrorList,
+                            aDuplicateInvoiceKey.get (),
+                            m_aDisplayLocale);
+    }
+
+    aResult.addErrorsTo (aErrorList);
+    // Check on every call, so that a cache hit is reported as a duplicate
+    final DuplicateInvoiceIndex aIndex = m_aDuplicateInvoiceIndex;
+    if (aIndex != null)
+      aIndex.checkAndRegister (aResult.getDuplicateInvoiceKey (), aErrorList, m_aDisplayLocale);
+    if (aResult.getSuccess ().isFailure ())
+      return ESuccess.FAILURE;
+    try
+    {
+      aOS.write (aResult.getDocumentBytes ());
+    }
+    catch (final IOException ex)
+    {
+      aErrorList.add (SingleError.builderError ()
+                                 .errorText (EText.WRITE_FAILED.getDisplayText (m_aDisplayLocale))
+                                 .linkedException (ex)
+                                 .build ());
+      return ESuccess.FAILURE;
+    }
+    return ESuccess.SUCCESS;
+  }
+
+  @NonNull
+  private ESuccess _convertCached (@NonNull final ConversionResultCache aCache,
+                                   @NonNull final String sConverterIdentity,
+                                   @NonNull final InputStream aIS,
+                                   @NonNull final IStreamConversion aConversion,
+                                   @NonNull final OutputStream aOS,
+                                   @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    ValueEnforcer.notNull (aErrorList, "ErrorList");
+
+    final byte [] aBytes;
+    try
+    {
+      // The key is based on the complete source document
+      aBytes = aIS.readAllBytes ();
+    }
+    catch (final IOException ex)
+    {
+      aErrorList.add (SingleError.builderError ()
+                                 .errorText (EText.READ_FAILED.getDisplayText (m_aDisplayLocale))
+                                 .linkedException (ex)
+                                 .build ());
+      return ESuccess.FAILURE;
+    }
+    return _convertCached (aCache, sConverterIdentity, aBytes, aConversion, aOS, aErrorList);
+  }
+
+  @NonNull
+  private ESuccess _convertInvoice (@NonNull final InputStream aIS,
+                                    @NonNull final OutputStream aOS,
+                                    @NonNull final ErrorList aErrorList,
+                                    @Nullable final BiConsumer <DuplicateInvoiceKey, ErrorList> aKeyHandler)
+  {
+    return _readConvertWrite (aIS,
+                              m_aUBLInvoiceMarshallerFactory,
+                              (x, aErrors) -> _handleKey (m_aInvoiceConverter.convertToEbInterface ((InvoiceType) x,
+                                                                                                    aErrors),
+                                                          () -> DuplicateInvoiceKey.of ((InvoiceType) x),
+                                                          aKeyHandler,
+                                                          aErrors),
+                              m_aEbiMarshallerFactory,
+                              aOS,
+                              aErrorList);
+  }
+
+  @NonNull
+  private ESuccess _convertCreditNote (@NonNull final InputStream aIS,
+                                       @NonNull final OutputStream aOS,
+                                       @NonNull final ErrorList aErrorList,
+                                       @Nullable final BiConsumer <DuplicateInvoiceKey, ErrorList> aKeyHandler)
+  {
+    return _readConvertWrite (aIS,
+                              m_aUBLCreditNoteMarshallerFactory,
+                              (x, aErrors) -> _handleKey (m_aCreditNoteConverter.convertToEbInterface ((CreditNoteType) x,
+                                                                                                       aErrors),
+                                                          () -> DuplicateInvoiceKey.of ((CreditNoteType) x),
+                                                          aKeyHandler,
+                                                          aErrors),
+                              m_aEbiMarshallerFactory,
+                              aOS,
+                              aErrorList);
+  }
+
+  /**
+   * Convert a UBL invoice to ebInterface.
+   *
+   * @param aIS
+   *        The input stream to read the UBL invoice from. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aOS
+   *        The output stream to write the ebInterface document to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read, conversion and write
+   *        errors and warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertInvoiceToEbInterface (@NonNull final InputStream aIS,
+                                               @NonNull final OutputStream aOS,
+                                               @NonNull final ErrorList aErrorList)
+  {
+    final ConversionResultCache aCache = m_aResultCache;
+    if (aCache != null && m_sInvoiceCacheIdentity != null)
+      return _convertCached (aCache, m_sInvoiceCacheIdentity, aIS, this::_convertInvoice, aOS, aErrorList);
+    return _convertInvoice (aIS, aOS, aErrorList, _getDuplicateCheck ());
+  }
+
+  /**
+   * Convert a UBL invoice to ebInterface.
+   *
+   * @param aBytes
+   *        The serialized UBL invoice. May not be <code>null</code>.
+   * @param aOS
+   *        The output stream to write the ebInterface document to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read, conversion and write
+   *        errors and warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertInvoiceToEbInterface (@NonNull final byte [] aBytes,
+                                               @NonNull final OutputStream aOS,
+                                               @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    final ConversionResultCache aCache = m_aResultCache;
+    if (aCache != null && m_sInvoiceCacheIdentity != null)
+      return _convertCached (aCache, m_sInvoiceCacheIdentity, aBytes, this::_convertInvoice, aOS, aErrorList);
+    return _convertInvoice (new NonBlockingByteArrayInputStream (aBytes), aOS, aErrorList, _getDuplicateCheck ());
+  }
+
+  /**
+   * Convert a UBL credit note to ebInterface.
+   *
+   * @param aIS
+   *        The input stream to read the UBL credit note from. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aOS
+   *        The output stream to write the ebInterface document to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read, conversion and write
+   *        errors and warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertCreditNoteToEbInterface (@NonNull final InputStream aIS,
+                                                  @NonNull final OutputStream aOS,
+                                                  @NonNull final ErrorList aErrorList)
+  {
+    final ConversionResultCache aCache = m_aResultCache;
+    if (aCache != null && m_sCreditNoteCacheIdentity != null)
+      return _convertCached (aCache, m_sCreditNoteCacheIdentity, aIS, this::_convertCreditNote, aOS, aErrorList);
+    return _convertCreditNote (aIS, aOS, aErrorList, _getDuplicateCheck ());
+  }
+
+  /**
+   * Convert a UBL credit note to ebInterface.
+   *
+   * @param aBytes
+   *        The serialized UBL credit note. May not be <code>null</code>.
+   * @param aOS
+   *        The output stream to write the ebInterface document to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read, conversion and write
+   *        errors and warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertCreditNoteToEbInterface (@NonNull final byte [] aBytes,
+                                                  @NonNull final OutputStream aOS,
+                                                  @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    final ConversionResultCache aCache = m_aResultCache;
+    if (aCache != null && m_sCreditNoteCacheIdentity != null)
+      return _convertCached (aCache, m_sCreditNoteCacheIdentity, aBytes, this::_convertCreditNote, aOS, aErrorList);
+    return _convertCreditNote (new NonBlockingByteArrayInputStream (aBytes), aOS, aErrorList, _getDuplicateCheck ());
+  }
+
+  /**
+   * Convert an ebInterface document to a UBL invoice.
+   *
+   * @param aIS
+   *        The input stream to read the ebInterface document from. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aOS
+   *        The output stream to write the UBL invoice to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read and write errors and
+   *        warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertEbInterfaceToInvoice (@NonNull final InputStream aIS,
+                                               @NonNull final OutputStream aOS,
+                                               @NonNull final ErrorList aErrorList)
+  {
+    return _readConvertWrite (aIS,
+                              m_aEbiMarshallerFactory,
+                              (x, aErrors) -> _convertToInvoice (m_aToInvoiceConverter, x),
+                              m_aUBLInvoiceMarshallerFactory,
+                              aOS,
+                              aErrorList);
+  }
+
+  /**
+   * Convert an ebInterface document to a UBL invoice.
+   *
+   * @param aBytes
+   *        The serialized ebInterface document. May not be <code>null</code>.
+   * @param aOS
+   *        The output stream to write the UBL invoice to. May not be
+   *        <code>null</code>. It is not closed.
+   * @param aErrorList
+   *        The error list to be filled with all read and write errors and
+   *        warnings. May not be <code>null</code>.
+   * @return {@link ESuccess#SUCCESS} if the document was written and no error
+   *         occurred. Never <code>null</code>.
+   */
+  @NonNull
+  public ESuccess convertEbInterfaceToInvoice (@NonNull final byte [] aBytes,
+                                               @NonNull final OutputStream aOS,
+                                               @NonNull final ErrorList aErrorList)
+  {
+    ValueEnforcer.notNull (aBytes, "Bytes");
+    return convertEbInterfaceToInvoice (new NonBlockingByteArrayInputStream (aBytes), aOS, aErrorList);
+  }
+}
@@ -0,0 +1,546 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.ebinterface.CEbInterface;
+import com.helger.ebinterface.v61.Ebi61DetailsType;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.ebinterface.v61.Ebi61ListLineItemType;
+import com.helger.ebinterface.v61.ObjectFactory;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Writes an ebInterface 6.1 document progressively, so that the line items
+ * never need to be kept in memory. The usage is:
+ * <ol>
+ * <li>{@link #writeHeader(Ebi61InvoiceType)} writes everything preceding the
+ * <code>Details</code> element.</li>
+ * <li>{@link #writeListLineItem(Ebi61ListLineItemType)} writes a single
+ * <code>ListLineItem</code> into the one and only <code>ItemList</code>.</li>
+ * <li>{@link #writeTrailer(Ebi61InvoiceType)} writes everything following the
+ * <code>Details</code> element, like <code>ReductionAndSurchargeDetails</code>,
+ * <code>Tax</code> and the totals.</li>
+ * </ol>
+ * Header and trailer are marshalled by JAXB from the complete document and cut
+ * at the <code>Details</code> element, so the element order is always the one
+ * of the XML Schema. The details contained in the passed documents are
+ * ignored. No XML Schema validation is performed.<br>
+ * Changes to header elements made after {@link #writeHeader(Ebi61InvoiceType)}
+ * are not written. Therefore the converters reject customizers when a header
+ * consumer is used, because their global mapping runs last.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class EbInterface61StreamWriter implements AutoCloseable
+{
+  private static final String NS = CEbInterface.EBINTERFACE_61_NS;
+  private static final String ELEMENT_DETAILS = "Details";
+  private static final String ELEMENT_ITEM_LIST = "ItemList";
+  private static final QName QNAME_LIST_LINE_ITEM = new QName (NS, "ListLineItem");
+
+  private static final class JAXBContextHolder
+  {
+    // Creating the context is expensive - do it only once
+    private static final JAXBContext CONTEXT;
+    static
+    {
+      try
+      {
+        CONTEXT = JAXBContext.newInstance (ObjectFactory.class);
+      }
+      catch (final JAXBException ex)
+      {
+        throw new IllegalStateException ("Failed to create the ebInterface 6.1 JAXB context", ex);
+      }
+    }
+  }
+
+  private enum EPart
+  {
+    HEADER,
+    LINE,
+    TRAILER
+  }
+
+  private enum EState
+  {
+    INITIAL,
+    LINES,
+    DONE
+  }
+
+  /**
+   * Passes only the events of the currently written part to the underlying
+   * writer. All namespace URIs declared on the root element in the header are
+   * mapped to the same prefixes in the following parts, because the root
+   * element is only written once.
+   */
+  private final class PartWriter implements XMLStreamWriter
+  {
+    private final EPart m_ePart;
+    private boolean m_bPass;
+    private boolean m_bInDetails = false;
+    private int m_nDepth = 0;
+
+    PartWriter (@NonNull final EPart ePart)
+    {
+      m_ePart = ePart;
+      // The trailer starts after the details
+      m_bPass = ePart != EPart.TRAILER;
+    }
+
+    @NonNull
+    private String _getPrefix (@NonNull final String sPrefix, @NonNull final String sNamespaceURI)
+    {
+      final String ret = m_aPrefixes.get (sNamespaceURI);
+      return ret != null ? ret : sPrefix;
+    }
+
+    private void _onStartElement (@NonNull final String sLocalName, @NonNull final String sNamespaceURI)
+    {
+      if (m_nDepth == 1 && ELEMENT_DETAILS.equals (sLocalName) && NS.equals (sNamespaceURI))
+      {
+        if (m_ePart == EPart.HEADER)
+        {
+          // Everything from here on is written separately
+          m_bPass = false;
+        }
+        else
+          if (m_ePart == EPart.TRAILER)
+            m_bInDetails = true;
+      }
+    }
+
+    private void _onEndElement ()
+    {
+      if (m_bInDetails && m_nDepth == 1)
+      {
+        // End of the details - the trailer starts
+        m_bInDetails = false;
+        m_bPass = true;
+      }
+    }
+
+    public void writeStartElement (final String sPrefix,
+                                   final String sLocalName,
+                                   final String sNamespaceURI) throws XMLStreamException
+    {
+      _onStartElement (sLocalName, sNamespaceURI);
+      if (m_bPass)
+      {
+        if (m_ePart == EPart.HEADER && m_nDepth == 0)
+          m_aPrefixes.put (sNamespaceURI, sPrefix);
+        m_aWriter.writeStartElement (_getPrefix (sPrefix, sNamespaceURI), sLocalName, sNamespaceURI);
+      }
+      m_nDepth++;
+    }
+
+    public void writeStartElement (final String sNamespaceURI, final String sLocalName) throws XMLStreamException
+    {
+      final String sPrefix = m_aWriter.getPrefix (sNamespaceURI);
+      writeStartElement (sPrefix == null ? "" : sPrefix, sLocalName, sNamespaceURI);
+    }
+
+    public void writeStartElement (final String sLocalName) throws XMLStreamException
+    {
+      writeStartElement ("", sLocalName, "");
+    }
+
+    public void writeEmptyElement (final String sPrefix,
+                                   final String sLocalName,
+                                   final String sNamespaceURI) throws XMLStreamException
+    {
+      _onStartElement (sLocalName, sNamespaceURI);
+      if (m_bPass)
+        m_aWriter.writeEmptyElement (_getPrefix (sPrefix, sNamespaceURI), sLocalName, sNamespaceURI);
+      _onEndElement ();
+    }
+
+    public void writeEmptyElement (final String sNamespaceURI, final String sLocalName) throws XMLStreamException
+    {
+      final String sPrefix = m_aWriter.getPrefix (sNamespaceURI);
+      writeEmptyElement (sPrefix == null ? "" : sPrefix, sLocalName, sNamespaceURI);
+    }
+
+    public void writeEmptyElement (final String sLocalName) throws XMLStreamException
+    {
+      writeEmptyElement ("", sLocalName, "");
+    }
+
+    public void writeEndElement () throws XMLStreamException
+    {
+      m_nDepth--;
+      if (m_bPass)
+        m_aWriter.writeEndElement ();
+      else
+        _onEndElement ();
+    }
+
+    public void writeNamespace (final String sPrefix, final String sNamespaceURI) throws XMLStreamException
+    {
+      if (m_bPass)
+      {
+        if (m_ePart == EPart.HEADER && m_nDepth == 1)
+        {
+          // Declared on the root element
+          m_aPrefixes.put (sNamespaceURI, sPrefix);
+          m_aWriter.writeNamespace (sPrefix, sNamespaceURI);
+        }
+        else
+          if (!m_aPrefixes.containsKey (sNamespaceURI))
+            m_aWriter.writeNamespace (sPrefix, sNamespaceURI);
+      }
+    }
+
+    public void writeDefaultNamespace (final String sNamespaceURI) throws XMLStreamException
+    {
+      if (m_bPass)
+      {
+        if (m_ePart == EPart.HEADER && m_nDepth == 1)
+        {
+          m_aPrefixes.put (sNamespaceURI, "");
+          m_aWriter.writeDefaultNamespace (sNamespaceURI);
+        }
+        else
+          if (!m_aPrefixes.containsKey (sNamespaceURI))
+            m_aWriter.writeDefaultNamespace (sNamespaceURI);
+      }
+    }
+
+    public void writeAttribute (final String sLocalName, final String sValue) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeAttribute (sLocalName, sValue);
+    }
+
+    public void writeAttribute (final String sPrefix,
+                                final String sNamespaceURI,
+                                final String sLocalName,
+                                final String sValue) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeAttribute (sNamespaceURI.isEmpty () ? sPrefix : _getPrefix (sPrefix, sNamespaceURI),
+                                  sNamespaceURI,
+                                  sLocalName,
+                                  sValue);
+    }
+
+    public void writeAttribute (final String sNamespaceURI,
+                                final String sLocalName,
+                                final String sValue) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeAttribute (sNamespaceURI, sLocalName, sValue);
+    }
+
+    public void writeComment (final String sData) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeComment (sData);
+    }
+
+    public void writeProcessingInstruction (final String sTarget) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeProcessingInstruction (sTarget);
+    }
+
+    public void writeProcessingInstruction (final String sTarget, final String sData) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeProcessingInstruction (sTarget, sData);
+    }
+
+    public void writeCData (final String sData) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeCData (sData);
+    }
+
+    public void writeDTD (final String sDTD)
+    {
+      // Never written
+    }
+
+    public void writeEntityRef (final String sName) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeEntityRef (sName);
+    }
+
+    public void writeStartDocument ()
+    {
+      // Written by the outer class
+    }
+
+    public void writeStartDocument (final String sVersion)
+    {
+      // Written by the outer class
+    }
+
+    public void writeStartDocument (final String sEncoding, final String sVersion)
+    {
+      // Written by the outer class
+    }
+
+    public void writeEndDocument ()
+    {
+      // Written by the outer class
+    }
+
+    public void writeCharacters (final String sText) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeCharacters (sText);
+    }
+
+    public void writeCharacters (final char [] aText, final int nStart, final int nLen) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.writeCharacters (aText, nStart, nLen);
+    }
+
+    public String getPrefix (final String sNamespaceURI) throws XMLStreamException
+    {
+      return m_aWriter.getPrefix (sNamespaceURI);
+    }
+
+    public void setPrefix (final String sPrefix, final String sNamespaceURI) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.setPrefix (sPrefix, sNamespaceURI);
+    }
+
+    public void setDefaultNamespace (final String sNamespaceURI) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.setDefaultNamespace (sNamespaceURI);
+    }
+
+    public void setNamespaceContext (final NamespaceContext aContext) throws XMLStreamException
+    {
+      if (m_bPass)
+        m_aWriter.setNamespaceContext (aContext);
+    }
+
+    public NamespaceContext getNamespaceContext ()
+    {
+      return m_aWriter.getNamespaceContext ();
+    }
+
+    public Object getProperty (final String sName)
+    {
+      return m_aWriter.getProperty (sName);
+    }
+
+    public void flush () throws XMLStreamException
+    {
+      m_aWriter.flush ();
+    }
+
+    public void close ()
+    {
+      // Closed by the outer class
+    }
+  }
+
+  private final XMLStreamWriter m_aWriter;
+  private final Marshaller m_aMarshaller;
+  // Namespace URI to prefix as declared on the root element
+  private final ICommonsMap <String, String> m_aPrefixes = new CommonsHashMap <> ();
+  private EState m_eState = EState.INITIAL;
+  private int m_nListLineItemCount = 0;
+
+  /**
+   * Constructor
+   *
+   * @param aOS
+   *        The output stream to write the UTF-8 encoded document to. May not be
+   *        <code>null</code>. It is not closed by this class.
+   * @throws EbInterfaceStreamWriteException
+   *         If the XML writer cannot be created
+   */
+  public EbInterface61StreamWriter (@NonNull final OutputStream aOS)
+  {
+    ValueEnforcer.notNull (aOS, "OutputStream");
+    try
+    {
+      m_aWriter = XMLOutputFactory.newFactory ().createXMLStreamWriter (aOS, StandardCharsets.UTF_8.name ());
+      m_aMarshaller = JAXBContextHolder.CONTEXT.createMarshaller ();
+      // The document itself is started and ended by this class
+      m_aMarshaller.setProperty (Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+    }
+    catch (final XMLStreamException | JAXBException ex)
+    {
+      throw new EbInterfaceStreamWriteException ("Failed to create the ebInterface 6.1 stream writer", ex);
+    }
+  }
+
+  private void _checkState (@NonNull final EState eExpected)
+  {
+    if (m_eState != eExpected)
+      throw new IllegalStateException ("Expected state " + eExpected + " but is " + m_eState);
+  }
+
+  private void _writeDocumentPart (@NonNull final Ebi61InvoiceType aEbiDoc,
+                                   @NonNull final EPart ePart) throws JAXBException
+  {
+    final Ebi61DetailsType aOldDetails = aEbiDoc.getDetails ();
+    // Empty placeholder to mark where the line items are located
+    aEbiDoc.setDetails (new Ebi61DetailsType ());
+    try
+    {
+      m_aMarshaller.marshal (new ObjectFactory ().createInvoice (aEbiDoc), new PartWriter (ePart));
+    }
+    finally
+    {
+      aEbiDoc.setDetails (aOldDetails);
+    }
+  }
+
+  private void _writeStartElement (@NonNull final String sLocalName) throws XMLStreamException
+  {
+    final String sPrefix = m_aPrefixes.get (NS);
+    m_aWriter.writeStartElement (sPrefix == null ? "" : sPrefix, sLocalName, NS);
+  }
+
+  /**
+   * Write the start of the document up to and including the start of the
+   * <code>ItemList</code> element.
+   *
+   * @param aEbiDoc
+   *        The ebInterface document containing at least all elements preceding
+   *        the details. May not be <code>null</code>.
+   * @throws EbInterfaceStreamWriteException
+   *         In case of an error
+   */
+  public void writeHeader (@NonNull final Ebi61InvoiceType aEbiDoc)
+  {
+    ValueEnforcer.notNull (aEbiDoc, "EbiDoc");
+    _checkState (EState.INITIAL);
+
+    try
+    {
+      m_aWriter.writeStartDocument (StandardCharsets.UTF_8.name (), "1.0");
+      _writeDocumentPart (aEbiDoc, EPart.HEADER);
+      _writeStartElement (ELEMENT_DETAILS);
+      _writeStartElement (ELEMENT_ITEM_LIST);
+      m_eState = EState.LINES;
+    }
+    catch (final XMLStreamException | JAXBException ex)
+    {
+      throw new EbInterfaceStreamWriteException ("Failed to write the ebInterface header", ex);
+    }
+  }
+
+  /**
+   * Write a single line item. May only be called after the header was written.
+   *
+   * @param aEbiListLineItem
+   *        The line item to write. May not be <code>null</code>.
+   * @throws EbInterfaceStreamWriteException
+   *         In case of an error
+   */
+  public void writeListLineItem (@NonNull final Ebi61ListLineItemType aEbiListLineItem)
+  {
+    ValueEnforcer.notNull (aEbiListLineItem, "EbiListLineItem");
+    _checkState (EState.LINES);
+
+    try
+    {
+      m_aMarshaller.marshal (new JAXBElement <> (QNAME_LIST_LINE_ITEM, Ebi61ListLineItemType.class, aEbiListLineItem),
+                             new PartWriter (EPart.LINE));
+      m_nListLineItemCount++;
+    }
+    catch (final JAXBException ex)
+    {
+      throw new EbInterfaceStreamWriteException ("Failed to write ebInterface ListLineItem " + m_nListLineItemCount,
+                                                 ex);
+    }
+  }
+
+  /**
+   * @return The number of line items written so far.
+   */
+  public int getListLineItemCount ()
+  {
+    return m_nListLineItemCount;
+  }
+
+  /**
+   * Write the end of the document starting after the <code>Details</code>
+   * element and flush the output.
+   *
+   * @param aEbiDoc
+   *        The completely converted ebInterface document. May not be
+   *        <code>null</code>.
+   * @throws EbInterfaceStreamWriteException
+   *         In case of an error
+   */
+  public void writeTrailer (@NonNull final Ebi61InvoiceType aEbiDoc)
+  {
+    ValueEnforcer.notNull (aEbiDoc, "EbiDoc");
+    _checkState (EState.LINES);
+
+    try
+    {
+      // ItemList and Details
+      m_aWriter.writeEndElement ();
+      m_aWriter.writeEndElement ();
+      _writeDocumentPart (aEbiDoc, EPart.TRAILER);
+      m_aWriter.writeEndDocument ();
+      m_aWriter.flush ();
+      m_eState = EState.DONE;
+    }
+    catch (final XMLStreamException | JAXBException ex)
+    {
+      throw new EbInterfaceStreamWriteException ("Failed to write the ebInterface trailer", ex);
+    }
+  }
+
+  public void close ()
+  {
+    try
+    {
+      m_aWriter.close ();
+    }
+    catch (final XMLStreamException ex)
+    {
+      throw new EbInterfaceStreamWriteException ("Failed to close the ebInterface stream writer", ex);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Unchecked exception thrown by {@link EbInterface61StreamWriter} if the
+ * ebInterface document cannot be written. It is unchecked, because it is
+ * thrown from within the line item consumer.
+ *
+ * @author Philip Helger
+ */
+public class EbInterfaceStreamWriteException extends RuntimeException
+{
+  public EbInterfaceStreamWriteException (@NonNull final String sMessage)
+  {
+    super (sMessage);
+  }
+
+  public EbInterfaceStreamWriteException (@NonNull final String sMessage, @Nullable final Throwable aCause)
+  {
+    super (sMessage, aCause);
+  }
+}
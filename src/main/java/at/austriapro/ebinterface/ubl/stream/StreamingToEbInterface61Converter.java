@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.misc.Translatable;
+import com.helger.annotation.style.ReturnsMutableObject;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.state.ESuccess;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.ebinterface.v61.Ebi61ListLineItemType;
+import com.helger.io.resource.IReadableResource;
+import com.helger.text.IMultilingualText;
+import com.helger.text.display.IHasDisplayTextWithArgs;
+import com.helger.text.resolve.DefaultTextResolver;
+import com.helger.text.util.TextHelper;
+
+import at.austriapro.ebinterface.ubl.from.IToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+
+/**
+ * Converts UBL 2.1 invoices and credit notes to ebInterface 6.1 without
+ * loading the whole UBL document into memory. The UBL document is read with
+ * {@link UBLStreamReader} and each document line is converted directly after
+ * it was read. If a line item consumer is provided, the created ebInterface
+ * line items are not kept either, so that the peak memory only depends on the
+ * size of a single line. The same applies when the result is directly written
+ * to an output stream with {@link EbInterface61StreamWriter}.<br>
+ * Restrictions compared to the regular converters:
+ * <ul>
+ * <li>The UBL document is <b>not validated</b> against the UBL XML Schema (see
+ * {@link UBLStreamReader}).</li>
+ * <li>The UBL resource is read twice, so it must be readable more than once.
+ * One-shot resources are rejected.</li>
+ * <li>Customizers are not supported, because the global mapping would only see
+ * a UBL document without lines and an ebInterface document without details.
+ * Converting with a customizer set on {@link #getInvoiceConverter()} or
+ * {@link #getCreditNoteConverter()} throws an
+ * {@link IllegalStateException}.</li>
+ * </ul>
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class StreamingToEbInterface61Converter
+{
+  @Translatable
+  public enum EText implements IHasDisplayTextWithArgs
+  {
+    READ_FAILED ("Das UBL Dokument konnte nicht gelesen werden: {0}", "Failed to read the UBL document: {0}"),
+    WRITE_FAILED ("Das ebInterface Dokument konnte nicht geschrieben werden: {0}",
+                  "Failed to write the ebInterface document: {0}");
+
+    private final IMultilingualText m_aTP;
+
+    EText (@NonNull final String sDE, @NonNull final String sEN)
+    {
+      m_aTP = TextHelper.create_DE_EN (sDE, sEN);
+    }
+
+    @Nullable
+    public String getDisplayText (@NonNull final Locale aContentLocale)
+    {
+      return DefaultTextResolver.getTextStatic (this, m_aTP, aContentLocale);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ILineConverter <DOCTYPE, LINETYPE>
+  {
+    @Nullable
+    Ebi61InvoiceType convertToEbInterface (@NonNull DOCTYPE aUBLDoc,
+                                           @NonNull Iterator <? extends LINETYPE> aUBLLines,
+                                           @Nullable Consumer <? super Ebi61InvoiceType> aEbiHeaderConsumer,
+                                           @Nullable Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                           @NonNull ErrorList aTransformationErrorList);
+  }
+
+  private final Locale m_aDisplayLocale;
+  private final InvoiceToEbInterface61Converter m_aInvoiceConverter;
+  private final CreditNoteToEbInterface61Converter m_aCreditNoteConverter;
+
+  /**
+   * Constructor
+   *
+   * @param aDisplayLocale
+   *        The locale for error messages. May not be <code>null</code>.
+   * @param aContentLocale
+   *        The locale for the created ebInterface files. May not be <code>null</code>.
+   * @param aSettings
+   *        Conversion settings to be used. May not be <code>null</code>.
+   */
+  public StreamingToEbInterface61Converter (@NonNull final Locale aDisplayLocale,
+                                            @NonNull final Locale aContentLocale,
+                                            @NonNull final IToEbinterfaceSettings aSettings)
+  {
+    ValueEnforcer.notNull (aDisplayLocale, "DisplayLocale");
+    m_aDisplayLocale = aDisplayLocale;
+    m_aInvoiceConverter = new InvoiceToEbInterface61Converter (aDisplayLocale, aContentLocale, aSettings);
+    m_aCreditNoteConverter = new CreditNoteToEbInterface61Converter (aDisplayLocale, aContentLocale, aSettings);
+  }
+
+  /**
+   * @return The underlying invoice converter. Never <code>null</code>. No
+   *         customizer may be set on it.
+   */
+  @NonNull
+  @ReturnsMutableObject
+  public InvoiceToEbInterface61Converter getInvoiceConverter ()
+  {
+    return m_aInvoiceConverter;
+  }
+
+  /**
+   * @return The underlying credit note converter. Never <code>null</code>. No
+   *         customizer may be set on it.
+   */
+  @NonNull
+  @ReturnsMutableObject
+  public CreditNoteToEbInterface61Converter getCreditNoteConverter ()
+  {
+    return m_aCreditNoteConverter;
+  }
+
+  @Nullable
+  private <DOCTYPE, LINETYPE> Ebi61InvoiceType _convert (@NonNull final UBLStreamReader <DOCTYPE, LINETYPE> aReader,
+                                                         @NonNull final ILineConverter <DOCTYPE, LINETYPE> aConverter,
+                                                         @NonNull final IReadableResource aUBLRes,
+                                                         @Nullable final Consumer <? super Ebi61InvoiceType> aEbiHeaderConsumer,
+                                                         @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                                         @NonNull final ErrorList aTransformationErrorList)
+  {
+    ValueEnforcer.notNull (aUBLRes, "UBLResource");
+    ValueEnforcer.notNull (aTransformationErrorList, "TransformationErrorList");
+    ValueEnforcer.isTrue (aTransformationErrorList.isEmpty (), "TransformationErrorList must be empty!");
+    // Fail fast instead of failing in the second pass
+    ValueEnforcer.isTrue (aUBLRes.isReadMultiple (),
+                          () -> "The UBL resource '" + aUBLRes.getPath () + "' must be readable more than once");
+    if (m_aInvoiceConverter.getCustomizer () != null || m_aCreditNoteConverter.getCustomizer () != null)
+      throw new IllegalStateException ("Customizers are not supported by the streaming conversion");
+
+    try
+    {
+      // First pass: everything except the lines
+      final DOCTYPE aUBLDoc = aReader.readHeader (aUBLRes);
+
+      // Second pass: the lines
+      try (final UBLStreamReader.LineIterator <LINETYPE> aUBLLines = aReader.readLines (aUBLRes))
+      {
+        return aConverter.convertToEbInterface (aUBLDoc,
+                                                aUBLLines,
+                                                aEbiHeaderConsumer,
+                                                aEbiLineConsumer,
+                                                aTransformationErrorList);
+      }
+    }
+    catch (final UBLStreamReadException ex)
+    {
+      aTransformationErrorList.add (SingleError.builderError ()
+                                               .errorLocation (aUBLRes.getPath ())
+                                               .errorText (EText.READ_FAILED.getDisplayTextWithArgs (m_aDisplayLocale,
+                                                                                                     ex.getMessage ()))
+                                               .linkedException (ex)
+                                               .build ());
+      return null;
+    }
+  }
+
+  /**
+   * Convert a UBL invoice.
+   *
+   * @param aUBLRes
+   *        The resource containing the UBL invoice. Must be readable twice. May
+   *        not be <code>null</code>. It is not validated against the XML Schema.
+   * @param aEbiLineConsumer
+   *        The consumer that receives each created ebInterface line item. If
+   *        <code>null</code> all line items are collected in the details of
+   *        the returned document. If not <code>null</code> the returned
+   *        document has no details.
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return The created ebInterface document or <code>null</code> in case of a
+   *         severe error.
+   * @throws IllegalArgumentException
+   *         If the resource can only be read once
+   * @throws IllegalStateException
+   *         If a customizer is set
+   */
+  @Nullable
+  public Ebi61InvoiceType convertInvoice (@NonNull final IReadableResource aUBLRes,
+                                          @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                          @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convert (UBLStreamReader.INVOICE,
+                     m_aInvoiceConverter::convertToEbInterface,
+                     aUBLRes,
+                     null,
+                     aEbiLineConsumer,
+                     aTransformationErrorList);
+  }
+
+  /**
+   * Convert a UBL credit note.
+   *
+   * @param aUBLRes
+   *        The resource containing the UBL credit note. Must be readable twice.
+   *        May not be <code>null</code>. It is not validated against the XML
+   *        Schema.
+   * @param aEbiLineConsumer
+   *        The consumer that receives each created ebInterface line item. If
+   *        <code>null</code> all line items are collected in the details of
+   *        the returned document. If not <code>null</code> the returned
+   *        document has no details.
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return The created ebInterface document or <code>null</code> in case of a
+   *         severe error.
+   * @throws IllegalArgumentException
+   *         If the resource can only be read once
+   * @throws IllegalStateException
+   *         If a customizer is set
+   */
+  @Nullable
+  public Ebi61InvoiceType convertCreditNote (@NonNull final IReadableResource aUBLRes,
+                                             @Nullable final Consumer <? super Ebi61ListLineItemType> aEbiLineConsumer,
+                                             @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convert (UBLStreamReader.CREDIT_NOTE,
+                     m_aCreditNoteConverter::convertToEbInterface,
+                     aUBLRes,
+                     null,
+                     aEbiLineConsumer,
+                     aTransformationErrorList);
+  }
+
+  @NonNull
+  private <DOCTYPE, LINETYPE> ESuccess _convertAndWrite (@NonNull final UBLStreamReader <DOCTYPE, LINETYPE> aReader,
+                                                         @NonNull final ILineConverter <DOCTYPE, LINETYPE> aConverter,
+                                                         @NonNull final IReadableResource aUBLRes,
+                                                         @NonNull final OutputStream aOS,
+                                                         @NonNull final ErrorList aTransformationErrorList)
+  {
+    ValueEnforcer.notNull (aOS, "OutputStream");
+
+    try (final EbInterface61StreamWriter aWriter = new EbInterface61StreamWriter (aOS))
+    {
+      // Each line item is written directly after it was converted
+      final Ebi61InvoiceType aEbiDoc = _convert (aReader,
+                                                 aConverter,
+                                                 aUBLRes,
+                                                 aWriter::writeHeader,
+                                                 aWriter::writeListLineItem,
+                                                 aTransformationErrorList);
+      if (aEbiDoc == null)
+        return ESuccess.FAILURE;
+
+      aWriter.writeTrailer (aEbiDoc);
+      return ESuccess.SUCCESS;
+    }
+    catch (final EbInterfaceStreamWriteException ex)
+    {
+      aTransformationErrorList.add (SingleError.builderError ()
+                                               .errorLocation (aUBLRes.getPath ())
+                                               .errorText (EText.WRITE_FAILED.getDisplayTextWithArgs (m_aDisplayLocale,
+                                                                                                      ex.getMessage ()))
+                                               .linkedException (ex)
+                                               .build ());
+      return ESuccess.FAILURE;
+    }
+  }
+
+  /**
+   * Convert a UBL invoice and write the resulting ebInterface document to the
+   * provided output stream, without keeping the line items in memory.
+   *
+   * @param aUBLRes
+   *        The resource containing the UBL invoice. Must be readable twice. May
+   *        not be <code>null</code>. It is not validated against the XML Schema.
+   * @param aOS
+   *        The output stream to write to. It is not closed. May not be
+   *        <code>null</code>.
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return {@link ESuccess#FAILURE} if reading or writing failed. In that case
+   *         the output stream may contain a partial document. Even in case of
+   *         success the error list must be checked for conversion errors.
+   * @throws IllegalArgumentException
+   *         If the resource can only be read once
+   * @throws IllegalStateException
+   *         If a customizer is set
+   */
+  @NonNull
+  public ESuccess convertAndWriteInvoice (@NonNull final IReadableResource aUBLRes,
+                                          @NonNull final OutputStream aOS,
+                                          @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convertAndWrite (UBLStreamReader.INVOICE,
+                             m_aInvoiceConverter::convertToEbInterface,
+                             aUBLRes,
+                             aOS,
+                             aTransformationErrorList);
+  }
+
+  /**
+   * Convert a UBL credit note and write the resulting ebInterface document to
+   * the provided output stream, without keeping the line items in memory.
+   *
+   * @param aUBLRes
+   *        The resource containing the UBL credit note. Must be readable twice.
+   *        May not be <code>null</code>. It is not validated against the XML
+   *        Schema.
+   * @param aOS
+   *        The output stream to write to. It is not closed. May not be
+   *        <code>null</code>.
+   * @param aTransformationErrorList
+   *        Error list. Must be empty!
+   * @return {@link ESuccess#FAILURE} if reading or writing failed. In that case
+   *         the output stream may contain a partial document. Even in case of
+   *         success the error list must be checked for conversion errors.
+   * @throws IllegalArgumentException
+   *         If the resource can only be read once
+   * @throws IllegalStateException
+   *         If a customizer is set
+   */
+  @NonNull
+  public ESuccess convertAndWriteCreditNote (@NonNull final IReadableResource aUBLRes,
+                                             @NonNull final OutputStream aOS,
+                                             @NonNull final ErrorList aTransformationErrorList)
+  {
+    return _convertAndWrite (UBLStreamReader.CREDIT_NOTE,
+                             m_aCreditNoteConverter::convertToEbInterface,
+                             aUBLRes,
+                             aOS,
+                             aTransformationErrorList);
+  }
+}
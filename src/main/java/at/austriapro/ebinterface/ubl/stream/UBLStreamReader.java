@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.io.resource.IReadableResource;
+
+import at.austriapro.ebinterface.ubl.helper.SafeXMLInputFactory;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CreditNoteLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.InvoiceLineType;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Reads a UBL 2.1 invoice or credit note with StAX, so that the memory
+ * consumption does not depend on the number of document lines. The document is
+ * read in two passes:
+ * <ol>
+ * <li>{@link #readHeader(IReadableResource)} unmarshals the document without
+ * any of its lines.</li>
+ * <li>{@link #readLines(IReadableResource)} unmarshals one line after the other
+ * while iterating.</li>
+ * </ol>
+ * Because of the two passes the resource must be readable more than once (see
+ * {@link IReadableResource#isReadMultiple()}).<br>
+ * <b>Note:</b> contrary to the UBL marshallers, <b>no XML Schema validation is
+ * performed</b>. Only the structure needed for unmarshalling is checked, so
+ * documents that are invalid according to the UBL XSD may be read
+ * successfully. Use the UBL marshallers if schema validation is required.
+ *
+ * @author Philip Helger
+ * @param <DOCTYPE>
+ *        The UBL document type
+ * @param <LINETYPE>
+ *        The UBL document line type
+ */
+@Immutable
+public final class UBLStreamReader <DOCTYPE, LINETYPE>
+{
+  public static final String UBL_CAC_NAMESPACE_URI = "urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2";
+
+  /** Reader for UBL 2.1 invoices */
+  public static final UBLStreamReader <InvoiceType, InvoiceLineType> INVOICE = new UBLStreamReader <> (new QName ("urn:oasis:names:specification:ubl:schema:xsd:Invoice-2",
+                                                                                                                   "Invoice"),
+                                                                                                       InvoiceType.class,
+                                                                                                       new QName (UBL_CAC_NAMESPACE_URI,
+                                                                                                                  "InvoiceLine"),
+                                                                                                       InvoiceLineType.class);
+
+  /** Reader for UBL 2.1 credit notes */
+  public static final UBLStreamReader <CreditNoteType, CreditNoteLineType> CREDIT_NOTE = new UBLStreamReader <> (new QName ("urn:oasis:names:specification:ubl:schema:xsd:CreditNote-2",
+                                                                                                                            "CreditNote"),
+                                                                                                                 CreditNoteType.class,
+                                                                                                                 new QName (UBL_CAC_NAMESPACE_URI,
+                                                                                                                            "CreditNoteLine"),
+                                                                                                                 CreditNoteLineType.class);
+
+  private static final class JAXBContextHolder
+  {
+    // Creating the context is expensive - do it only once
+    private static final JAXBContext CONTEXT;
+    static
+    {
+      try
+      {
+        CONTEXT = JAXBContext.newInstance (InvoiceType.class, CreditNoteType.class);
+      }
+      catch (final JAXBException ex)
+      {
+        throw new IllegalStateException ("Failed to create the UBL JAXB context", ex);
+      }
+    }
+  }
+
+  /**
+   * Hides all document lines (direct children of the root element) from the
+   * consumer of this reader.
+   */
+  private static final class LineSkippingStreamReader extends StreamReaderDelegate
+  {
+    private final QName m_aLineElementName;
+    // The reader is positioned on the root element when created
+    private int m_nDepth = 1;
+
+    LineSkippingStreamReader (@NonNull final XMLStreamReader aReader, @NonNull final QName aLineElementName)
+    {
+      super (aReader);
+      m_aLineElementName = aLineElementName;
+    }
+
+    @Override
+    public int next () throws XMLStreamException
+    {
+      while (true)
+      {
+        final int nEvent = super.next ();
+        if (nEvent == XMLStreamConstants.START_ELEMENT)
+        {
+          if (m_nDepth == 1 && m_aLineElementName.equals (getName ()))
+          {
+            skipElement (getParent ());
+            continue;
+          }
+          m_nDepth++;
+        }
+        else
+          if (nEvent == XMLStreamConstants.END_ELEMENT)
+            m_nDepth--;
+        return nEvent;
+      }
+    }
+
+    @Override
+    public int nextTag () throws XMLStreamException
+    {
+      // Must be based on next() so that the lines are skipped here as well
+      int nEvent = next ();
+      while ((nEvent == XMLStreamConstants.CHARACTERS && isWhiteSpace ()) ||
+             nEvent == XMLStreamConstants.SPACE ||
+             nEvent == XMLStreamConstants.COMMENT ||
+             nEvent == XMLStreamConstants.PROCESSING_INSTRUCTION)
+        nEvent = next ();
+      if (nEvent != XMLStreamConstants.START_ELEMENT && nEvent != XMLStreamConstants.END_ELEMENT)
+        throw new XMLStreamException ("Expected start or end tag", getLocation ());
+      return nEvent;
+    }
+  }
+
+  /**
+   * Iterates the lines of a single UBL document. Each line is only unmarshalled
+   * when it is requested. Must be closed after usage.
+   *
+   * @author Philip Helger
+   * @param <LINETYPE>
+   *        The UBL document line type
+   */
+  @NotThreadSafe
+  public static final class LineIterator <LINETYPE> implements Iterator <LINETYPE>, AutoCloseable
+  {
+    private final InputStream m_aIS;
+    private final XMLStreamReader m_aReader;
+    private final Unmarshaller m_aUnmarshaller;
+    private final QName m_aLineElementName;
+    private final Class <LINETYPE> m_aLineClass;
+    // Unmarshalling leaves the reader on the event after the line
+    private boolean m_bAdvance = true;
+    private boolean m_bOnLine = false;
+    private boolean m_bEOF = false;
+
+    LineIterator (@NonNull final InputStream aIS,
+                  @NonNull final XMLStreamReader aReader,
+                  @NonNull final Unmarshaller aUnmarshaller,
+                  @NonNull final QName aLineElementName,
+                  @NonNull final Class <LINETYPE> aLineClass)
+    {
+      m_aIS = aIS;
+      m_aReader = aReader;
+      m_aUnmarshaller = aUnmarshaller;
+      m_aLineElementName = aLineElementName;
+      m_aLineClass = aLineClass;
+    }
+
+    public boolean hasNext ()
+    {
+      if (m_bOnLine)
+        return true;
+      if (m_bEOF)
+        return false;
+
+      try
+      {
+        while (true)
+        {
+          final int nEvent = m_bAdvance ? m_aReader.next () : m_aReader.getEventType ();
+          m_bAdvance = true;
+          if (nEvent == XMLStreamConstants.START_ELEMENT)
+          {
+            if (m_aLineElementName.equals (m_aReader.getName ()))
+            {
+              m_bOnLine = true;
+              return true;
+            }
+            // Some other header element
+            skipElement (m_aReader);
+          }
+          else
+            if (nEvent == XMLStreamConstants.END_ELEMENT || nEvent == XMLStreamConstants.END_DOCUMENT)
+            {
+              // End of the root element
+              m_bEOF = true;
+              return false;
+            }
+        }
+      }
+      catch (final XMLStreamException ex)
+      {
+        throw new UBLStreamReadException ("Failed to read the next UBL line", ex);
+      }
+    }
+
+    @NonNull
+    public LINETYPE next ()
+    {
+      if (!hasNext ())
+        throw new NoSuchElementException ();
+
+      try
+      {
+        final LINETYPE ret = m_aUnmarshaller.unmarshal (m_aReader, m_aLineClass).getValue ();
+        m_bOnLine = false;
+        m_bAdvance = false;
+        return ret;
+      }
+      catch (final JAXBException ex)
+      {
+        throw new UBLStreamReadException ("Failed to unmarshal UBL line '" + m_aLineElementName + "'", ex);
+      }
+    }
+
+    public void close ()
+    {
+      try
+      {
+        m_aReader.close ();
+      }
+      catch (final XMLStreamException ex)
+      {
+        // ignore
+      }
+      try
+      {
+        m_aIS.close ();
+      }
+      catch (final IOException ex)
+      {
+        // ignore
+      }
+    }
+  }
+
+  private final QName m_aRootElementName;
+  private final Class <DOCTYPE> m_aDocClass;
+  private final QName m_aLineElementName;
+  private final Class <LINETYPE> m_aLineClass;
+
+  private UBLStreamReader (@NonNull final QName aRootElementName,
+                           @NonNull final Class <DOCTYPE> aDocClass,
+                           @NonNull final QName aLineElementName,
+                           @NonNull final Class <LINETYPE> aLineClass)
+  {
+    m_aRootElementName = aRootElementName;
+    m_aDocClass = aDocClass;
+    m_aLineElementName = aLineElementName;
+    m_aLineClass = aLineClass;
+  }
+
+  /**
+   * @return The qualified name of the expected root element. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public QName getRootElementName ()
+  {
+    return m_aRootElementName;
+  }
+
+  /**
+   * @return The qualified name of the document line elements. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  public QName getLineElementName ()
+  {
+    return m_aLineElementName;
+  }
+
+  /**
+   * Skip the element the reader is currently positioned on, including all its
+   * children. Afterwards the reader is positioned on the matching end element.
+   */
+  public static void skipElement (@NonNull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    int nDepth = 1;
+    while (nDepth > 0)
+    {
+      final int nEvent = aReader.next ();
+      if (nEvent == XMLStreamConstants.START_ELEMENT)
+        nDepth++;
+      else
+        if (nEvent == XMLStreamConstants.END_ELEMENT)
+          nDepth--;
+    }
+  }
+
+  @NonNull
+  private InputStream _openInputStream (@NonNull final IReadableResource aRes)
+  {
+    final InputStream aIS = aRes.getInputStream ();
+    if (aIS == null)
+      throw new UBLStreamReadException ("Failed to open '" + aRes.getPath () + "'");
+    return aIS;
+  }
+
+  /**
+   * Create a reader that is positioned on the root element.
+   */
+  @NonNull
+  private XMLStreamReader _createReaderOnRoot (@NonNull final IReadableResource aRes,
+                                               @NonNull final InputStream aIS) throws XMLStreamException
+  {
+    final XMLStreamReader aReader = SafeXMLInputFactory.createXMLStreamReader (aIS);
+    aReader.nextTag ();
+    if (!m_aRootElementName.equals (aReader.getName ()))
+    {
+      final QName aFound = aReader.getName ();
+      aReader.close ();
+      throw new UBLStreamReadException ("The root element of '" +
+                                        aRes.getPath () +
+                                        "' is " +
+                                        aFound +
+                                        " but expected " +
+                                        m_aRootElementName);
+    }
+    return aReader;
+  }
+
+  /**
+   * Read the UBL document without any of its lines.
+   *
+   * @param aRes
+   *        The resource to read from. May not be <code>null</code>.
+   * @return The UBL document without any lines. Never <code>null</code>.
+   * @throws UBLStreamReadException
+   *         If the resource cannot be read or has the wrong root element.
+   */
+  @NonNull
+  public DOCTYPE readHeader (@NonNull final IReadableResource aRes)
+  {
+    ValueEnforcer.notNull (aRes, "Resource");
+
+    try (final InputStream aIS = _openInputStream (aRes))
+    {
+      final XMLStreamReader aReader = _createReaderOnRoot (aRes, aIS);
+      try
+      {
+        final Unmarshaller aUnmarshaller = JAXBContextHolder.CONTEXT.createUnmarshaller ();
+        return aUnmarshaller.unmarshal (new LineSkippingStreamReader (aReader, m_aLineElementName), m_aDocClass)
+                            .getValue ();
+      }
+      finally
+      {
+        aReader.close ();
+      }
+    }
+    catch (final XMLStreamException | JAXBException | IOException ex)
+    {
+      throw new UBLStreamReadException ("Failed to read UBL document '" + aRes.getPath () + "'", ex);
+    }
+  }
+
+  /**
+   * Start iterating the lines of the UBL document. The returned iterator must
+   * be closed by the caller.
+   *
+   * @param aRes
+   *        The resource to read from. May not be <code>null</code>.
+   * @return A new line iterator. Never <code>null</code>.
+   * @throws UBLStreamReadException
+   *         If the resource cannot be read or has the wrong root element. The
+   *         iterator itself throws this exception if a line cannot be read.
+   */
+  @NonNull
+  public LineIterator <LINETYPE> readLines (@NonNull final IReadableResource aRes)
+  {
+    ValueEnforcer.notNull (aRes, "Resource");
+
+    final InputStream aIS = _openInputStream (aRes);
+    try
+    {
+      final XMLStreamReader aReader = _createReaderOnRoot (aRes, aIS);
+      return new LineIterator <> (aIS,
+                                  aReader,
+                                  JAXBContextHolder.CONTEXT.createUnmarshaller (),
+                                  m_aLineElementName,
+                                  m_aLineClass);
+    }
+    catch (final XMLStreamException | JAXBException | RuntimeException ex)
+    {
+      try
+      {
+        aIS.close ();
+      }
+      catch (final IOException ex2)
+      {
+        // ignore
+      }
+      if (ex instanceof UBLStreamReadException)
+        throw (UBLStreamReadException) ex;
+      throw new UBLStreamReadException ("Failed to read UBL document '" + aRes.getPath () + "'", ex);
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("RootElementName", m_aRootElementName)
+                                       .append ("LineElementName", m_aLineElementName)
+                                       .getToString ();
+  }
+}
@@ -17,21 +17,29 @@
 package at.austriapro.ebinterface.ubl.to;
 
 import java.util.Locale;
+import java.util.function.Supplier;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.base.string.StringHelper;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.diagnostics.error.list.IErrorList;
 import com.helger.ebinterface.codelist.ETaxCategoryCode;
 import com.helger.text.locale.country.CountryCache;
 
 import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import at.austriapro.ebinterface.ubl.helper.MultilingualCountryCache;
+import at.austriapro.ebinterface.ubl.jfr.ConversionEvent;
+import at.austriapro.ebinterface.ubl.metrics.ConversionMetrics;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CountryType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemPropertyType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
 
 /**
  * Base class for ebInterface to Peppol UBL converter
@@ -44,6 +52,12 @@ public abstract class AbstractEbInterfaceToUBLConverter extends AbstractEbInterf
   public static final String CURRENCY_LIST_AGENCY_ID = "6";
   public static final String CURRENCY_LIST_ID = "ISO 4217 Alpha";
 
+  /**
+   * The conversion to UBL reports no errors. This list is shared by all
+   * conversions and must therefore only be used read-only.
+   */
+  protected static final IErrorList NO_CONVERSION_ERRORS = new ErrorList ();
+
   /**
    * Constructor
    *
@@ -58,6 +72,47 @@ public abstract class AbstractEbInterfaceToUBLConverter extends AbstractEbInterf
     super (aDisplayLocale, aContentLocale);
   }
 
+  /**
+   * Run a conversion to UBL and report it to the {@link ConversionMetrics} and,
+   * if recorded, as Java Flight Recorder event. This is also done if the
+   * conversion throws an exception.
+   *
+   * @param eVersion
+   *        The source ebInterface version. May not be <code>null</code>.
+   * @param sDocumentNumber
+   *        The number of the source document. May be <code>null</code>.
+   * @param aConversion
+   *        The conversion to run. May not be <code>null</code>.
+   * @return The result of the conversion.
+   */
+  @NonNull
+  protected final InvoiceType trackConversion (@NonNull final EEbInterfaceVersion eVersion,
+                                               @Nullable final String sDocumentNumber,
+                                               @NonNull final Supplier <InvoiceType> aConversion)
+  {
+    final long nStartNanos = System.nanoTime ();
+    final ConversionEvent aEvent = ConversionEvent.isRecorded () ? ConversionEvent.start (EConversionDirection.EBINTERFACE_TO_INVOICE,
+                                                                                          eVersion,
+                                                                                          getClass ())
+                                                                 : null;
+    InvoiceType aUBLDoc = null;
+    try
+    {
+      aUBLDoc = aConversion.get ();
+      return aUBLDoc;
+    }
+    finally
+    {
+      if (aEvent != null)
+        aEvent.finish (sDocumentNumber, aUBLDoc == null ? 0 : aUBLDoc.getInvoiceLineCount (), null);
+      ConversionMetrics.onConversion (getClass (),
+                                      EConversionDirection.EBINTERFACE_TO_INVOICE,
+                                      eVersion,
+                                      System.nanoTime () - nStartNanos,
+                                      NO_CONVERSION_ERRORS);
+    }
+  }
+
   @NonNull
   protected static final TaxSchemeType createTaxScheme (@NonNull final String sID)
   {
@@ -28,6 +28,7 @@ import com.helger.base.string.StringHelper;
 import com.helger.ebinterface.v40.*;
 import com.helger.ebinterface.v40.extensions.Ebi40TaxExtensionType;
 
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import jakarta.xml.bind.JAXBElement;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.*;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.CompanyIDType;
@@ -47,7 +48,8 @@ import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
  *
  * @author Philip Helger
  */
-public class EbInterface40ToInvoiceConverter extends AbstractEbInterface40ToUBLConverter
+public class EbInterface40ToInvoiceConverter extends AbstractEbInterface40ToUBLConverter implements
+                                               IEbInterfaceToInvoiceConverter <Ebi40InvoiceType>
 {
   public EbInterface40ToInvoiceConverter (@NonNull final Locale aDisplayLocale, @NonNull final Locale aContentLocale)
   {
@@ -221,6 +223,12 @@ public class EbInterface40ToInvoiceConverter extends AbstractEbInterface40ToUBLC
   {
     ValueEnforcer.notNull (aEbiDoc, "ebInterfaceDocument");
 
+    return trackConversion (EEbInterfaceVersion.V40, aEbiDoc.getInvoiceNumber (), () -> _convertInvoice (aEbiDoc));
+  }
+
+  @NonNull
+  private InvoiceType _convertInvoice (@NonNull final Ebi40InvoiceType aEbiDoc)
+  {
     final String sCurrency = aEbiDoc.getInvoiceCurrency () != null ? aEbiDoc.getInvoiceCurrency ().value () : null;
 
     final InvoiceType aUBLDoc = new InvoiceType ();
@@ -27,6 +27,7 @@ import com.helger.base.numeric.BigHelper;
 import com.helger.base.string.StringHelper;
 import com.helger.ebinterface.v42.*;
 
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import jakarta.xml.bind.JAXBElement;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.*;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AllowanceChargeReasonType;
@@ -50,7 +51,8 @@ import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
  *
  * @author Philip Helger
  */
-public class EbInterface42ToInvoiceConverter extends AbstractEbInterface42ToUBLConverter
+public class EbInterface42ToInvoiceConverter extends AbstractEbInterface42ToUBLConverter implements
+                                               IEbInterfaceToInvoiceConverter <Ebi42InvoiceType>
 {
   public EbInterface42ToInvoiceConverter (@NonNull final Locale aDisplayLocale, @NonNull final Locale aContentLocale)
   {
@@ -262,6 +264,12 @@ public class EbInterface42ToInvoiceConverter extends AbstractEbInterface42ToUBLC
   {
     ValueEnforcer.notNull (aEbiDoc, "ebInterfaceDocument");
 
+    return trackConversion (EEbInterfaceVersion.V42, aEbiDoc.getInvoiceNumber (), () -> _convertInvoice (aEbiDoc));
+  }
+
+  @NonNull
+  private InvoiceType _convertInvoice (@NonNull final Ebi42InvoiceType aEbiDoc)
+  {
     final String sCurrency = aEbiDoc.getInvoiceCurrency ();
 
     final InvoiceType aUBLDoc = new InvoiceType ();
@@ -27,6 +27,7 @@ import com.helger.base.numeric.BigHelper;
 import com.helger.base.string.StringHelper;
 import com.helger.ebinterface.v43.*;
 
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import jakarta.xml.bind.JAXBElement;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.*;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AllowanceChargeReasonType;
@@ -50,7 +51,8 @@ import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
  *
  * @author Philip Helger
  */
-public class EbInterface43ToInvoiceConverter extends AbstractEbInterface43ToUBLConverter
+public class EbInterface43ToInvoiceConverter extends AbstractEbInterface43ToUBLConverter implements
+                                               IEbInterfaceToInvoiceConverter <Ebi43InvoiceType>
 {
   public EbInterface43ToInvoiceConverter (@NonNull final Locale aDisplayLocale, @NonNull final Locale aContentLocale)
   {
@@ -256,6 +258,12 @@ public class EbInterface43ToInvoiceConverter extends AbstractEbInterface43ToUBLC
   {
     ValueEnforcer.notNull (aEbiDoc, "ebInterfaceDocument");
 
+    return trackConversion (EEbInterfaceVersion.V43, aEbiDoc.getInvoiceNumber (), () -> _convertInvoice (aEbiDoc));
+  }
+
+  @NonNull
+  private InvoiceType _convertInvoice (@NonNull final Ebi43InvoiceType aEbiDoc)
+  {
     final String sCurrency = aEbiDoc.getInvoiceCurrency ();
 
     final InvoiceType aUBLDoc = new InvoiceType ();
@@ -27,6 +27,7 @@ import com.helger.base.numeric.BigHelper;
 import com.helger.base.string.StringHelper;
 import com.helger.ebinterface.v50.*;
 
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
 import jakarta.xml.bind.JAXBElement;
 import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.*;
 import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AllowanceChargeReasonType;
@@ -48,7 +49,8 @@ import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
  *
  * @author Philip Helger
  */
-public class EbInterface50ToInvoiceConverter extends AbstractEbInterface50ToUBLConverter
+public class EbInterface50ToInvoiceConverter extends AbstractEbInterface50ToUBLConverter implements
+                                               IEbInterfaceToInvoiceConverter <Ebi50InvoiceType>
 {
   public EbInterface50ToInvoiceConverter (@NonNull final Locale aDisplayLocale, @NonNull final Locale aContentLocale)
   {
@@ -249,6 +251,12 @@ public class EbInterface50ToInvoiceConverter extends AbstractEbInterface50ToUBLC
   {
     ValueEnforcer.notNull (aEbiDoc, "ebInterfaceDocument");
 
+    return trackConversion (EEbInterfaceVersion.V50, aEbiDoc.getInvoiceNumber (), () -> _convertInvoice (aEbiDoc));
+  }
+
+  @NonNull
+  private InvoiceType _convertInvoice (@NonNull final Ebi50InvoiceType aEbiDoc)
+  {
     final String sCurrency = aEbiDoc.getInvoiceCurrency ();
 
     final InvoiceType aUBLDoc = new InvoiceType ();
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.to;
+
+import org.jspecify.annotations.NonNull;
+
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Version independent view on a converter from ebInterface to UBL 2.1 invoice.
+ *
+ * @author Philip Helger
+ * @param <T>
+ *        The ebInterface invoice type consumed
+ */
+@FunctionalInterface
+public interface IEbInterfaceToInvoiceConverter <T>
+{
+  /**
+   * Convert the provided ebInterface document to a UBL invoice.
+   *
+   * @param aEbiDoc
+   *        The ebInterface document to be converted. May not be <code>null</code>.
+   * @return The created UBL invoice. Never <code>null</code>.
+   */
+  @NonNull
+  InvoiceType convertInvoice (@NonNull T aEbiDoc);
+}
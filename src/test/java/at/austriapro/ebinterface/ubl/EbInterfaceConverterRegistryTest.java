@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.from.ICreditNoteToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.IInvoiceToEbInterfaceConverter;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.IEbInterfaceToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link EbInterfaceConverterRegistry}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterfaceConverterRegistryTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+  private static final int THREAD_COUNT = 16;
+  private static final int ROUNDS_PER_THREAD = 25;
+
+  @Test
+  public void testSharedInstances ()
+  {
+    final EbInterfaceConverterRegistry aRegistry = new EbInterfaceConverterRegistry ();
+    for (final EEbInterfaceVersion eVersion : EEbInterfaceVersion.values ())
+    {
+      final IInvoiceToEbInterfaceConverter <?> aInv = aRegistry.getInvoiceToEbInterfaceConverter (eVersion,
+                                                                                                  LOCALE,
+                                                                                                  LOCALE,
+                                                                                                  new ToEbinterfaceSettings ());
+      assertNotNull (aInv);
+      // Equal settings - same instance
+      assertSame (aInv,
+                  aRegistry.getInvoiceToEbInterfaceConverter (eVersion, LOCALE, LOCALE, new ToEbinterfaceSettings ()));
+      // Typed access resolves the same instance
+      assertSame (aInv,
+                  aRegistry.getInvoiceToEbInterfaceConverter (eVersion.getInvoiceClass (),
+                                                              LOCALE,
+                                                              LOCALE,
+                                                              new ToEbinterfaceSettings ()));
+      // Different settings or locales - different instances
+      assertNotSame (aInv,
+                     aRegistry.getInvoiceToEbInterfaceConverter (eVersion,
+                                                                 LOCALE,
+                                                                 LOCALE,
+                                                                 ToEbinterfaceSettings.getERechnungGvAtSettings ()));
+      assertNotSame (aInv,
+                     aRegistry.getInvoiceToEbInterfaceConverter (eVersion,
+                                                                 Locale.ENGLISH,
+                                                                 LOCALE,
+                                                                 new ToEbinterfaceSettings ()));
+
+      final ICreditNoteToEbInterfaceConverter <?> aCN = aRegistry.getCreditNoteToEbInterfaceConverter (eVersion,
+                                                                                                       LOCALE,
+                                                                                                       LOCALE,
+                                                                                                       new ToEbinterfaceSettings ());
+      assertNotNull (aCN);
+      assertNotSame (aInv, aCN);
+      assertSame (aCN,
+                  aRegistry.getCreditNoteToEbInterfaceConverter (eVersion, LOCALE, LOCALE, new ToEbinterfaceSettings ()));
+
+      final IEbInterfaceToInvoiceConverter <?> aEbi = aRegistry.getEbInterfaceToInvoiceConverter (eVersion,
+                                                                                                  LOCALE,
+                                                                                                  LOCALE);
+      assertNotNull (aEbi);
+      assertSame (aEbi, aRegistry.getEbInterfaceToInvoiceConverter (eVersion.getInvoiceClass (), LOCALE, LOCALE));
+
+      // Customizer cannot be reached
+      assertTrue (!(aInv instanceof AbstractEbInterfaceUBLConverter));
+      assertTrue (!(aCN instanceof AbstractEbInterfaceUBLConverter));
+      assertTrue (!(aEbi instanceof AbstractEbInterfaceUBLConverter));
+    }
+    assertEquals (EEbInterfaceVersion.values ().length * 6, aRegistry.getConverterCount ());
+
+    aRegistry.clear ();
+    assertEquals (0, aRegistry.getConverterCount ());
+  }
+
+  @Test
+  public void testSettingsAreCopied ()
+  {
+    final EbInterfaceConverterRegistry aRegistry = new EbInterfaceConverterRegistry ();
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final IInvoiceToEbInterfaceConverter <Ebi61InvoiceType> aConverter = aRegistry.getInvoiceToEbInterfaceConverter (Ebi61InvoiceType.class,
+                                                                                                                       LOCALE,
+                                                                                                                       LOCALE,
+                                                                                                                       aSettings);
+    // Modifying the settings afterwards must not influence the shared instance
+    aSettings.setOrderReferenceIDMandatory (true);
+    final InvoiceType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (5).createInvoice ();
+    aUBLDoc.setOrderReference (null);
+
+    final ErrorList aErrorList = new ErrorList ();
+    assertNotNull (aConverter.convertToEbInterface (aUBLDoc, aErrorList));
+    assertTrue (aErrorList.toString (), !aErrorList.containsAtLeastOneError ());
+
+    // Now a different instance
+    assertNotSame (aConverter,
+                   aRegistry.getInvoiceToEbInterfaceConverter (Ebi61InvoiceType.class, LOCALE, LOCALE, aSettings));
+  }
+
+  @Test
+  public void testBounded ()
+  {
+    final EbInterfaceConverterRegistry aRegistry = new EbInterfaceConverterRegistry (2);
+    final IInvoiceToEbInterfaceConverter <?> aConverter = aRegistry.getInvoiceToEbInterfaceConverter (EEbInterfaceVersion.V61,
+                                                                                                      LOCALE,
+                                                                                                      LOCALE,
+                                                                                                      new ToEbinterfaceSettings ());
+    for (int i = 1; i <= 5; ++i)
+      aRegistry.getInvoiceToEbInterfaceConverter (EEbInterfaceVersion.V61,
+                                                  LOCALE,
+                                                  LOCALE,
+                                                  new ToEbinterfaceSettings ().setOrderReferenceIDMaxLength (i));
+    assertEquals (2, aRegistry.getConverterCount ());
+
+    // The evicted converter is created again
+    assertNotSame (aConverter,
+                   aRegistry.getInvoiceToEbInterfaceConverter (EEbInterfaceVersion.V61,
+                                                               LOCALE,
+                                                               LOCALE,
+                                                               new ToEbinterfaceSettings ()));
+  }
+
+  @Test
+  public void testUnsupportedClass ()
+  {
+    try
+    {
+      new EbInterfaceConverterRegistry ().getEbInterfaceToInvoiceConverter (String.class, LOCALE, LOCALE);
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConcurrentUse () throws Exception
+  {
+    // Different documents per thread to detect state leaking between calls
+    final ICommonsList <InvoiceType> aInvoices = new CommonsArrayList <> ();
+    final ICommonsList <CreditNoteType> aCreditNotes = new CommonsArrayList <> ();
+    final ICommonsList <Ebi61InvoiceType> aExpectedInvoices = new CommonsArrayList <> ();
+    final ICommonsList <Ebi61InvoiceType> aExpectedCreditNotes = new CommonsArrayList <> ();
+    final ICommonsList <InvoiceType> aExpectedUBL = new CommonsArrayList <> ();
+    for (int i = 0; i < THREAD_COUNT; ++i)
+    {
+      final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setSeed (i)
+                                                                               .setLineCount (20 + i * 5)
+                                                                               .setTaxRateCount (1 + i % 5)
+                                                                               .setAllowanceChargeDensity ((i % 4) / 4d)
+                                                                               .setPaymentMeansCount (i % 3);
+      final InvoiceType aInvoice = aGen.createInvoice ();
+      final CreditNoteType aCreditNote = aGen.createCreditNote ();
+      aInvoices.add (aInvoice);
+      aCreditNotes.add (aCreditNote);
+
+      // Reference results from dedicated instances in a single thread
+      final ErrorList aErrorList = new ErrorList ();
+      final Ebi61InvoiceType aEbiInvoice = new InvoiceToEbInterface61Converter (LOCALE,
+                                                                                LOCALE,
+                                                                                new ToEbinterfaceSettings ()).convertToEbInterface (aInvoice,
+                                                                                                                                    aErrorList);
+      assertNotNull (aErrorList.toString (), aEbiInvoice);
+      aExpectedInvoices.add (aEbiInvoice);
+      aErrorList.clear ();
+      aExpectedCreditNotes.add (new CreditNoteToEbInterface61Converter (LOCALE,
+                                                                        LOCALE,
+                                                                        new ToEbinterfaceSettings ()).convertToEbInterface (aCreditNote,
+                                                                                                                            aErrorList));
+      aExpectedUBL.add (new EbInterface61ToInvoiceConverter (LOCALE, LOCALE).convertInvoice (aEbiInvoice));
+    }
+
+    final EbInterfaceConverterRegistry aRegistry = new EbInterfaceConverterRegistry ();
+    final IInvoiceToEbInterfaceConverter <Ebi61InvoiceType> aInvConverter = aRegistry.getInvoiceToEbInterfaceConverter (Ebi61InvoiceType.class,
+                                                                                                                          LOCALE,
+                                                                                                                          LOCALE,
+                                                                                                                          new ToEbinterfaceSettings ());
+    final ICreditNoteToEbInterfaceConverter <Ebi61InvoiceType> aCNConverter = aRegistry.getCreditNoteToEbInterfaceConverter (Ebi61InvoiceType.class,
+                                                                                                                               LOCALE,
+                                                                                                                               LOCALE,
+                                                                                                                               new ToEbinterfaceSettings ());
+    final IEbInterfaceToInvoiceConverter <Ebi61InvoiceType> aEbiConverter = aRegistry.getEbInterfaceToInvoiceConverter (Ebi61InvoiceType.class,
+                                                                                                                          LOCALE,
+                                                                                                                          LOCALE);
+
+    final CountDownLatch aStart = new CountDownLatch (1);
+    final AtomicInteger aConversions = new AtomicInteger ();
+    final ExecutorService aES = Executors.newFixedThreadPool (THREAD_COUNT);
+    try
+    {
+      final ICommonsList <Future <?>> aFutures = new CommonsArrayList <> ();
+      for (int nThread = 0; nThread < THREAD_COUNT; ++nThread)
+      {
+        final int nOffset = nThread;
+        aFutures.add (aES.submit ( () -> {
+          aStart.await ();
+          for (int nRound = 0; nRound < ROUNDS_PER_THREAD; ++nRound)
+          {
+            // Each thread walks all documents, starting at a different one
+            final int nIndex = (nOffset + nRound) % THREAD_COUNT;
+            final ErrorList aErrorList = new ErrorList ();
+            final Ebi61InvoiceType aEbiInvoice = aInvConverter.convertToEbInterface (aInvoices.get (nIndex), aErrorList);
+            assertEquals (aExpectedInvoices.get (nIndex), aEbiInvoice);
+
+            aErrorList.clear ();
+            assertEquals (aExpectedCreditNotes.get (nIndex),
+                          aCNConverter.convertToEbInterface (aCreditNotes.get (nIndex), aErrorList));
+
+            assertEquals (aExpectedUBL.get (nIndex), aEbiConverter.convertInvoice (aEbiInvoice));
+            aConversions.addAndGet (3);
+          }
+          return null;
+        }));
+      }
+      aStart.countDown ();
+
+      // Propagates assertion errors of the worker threads
+      for (final Future <?> aFuture : aFutures)
+        aFuture.get ();
+    }
+    finally
+    {
+      aES.shutdown ();
+      assertTrue (aES.awaitTermination (1, TimeUnit.MINUTES));
+    }
+    assertEquals (THREAD_COUNT * ROUNDS_PER_THREAD * 3, aConversions.get ());
+    // No additional converters were created
+    assertEquals (3, aRegistry.getConverterCount ());
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.batch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsTreeSet;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.io.resource.IReadableResource;
+import com.helger.io.resource.inmemory.ReadableResourceByteArray;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.MockEbi61Marshaller;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link EbInterfaceBatchConverter}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterfaceBatchConverterTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+  private static final int DOCUMENT_COUNT = 30;
+  private static final int INDEX_NO_UBL = 10;
+  private static final int INDEX_NO_XML = 20;
+
+  private static final class TestData
+  {
+    private final ICommonsList <IReadableResource> m_aDocuments = new CommonsArrayList <> ();
+    private final ICommonsList <byte []> m_aExpected = new CommonsArrayList <> ();
+
+    TestData ()
+    {
+      final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+      for (int i = 0; i < DOCUMENT_COUNT; ++i)
+      {
+        final String sName = "doc" + i + ".xml";
+        if (i == INDEX_NO_UBL)
+        {
+          m_aDocuments.add (new ReadableResourceByteArray (sName, "<Foo/>".getBytes (StandardCharsets.UTF_8)));
+          m_aExpected.add (null);
+          continue;
+        }
+        if (i == INDEX_NO_XML)
+        {
+          m_aDocuments.add (new ReadableResourceByteArray (sName, "no xml".getBytes (StandardCharsets.UTF_8)));
+          m_aExpected.add (null);
+          continue;
+        }
+
+        final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setSeed (i)
+                                                                                 .setLineCount (10 + i)
+                                                                                 .setTaxRateCount (1 + i % 5);
+        final ErrorList aErrorList = new ErrorList ();
+        if ((i % 2) == 0)
+        {
+          final InvoiceType aInvoice = aGen.createInvoice ();
+          m_aDocuments.add (new ReadableResourceByteArray (sName, UBL21Marshaller.invoice ().getAsBytes (aInvoice)));
+          m_aExpected.add (new MockEbi61Marshaller ().getAsBytes (new InvoiceToEbInterface61Converter (LOCALE,
+                                                                                                       LOCALE,
+                                                                                                       aSettings).convertToEbInterface (aInvoice,
+                                                                                                                                        aErrorList)));
+        }
+        else
+        {
+          final CreditNoteType aCreditNote = aGen.createCreditNote ();
+          m_aDocuments.add (new ReadableResourceByteArray (sName,
+                                                           UBL21Marshaller.creditNote ().getAsBytes (aCreditNote)));
+          m_aExpected.add (new MockEbi61Marshaller ().getAsBytes (new CreditNoteToEbInterface61Converter (LOCALE,
+                                                                                                          LOCALE,
+                                                                                                          aSettings).convertToEbInterface (aCreditNote,
+                                                                                                                                           aErrorList)));
+        }
+        assertNotNull (m_aExpected.get (i));
+      }
+    }
+
+    void check (final EbInterfaceBatchResult aResult)
+    {
+      final int nIndex = aResult.getIndex ();
+      assertEquals (m_aDocuments.get (nIndex), aResult.getSource ());
+      if (nIndex == INDEX_NO_UBL || nIndex == INDEX_NO_XML)
+      {
+        assertFalse (aResult.isSuccess ());
+        assertNull (aResult.getDirection ());
+        assertNull (aResult.getTargetBytes ());
+        assertTrue (aResult.getErrorList ().containsAtLeastOneError ());
+      }
+      else
+      {
+        assertTrue (aResult.getErrorList ().toString (), aResult.isSuccess ());
+        assertEquals ((nIndex % 2) == 0 ? EConversionDirection.INVOICE_TO_EBINTERFACE
+                                        : EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                      aResult.getDirection ());
+        assertArrayEquals (m_aExpected.get (nIndex), aResult.getTargetBytes ());
+      }
+    }
+  }
+
+  private static void _checkSummary (final EbInterfaceBatchSummary aSummary)
+  {
+    assertEquals (DOCUMENT_COUNT, aSummary.getDocumentCount ());
+    assertEquals (DOCUMENT_COUNT - 2, aSummary.getSuccessCount ());
+    assertEquals (2, aSummary.getFailureCount ());
+    assertTrue (aSummary.getErrorCount (EErrorLevel.ERROR) + aSummary.getErrorCount (EErrorLevel.FATAL_ERROR) >= 2);
+    assertTrue (aSummary.getDocumentsPerSecond () > 0);
+  }
+
+  @Test
+  public void testOrdered () throws Exception
+  {
+    final TestData aData = new TestData ();
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      final ICommonsList <EbInterfaceBatchResult> aResults = new CommonsArrayList <> ();
+      final EbInterfaceBatchSummary aSummary = new EbInterfaceBatchConverter (EEbInterfaceVersion.V61,
+                                                                              LOCALE,
+                                                                              LOCALE,
+                                                                              new ToEbinterfaceSettings ()).setExecutor (aES)
+                                                                                                          .setMaxDocumentsInFlight (3)
+                                                                                                          .setOrdered (true)
+                                                                                                          .convert (aData.m_aDocuments,
+                                                                                                                    aResults::add);
+      assertEquals (DOCUMENT_COUNT, aResults.size ());
+      for (int i = 0; i < DOCUMENT_COUNT; ++i)
+      {
+        assertEquals (i, aResults.get (i).getIndex ());
+        aData.check (aResults.get (i));
+      }
+      _checkSummary (aSummary);
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testUnorderedDefaultExecutor () throws Exception
+  {
+    final TestData aData = new TestData ();
+    final CommonsTreeSet <Integer> aIndices = new CommonsTreeSet <> ();
+    final EbInterfaceBatchSummary aSummary = new EbInterfaceBatchConverter (EEbInterfaceVersion.V61,
+                                                                            LOCALE,
+                                                                            LOCALE,
+                                                                            new ToEbinterfaceSettings ()).setOrdered (false)
+                                                                                                        .convert (aData.m_aDocuments.stream (),
+                                                                                                                  aResult -> {
+                                                                                                                    aData.check (aResult);
+                                                                                                                    assertTrue (aIndices.add (Integer.valueOf (aResult.getIndex ())));
+                                                                                                                  });
+    assertEquals (DOCUMENT_COUNT, aIndices.size ());
+    assertEquals (0, aIndices.first ().intValue ());
+    assertEquals (DOCUMENT_COUNT - 1, aIndices.last ().intValue ());
+    _checkSummary (aSummary);
+  }
+
+  @Test
+  public void testOrderedBufferIsBounded () throws Exception
+  {
+    final TestData aData = new TestData ();
+    final int nMaxInFlight = 3;
+    final AtomicInteger aSubmitted = new AtomicInteger ();
+    final AtomicInteger aSubmittedWhileHeadBlocked = new AtomicInteger ();
+    final CountDownLatch aHeadLatch = new CountDownLatch (1);
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      // The first document is blocked until the other threads had the chance
+      // to convert everything else
+      final Executor aExecutor = r -> {
+        if (aSubmitted.getAndIncrement () == 0)
+          aES.execute ( () -> {
+            try
+            {
+              aHeadLatch.await ();
+            }
+            catch (final InterruptedException ex)
+            {
+              Thread.currentThread ().interrupt ();
+            }
+            r.run ();
+          });
+        else
+          aES.execute (r);
+      };
+      final Thread aReleaser = new Thread ( () -> {
+        try
+        {
+          Thread.sleep (500);
+        }
+        catch (final InterruptedException ex)
+        {
+          Thread.currentThread ().interrupt ();
+        }
+        aSubmittedWhileHeadBlocked.set (aSubmitted.get ());
+        aHeadLatch.countDown ();
+      });
+      aReleaser.start ();
+
+      final ICommonsList <EbInterfaceBatchResult> aResults = new CommonsArrayList <> ();
+      new EbInterfaceBatchConverter (EEbInterfaceVersion.V61,
+                                     LOCALE,
+                                     LOCALE,
+                                     new ToEbinterfaceSettings ()).setExecutor (aExecutor)
+                                                                 .setMaxDocumentsInFlight (nMaxInFlight)
+                                                                 .setOrdered (true)
+                                                                 .convert (aData.m_aDocuments, aResults::add);
+      aReleaser.join ();
+      assertEquals (DOCUMENT_COUNT, aResults.size ());
+      assertTrue (aSubmittedWhileHeadBlocked.get () + " submitted", aSubmittedWhileHeadBlocked.get () <= nMaxInFlight);
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testFromEbInterface () throws Exception
+  {
+    final EbInterface61Marshaller aEbiMarshaller = new EbInterface61Marshaller ();
+    final ICommonsList <IReadableResource> aDocuments = new CommonsArrayList <> ();
+    for (int i = 0; i < 5; ++i)
+      aDocuments.add (new ReadableResourceByteArray ("doc" + i + ".xml",
+                                                     aEbiMarshaller.getAsBytes (new SyntheticDocumentGenerator ().setSeed (i)
+                                                                                                                 .setLineCount (10 + i)
+                                                                                                                 .createEbInterface61 ())));
+    aDocuments.add (new ReadableResourceByteArray ("broken.xml", "<Foo/>".getBytes (StandardCharsets.UTF_8)));
+
+    final ICommonsList <EbInterfaceBatchResult> aResults = new CommonsArrayList <> ();
+    final EbInterfaceBatchSummary aSummary = new EbInterfaceBatchConverter (EEbInterfaceVersion.V61,
+                                                                            LOCALE,
+                                                                            LOCALE,
+                                                                            new ToEbinterfaceSettings ()).setFromEbInterface (true)
+                                                                                                        .convert (aDocuments,
+                                                                                                                  aResults::add);
+    assertEquals (6, aSummary.getDocumentCount ());
+    assertEquals (5, aSummary.getSuccessCount ());
+    for (int i = 0; i < 5; ++i)
+    {
+      final EbInterfaceBatchResult aResult = aResults.get (i);
+      assertTrue (aResult.getErrorList ().toString (), aResult.isSuccess ());
+      assertEquals (EConversionDirection.EBINTERFACE_TO_INVOICE, aResult.getDirection ());
+      assertTrue (aResult.getSourceBytes () > 0);
+      assertNotNull (UBL21Marshaller.invoice ().read (aResult.getTargetBytes ()));
+    }
+    assertFalse (aResults.get (5).isSuccess ());
+    assertNull (aResults.get (5).getTargetBytes ());
+  }
+
+  @Test
+  public void testDirectionFromRootElement () throws Exception
+  {
+    final TestData aData = new TestData ();
+    assertEquals (EConversionDirection.INVOICE_TO_EBINTERFACE,
+                  EbInterfaceBatchConverter.getDirectionFromRootElement (aData.m_aDocuments.get (0)));
+    assertEquals (EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE,
+                  EbInterfaceBatchConverter.getDirectionFromRootElement (aData.m_aDocuments.get (1)));
+    assertNull (EbInterfaceBatchConverter.getDirectionFromRootElement (aData.m_aDocuments.get (INDEX_NO_UBL)));
+    assertNull (EbInterfaceBatchConverter.getDirectionFromRootElement (aData.m_aDocuments.get (INDEX_NO_XML)));
+
+    assertEquals (EConversionDirection.INVOICE_TO_EBINTERFACE,
+                  EbInterfaceBatchConverter.getDirectionFromRootElement (aData.m_aDocuments.get (0).getInputStream ().readAllBytes ()));
+    assertNull (EbInterfaceBatchConverter.getDirectionFromRootElement ("<Foo/>".getBytes (StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.io.file.FileOperations;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+
+/**
+ * Test class for class {@link EbInterfaceUBLCLI}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterfaceUBLCLITest
+{
+  private static final String TARGET_FOLDER = "generated/cli/";
+
+  private static int _run (final NonBlockingByteArrayOutputStream aOut,
+                           final NonBlockingByteArrayOutputStream aErr,
+                           final String... aArgs)
+  {
+    try (final PrintStream aOutPS = new PrintStream (aOut, true, StandardCharsets.UTF_8);
+         final PrintStream aErrPS = new PrintStream (aErr, true, StandardCharsets.UTF_8))
+    {
+      return EbInterfaceUBLCLI.run (aArgs, aOutPS, aErrPS);
+    }
+  }
+
+  @Test
+  public void testParseOptions ()
+  {
+    assertNull (EbInterfaceUBLCLI.parseOptions (new String [] { "-h" }));
+
+    final EbInterfaceUBLCLI.Options aOptions = EbInterfaceUBLCLI.parseOptions (new String [] { "-o",
+                                                                                              "out",
+                                                                                              "-d",
+                                                                                              "to-ubl",
+                                                                                              "-v",
+                                                                                              "5.0",
+                                                                                              "-w",
+                                                                                              "3",
+                                                                                              "-s",
+                                                                                              "erechnung",
+                                                                                              "a.xml",
+                                                                                              "dir" });
+    assertNotNull (aOptions);
+    assertTrue (aOptions.m_bToUBL);
+    assertEquals (EEbInterfaceVersion.V50, aOptions.m_eVersion);
+    assertEquals (3, aOptions.m_nWorkers);
+    assertTrue (aOptions.m_bERechnungSettings);
+    assertEquals (2, aOptions.m_aInputs.size ());
+  }
+
+  @Test
+  public void testUsageErrors ()
+  {
+    final NonBlockingByteArrayOutputStream aOut = new NonBlockingByteArrayOutputStream ();
+    final NonBlockingByteArrayOutputStream aErr = new NonBlockingByteArrayOutputStream ();
+    // No output directory
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "a.xml"));
+    // No input
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "-o", "out"));
+    // Invalid values
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "-o", "out", "-w", "0", "a.xml"));
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "-o", "out", "-v", "3.0", "a.xml"));
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "-o", "out", "--foo", "a.xml"));
+    // Missing value
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "a.xml", "-o"));
+    assertFalse (aErr.isEmpty ());
+  }
+
+  @Test
+  public void testConvertDirectory () throws Exception
+  {
+    final File aBaseDir = new File (TARGET_FOLDER);
+    FileOperations.deleteDirRecursiveIfExisting (aBaseDir);
+    final Path aInDir = aBaseDir.toPath ().resolve ("in");
+    final Path aOutDir = aBaseDir.toPath ().resolve ("out");
+    Files.createDirectories (aInDir.resolve ("sub"));
+
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (20);
+    Files.write (aInDir.resolve ("invoice.xml"), UBL21Marshaller.invoice ().getAsBytes (aGen.createInvoice ()));
+    Files.write (aInDir.resolve ("sub/creditnote.xml"),
+                 UBL21Marshaller.creditNote ().getAsBytes (aGen.createCreditNote ()));
+    // Ignored, because it is no XML file
+    Files.writeString (aInDir.resolve ("readme.txt"), "ignore me");
+
+    final NonBlockingByteArrayOutputStream aOut = new NonBlockingByteArrayOutputStream ();
+    final NonBlockingByteArrayOutputStream aErr = new NonBlockingByteArrayOutputStream ();
+    assertEquals (aErr.getAsString (StandardCharsets.UTF_8),
+                  EbInterfaceUBLCLI.EXIT_OK,
+                  _run (aOut, aErr, "-o", aOutDir.toString (), "-w", "2", aInDir.toString ()));
+    assertTrue (Files.isRegularFile (aOutDir.resolve ("invoice.xml")));
+    assertTrue (Files.isRegularFile (aOutDir.resolve ("sub/creditnote.xml")));
+    assertFalse (Files.exists (aOutDir.resolve ("readme.txt")));
+    assertTrue (aOut.getAsString (StandardCharsets.UTF_8).contains ("2 converted"));
+
+    // Add a broken file
+    Files.writeString (aInDir.resolve ("broken.xml"), "<Foo/>");
+    aOut.reset ();
+    assertEquals (EbInterfaceUBLCLI.EXIT_FAILURES, _run (aOut, aErr, "-o", aOutDir.toString (), aInDir.toString ()));
+    assertFalse (Files.exists (aOutDir.resolve ("broken.xml")));
+    assertTrue (Files.isRegularFile (aOutDir.resolve ("broken.xml" + EbInterfaceUBLCLI.REPORT_FILE_SUFFIX)));
+    assertTrue (aOut.getAsString (StandardCharsets.UTF_8).contains ("1 failed"));
+
+    // The report cannot be written
+    FileOperations.deleteDirRecursiveIfExisting (aOutDir.toFile ());
+    Files.createDirectories (aOutDir.resolve ("broken.xml" + EbInterfaceUBLCLI.REPORT_FILE_SUFFIX));
+    assertEquals (EbInterfaceUBLCLI.EXIT_IO, _run (aOut, aErr, "-o", aOutDir.toString (), aInDir.toString ()));
+    // The other files are converted nevertheless
+    assertTrue (Files.isRegularFile (aOutDir.resolve ("invoice.xml")));
+
+    // The output directory cannot be created
+    final Path aOutFile = aBaseDir.toPath ().resolve ("out.txt");
+    Files.writeString (aOutFile, "no directory");
+    assertEquals (EbInterfaceUBLCLI.EXIT_IO, _run (aOut, aErr, "-o", aOutFile.toString (), aInDir.toString ()));
+  }
+
+  @Test
+  public void testInvalidOutputs () throws Exception
+  {
+    final File aBaseDir = new File (TARGET_FOLDER + "invalid");
+    FileOperations.deleteDirRecursiveIfExisting (aBaseDir);
+    final Path aInDir = aBaseDir.toPath ().resolve ("in");
+    Files.createDirectories (aInDir.resolve ("a"));
+    Files.createDirectories (aInDir.resolve ("b"));
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (5);
+    final byte [] aInvoice = UBL21Marshaller.invoice ().getAsBytes (aGen.createInvoice ());
+    Files.write (aInDir.resolve ("a/invoice.xml"), aInvoice);
+    Files.write (aInDir.resolve ("b/Invoice.xml"), aInvoice);
+
+    final NonBlockingByteArrayOutputStream aOut = new NonBlockingByteArrayOutputStream ();
+    final NonBlockingByteArrayOutputStream aErr = new NonBlockingByteArrayOutputStream ();
+    // Output is an input directory or inside one
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE, _run (aOut, aErr, "-o", aInDir.toString (), aInDir.toString ()));
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE,
+                  _run (aOut, aErr, "-o", aInDir.resolve ("a/../out").toString (), aInDir.toString ()));
+    // Input is overwritten
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE,
+                  _run (aOut, aErr, "-o", aInDir.resolve ("a").toString (), aInDir.resolve ("a/invoice.xml").toString ()));
+    // Both files would be written to invoice.xml
+    final Path aOutDir = aBaseDir.toPath ().resolve ("out");
+    assertEquals (EbInterfaceUBLCLI.EXIT_USAGE,
+                  _run (aOut,
+                        aErr,
+                        "-o",
+                        aOutDir.toString (),
+                        aInDir.resolve ("a/invoice.xml").toString (),
+                        aInDir.resolve ("b/Invoice.xml").toString ()));
+    assertFalse (Files.exists (aOutDir));
+    assertTrue (aErr.getAsString (StandardCharsets.UTF_8).contains ("would both be written to"));
+
+    // The same file twice is fine
+    assertEquals (EbInterfaceUBLCLI.EXIT_OK,
+                  _run (aOut,
+                        aErr,
+                        "-o",
+                        aOutDir.toString (),
+                        aInDir.resolve ("a/invoice.xml").toString (),
+                        aInDir.resolve ("b/../a/invoice.xml").toString ()));
+    assertTrue (Files.isRegularFile (aOutDir.resolve ("invoice.xml")));
+  }
+
+  @Test
+  public void testToUBL () throws Exception
+  {
+    final File aBaseDir = new File (TARGET_FOLDER + "to-ubl");
+    FileOperations.deleteDirRecursiveIfExisting (aBaseDir);
+    final Path aInDir = aBaseDir.toPath ().resolve ("in");
+    final Path aOutDir = aBaseDir.toPath ().resolve ("out");
+    Files.createDirectories (aInDir);
+    Files.write (aInDir.resolve ("ebi.xml"),
+                 new EbInterface61Marshaller ().getAsBytes (new SyntheticDocumentGenerator ().setLineCount (5)
+                                                                                            .createEbInterface61 ()));
+
+    final NonBlockingByteArrayOutputStream aOut = new NonBlockingByteArrayOutputStream ();
+    final NonBlockingByteArrayOutputStream aErr = new NonBlockingByteArrayOutputStream ();
+    assertEquals (aErr.getAsString (StandardCharsets.UTF_8),
+                  EbInterfaceUBLCLI.EXIT_OK,
+                  _run (aOut, aErr, "-o", aOutDir.toString (), "-d", "to-ubl", aInDir.toString ()));
+    assertNotNull (UBL21Marshaller.invoice ().read (Files.readAllBytes (aOutDir.resolve ("ebi.xml"))));
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.from.helper.DocumentHeader;
+import at.austriapro.ebinterface.ubl.from.helper.LineData;
+import at.austriapro.ebinterface.ubl.from.helper.PartyData;
+import at.austriapro.ebinterface.ubl.from.helper.SchemedID;
+import at.austriapro.ebinterface.ubl.from.helper.TaxCategoryKey;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTable;
+import at.austriapro.ebinterface.ubl.from.helper.TaxTableEntry;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AddressType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ContactType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.InvoiceLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemPropertyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderLineReferenceType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyLegalEntityType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PersonType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSubtotalType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxTotalType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.CopyIndicatorType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.DescriptionType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.NoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for the version independent parts of
+ * {@link AbstractToEbInterfaceConverter}.
+ *
+ * @author Philip Helger
+ */
+public final class AbstractToEbInterfaceConverterTest
+{
+  @NonNull
+  private static TaxSubtotalType _subtotal (final String sSchemeID,
+                                            final String sCategoryID,
+                                            final BigDecimal aPercent,
+                                            final BigDecimal aTaxableAmount,
+                                            final BigDecimal aTaxAmount)
+  {
+    final TaxSchemeType aScheme = new TaxSchemeType ();
+    aScheme.setID (sSchemeID);
+    final TaxCategoryType aCategory = new TaxCategoryType ();
+    aCategory.setID (sCategoryID);
+    if (aPercent != null)
+      aCategory.setPercent (aPercent);
+    aCategory.setTaxScheme (aScheme);
+
+    final TaxSubtotalType ret = new TaxSubtotalType ();
+    if (aTaxableAmount != null)
+      ret.setTaxableAmount (aTaxableAmount).setCurrencyID ("EUR");
+    if (aTaxAmount != null)
+      ret.setTaxAmount (aTaxAmount).setCurrencyID ("EUR");
+    ret.setTaxCategory (aCategory);
+    return ret;
+  }
+
+  @Test
+  public void testCreateDocumentHeader ()
+  {
+    final InvoiceType aUBLDoc = new InvoiceType ();
+    aUBLDoc.setID (" 4711 ");
+    aUBLDoc.setDocumentCurrencyCode (" EUR ");
+    aUBLDoc.setCopyIndicator (new CopyIndicatorType (true));
+    aUBLDoc.addNote (new NoteType ("First"));
+    aUBLDoc.addNote (new NoteType (""));
+    aUBLDoc.addNote (new NoteType ("Second"));
+
+    final ErrorList aErrorList = new ErrorList ();
+    final DocumentHeader aHeader = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                        Locale.GERMANY,
+                                                                        new ToEbinterfaceSettings ()).createDocumentHeader (aUBLDoc,
+                                                                                                                            aErrorList);
+    // The issue date is missing
+    assertEquals (1, aErrorList.size ());
+    assertEquals (AbstractToEbInterfaceConverter.EText.MISSING_INVOICE_DATE.name (),
+                  aErrorList.iterator ().next ().getErrorID ());
+
+    assertEquals ("4711", aHeader.getDocumentNumber ());
+    assertNull (aHeader.getIssueDate ());
+    assertEquals ("EUR", aHeader.getCurrencyCode ());
+    assertEquals (Boolean.TRUE, aHeader.getCopyIndicator ());
+    assertTrue (aHeader.hasComment ());
+    assertEquals ("First\nSecond", aHeader.getComment ());
+  }
+
+  @Test
+  public void testCreateTaxTable ()
+  {
+    final TaxTotalType aTaxTotal = new TaxTotalType ();
+    // Explicit percentage
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "S", new BigDecimal ("20"), new BigDecimal ("100"), new BigDecimal ("20")));
+    // Percentage calculated from the amounts
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "AA", null, new BigDecimal ("200"), new BigDecimal ("20")));
+    // Tax amount calculated from taxable amount and percentage
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "E", null, new BigDecimal ("50"), null));
+    // VAT without percentage and without amounts
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "Z", null, null, null));
+    // Other tax
+    aTaxTotal.addTaxSubtotal (_subtotal ("ABC", "X", null, null, new BigDecimal ("5")));
+
+    final ErrorList aErrorList = new ErrorList ();
+    final TaxTable aTaxTable = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    new ToEbinterfaceSettings ()).createTaxTable (new CommonsArrayList <> (aTaxTotal),
+                                                                                                                  aErrorList);
+    // Only the "Z" category has an error
+    assertEquals (1, aErrorList.size ());
+    assertEquals (AbstractToEbInterfaceConverter.EText.TAX_PERCENT_MISSING.name (),
+                  aErrorList.iterator ().next ().getErrorID ());
+
+    final ICommonsList <TaxTableEntry> aEntries = aTaxTable.getAllEntries ();
+    assertEquals (4, aEntries.size ());
+
+    TaxTableEntry aEntry = aEntries.get (0);
+    assertTrue (aEntry.isVAT ());
+    assertFalse (aEntry.isTaxExemption ());
+    assertEquals ("VAT", aEntry.getTaxSchemeID ());
+    assertEquals ("S", aEntry.getTaxCategoryID ());
+    assertEquals (0, new BigDecimal ("20").compareTo (aEntry.getPercentage ()));
+
+    aEntry = aEntries.get (1);
+    assertEquals (0, new BigDecimal ("10").compareTo (aEntry.getPercentage ()));
+
+    aEntry = aEntries.get (2);
+    assertTrue (aEntry.isTaxExemption ());
+    assertNull (aEntry.getTaxExemptionReason ());
+    assertEquals (0, BigDecimal.ZERO.compareTo (aEntry.getPercentage ()));
+    assertEquals (0, BigDecimal.ZERO.compareTo (aEntry.getTaxAmount ()));
+
+    aEntry = aEntries.get (3);
+    assertFalse (aEntry.isVAT ());
+    assertEquals ("ABC", aEntry.getTaxSchemeID ());
+    assertNull (aEntry.getPercentage ());
+
+    // The erroneous category is still known, but without percentage
+    final TaxCategoryKey aKeyZ = new TaxCategoryKey (new SchemedID (null, "VAT"), new SchemedID (null, "Z"));
+    assertTrue (aTaxTable.containsTaxCategory (aKeyZ));
+    assertNull (aTaxTable.getPercentage (aKeyZ));
+    assertEquals (0,
+                  new BigDecimal ("20").compareTo (aTaxTable.getPercentage (new TaxCategoryKey (new SchemedID (null,
+                                                                                                              "VAT"),
+                                                                                               new SchemedID (null,
+                                                                                                              "S")))));
+    assertEquals (5, aTaxTable.getAllPercentages ().size ());
+  }
+
+  @Test
+  public void testCreateTaxTableMissingTaxScheme ()
+  {
+    final TaxTotalType aTaxTotal = new TaxTotalType ();
+    aTaxTotal.addTaxSubtotal (_subtotal ("", "S", new BigDecimal ("20"), new BigDecimal ("100"), new BigDecimal ("20")));
+    // Not evaluated after the error
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "S", new BigDecimal ("20"), new BigDecimal ("100"), new BigDecimal ("20")));
+
+    final ErrorList aErrorList = new ErrorList ();
+    final TaxTable aTaxTable = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    new ToEbinterfaceSettings ()).createTaxTable (new CommonsArrayList <> (aTaxTotal),
+                                                                                                                  aErrorList);
+    assertEquals (1, aErrorList.size ());
+    assertEquals (AbstractToEbInterfaceConverter.EText.MISSING_TAXCATEGORY_TAXSCHEME_ID_VALUE.name (),
+                  aErrorList.iterator ().next ().getErrorID ());
+    assertTrue (aTaxTable.getAllEntries ().isEmpty ());
+  }
+
+  @Test
+  public void testCreatePartyData ()
+  {
+    final PartyType aUBLParty = new PartyType ();
+    // No party name -> legal entity name is used
+    final PartyLegalEntityType aUBLLegalEntity = new PartyLegalEntityType ();
+    aUBLLegalEntity.setRegistrationName (" ACME Corp ");
+    aUBLParty.addPartyLegalEntity (aUBLLegalEntity);
+    final AddressType aUBLAddress = new AddressType ();
+    aUBLAddress.setStreetName ("Mainstreet");
+    aUBLAddress.setBuildingNumber ("1");
+    aUBLAddress.setCityName ("Vienna");
+    aUBLParty.setPostalAddress (aUBLAddress);
+    final ContactType aUBLContact = new ContactType ();
+    aUBLContact.setName ("Sales");
+    aUBLContact.setElectronicMail (" sales@example.org ");
+    aUBLParty.setContact (aUBLContact);
+    final PersonType aUBLPerson = new PersonType ();
+    aUBLPerson.setFirstName ("Max");
+    aUBLPerson.setFamilyName ("Mustermann");
+    aUBLParty.addPerson (aUBLPerson);
+    final TaxSchemeType aUBLTaxScheme = new TaxSchemeType ();
+    aUBLTaxScheme.setID ("VAT");
+    final PartyTaxSchemeType aUBLPartyTaxScheme = new PartyTaxSchemeType ();
+    aUBLPartyTaxScheme.setCompanyID ("ATU12345678");
+    aUBLPartyTaxScheme.setTaxScheme (aUBLTaxScheme);
+    aUBLParty.addPartyTaxScheme (aUBLPartyTaxScheme);
+
+    final PartyData aParty = AbstractToEbInterfaceConverter.createPartyData (aUBLParty);
+    assertNotNull (aParty);
+    assertFalse (aParty.hasMultiplePartyNames ());
+    assertEquals ("ACME Corp", aParty.getName ());
+    assertEquals ("Mainstreet 1", aParty.getPostalAddress ().getStreet ());
+    assertEquals ("Vienna", aParty.getPostalAddress ().getTown ());
+    assertFalse (aParty.getPostalAddress ().hasCountry ());
+    assertTrue (aParty.hasContactData ());
+    assertNull (aParty.getPhone ());
+    assertEquals ("sales@example.org", aParty.getEmail ());
+    assertEquals ("Sales\nMax Mustermann", aParty.getContactName ());
+    assertFalse (aParty.hasPartyIdentification ());
+    assertEquals ("ATU12345678", aParty.getVATIdentificationNumber ());
+
+    assertNull (AbstractToEbInterfaceConverter.createPartyData (null));
+  }
+
+  @Test
+  public void testCreateLineData ()
+  {
+    final TaxTotalType aTaxTotal = new TaxTotalType ();
+    aTaxTotal.addTaxSubtotal (_subtotal ("VAT", "S", null, new BigDecimal ("100"), new BigDecimal ("20")));
+    final TaxTable aTaxTable = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    new ToEbinterfaceSettings ()).createTaxTable (new CommonsArrayList <> (aTaxTotal),
+                                                                                                                  new ErrorList ());
+
+    final TaxSchemeType aUBLTaxScheme = new TaxSchemeType ();
+    aUBLTaxScheme.setID ("VAT");
+    final TaxCategoryType aUBLTaxCategory = new TaxCategoryType ();
+    aUBLTaxCategory.setID ("S");
+    aUBLTaxCategory.setTaxScheme (aUBLTaxScheme);
+    final ItemPropertyType aUBLItemProperty = new ItemPropertyType ();
+    aUBLItemProperty.setName ("Colour");
+    aUBLItemProperty.setValue ("Blue");
+    final ItemType aUBLItem = new ItemType ();
+    aUBLItem.setName (" Item ");
+    aUBLItem.addDescription (new DescriptionType ("Description"));
+    aUBLItem.addClassifiedTaxCategory (aUBLTaxCategory);
+    aUBLItem.addAdditionalItemProperty (aUBLItemProperty);
+    final OrderLineReferenceType aUBLOrderLineReference = new OrderLineReferenceType ();
+    aUBLOrderLineReference.setLineID (" 3 ");
+
+    final InvoiceLineType aUBLLine = new InvoiceLineType ();
+    aUBLLine.setID (" 7 ");
+    aUBLLine.setItem (aUBLItem);
+    aUBLLine.addNote (new NoteType ("Note"));
+    aUBLLine.setInvoicedQuantity (new BigDecimal ("2")).setUnitCode ("C62");
+    aUBLLine.setLineExtensionAmount (new BigDecimal ("100")).setCurrencyID ("EUR");
+    aUBLLine.addOrderLineReference (aUBLOrderLineReference);
+
+    final LineData aLine = AbstractToEbInterfaceConverter.createLineData (aUBLLine, aTaxTable);
+    assertEquals ("7", aLine.getID ());
+    assertEquals (BigInteger.valueOf (7), aLine.getPositionNumber ());
+    assertEquals (new CommonsArrayList <> ("Item", "Description", "Note"), aLine.getAllDescriptions ());
+    assertEquals ("C62", aLine.getQuantityUnit ());
+    assertEquals (0, new BigDecimal ("2").compareTo (aLine.getQuantity ()));
+    assertFalse (aLine.hasPrice ());
+    assertEquals ("S", aLine.getTaxCategoryID ());
+    // Percentage resolved from the tax table
+    assertEquals (0, new BigDecimal ("20").compareTo (aLine.getTaxPercent ()));
+    assertFalse (aLine.isTaxExemption ());
+    assertTrue (aLine.hasOrderLineReference ());
+    assertNull (aLine.getOrderLineReferenceOrderID ());
+    assertEquals ("3", aLine.getOrderLineReferenceLineID ());
+    assertFalse (aLine.hasAllowanceCharges ());
+    assertNull (aLine.getDelivery ());
+    assertEquals (1, aLine.getAllAdditionalProperties ().size ());
+    assertEquals ("Colour", aLine.getAllAdditionalProperties ().get (0).getKey ());
+    assertEquals ("Blue", aLine.getAllAdditionalProperties ().get (0).getValue ());
+  }
+}
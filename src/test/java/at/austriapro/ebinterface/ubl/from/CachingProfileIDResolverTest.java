@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.helger.peppolid.IProcessIdentifier;
+
+/**
+ * Test class for class {@link CachingProfileIDResolver}.
+ *
+ * @author Philip Helger
+ */
+public final class CachingProfileIDResolverTest
+{
+  private static final String PROFILE_ID = "urn:fdc:peppol.eu:2017:poacc:billing:01:1.0";
+
+  @Test
+  public void testCaching ()
+  {
+    final AtomicInteger aCalls = new AtomicInteger ();
+    final IProfileIDResolver aDelegate = sProfileID -> {
+      aCalls.incrementAndGet ();
+      return IProfileIDResolver.getDefault ().apply (sProfileID);
+    };
+    final CachingProfileIDResolver aResolver = aDelegate.withCache (10);
+    assertSame (aDelegate, aResolver.getDelegate ());
+    assertEquals (10, aResolver.getMaxSize ());
+
+    final IProcessIdentifier aProcID = aResolver.apply (PROFILE_ID);
+    assertSame (aProcID, aResolver.apply (PROFILE_ID));
+    assertSame (aProcID, aResolver.apply (PROFILE_ID));
+    assertEquals (1, aCalls.get ());
+    assertEquals (2, aResolver.getHitCount ());
+    assertEquals (1, aResolver.getMissCount ());
+
+    // Same result as the default resolver
+    assertEquals (IProfileIDResolver.getDefault ().apply (PROFILE_ID), aProcID);
+
+    // Unresolvable profile IDs are cached as well
+    final IProfileIDResolver aNullDelegate = sProfileID -> {
+      aCalls.incrementAndGet ();
+      return null;
+    };
+    final CachingProfileIDResolver aNullResolver = new CachingProfileIDResolver (aNullDelegate);
+    aCalls.set (0);
+    assertNull (aNullResolver.apply ("bla"));
+    assertNull (aNullResolver.apply ("bla"));
+    assertEquals (1, aCalls.get ());
+    assertEquals (1, aNullResolver.getCachedCount ());
+    assertEquals (1, aNullResolver.getCachedNegativeCount ());
+
+    // null is never cached
+    assertNull (aNullResolver.apply (null));
+    assertNull (aNullResolver.apply (null));
+    assertEquals (3, aCalls.get ());
+    assertEquals (1, aNullResolver.getCachedCount ());
+
+    aNullResolver.clearCache ();
+    assertEquals (0, aNullResolver.getCachedCount ());
+  }
+
+  @Test
+  public void testEviction ()
+  {
+    final AtomicInteger aCalls = new AtomicInteger ();
+    final CachingProfileIDResolver aResolver = new CachingProfileIDResolver (sProfileID -> {
+      aCalls.incrementAndGet ();
+      return null;
+    }, 3);
+    aResolver.apply ("a");
+    aResolver.apply ("b");
+    aResolver.apply ("c");
+    // "a" is now more recently used than "b"
+    aResolver.apply ("a");
+    aResolver.apply ("d");
+    assertEquals (3, aResolver.getCachedCount ());
+    assertEquals (4, aCalls.get ());
+
+    // "a", "c" and "d" are still cached
+    aResolver.apply ("a");
+    aResolver.apply ("c");
+    aResolver.apply ("d");
+    assertEquals (4, aCalls.get ());
+
+    // "b" was evicted
+    aResolver.apply ("b");
+    assertEquals (5, aCalls.get ());
+    assertEquals (3, aResolver.getCachedCount ());
+  }
+
+  @Test
+  public void testNegativeCacheDoesNotEvictResolved ()
+  {
+    final AtomicInteger aCalls = new AtomicInteger ();
+    final CachingProfileIDResolver aResolver = new CachingProfileIDResolver (sProfileID -> {
+      aCalls.incrementAndGet ();
+      return PROFILE_ID.equals (sProfileID) ? IProfileIDResolver.getDefault ().apply (sProfileID) : null;
+    }, 3, 2);
+    assertEquals (3, aResolver.getMaxSize ());
+    assertEquals (2, aResolver.getMaxNegativeSize ());
+
+    final IProcessIdentifier aProcID = aResolver.apply (PROFILE_ID);
+    // A flood of invalid profile IDs
+    for (int i = 0; i < 10; ++i)
+      assertNull (aResolver.apply ("invalid" + i));
+    assertEquals (11, aCalls.get ());
+    assertEquals (2, aResolver.getCachedNegativeCount ());
+    assertEquals (3, aResolver.getCachedCount ());
+
+    // The resolved profile ID is still cached
+    assertSame (aProcID, aResolver.apply (PROFILE_ID));
+    assertEquals (11, aCalls.get ());
+
+    // The default negative size is bounded by the maximum size
+    assertEquals (CachingProfileIDResolver.DEFAULT_MAX_NEGATIVE_SIZE,
+                  new CachingProfileIDResolver (aResolver).getMaxNegativeSize ());
+    assertEquals (3, new CachingProfileIDResolver (aResolver, 3).getMaxNegativeSize ());
+  }
+}
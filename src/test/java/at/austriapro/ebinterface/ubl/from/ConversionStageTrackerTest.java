@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+
+/**
+ * Test class for class {@link ConversionStageTracker}.
+ *
+ * @author Philip Helger
+ */
+public final class ConversionStageTrackerTest
+{
+  @Test
+  public void testErrorCountPerStage ()
+  {
+    final ErrorList aErrorList = new ErrorList ();
+    final ICommonsList <Integer> aErrorCounts = new CommonsArrayList <> ();
+    final ConversionStageTracker aTracker = ConversionStageTracker.create ( (eStage,
+                                                                             nDurationNanos,
+                                                                             nItemCount,
+                                                                             nErrorCount) -> aErrorCounts.add (Integer.valueOf (nErrorCount)),
+                                                                           EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                           EEbInterfaceVersion.V61,
+                                                                           ConversionStageTrackerTest.class,
+                                                                           "ID",
+                                                                           aErrorList);
+    aTracker.begin (EConversionStage.CONSISTENCY_CHECK);
+    aErrorList.add (SingleError.builderWarn ().errorText ("Warning").build ());
+    aTracker.begin (EConversionStage.DOCUMENT_HEADER);
+    aErrorList.add (SingleError.builderError ().errorText ("Error 1").build ());
+    aErrorList.add (SingleError.builderWarn ().errorText ("Warning").build ());
+    aErrorList.add (SingleError.builderError ().errorText ("Error 2").build ());
+    aTracker.begin (EConversionStage.BILLER);
+    aTracker.begin (EConversionStage.INVOICE_RECIPIENT);
+    aErrorList.add (SingleError.builderError ().errorText ("Error 3").build ());
+    aTracker.end ();
+
+    // Warnings are not counted
+    assertEquals (new CommonsArrayList <> (Integer.valueOf (0),
+                                           Integer.valueOf (2),
+                                           Integer.valueOf (0),
+                                           Integer.valueOf (1)),
+                  aErrorCounts);
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.io.file.FileOperations;
+
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link DuplicateInvoiceIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class DuplicateInvoiceIndexTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+  private static final LocalDate DATE = LocalDate.of (2026, 10, 17);
+
+  private static Path _getCleanDir (final String sName)
+  {
+    final File aDir = new File ("generated/duplicate-index/" + sName);
+    FileOperations.deleteDirRecursiveIfExisting (aDir);
+    return aDir.toPath ();
+  }
+
+  private static long _countFiles (final Path aDir) throws IOException
+  {
+    // Without the lock file
+    try (final Stream <Path> aFiles = Files.list (aDir))
+    {
+      return aFiles.filter (x -> x.getFileName ().toString ().endsWith (".dat")).count ();
+    }
+  }
+
+  @NonNull
+  private static DuplicateInvoiceKey _key (final int nIndex)
+  {
+    return new DuplicateInvoiceKey ("ATU12345678", "R-" + nIndex, DATE);
+  }
+
+  @Test
+  public void testKey ()
+  {
+    final DuplicateInvoiceKey aKey = new DuplicateInvoiceKey ("ATU 12345678", " R-1 ", DATE);
+    assertEquals ("ATU12345678", aKey.getBillerID ());
+    assertEquals ("R-1", aKey.getInvoiceNumber ());
+    assertEquals (aKey, new DuplicateInvoiceKey ("atu12345678", "R-1", DATE));
+    assertEquals (aKey.getFingerprint (), new DuplicateInvoiceKey ("atu12345678", "R-1", DATE).getFingerprint ());
+    assertNotEquals (aKey.getFingerprint (), new DuplicateInvoiceKey ("ATU12345678", "R-2", DATE).getFingerprint ());
+    assertNotEquals (aKey.getFingerprint (),
+                     new DuplicateInvoiceKey ("ATU12345678", "R-1", DATE.plusDays (1)).getFingerprint ());
+    assertNotEquals (0, aKey.getFingerprint ());
+
+    // A credit note with the same number is no duplicate
+    final DuplicateInvoiceKey aCreditNoteKey = new DuplicateInvoiceKey (DuplicateInvoiceKey.EDocumentType.CREDIT_NOTE,
+                                                                        "ATU12345678",
+                                                                        "R-1",
+                                                                        DATE);
+    assertSame (DuplicateInvoiceKey.EDocumentType.INVOICE, aKey.getDocumentType ());
+    assertNotEquals (aKey, aCreditNoteKey);
+    assertNotEquals (aKey.getFingerprint (), aCreditNoteKey.getFingerprint ());
+
+    final InvoiceType aInvoice = new SyntheticDocumentGenerator ().setLineCount (1).createInvoice ();
+    final DuplicateInvoiceKey aInvoiceKey = DuplicateInvoiceKey.of (aInvoice);
+    assertNotNull (aInvoiceKey);
+    assertSame (DuplicateInvoiceKey.EDocumentType.INVOICE, aInvoiceKey.getDocumentType ());
+    assertEquals (aInvoice.getIDValue (), aInvoiceKey.getInvoiceNumber ());
+
+    final CreditNoteType aCreditNote = new SyntheticDocumentGenerator ().setLineCount (1).createCreditNote ();
+    final DuplicateInvoiceKey aUBLCreditNoteKey = DuplicateInvoiceKey.of (aCreditNote);
+    assertNotNull (aUBLCreditNoteKey);
+    assertSame (DuplicateInvoiceKey.EDocumentType.CREDIT_NOTE, aUBLCreditNoteKey.getDocumentType ());
+  }
+
+  @Test
+  public void testAddAndReopen () throws IOException
+  {
+    final Path aDir = _getCleanDir ("reopen");
+    final DuplicateInvoiceKey aKey1 = new DuplicateInvoiceKey ("ATU12345678", "R-1", DATE);
+    final DuplicateInvoiceKey aKey2 = new DuplicateInvoiceKey ("ATU12345678", "R-2", DATE);
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir))
+    {
+      assertFalse (aIndex.contains (aKey1));
+      assertTrue (aIndex.add (aKey1));
+      assertFalse (aIndex.add (aKey1));
+      assertTrue (aIndex.contains (aKey1));
+      assertFalse (aIndex.contains (aKey2));
+      assertEquals (1, aIndex.getEntryCount ());
+      assertEquals (1, aIndex.getDuplicateCount ());
+    }
+
+    // Survives a restart
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir))
+    {
+      assertEquals (1, aIndex.getEntryCount ());
+      assertTrue (aIndex.contains (aKey1));
+      assertTrue (aIndex.add (aKey2));
+
+      final ErrorList aErrorList = new ErrorList ();
+      assertTrue (aIndex.checkAndRegister (aKey2, aErrorList, LOCALE));
+      assertFalse (aIndex.checkAndRegister (null, aErrorList, LOCALE));
+      assertEquals (1, aErrorList.size ());
+      for (final IError aError : aErrorList)
+      {
+        assertFalse (aError.isError ());
+        assertEquals (DuplicateInvoiceIndex.EText.DUPLICATE_INVOICE.name (), aError.getErrorID ());
+      }
+    }
+  }
+
+  @Test
+  public void testGrow () throws IOException
+  {
+    final Path aDir = _getCleanDir ("grow");
+    final int nCount = 5000;
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir, 16))
+    {
+      assertEquals (16, aIndex.getCapacity ());
+      for (int i = 0; i < nCount; ++i)
+        assertTrue (aIndex.add (new DuplicateInvoiceKey ("ATU12345678", "R-" + i, DATE)));
+      assertEquals (nCount, aIndex.getEntryCount ());
+      assertTrue (aIndex.getCapacity () >= 2 * nCount);
+      for (int i = 0; i < nCount; ++i)
+        assertTrue (aIndex.contains (new DuplicateInvoiceKey ("ATU12345678", "R-" + i, DATE)));
+      assertFalse (aIndex.contains (new DuplicateInvoiceKey ("ATU12345678", "R-" + nCount, DATE)));
+    }
+
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir, 16))
+    {
+      assertEquals (nCount, aIndex.getEntryCount ());
+      for (int i = 0; i < nCount; ++i)
+        assertFalse (aIndex.add (new DuplicateInvoiceKey ("ATU12345678", "R-" + i, DATE)));
+    }
+    // The smaller files are removed after growing
+    assertEquals (1, _countFiles (aDir));
+  }
+
+  @Test
+  public void testGrowIncrementally () throws IOException
+  {
+    final Path aDir = _getCleanDir ("grow-incrementally");
+    final int nCapacity = 4096;
+    final int nSteps = nCapacity / DuplicateInvoiceIndex.MIGRATION_SLOTS_PER_ADD;
+    int nCount = 0;
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir, nCapacity))
+    {
+      // The next add starts growing
+      while (nCount < nCapacity / 2)
+        assertTrue (aIndex.add (_key (nCount++)));
+      for (int i = 0; i < nSteps / 2; ++i)
+        assertTrue (aIndex.add (_key (nCount++)));
+      // Not yet complete, but everything can be found
+      assertEquals (nCapacity, aIndex.getCapacity ());
+      for (int i = 0; i < nCount; ++i)
+        assertTrue (aIndex.contains (_key (i)));
+      assertFalse (aIndex.add (_key (0)));
+    }
+
+    // E.g. a crash while growing - entries added meanwhile are not lost
+    assertEquals (2, _countFiles (aDir));
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir))
+    {
+      assertEquals (1, _countFiles (aDir));
+      assertEquals (nCapacity, aIndex.getCapacity ());
+      assertEquals (nCount, aIndex.getEntryCount ());
+      for (int i = 0; i < nCount; ++i)
+        assertTrue (aIndex.contains (_key (i)));
+
+      // Growing starts again
+      for (int i = 0; i < nSteps - 1; ++i)
+        assertTrue (aIndex.add (_key (nCount++)));
+      assertEquals (nCapacity, aIndex.getCapacity ());
+      assertTrue (aIndex.add (_key (nCount++)));
+      assertEquals (2 * nCapacity, aIndex.getCapacity ());
+      assertEquals (nCount, aIndex.getEntryCount ());
+      for (int i = 0; i < nCount; ++i)
+        assertTrue (aIndex.contains (_key (i)));
+    }
+    assertEquals (1, _countFiles (aDir));
+  }
+
+  @Test
+  public void testLocked () throws IOException
+  {
+    final Path aDir = _getCleanDir ("locked");
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir))
+    {
+      assertTrue (aIndex.add (_key (0)));
+      try (final DuplicateInvoiceIndex aIndex2 = new DuplicateInvoiceIndex (aDir))
+      {
+        fail ();
+      }
+      catch (final IOException ex)
+      {
+        // expected
+      }
+    }
+
+    // Released on close
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir))
+    {
+      assertTrue (aIndex.contains (_key (0)));
+    }
+  }
+
+  @Test
+  public void testIncompleteFileIsIgnored () throws IOException
+  {
+    final Path aDir = _getCleanDir ("incomplete");
+    final DuplicateInvoiceKey aKey = new DuplicateInvoiceKey ("ATU12345678", "R-1", DATE);
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir, 16))
+    {
+      aIndex.add (aKey);
+    }
+    // E.g. a crash while growing
+    Files.write (aDir.resolve ("duplicate-index-1024.dat"), new byte [100]);
+
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir, 16))
+    {
+      assertEquals (16, aIndex.getCapacity ());
+      assertTrue (aIndex.contains (aKey));
+    }
+    assertEquals (1, _countFiles (aDir));
+  }
+}
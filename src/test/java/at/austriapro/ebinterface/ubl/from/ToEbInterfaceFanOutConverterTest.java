@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v43.Ebi43InvoiceType;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link ToEbInterfaceFanOutConverter}.
+ *
+ * @author Philip Helger
+ */
+public final class ToEbInterfaceFanOutConverterTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+
+  @Test
+  public void testInvoiceSameAsIndependentConversions ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final ToEbInterfaceFanOutConverter aConverter = new ToEbInterfaceFanOutConverter (LOCALE,
+                                                                                      LOCALE,
+                                                                                      aSettings,
+                                                                                      EEbInterfaceVersion.V43,
+                                                                                      EEbInterfaceVersion.V61,
+                                                                                      EEbInterfaceVersion.V43);
+    assertEquals (2, aConverter.getAllVersions ().size ());
+
+    final InvoiceType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (20).createInvoice ();
+    final ToEbInterfaceFanOutResult aResult = aConverter.convertInvoice (aUBLDoc);
+    assertTrue (aResult.toString (), aResult.isSuccessForAll ());
+    assertNull (aResult.getDocument (EEbInterfaceVersion.V50));
+    assertNull (aResult.getErrorList (EEbInterfaceVersion.V50));
+
+    final ErrorList aErrorList43 = new ErrorList ();
+    final Ebi43InvoiceType aExpected43 = new InvoiceToEbInterface43Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                               aErrorList43);
+    assertEquals (aExpected43, aResult.getDocument (EEbInterfaceVersion.V43, Ebi43InvoiceType.class));
+    assertEquals (aErrorList43.size (), aResult.getErrorList (EEbInterfaceVersion.V43).size ());
+
+    final ErrorList aErrorList61 = new ErrorList ();
+    final Ebi61InvoiceType aExpected61 = new InvoiceToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                               aErrorList61);
+    assertEquals (aExpected61, aResult.getDocument (EEbInterfaceVersion.V61, Ebi61InvoiceType.class));
+    assertEquals (aErrorList61.size (), aResult.getErrorList (EEbInterfaceVersion.V61).size ());
+  }
+
+  @Test
+  public void testCreditNote ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final ToEbInterfaceFanOutConverter aConverter = new ToEbInterfaceFanOutConverter (LOCALE,
+                                                                                      LOCALE,
+                                                                                      aSettings,
+                                                                                      EEbInterfaceVersion.values ());
+    final CreditNoteType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (5).createCreditNote ();
+    final ToEbInterfaceFanOutResult aResult = aConverter.convertCreditNote (aUBLDoc);
+    assertTrue (aResult.toString (), aResult.isSuccessForAll ());
+    for (final EEbInterfaceVersion eVersion : EEbInterfaceVersion.values ())
+    {
+      assertNotNull (aResult.getDocument (eVersion));
+      assertEquals (eVersion.getInvoiceClass (), aResult.getDocument (eVersion).getClass ());
+    }
+
+    assertEquals (new CreditNoteToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                           new ErrorList ()),
+                  aResult.getDocument (EEbInterfaceVersion.V61));
+  }
+
+  @Test
+  public void testInconsistentDocument ()
+  {
+    final ToEbInterfaceFanOutConverter aConverter = new ToEbInterfaceFanOutConverter (LOCALE,
+                                                                                      LOCALE,
+                                                                                      new ToEbinterfaceSettings (),
+                                                                                      EEbInterfaceVersion.V42,
+                                                                                      EEbInterfaceVersion.V60);
+    final InvoiceType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (2).createInvoice ();
+    aUBLDoc.setInvoiceTypeCode ("bla");
+
+    final ToEbInterfaceFanOutResult aResult = aConverter.convertInvoice (aUBLDoc);
+    assertFalse (aResult.isSuccessForAll ());
+    for (final EEbInterfaceVersion eVersion : aResult.getAllVersions ())
+    {
+      assertNull (aResult.getDocument (eVersion));
+      assertTrue (aResult.getErrorList (eVersion).containsAtLeastOneError ());
+      boolean bFound = false;
+      for (final IError aError : aResult.getErrorList (eVersion))
+        if (AbstractToEbInterfaceConverter.EText.INVALID_INVOICE_TYPECODE.name ().equals (aError.getErrorID ()))
+          bFound = true;
+      assertTrue (bFound);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText;
+import at.austriapro.ebinterface.ubl.from.UBLTriage.ETriageText;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+
+/**
+ * Test class for class {@link UBLTriage}.
+ *
+ * @author Philip Helger
+ */
+public final class UBLTriageTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+
+  /**
+   * Counts the bytes read from the underlying stream
+   */
+  private static final class CountingInputStream extends FilterInputStream
+  {
+    private long m_nCount;
+
+    CountingInputStream (final InputStream aIS)
+    {
+      super (aIS);
+    }
+
+    @Override
+    public int read () throws IOException
+    {
+      final int ret = super.read ();
+      if (ret >= 0)
+        m_nCount++;
+      return ret;
+    }
+
+    @Override
+    public int read (final byte [] aBuf, final int nOfs, final int nLen) throws IOException
+    {
+      final int ret = super.read (aBuf, nOfs, nLen);
+      if (ret > 0)
+        m_nCount += ret;
+      return ret;
+    }
+  }
+
+  private static String _invoice (final String sHeader)
+  {
+    return "<Invoice xmlns='urn:oasis:names:specification:ubl:schema:xsd:Invoice-2'" +
+           " xmlns:cbc='urn:oasis:names:specification:ubl:schema:xsd:CommonBasicComponents-2'" +
+           " xmlns:cac='urn:oasis:names:specification:ubl:schema:xsd:CommonAggregateComponents-2'>" +
+           sHeader +
+           "<cac:AccountingSupplierParty/></Invoice>";
+  }
+
+  private static boolean _containsErrorID (final ErrorList aErrorList, final Enum <?> eErrorID)
+  {
+    for (final IError aError : aErrorList)
+      if (eErrorID.name ().equals (aError.getErrorID ()))
+        return true;
+    return false;
+  }
+
+  private static UBLTriageResult _triage (final String sXML)
+  {
+    return new UBLTriage (LOCALE, new ToEbinterfaceSettings ()).triage (new ByteArrayInputStream (sXML.getBytes (StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testValidInvoiceHeader ()
+  {
+    final UBLTriageResult aResult = _triage (_invoice ("<cbc:UBLVersionID>2.1</cbc:UBLVersionID>" +
+                                                       "<cbc:ProfileID>urn:fdc:peppol.eu:2017:poacc:billing:01:1.0</cbc:ProfileID>" +
+                                                       "<cbc:ID>R-4711</cbc:ID>" +
+                                                       "<cbc:IssueDate>2026-10-17</cbc:IssueDate>" +
+                                                       "<cbc:InvoiceTypeCode>380</cbc:InvoiceTypeCode>" +
+                                                       "<cbc:Note>Any <b>nested</b> text</cbc:Note>" +
+                                                       "<cbc:DocumentCurrencyCode>EUR</cbc:DocumentCurrencyCode>"));
+    assertEquals (EConversionDirection.INVOICE_TO_EBINTERFACE, aResult.getDirection ());
+    assertTrue (aResult.getErrorList ().toString (), aResult.getErrorList ().isEmpty ());
+    assertTrue (aResult.isConvertible ());
+  }
+
+  @Test
+  public void testInvalidInvoiceHeader ()
+  {
+    final UBLTriageResult aResult = _triage (_invoice ("<cbc:UBLVersionID>1.0</cbc:UBLVersionID>" +
+                                                       "<cbc:ProfileID>urn:fdc:peppol.eu:2017:poacc:billing:01:1.0</cbc:ProfileID>" +
+                                                       "<cbc:IssueDate>2026-10-17</cbc:IssueDate>" +
+                                                       "<cbc:InvoiceTypeCode>999</cbc:InvoiceTypeCode>" +
+                                                       "<cbc:DocumentCurrencyCode>eur</cbc:DocumentCurrencyCode>"));
+    assertEquals (EConversionDirection.INVOICE_TO_EBINTERFACE, aResult.getDirection ());
+    assertFalse (aResult.isConvertible ());
+
+    final ErrorList aErrorList = aResult.getErrorList ();
+    assertEquals (aErrorList.toString (), 4, aErrorList.size ());
+    assertTrue (_containsErrorID (aErrorList, EText.INVALID_UBL_VERSION_ID));
+    assertTrue (_containsErrorID (aErrorList, EText.INVALID_INVOICE_TYPECODE));
+    assertTrue (_containsErrorID (aErrorList, EText.MISSING_INVOICE_NUMBER));
+    assertTrue (_containsErrorID (aErrorList, EText.INVALID_CURRENCY_CODE));
+  }
+
+  @Test
+  public void testMissingCurrency ()
+  {
+    final UBLTriageResult aResult = _triage (_invoice ("<cbc:UBLVersionID>2.1</cbc:UBLVersionID>" +
+                                                       "<cbc:ProfileID>urn:fdc:peppol.eu:2017:poacc:billing:01:1.0</cbc:ProfileID>" +
+                                                       "<cbc:ID>R-4711</cbc:ID>" +
+                                                       "<cbc:IssueDate>2026-10-17</cbc:IssueDate>" +
+                                                       "<cbc:InvoiceTypeCode>380</cbc:InvoiceTypeCode>"));
+    assertFalse (aResult.isConvertible ());
+    assertEquals (1, aResult.getErrorList ().size ());
+    assertTrue (_containsErrorID (aResult.getErrorList (), ETriageText.MISSING_CURRENCY_CODE));
+  }
+
+  @Test
+  public void testNoUBLDocument ()
+  {
+    UBLTriageResult aResult = _triage ("<Order xmlns='urn:oasis:names:specification:ubl:schema:xsd:Order-2'/>");
+    assertNull (aResult.getDirection ());
+    assertFalse (aResult.isConvertible ());
+    assertEquals (1, aResult.getErrorList ().size ());
+    assertTrue (_containsErrorID (aResult.getErrorList (), ETriageText.UNSUPPORTED_DOCUMENT));
+
+    aResult = _triage ("<Invoice");
+    assertNull (aResult.getDirection ());
+    assertFalse (aResult.isConvertible ());
+    assertEquals (1, aResult.getErrorList ().size ());
+    assertTrue (_containsErrorID (aResult.getErrorList (), ETriageText.READ_FAILED));
+  }
+
+  @Test
+  public void testOnlyHeaderIsRead ()
+  {
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (5000);
+    final UBLTriage aTriage = new UBLTriage (LOCALE, new ToEbinterfaceSettings ());
+
+    final byte [] aInvoice = UBL21Marshaller.invoice ().getAsBytes (aGen.createInvoice ());
+    assertNotNull (aInvoice);
+    CountingInputStream aIS = new CountingInputStream (new ByteArrayInputStream (aInvoice));
+    UBLTriageResult aResult = aTriage.triage (aIS);
+    assertEquals (EConversionDirection.INVOICE_TO_EBINTERFACE, aResult.getDirection ());
+    assertTrue (aResult.getErrorList ().toString (), aResult.isConvertible ());
+    // The parser reads ahead in blocks, but by far not the whole document
+    assertTrue (aIS.m_nCount + " of " + aInvoice.length, aIS.m_nCount < aInvoice.length / 10);
+
+    final byte [] aCreditNote = UBL21Marshaller.creditNote ().getAsBytes (aGen.createCreditNote ());
+    assertNotNull (aCreditNote);
+    aIS = new CountingInputStream (new ByteArrayInputStream (aCreditNote));
+    aResult = aTriage.triage (aIS);
+    assertEquals (EConversionDirection.CREDIT_NOTE_TO_EBINTERFACE, aResult.getDirection ());
+    assertTrue (aResult.getErrorList ().toString (), aResult.isConvertible ());
+    assertTrue (aIS.m_nCount + " of " + aCreditNote.length, aIS.m_nCount < aCreditNote.length / 10);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.diagnostics.error.level.EErrorLevel;
+
+import at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText;
+
+/**
+ * Test class for class {@link ErrorFieldPath} and {@link LazyError}.
+ *
+ * @author Philip Helger
+ */
+public final class ErrorFieldPathTest
+{
+  @Test
+  public void testPath ()
+  {
+    final ErrorFieldPath aLine = new ErrorFieldPath ("InvoiceLine", 3);
+    assertNull (aLine.getParent ());
+    assertTrue (aLine.hasIndex ());
+    assertEquals ("InvoiceLine[3]", aLine.getAsString ());
+
+    final ErrorFieldPath aPath = aLine.child ("Item").child ("ClassifiedTaxCategory");
+    assertEquals ("ClassifiedTaxCategory", aPath.getName ());
+    assertFalse (aPath.hasIndex ());
+    assertEquals (ErrorFieldPath.NO_INDEX, aPath.getIndex ());
+    assertSame (aLine, aPath.getParent ().getParent ());
+    assertEquals ("InvoiceLine[3]/Item/ClassifiedTaxCategory", aPath.getAsString ());
+    assertSame (aPath.getAsString (), aPath.getAsString ());
+
+    assertEquals ("Invoice/AllowanceCharge[0]", new ErrorFieldPath ("Invoice").child ("AllowanceCharge", 0).getAsString ());
+
+    assertEquals (aPath, new ErrorFieldPath ("InvoiceLine", 3).child ("Item").child ("ClassifiedTaxCategory"));
+    assertEquals (aPath.hashCode (),
+                  new ErrorFieldPath ("InvoiceLine", 3).child ("Item").child ("ClassifiedTaxCategory").hashCode ());
+    assertNotEquals (aPath, new ErrorFieldPath ("InvoiceLine", 4).child ("Item").child ("ClassifiedTaxCategory"));
+    assertNotEquals (aLine, new ErrorFieldPath ("InvoiceLine"));
+  }
+
+  @Test
+  public void testLazyError ()
+  {
+    final LazyErrorText aText = new LazyErrorText (EText.DETAILS_INVALID_POSITION, Locale.GERMANY, "-1");
+    final LazyError aError = new LazyError (EErrorLevel.ERROR,
+                                            EText.DETAILS_INVALID_POSITION.name (),
+                                            new ErrorFieldPath ("InvoiceLine", 0).child ("ID"),
+                                            aText);
+    assertSame (EErrorLevel.ERROR, aError.getErrorLevel ());
+    assertEquals (EText.DETAILS_INVALID_POSITION.name (), aError.getErrorID ());
+    assertFalse (aText.isRendered ());
+    assertEquals ("InvoiceLine[0]/ID", aError.getErrorFieldName ());
+    assertEquals (EText.DETAILS_INVALID_POSITION.getDisplayTextWithArgs (Locale.GERMANY, "-1"),
+                  aError.getErrorText (Locale.GERMANY));
+    assertTrue (aText.isRendered ());
+    assertNull (aError.getLinkedException ());
+
+    assertEquals (aError,
+                  new LazyError (EErrorLevel.ERROR,
+                                 EText.DETAILS_INVALID_POSITION.name (),
+                                 new ErrorFieldPath ("InvoiceLine", 0).child ("ID"),
+                                 new LazyErrorText (EText.DETAILS_INVALID_POSITION, Locale.GERMANY, "-1")));
+    assertNotEquals (aError,
+                     new LazyError (EErrorLevel.WARN,
+                                    EText.DETAILS_INVALID_POSITION.name (),
+                                    new ErrorFieldPath ("InvoiceLine", 0).child ("ID"),
+                                    aText));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText;
+
+/**
+ * Test class for class {@link LazyErrorText}.
+ *
+ * @author Philip Helger
+ */
+public final class LazyErrorTextTest
+{
+  @Test
+  public void testRendering ()
+  {
+    for (final Locale aDisplayLocale : new Locale [] { Locale.GERMANY, Locale.ENGLISH })
+    {
+      final LazyErrorText aText = new LazyErrorText (EText.INVALID_PROFILE_ID, aDisplayLocale, "bla");
+      assertSame (EText.INVALID_PROFILE_ID, aText.getText ());
+      assertFalse (aText.isRendered ());
+
+      final String sExpected = EText.INVALID_PROFILE_ID.getDisplayTextWithArgs (aDisplayLocale, "bla");
+      assertEquals (sExpected, aText.getDisplayText (aDisplayLocale));
+      assertTrue (aText.isRendered ());
+      // Always rendered in the display locale
+      assertSame (aText.getDisplayText (aDisplayLocale), aText.getDisplayText (Locale.CHINA));
+
+      // Without arguments
+      assertEquals (EText.NO_PROFILE_ID.getDisplayText (aDisplayLocale),
+                    new LazyErrorText (EText.NO_PROFILE_ID, aDisplayLocale).getDisplayText (aDisplayLocale));
+
+      // Number arguments are formatted like before
+      assertEquals (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND.getDisplayTextWithArgs (aDisplayLocale,
+                                                                                  new BigDecimal ("1234.5")),
+                    new LazyErrorText (EText.DETAILS_TAX_PERCENTAGE_NOT_FOUND,
+                                       aDisplayLocale,
+                                       new BigDecimal ("1234.5")).getDisplayText (aDisplayLocale));
+    }
+  }
+
+  @Test
+  public void testEquals ()
+  {
+    final LazyErrorText aText = new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.GERMANY, "bla");
+    assertEquals (aText, new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.GERMANY, "bla"));
+    assertEquals (aText.hashCode (), new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.GERMANY, "bla").hashCode ());
+    assertNotEquals (aText, new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.GERMANY, "foo"));
+    assertNotEquals (aText, new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.ENGLISH, "bla"));
+    assertNotEquals (aText, new LazyErrorText (EText.INVALID_CUSTOMIZATION_ID, Locale.GERMANY, "bla"));
+  }
+
+  @Test
+  public void testArgumentsAreCopied ()
+  {
+    final Object [] aArgs = { "bla" };
+    final LazyErrorText aText = new LazyErrorText (EText.INVALID_PROFILE_ID, Locale.GERMANY, aArgs);
+    // Modifying the array afterwards must not change the error
+    aArgs[0] = "foo";
+    assertEquals (EText.INVALID_PROFILE_ID.getDisplayTextWithArgs (Locale.GERMANY, "bla"),
+                  aText.getDisplayText (Locale.GERMANY));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link TaxCategoryKeyFactory}.
+ *
+ * @author Philip Helger
+ */
+public final class TaxCategoryKeyFactoryTest
+{
+  @Test
+  public void testKeyEquality ()
+  {
+    final TaxCategoryKey aKey1 = new TaxCategoryKey (new SchemedID ("UN/ECE 5153", "VAT"),
+                                                     new SchemedID ("UN/ECE 5305", "S"));
+    final TaxCategoryKey aKey2 = new TaxCategoryKey (new SchemedID ("UN/ECE 5153", "VAT"),
+                                                     new SchemedID ("UN/ECE 5305", "S"));
+    assertEquals (aKey1, aKey2);
+    assertEquals (aKey1.hashCode (), aKey2.hashCode ());
+    assertEquals (aKey1.hashCode (), TaxCategoryKey.getHashCode ("UN/ECE 5153", "VAT", "UN/ECE 5305", "S"));
+    assertTrue (aKey1.matches ("UN/ECE 5153", "VAT", "UN/ECE 5305", "S"));
+    assertFalse (aKey1.matches (null, "VAT", "UN/ECE 5305", "S"));
+    assertFalse (aKey1.matches ("UN/ECE 5153", "VAT", "UN/ECE 5305", "E"));
+
+    // Scheme and category must not be interchangeable
+    final TaxCategoryKey aKey3 = new TaxCategoryKey (new SchemedID ("UN/ECE 5305", "S"),
+                                                     new SchemedID ("UN/ECE 5153", "VAT"));
+    assertFalse (aKey1.equals (aKey3));
+
+    assertEquals (new SchemedID (null, "VAT"), new SchemedID (null, "VAT"));
+    assertEquals (new SchemedID (null, "VAT").hashCode (), SchemedID.getHashCode (null, "VAT"));
+    assertFalse (new SchemedID (null, "VAT").equals (new SchemedID ("", "VAT")));
+  }
+
+  @Test
+  public void testFactory ()
+  {
+    final TaxCategoryKeyFactory aFactory = new TaxCategoryKeyFactory ();
+    assertEquals (0, aFactory.size ());
+    assertNull (aFactory.getKey (null, "VAT", null, "S"));
+    assertNull (aFactory.getKey (null, null, null, "S"));
+
+    final TaxCategoryKey aKey = aFactory.getOrCreateKey (null, "VAT", null, "S");
+    assertNotNull (aKey);
+    assertSame (aKey, aFactory.getOrCreateKey (null, "VAT", null, "S"));
+    assertSame (aKey, aFactory.getKey (null, "VAT", null, "S"));
+    assertSame (aKey, aFactory.intern (new TaxCategoryKey (new SchemedID (null, "VAT"), new SchemedID (null, "S"))));
+    assertEquals (1, aFactory.size ());
+
+    final TaxCategoryKey aOther = new TaxCategoryKey (new SchemedID (null, "VAT"), new SchemedID (null, "E"));
+    assertSame (aOther, aFactory.intern (aOther));
+    assertEquals (2, aFactory.size ());
+
+    // Force growing the table
+    for (int i = 0; i < 1000; ++i)
+      aFactory.getOrCreateKey ("scheme", "VAT", null, "C" + i);
+    assertEquals (1002, aFactory.size ());
+    assertSame (aKey, aFactory.getKey (null, "VAT", null, "S"));
+    assertSame (aOther, aFactory.getKey (null, "VAT", null, "E"));
+    for (int i = 0; i < 1000; ++i)
+    {
+      final TaxCategoryKey aCKey = aFactory.getKey ("scheme", "VAT", null, "C" + i);
+      assertNotNull (aCKey);
+      assertEquals ("C" + i, aCKey.getTaxCategoryID ().getID ());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.from.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.IDType;
+
+/**
+ * Test class for class {@link TaxTable}.
+ *
+ * @author Philip Helger
+ */
+public final class TaxTableTest
+{
+  @NonNull
+  private static TaxCategoryType _createTaxCategory (@Nullable final String sTaxSchemeSchemeID,
+                                                     @Nullable final String sTaxSchemeID,
+                                                     @Nullable final String sTaxCategorySchemeID,
+                                                     @Nullable final String sTaxCategoryID)
+  {
+    final TaxCategoryType ret = new TaxCategoryType ();
+    if (sTaxCategoryID != null)
+    {
+      final IDType aID = new IDType (sTaxCategoryID);
+      aID.setSchemeID (sTaxCategorySchemeID);
+      ret.setID (aID);
+    }
+    if (sTaxSchemeID != null)
+    {
+      final TaxSchemeType aTaxScheme = new TaxSchemeType ();
+      final IDType aID = new IDType (sTaxSchemeID);
+      aID.setSchemeID (sTaxSchemeSchemeID);
+      aTaxScheme.setID (aID);
+      ret.setTaxScheme (aTaxScheme);
+    }
+    return ret;
+  }
+
+  @Test
+  public void testGetPercentageOfTaxCategory ()
+  {
+    final ICommonsMap <TaxCategoryKey, BigDecimal> aPercentages = new CommonsHashMap <> ();
+    aPercentages.put (new TaxCategoryKey (new SchemedID ("UN/ECE 5153", "VAT"), new SchemedID ("UN/ECE 5305", "S")),
+                      new BigDecimal ("20"));
+    aPercentages.put (new TaxCategoryKey (new SchemedID (null, "VAT"), new SchemedID (null, "AA")),
+                      new BigDecimal ("10"));
+    aPercentages.put (new TaxCategoryKey (new SchemedID (null, "VAT"), new SchemedID (null, "Z")), null);
+    final TaxTable aTaxTable = new TaxTable (new CommonsArrayList <> (), aPercentages);
+
+    assertEquals (new BigDecimal ("20"),
+                  aTaxTable.getPercentage (_createTaxCategory ("UN/ECE 5153", "VAT", "UN/ECE 5305", "S")));
+    assertEquals (new BigDecimal ("10"), aTaxTable.getPercentage (_createTaxCategory (null, "VAT", null, "AA")));
+
+    // Surrounding whitespace is ignored
+    assertEquals (new BigDecimal ("20"),
+                  aTaxTable.getPercentage (_createTaxCategory (" UN/ECE 5153", "VAT ", "UN/ECE 5305", " S ")));
+    assertEquals (new BigDecimal ("10"), aTaxTable.getPercentage (_createTaxCategory (null, " VAT", null, "AA\n")));
+
+    // Known but without percentage
+    assertNull (aTaxTable.getPercentage (_createTaxCategory (null, "VAT", null, "Z")));
+
+    // Unknown
+    assertNull (aTaxTable.getPercentage (_createTaxCategory (null, "VAT", null, "S")));
+    assertNull (aTaxTable.getPercentage (_createTaxCategory ("UN/ECE 5153", "VAT", null, "S")));
+    assertNull (aTaxTable.getPercentage (_createTaxCategory (null, "VAT", null, "")));
+
+    // Incomplete
+    assertNull (aTaxTable.getPercentage ((TaxCategoryType) null));
+    assertNull (aTaxTable.getPercentage (_createTaxCategory (null, null, null, "AA")));
+    assertNull (aTaxTable.getPercentage (_createTaxCategory (null, "VAT", null, null)));
+  }
+}
@@ -16,13 +16,18 @@
  */
 package at.austriapro.ebinterface.ubl.from.invoice;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.math.BigDecimal;
 import java.util.Locale;
 
+import org.jspecify.annotations.NonNull;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -33,9 +38,12 @@ import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.CommonsHashSet;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.collection.commons.ICommonsSet;
+import com.helger.diagnostics.error.IError;
 import com.helger.diagnostics.error.level.EErrorLevel;
 import com.helger.diagnostics.error.list.ErrorList;
 import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.ebinterface.v61.Ebi61ListLineItemType;
+import com.helger.ebinterface.v61.Ebi61ReductionAndSurchargeType;
 import com.helger.io.file.FileOperations;
 import com.helger.io.file.FileSystemIterator;
 import com.helger.io.file.FilenameHelper;
@@ -44,8 +52,14 @@ import com.helger.io.resource.FileSystemResource;
 import com.helger.io.resource.IReadableResource;
 import com.helger.ubl21.UBL21Marshaller;
 
+import at.austriapro.ebinterface.ubl.from.AbstractToEbInterfaceConverter.EText;
+import at.austriapro.ebinterface.ubl.from.EConversionStage;
+import at.austriapro.ebinterface.ubl.from.IConversionStageListener;
 import at.austriapro.ebinterface.ubl.from.MockEbi61Marshaller;
 import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.BaseAmountType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.LineExtensionAmountType;
 import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
 
 /**
@@ -181,4 +195,181 @@ public final class InvoiceToEbInterface61ConverterTest
       assertNull (aRes.getPath () + ": " + aErrorList.toString (), aDocEb);
     }
   }
+
+  @Test
+  public void testLineConsumerWithoutLineExtensionAmount ()
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (200).createInvoice ();
+    // Force the global allowance to be based on the sum of all lines
+    aUBLInvoice.getLegalMonetaryTotal ().setLineExtensionAmount ((LineExtensionAmountType) null);
+    aUBLInvoice.getAllowanceChargeAtIndex (0).setBaseAmount ((BaseAmountType) null);
+
+    final InvoiceToEbInterface61Converter aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                                            Locale.GERMANY,
+                                                                                            new ToEbinterfaceSettings ());
+    final ErrorList aErrorList = new ErrorList ();
+    final Ebi61InvoiceType aEbInvoice = aConverter.convertToEbInterface (aUBLInvoice, aErrorList);
+    assertNotNull (aEbInvoice);
+
+    BigDecimal aSum = BigDecimal.ZERO;
+    for (final Ebi61ListLineItemType aItem : aEbInvoice.getDetails ().getItemList ().get (0).getListLineItem ())
+      aSum = aSum.add (aItem.getLineItemAmount ());
+    final Ebi61ReductionAndSurchargeType aRS = (Ebi61ReductionAndSurchargeType) aEbInvoice.getReductionAndSurchargeDetails ()
+                                                                                          .getReductionOrSurchargeOrOtherVATableTax ()
+                                                                                          .get (0)
+                                                                                          .getValue ();
+    assertEquals (0, aSum.compareTo (aRS.getBaseAmount ()));
+
+    // Same result when the line items are handed to a consumer
+    final ICommonsList <Ebi61ListLineItemType> aLineItems = new CommonsArrayList <> ();
+    final ErrorList aErrorList2 = new ErrorList ();
+    final Ebi61InvoiceType aEbInvoice2 = aConverter.convertToEbInterface (aUBLInvoice,
+                                                                          aUBLInvoice.getInvoiceLine ().iterator (),
+                                                                          null,
+                                                                          aLineItems::add,
+                                                                          aErrorList2);
+    assertNotNull (aEbInvoice2);
+    assertNull (aEbInvoice2.getDetails ());
+    assertEquals (aEbInvoice.getDetails ().getItemList ().get (0).getListLineItem (), aLineItems);
+    aEbInvoice2.setDetails (aEbInvoice.getDetails ());
+    assertEquals (aEbInvoice, aEbInvoice2);
+    assertEquals (aErrorList.getAllErrors (), aErrorList2.getAllErrors ());
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testCustomizerWithHeaderConsumer ()
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (5).createInvoice ();
+    final InvoiceToEbInterface61Converter aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                                            Locale.GERMANY,
+                                                                                            new ToEbinterfaceSettings ());
+    aConverter.setCustomizer (new ICustomInvoiceToEbInterface61Converter ()
+    {});
+    // The global mapping would run after the header was consumed
+    aConverter.convertToEbInterface (aUBLInvoice,
+                                     aUBLInvoice.getInvoiceLine ().iterator (),
+                                     x -> {},
+                                     null,
+                                     new ErrorList ());
+  }
+
+  @Test
+  public void testStageListener ()
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (25).createInvoice ();
+    final ICommonsList <EConversionStage> aStarted = new CommonsArrayList <> ();
+    final ICommonsList <EConversionStage> aEnded = new CommonsArrayList <> ();
+    final InvoiceToEbInterface61Converter aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                                            Locale.GERMANY,
+                                                                                            new ToEbinterfaceSettings ());
+    aConverter.setStageListener (new IConversionStageListener ()
+    {
+      @Override
+      public void onStageStart (final EConversionStage eStage)
+      {
+        aStarted.add (eStage);
+      }
+
+      @Override
+      public void onStageEnd (final EConversionStage eStage,
+                              final long nDurationNanos,
+                              final int nItemCount,
+                              final int nErrorCount)
+      {
+        assertEquals (aStarted.get (aStarted.size () - 1), eStage);
+        assertTrue (nDurationNanos >= 0);
+        assertEquals (0, nErrorCount);
+        if (eStage == EConversionStage.LINE_ITEMS)
+          assertEquals (25, nItemCount);
+        else
+          if (eStage == EConversionStage.TAX_TOTALS)
+            assertTrue (nItemCount > 0);
+          else
+            assertEquals (0, nItemCount);
+        aEnded.add (eStage);
+      }
+    });
+
+    final ErrorList aErrorList = new ErrorList ();
+    assertNotNull (aConverter.convertToEbInterface (aUBLInvoice, aErrorList));
+    assertTrue (aErrorList.containsNoError ());
+    // Every stage is reported exactly once
+    assertEquals (EConversionStage.values ().length, aEnded.size ());
+    assertEquals (new CommonsHashSet <> (EConversionStage.values ()), new CommonsHashSet <> (aEnded));
+    assertEquals (aStarted, aEnded);
+
+    // Without listener nothing is reported
+    aConverter.setStageListener (null);
+    assertNotNull (aConverter.convertToEbInterface (aUBLInvoice, new ErrorList ()));
+    assertEquals (EConversionStage.values ().length, aEnded.size ());
+  }
+
+  @Test
+  public void testStageEndedOnException ()
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (5).createInvoice ();
+    final ICommonsList <EConversionStage> aEnded = new CommonsArrayList <> ();
+    final InvoiceToEbInterface61Converter aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                                            Locale.GERMANY,
+                                                                                            new ToEbinterfaceSettings ());
+    aConverter.setStageListener ( (eStage, nDurationNanos, nItemCount, nErrorCount) -> aEnded.add (eStage));
+    try
+    {
+      aConverter.convertToEbInterface (aUBLInvoice, aUBLInvoice.getInvoiceLine ().iterator (), null, x -> {
+        throw new IllegalArgumentException ("Consumer failed");
+      }, new ErrorList ());
+      fail ();
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // expected
+    }
+    // The stage that was running when the exception occurred was ended
+    assertEquals (EConversionStage.LINE_ITEMS, aEnded.get (aEnded.size () - 1));
+  }
+
+  @NonNull
+  private static ICommonsSet <String> _getErrorIDs (@NonNull final ErrorList aErrorList)
+  {
+    final ICommonsSet <String> ret = new CommonsHashSet <> ();
+    for (final IError aError : aErrorList)
+      ret.add (aError.getErrorID ());
+    return ret;
+  }
+
+  @Test
+  public void testIBAN ()
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (1)
+                                                                     .setPaymentMeansCount (1)
+                                                                     .createInvoice ();
+    final InvoiceToEbInterface61Converter aConverter = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                                            Locale.GERMANY,
+                                                                                            new ToEbinterfaceSettings ());
+    // Paper format
+    aUBLInvoice.getPaymentMeansAtIndex (0).getPayeeFinancialAccount ().setID ("AT61 1904 3002 3457 3201");
+    ErrorList aErrorList = new ErrorList ();
+    Ebi61InvoiceType aEbInvoice = aConverter.convertToEbInterface (aUBLInvoice, aErrorList);
+    assertNotNull (aEbInvoice);
+    assertFalse (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_FORMAT.name ()));
+    assertFalse (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_CHECKSUM.name ()));
+    assertEquals ("AT611904300234573201",
+                  aEbInvoice.getPaymentMethod ().getUniversalBankTransaction ().getBeneficiaryAccountAtIndex (0).getIBAN ());
+
+    // Wrong check digits
+    aUBLInvoice.getPaymentMeansAtIndex (0).getPayeeFinancialAccount ().setID ("AT89 1111 2222 3333 0000");
+    aErrorList = new ErrorList ();
+    aEbInvoice = aConverter.convertToEbInterface (aUBLInvoice, aErrorList);
+    assertNotNull (aEbInvoice);
+    assertTrue (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_CHECKSUM.name ()));
+    assertFalse (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_FORMAT.name ()));
+
+    // Not an IBAN
+    aUBLInvoice.getPaymentMeansAtIndex (0).getPayeeFinancialAccount ().setID ("AT61-1904-3002");
+    aErrorList = new ErrorList ();
+    aEbInvoice = aConverter.convertToEbInterface (aUBLInvoice, aErrorList);
+    assertNotNull (aEbInvoice);
+    assertTrue (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_FORMAT.name ()));
+    assertFalse (_getErrorIDs (aErrorList).contains (EText.IBAN_INVALID_CHECKSUM.name ()));
+  }
 }
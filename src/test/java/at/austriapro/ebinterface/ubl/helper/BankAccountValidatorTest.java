@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+
+import com.helger.cache.regex.RegExHelper;
+import com.helger.collection.commons.CommonsArrayList;
+
+import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+
+/**
+ * Test class for class {@link BankAccountValidator}.
+ *
+ * @author Philip Helger
+ */
+public final class BankAccountValidatorTest
+{
+  @Test
+  public void testBIC ()
+  {
+    for (final String s : new String [] { "BKAUATWW",
+                                          "BKAUATWWXXX",
+                                          "bkauatww",
+                                          "12345678",
+                                          "RZOOAT2L303",
+                                          "",
+                                          "BKAUATW",
+                                          "BKAUATWWX",
+                                          "BKAUATWWXXXX",
+                                          "BKAU ATWW",
+                                          "BKAUATW-",
+                                          "BKAUATWÄ" })
+    {
+      // Must behave like the regular expression
+      assertEquals (s,
+                    RegExHelper.stringMatchesPattern (AbstractEbInterfaceUBLConverter.REGEX_BIC, s),
+                    BankAccountValidator.isValidBIC (s));
+    }
+    assertFalse (BankAccountValidator.isValidBIC (null));
+  }
+
+  @Test
+  public void testIBAN ()
+  {
+    assertTrue (BankAccountValidator.isValidIBAN ("AT611904300234573201"));
+    assertTrue (BankAccountValidator.isValidIBAN ("at611904300234573201"));
+    assertTrue (BankAccountValidator.isValidIBAN ("DE89370400440532013000"));
+    assertTrue (BankAccountValidator.isValidIBAN ("GB29NWBK60161331926819"));
+    assertTrue (BankAccountValidator.isValidIBAN ("MT84MALT011000012345MTLCAST001S"));
+    // Paper format
+    assertTrue (BankAccountValidator.isValidIBAN ("AT61 1904 3002 3457 3201"));
+    assertTrue (BankAccountValidator.isValidIBAN (" DE89 3704 0044 0532 0130 00\t"));
+
+    assertFalse (BankAccountValidator.isValidIBAN (null));
+    assertFalse (BankAccountValidator.isValidIBAN (""));
+    assertFalse (BankAccountValidator.isValidIBAN ("AT61"));
+    // Wrong check digits
+    assertFalse (BankAccountValidator.isValidIBAN ("AT621904300234573201"));
+    assertFalse (BankAccountValidator.isValidIBAN ("AT611904300234573202"));
+    // Invalid structure
+    assertFalse (BankAccountValidator.isValidIBAN ("1T611904300234573201"));
+    assertFalse (BankAccountValidator.isValidIBAN ("ATX11904300234573201"));
+    assertFalse (BankAccountValidator.isValidIBAN ("AT61190430023457320-"));
+    // Too long
+    assertFalse (BankAccountValidator.isValidIBAN ("AT611904300234573201123456789012345"));
+  }
+
+  @Test
+  public void testIBANFormat ()
+  {
+    assertTrue (BankAccountValidator.isValidIBANFormat ("AT611904300234573201"));
+    assertTrue (BankAccountValidator.isValidIBANFormat ("AT61 1904 3002 3457 3201"));
+    // Wrong check digits are a format match
+    assertTrue (BankAccountValidator.isValidIBANFormat ("AT621904300234573201"));
+    assertTrue (BankAccountValidator.isValidIBANFormat ("AT89 1111 2222 3333 0000"));
+    assertFalse (BankAccountValidator.isValidIBAN ("AT89 1111 2222 3333 0000"));
+
+    assertFalse (BankAccountValidator.isValidIBANFormat (null));
+    assertFalse (BankAccountValidator.isValidIBANFormat (""));
+    assertFalse (BankAccountValidator.isValidIBANFormat ("   "));
+    assertFalse (BankAccountValidator.isValidIBANFormat ("AT61"));
+    assertFalse (BankAccountValidator.isValidIBANFormat ("1T611904300234573201"));
+    assertFalse (BankAccountValidator.isValidIBANFormat ("AT61190430023457320-"));
+    assertFalse (BankAccountValidator.isValidIBANFormat ("AT611904300234573201123456789012345"));
+  }
+
+  @Test
+  public void testCompactIBAN ()
+  {
+    assertNull (BankAccountValidator.getCompactIBAN (null));
+    final String sIBAN = "AT611904300234573201";
+    assertSame (sIBAN, BankAccountValidator.getCompactIBAN (sIBAN));
+    assertEquals (sIBAN, BankAccountValidator.getCompactIBAN ("AT61 1904 3002 3457 3201"));
+    assertEquals (sIBAN, BankAccountValidator.getCompactIBAN (" AT61\t1904 3002 3457 3201\n"));
+    assertEquals ("", BankAccountValidator.getCompactIBAN ("  "));
+  }
+
+  @Test
+  public void testBulk ()
+  {
+    final BitSet aInvalidBICs = BankAccountValidator.getInvalidBICIndices (new CommonsArrayList <> ("BKAUATWW",
+                                                                                                  null,
+                                                                                                  "bla",
+                                                                                                  "BKAUATWWXXX"));
+    assertEquals (2, aInvalidBICs.cardinality ());
+    assertTrue (aInvalidBICs.get (1));
+    assertTrue (aInvalidBICs.get (2));
+
+    final BitSet aInvalidIBANs = BankAccountValidator.getInvalidIBANIndices (new CommonsArrayList <> ("AT611904300234573201",
+                                                                                                    "AT621904300234573201",
+                                                                                                    "DE89370400440532013000"));
+    assertEquals (1, aInvalidIBANs.cardinality ());
+    assertTrue (aInvalidIBANs.get (1));
+
+    assertTrue (BankAccountValidator.getInvalidIBANIndices (new CommonsArrayList <> ()).isEmpty ());
+  }
+}
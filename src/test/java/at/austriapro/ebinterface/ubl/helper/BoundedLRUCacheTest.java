@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link BoundedLRUCache}.
+ *
+ * @author Philip Helger
+ */
+public final class BoundedLRUCacheTest
+{
+  @Test
+  public void testEviction ()
+  {
+    final BoundedLRUCache <String, String> aCache = new BoundedLRUCache <> (3);
+    assertEquals (3, aCache.getMaxSize ());
+    assertNull (aCache.get ("a"));
+    assertEquals (0, aCache.put ("a", "A"));
+    assertEquals (0, aCache.put ("b", "B"));
+    assertEquals (0, aCache.put ("c", "C"));
+    // "a" is now more recently used than "b"
+    assertEquals ("A", aCache.get ("a"));
+    assertEquals (1, aCache.put ("d", "D"));
+    assertEquals (3, aCache.size ());
+    assertNull (aCache.get ("b"));
+    assertEquals ("A", aCache.get ("a"));
+    assertEquals ("C", aCache.get ("c"));
+    assertEquals ("D", aCache.get ("d"));
+
+    // All entries are equally recent, but the new one is never evicted
+    assertEquals (1, aCache.put ("e", "E"));
+    assertEquals ("E", aCache.get ("e"));
+    assertEquals (3, aCache.size ());
+
+    // Replacing does not evict
+    assertEquals (0, aCache.put ("e", "E2"));
+    assertEquals ("E2", aCache.get ("e"));
+  }
+
+  @Test
+  public void testRemove ()
+  {
+    final BoundedLRUCache <String, String> aCache = new BoundedLRUCache <> (10);
+    aCache.put ("a", "A");
+    aCache.put ("b", "B");
+    aCache.put ("c", "CC");
+    assertFalse (aCache.remove ("a", "B"));
+    assertTrue (aCache.remove ("a", aCache.get ("a")));
+    assertNull (aCache.get ("a"));
+
+    assertEquals (1, aCache.removeIf (x -> x.length () > 1));
+    assertEquals (1, aCache.size ());
+
+    aCache.clear ();
+    assertEquals (0, aCache.size ());
+  }
+}
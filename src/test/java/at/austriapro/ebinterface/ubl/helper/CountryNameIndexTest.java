@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsOrderedMap;
+
+/**
+ * Test class for class {@link CountryNameIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class CountryNameIndexTest
+{
+  @Test
+  public void testSmallIndex ()
+  {
+    final ICommonsOrderedMap <String, String> aMap = new CommonsLinkedHashMap <> ();
+    aMap.put ("österreich", "AT");
+    aMap.put ("austria", "AT");
+    aMap.put ("deutschland", "DE");
+    aMap.put ("латинская америка", "419");
+
+    final CountryNameIndex aIndex = CountryNameIndex.createFromBuffer (ByteBuffer.wrap (CountryNameIndexWriter.createIndexBytes (aMap)));
+    assertEquals (4, aIndex.getEntryCount ());
+    for (final Map.Entry <String, String> aEntry : aMap.entrySet ())
+      assertEquals (aEntry.getValue (), aIndex.getCountryCode (aEntry.getKey ()));
+    assertNull (aIndex.getCountryCode (""));
+    assertNull (aIndex.getCountryCode ("atlantis"));
+    assertNull (aIndex.getCountryCode ("Austria"));
+  }
+
+  @Test
+  public void testEmptyIndex ()
+  {
+    final CountryNameIndex aIndex = CountryNameIndex.createFromBuffer (ByteBuffer.wrap (CountryNameIndexWriter.createIndexBytes (new CommonsLinkedHashMap <> ())));
+    assertEquals (0, aIndex.getEntryCount ());
+    assertNull (aIndex.getCountryCode ("austria"));
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testInvalidBuffer ()
+  {
+    CountryNameIndex.createFromBuffer (ByteBuffer.allocate (64));
+  }
+
+  @Test
+  public void testAllNames ()
+  {
+    final ICommonsOrderedMap <String, String> aMap = CountryNameIndexWriter.createNameToCodeMap ();
+    final CountryNameIndex aIndex = CountryNameIndex.createFromBuffer (ByteBuffer.wrap (CountryNameIndexWriter.createIndexBytes (aMap)));
+    assertEquals (aMap.size (), aIndex.getEntryCount ());
+    for (final Map.Entry <String, String> aEntry : aMap.entrySet ())
+      assertEquals (aEntry.getValue (), aIndex.getCountryCode (aEntry.getKey ()));
+    assertEquals ("AT", aIndex.getCountryCode ("österreich"));
+    assertEquals ("AT", aIndex.getCountryCode ("autriche"));
+  }
+}
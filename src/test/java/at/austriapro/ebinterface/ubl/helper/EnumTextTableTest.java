@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+
+/**
+ * Test class for class {@link EnumTextTable}.
+ *
+ * @author Philip Helger
+ */
+public final class EnumTextTableTest
+{
+  private enum ETestText
+  {
+    PLAIN,
+    QUOTED,
+    ARGS,
+    MISSING;
+
+    @Nullable
+    static String getText (@NonNull final ETestText e, @NonNull final Locale aLocale)
+    {
+      switch (e)
+      {
+        case PLAIN:
+          return "Plain text in " + aLocale.getLanguage ();
+        case QUOTED:
+          return "It''s quoted";
+        case ARGS:
+          return "Value ''{0}'' and amount {1}";
+        default:
+          return null;
+      }
+    }
+  }
+
+  @Test
+  public void testBasic ()
+  {
+    for (final Locale aLocale : new Locale [] { Locale.GERMANY, Locale.ENGLISH })
+    {
+      final EnumTextTable <ETestText> aTable = new EnumTextTable <> (ETestText.class, aLocale, ETestText::getText);
+      assertSame (aLocale, aTable.getContentLocale ());
+
+      assertEquals ("Plain text in " + aLocale.getLanguage (), aTable.getText (ETestText.PLAIN));
+      assertEquals ("Plain text in " + aLocale.getLanguage (), aTable.getFormattedText (ETestText.PLAIN));
+      assertEquals ("It''s quoted", aTable.getText (ETestText.QUOTED));
+      assertEquals ("It's quoted", aTable.getFormattedText (ETestText.QUOTED));
+      assertNull (aTable.getText (ETestText.MISSING));
+      assertNull (aTable.getFormattedText (ETestText.MISSING, "x"));
+
+      // Same result as a freshly parsed message format
+      final Object [] aArgs = { "abc", new BigDecimal ("1234.5") };
+      assertEquals (new MessageFormat ("Value ''{0}'' and amount {1}", aLocale).format (aArgs),
+                    aTable.getFormattedText (ETestText.ARGS, aArgs));
+      // The parsed format is not modified by using it
+      assertEquals ("Value 'x' and amount 1", aTable.getFormattedText (ETestText.ARGS, "x", "1"));
+    }
+  }
+}
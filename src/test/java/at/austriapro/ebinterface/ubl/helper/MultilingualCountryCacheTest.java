@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.text.locale.country.CountryCache;
+
+/**
+ * Test class for class {@link MultilingualCountryCache}.
+ *
+ * @author Philip Helger
+ */
+public final class MultilingualCountryCacheTest
+{
+  @Test
+  public void testGetRealCountryCode ()
+  {
+    assertNull (MultilingualCountryCache.getRealCountryCode (null));
+    assertNull (MultilingualCountryCache.getRealCountryCode (""));
+    assertNull (MultilingualCountryCache.getRealCountryCode ("   "));
+
+    // Codes
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode ("AT"));
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode (" at "));
+
+    // Preferred languages
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode ("Österreich"));
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode ("austria"));
+    assertEquals ("DE", MultilingualCountryCache.getRealCountryCode ("Deutschland"));
+    assertEquals ("DE", MultilingualCountryCache.getRealCountryCode ("Germany"));
+
+    // Other languages
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode ("Autriche"));
+    assertEquals ("DE", MultilingualCountryCache.getRealCountryCode ("Allemagne"));
+    assertEquals ("IT", MultilingualCountryCache.getRealCountryCode ("Italia"));
+
+    // Unknown - only German and English are checked after the index
+    assertNull (MultilingualCountryCache.getRealCountryCode ("Atlantis"));
+    assertEquals ("FR", MultilingualCountryCache.getRealCountryCode ("Frankreich"));
+  }
+
+  @Test
+  public void testDefaultIndexIsPresent ()
+  {
+    final CountryNameIndex aIndex = CountryNameIndex.getDefaultInstance ();
+    assertNotNull (aIndex);
+    assertEquals ("AT", aIndex.getCountryCode (MultilingualCountryCache.unify ("Österreich")));
+    assertEquals ("AT", aIndex.getCountryCode (MultilingualCountryCache.unify ("Autriche")));
+  }
+
+  @Test
+  public void testGetRealCountryCodeWithoutIndex ()
+  {
+    // Other languages
+    assertEquals ("AT", MultilingualCountryCache.getRealCountryCode ("Autriche", null));
+    assertEquals ("IT", MultilingualCountryCache.getRealCountryCode ("Italia", null));
+
+    // Unknown - requires all languages to be indexed
+    assertNull (MultilingualCountryCache.getRealCountryCode ("Atlantis", null));
+    assertTrue (MultilingualCountryCache.isFullyIndexed ());
+    assertEquals ("FR", MultilingualCountryCache.getRealCountryCode ("Frankreich", null));
+  }
+
+  @Test
+  public void testSameResultAsBuildTimeIndex ()
+  {
+    // The index writer and the lazy index use the same language order
+    for (final Map.Entry <String, String> aEntry : CountryNameIndexWriter.createNameToCodeMap ().entrySet ())
+      if (!CountryCache.getInstance ().containsCountry (aEntry.getKey ()))
+        assertEquals (aEntry.getKey (),
+                      aEntry.getValue (),
+                      MultilingualCountryCache.getRealCountryCode (aEntry.getKey (), null));
+  }
+
+  @Test
+  public void testConcurrentLookups () throws Exception
+  {
+    final String [] aNames = { "Frankrijk", "Atlantis", "Belgique", "Lemuria", "Schweiz", "Spagna" };
+    final String [] aExpected = { "FR", null, "BE", null, "CH", "ES" };
+    final ExecutorService aExecutor = Executors.newFixedThreadPool (aNames.length);
+    try
+    {
+      final ICommonsList <Future <String>> aFutures = new CommonsArrayList <> ();
+      for (final String sName : aNames)
+        aFutures.add (aExecutor.submit ( () -> MultilingualCountryCache.getRealCountryCode (sName, null)));
+      for (int i = 0; i < aNames.length; ++i)
+        assertEquals (aNames[i], aExpected[i], aFutures.get (i).get ());
+    }
+    finally
+    {
+      aExecutor.shutdown ();
+    }
+
+    // Now cached as unknown
+    assertNull (MultilingualCountryCache.getRealCountryCode ("Lemuria", null));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+/**
+ * Test class for class {@link SafeXMLInputFactory}.
+ *
+ * @author Philip Helger
+ */
+public final class SafeXMLInputFactoryTest
+{
+  @NonNull
+  private static String _readText (@NonNull final String sXML) throws XMLStreamException
+  {
+    final XMLStreamReader aReader = SafeXMLInputFactory.createXMLStreamReader (new ByteArrayInputStream (sXML.getBytes (StandardCharsets.UTF_8)));
+    try
+    {
+      final StringBuilder aSB = new StringBuilder ();
+      while (aReader.hasNext ())
+        if (aReader.next () == XMLStreamConstants.CHARACTERS)
+          aSB.append (aReader.getText ());
+      return aSB.toString ();
+    }
+    finally
+    {
+      aReader.close ();
+    }
+  }
+
+  @Test
+  public void testRegularDocument () throws XMLStreamException
+  {
+    assertEquals ("4711", _readText ("<?xml version=\"1.0\"?><Invoice><ID>4711</ID></Invoice>"));
+  }
+
+  @Test
+  public void testExternalEntityIsNotResolved ()
+  {
+    try
+    {
+      _readText ("<?xml version=\"1.0\"?><!DOCTYPE Invoice [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+                 "<Invoice><ID>&xxe;</ID></Invoice>");
+      fail ();
+    }
+    catch (final XMLStreamException ex)
+    {
+      // expected - the DTD is ignored, so the entity is not declared
+    }
+  }
+}
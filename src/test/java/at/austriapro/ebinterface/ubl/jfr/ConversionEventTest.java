@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.from.EConversionStage;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for classes {@link ConversionEvent} and
+ * {@link ConversionStageEvent}.
+ *
+ * @author Philip Helger
+ */
+public final class ConversionEventTest
+{
+  @Test
+  public void testRecording () throws Exception
+  {
+    final InvoiceType aUBLInvoice = new SyntheticDocumentGenerator ().setLineCount (10).createInvoice ();
+    final Path aFile = Files.createTempFile ("ebi-conversion", ".jfr");
+    try
+    {
+      assertFalse (ConversionStageEvent.isRecorded ());
+      try (final Recording aRecording = new Recording ())
+      {
+        aRecording.enable (ConversionEvent.NAME);
+        aRecording.enable (ConversionStageEvent.NAME);
+        aRecording.start ();
+        assertTrue (ConversionEvent.isRecorded ());
+        assertTrue (ConversionStageEvent.isRecorded ());
+
+        final Ebi61InvoiceType aEbiDoc = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                              Locale.GERMANY,
+                                                                              new ToEbinterfaceSettings ()).convertToEbInterface (aUBLInvoice,
+                                                                                                                                  new ErrorList ());
+        assertNotNull (aEbiDoc);
+        assertNotNull (new EbInterface61ToInvoiceConverter (Locale.GERMANY, Locale.GERMANY).convertInvoice (aEbiDoc));
+
+        aRecording.stop ();
+        aRecording.dump (aFile);
+      }
+
+      final ICommonsList <RecordedEvent> aConversions = new CommonsArrayList <> ();
+      final ICommonsList <RecordedEvent> aStages = new CommonsArrayList <> ();
+      final List <RecordedEvent> aEvents = RecordingFile.readAllEvents (aFile);
+      for (final RecordedEvent aEvent : aEvents)
+        if (aEvent.getEventType ().getName ().equals (ConversionEvent.NAME))
+          aConversions.add (aEvent);
+        else
+          if (aEvent.getEventType ().getName ().equals (ConversionStageEvent.NAME))
+            aStages.add (aEvent);
+
+      assertEquals (2, aConversions.size ());
+      // Events are not necessarily ordered
+      for (final RecordedEvent aEvent : aConversions)
+      {
+        assertEquals (aUBLInvoice.getIDValue (), aEvent.getString ("documentNumber"));
+        assertEquals (10, aEvent.getInt ("lineCount"));
+        assertEquals (0, aEvent.getInt ("errorCount"));
+        if (aEvent.getString ("direction").equals (EConversionDirection.INVOICE_TO_EBINTERFACE.name ()))
+        {
+          assertEquals (ConversionEvent.UBL_VERSION, aEvent.getString ("sourceVersion"));
+          assertEquals ("6.1", aEvent.getString ("targetVersion"));
+        }
+        else
+        {
+          assertEquals (EConversionDirection.EBINTERFACE_TO_INVOICE.name (), aEvent.getString ("direction"));
+          assertEquals ("6.1", aEvent.getString ("sourceVersion"));
+          assertEquals (ConversionEvent.UBL_VERSION, aEvent.getString ("targetVersion"));
+        }
+      }
+
+      // Stages are only tracked for the conversion to ebInterface
+      assertEquals (EConversionStage.values ().length, aStages.size ());
+      for (final RecordedEvent aEvent : aStages)
+        if (aEvent.getString ("stage").equals (EConversionStage.LINE_ITEMS.name ()))
+          assertEquals (10, aEvent.getInt ("itemCount"));
+    }
+    finally
+    {
+      Files.deleteIfExists (aFile);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+
+/**
+ * Test class for class {@link ConversionMetrics}.
+ *
+ * @author Philip Helger
+ */
+public final class ConversionMetricsTest
+{
+  @Test
+  public void testDefaultMetrics ()
+  {
+    // No SPI implementation is registered in this project
+    final DefaultConversionMetrics aMetrics = ConversionMetrics.getDefaultMetrics ();
+    assertNotNull (aMetrics);
+    assertEquals (1, ConversionMetrics.getAllMetrics ().size ());
+
+    final long nTotalBefore = aMetrics.getTotalHistogram ().getCount ();
+    final long nVersionBefore = aMetrics.getVersionHistogram (EEbInterfaceVersion.V61).getCount ();
+
+    final ErrorList aErrorList = new ErrorList ();
+    final Ebi61InvoiceType aEbiDoc = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                          Locale.GERMANY,
+                                                                          new ToEbinterfaceSettings ()).convertToEbInterface (new SyntheticDocumentGenerator ().setLineCount (3)
+                                                                                                                                                                 .createInvoice (),
+                                                                                                                              aErrorList);
+    assertNotNull (aEbiDoc);
+    assertNotNull (new EbInterface61ToInvoiceConverter (Locale.GERMANY, Locale.GERMANY).convertInvoice (aEbiDoc));
+
+    // Other tests may run concurrently
+    assertTrue (aMetrics.getTotalHistogram ().getCount () >= nTotalBefore + 2);
+    assertTrue (aMetrics.getVersionHistogram (EEbInterfaceVersion.V61).getCount () >= nVersionBefore + 2);
+    assertNotNull (aMetrics.getConverterHistogram (InvoiceToEbInterface61Converter.class));
+    assertNotNull (aMetrics.getConverterHistogram (EbInterface61ToInvoiceConverter.class));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.list.ErrorList;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+
+/**
+ * Test class for class {@link DefaultConversionMetrics}.
+ *
+ * @author Philip Helger
+ */
+public final class DefaultConversionMetricsTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final DefaultConversionMetrics aMetrics = new DefaultConversionMetrics ();
+    assertEquals (0, aMetrics.getTotalHistogram ().getCount ());
+    assertNull (aMetrics.getConverterHistogram (InvoiceToEbInterface61Converter.class));
+
+    final ErrorList aErrors = new ErrorList ();
+    aErrors.add (SingleError.builderError ().errorID ("A").errorText ("a").build ());
+    aErrors.add (SingleError.builderError ().errorID ("B").errorText ("b").build ());
+    aErrors.add (SingleError.builderError ().errorText ("no ID").build ());
+    aErrors.add (SingleError.builderWarn ().errorID ("W").errorText ("warning").build ());
+    aMetrics.onConversion (InvoiceToEbInterface61Converter.class,
+                           EConversionDirection.INVOICE_TO_EBINTERFACE,
+                           EEbInterfaceVersion.V61,
+                           2_000,
+                           aErrors);
+
+    final ErrorList aErrors2 = new ErrorList ();
+    aErrors2.add (SingleError.builderError ().errorID ("B").errorText ("b").build ());
+    aMetrics.onConversion (InvoiceToEbInterface61Converter.class,
+                           EConversionDirection.INVOICE_TO_EBINTERFACE,
+                           EEbInterfaceVersion.V61,
+                           3_000,
+                           aErrors2);
+    aMetrics.onConversion (EbInterface61ToInvoiceConverter.class,
+                           EConversionDirection.EBINTERFACE_TO_INVOICE,
+                           EEbInterfaceVersion.V50,
+                           1_000,
+                           new ErrorList ());
+
+    assertEquals (3, aMetrics.getTotalHistogram ().getCount ());
+    assertEquals (6_000, aMetrics.getTotalHistogram ().getSum ());
+    assertEquals (2, aMetrics.getFailedCount ());
+    assertEquals (2, aMetrics.getAllConverterClasses ().size ());
+    assertNotNull (aMetrics.getConverterHistogram (InvoiceToEbInterface61Converter.class));
+    assertEquals (2, aMetrics.getConverterHistogram (InvoiceToEbInterface61Converter.class).getCount ());
+    assertEquals (2, aMetrics.getVersionHistogram (EEbInterfaceVersion.V61).getCount ());
+    assertEquals (1, aMetrics.getVersionHistogram (EEbInterfaceVersion.V50).getCount ());
+    assertEquals (0, aMetrics.getVersionHistogram (EEbInterfaceVersion.V40).getCount ());
+
+    assertEquals (1, aMetrics.getErrorCount ("A"));
+    assertEquals (2, aMetrics.getErrorCount ("B"));
+    assertEquals (1, aMetrics.getErrorCount (DefaultConversionMetrics.UNKNOWN_ERROR_ID));
+    // Warnings are not counted
+    assertEquals (0, aMetrics.getErrorCount ("W"));
+    assertEquals (0, aMetrics.getErrorCount (null));
+
+    final ICommonsOrderedMap <String, Long> aTop = aMetrics.getTopErrors (2);
+    assertEquals (2, aTop.size ());
+    assertEquals ("B", aTop.getFirstKey ());
+    assertEquals (Long.valueOf (2), aTop.get ("B"));
+    // Ties are ordered by ID
+    assertEquals (Long.valueOf (1), aTop.get ("A"));
+  }
+}
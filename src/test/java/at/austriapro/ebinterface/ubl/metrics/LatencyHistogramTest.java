@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link LatencyHistogram}.
+ *
+ * @author Philip Helger
+ */
+public final class LatencyHistogramTest
+{
+  @Test
+  public void testBucketBounds ()
+  {
+    // Small values are exact
+    for (int i = 0; i < LatencyHistogram.SUB_BUCKETS; ++i)
+    {
+      assertEquals (i, LatencyHistogram.getBucketIndex (i));
+      assertEquals (i, LatencyHistogram.getBucketUpperBound (i));
+    }
+
+    // Every value lies in its bucket and the bucket is at most 1/SUB_BUCKETS
+    // wide
+    for (final long nValue : new long [] { 8, 9, 15, 16, 17, 1000, 123_456, 1_000_000_007L, Long.MAX_VALUE })
+    {
+      final int nIndex = LatencyHistogram.getBucketIndex (nValue);
+      final long nUpper = LatencyHistogram.getBucketUpperBound (nIndex);
+      assertTrue (nValue + " > " + nUpper, nValue <= nUpper);
+      if (nIndex > 0)
+        assertTrue (nValue + " <= " + LatencyHistogram.getBucketUpperBound (nIndex - 1),
+                    nValue > LatencyHistogram.getBucketUpperBound (nIndex - 1));
+      assertTrue (nUpper - nValue <= nValue / LatencyHistogram.SUB_BUCKETS);
+    }
+  }
+
+  @Test
+  public void testPercentiles ()
+  {
+    final LatencyHistogram aHisto = new LatencyHistogram ();
+    assertEquals (0, aHisto.getCount ());
+    assertEquals (0, aHisto.getValueAtPercentile (50));
+
+    for (int i = 1; i <= 1000; ++i)
+      aHisto.record (i * 1000L);
+    aHisto.record (-5);
+
+    assertEquals (1001, aHisto.getCount ());
+    assertEquals (1000L * 1000 * 1001 / 2, aHisto.getSum ());
+    assertEquals (1_000_000, aHisto.getMax ());
+
+    final long nMedian = aHisto.getValueAtPercentile (50);
+    assertTrue (Long.toString (nMedian), nMedian >= 500_000 && nMedian <= 500_000 * 9 / 8);
+    final long nP99 = aHisto.getValueAtPercentile (99);
+    assertTrue (Long.toString (nP99), nP99 >= 990_000 && nP99 <= 1_000_000);
+    assertEquals (0, aHisto.getValueAtPercentile (0));
+    assertEquals (1_000_000, aHisto.getValueAtPercentile (100));
+  }
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+
+import com.helger.base.state.ESuccess;
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.ICommonsSet;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.SingleError;
+import com.helger.diagnostics.error.level.EErrorLevel;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.io.file.FileOperations;
+import com.helger.peppolid.IProcessIdentifier;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EConversionDirection;
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceIndex;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceKey;
+import at.austriapro.ebinterface.ubl.from.IProfileIDResolver;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+
+/**
+ * Test class for class {@link ConversionResultCache}.
+ *
+ * @author Philip Helger
+ */
+public final class ConversionResultCacheTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+  private static final File TARGET_FOLDER = new File ("generated/result-cache");
+  private static final byte [] DOC = "<Invoice/>".getBytes (StandardCharsets.UTF_8);
+
+  private static ErrorList _createErrorList ()
+  {
+    final ErrorList ret = new ErrorList ();
+    ret.add (SingleError.builderWarn ().errorID ("W1").errorFieldName ("ProfileID").errorText ("Warning").build ());
+    ret.add (SingleError.builderError ().errorID ("E1").errorLocation ("file.xml").errorText ("Error").build ());
+    return ret;
+  }
+
+  private static int _countDuplicateWarnings (@NonNull final ErrorList aErrorList)
+  {
+    int ret = 0;
+    for (final IError aError : aErrorList)
+      if (DuplicateInvoiceIndex.EText.DUPLICATE_INVOICE.name ().equals (aError.getErrorID ()))
+        ret++;
+    return ret;
+  }
+
+  @Test
+  public void testKey ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final String sID = ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                     EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                     LOCALE,
+                                                                     LOCALE,
+                                                                     aSettings);
+    assertEquals (sID,
+                  ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                 EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                 LOCALE,
+                                                                 LOCALE,
+                                                                 new ToEbinterfaceSettings ()));
+    // Caching the profile IDs does not change the identity
+    assertEquals (sID,
+                  ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                 EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                 LOCALE,
+                                                                 LOCALE,
+                                                                 new ToEbinterfaceSettings ().setProfileIDResolver (aSettings.getProfileIDResolver ()
+                                                                                                                             .withCache (10))));
+    assertNotEquals (sID,
+                     ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V60,
+                                                                    EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                    LOCALE,
+                                                                    LOCALE,
+                                                                    aSettings));
+    assertNotEquals (sID,
+                     ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                    EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                    Locale.ENGLISH,
+                                                                    LOCALE,
+                                                                    aSettings));
+    assertNotEquals (sID,
+                     ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                    EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                    LOCALE,
+                                                                    LOCALE,
+                                                                    new ToEbinterfaceSettings ().setUBLProfileIDMandatory (false)));
+
+    final String sKey = ConversionResultCache.createKey (sID, DOC);
+    assertEquals (64, sKey.length ());
+    assertEquals (sKey, ConversionResultCache.createKey (sID, DOC.clone ()));
+    assertNotEquals (sKey, ConversionResultCache.createKey (sID, "<Invoice />".getBytes (StandardCharsets.UTF_8)));
+    assertNotEquals (sKey, ConversionResultCache.createKey (sID + "x", DOC));
+  }
+
+  @Nullable
+  private static String _createIdentity (@NonNull final ToEbinterfaceSettings aSettings)
+  {
+    return ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                          EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                          LOCALE,
+                                                          LOCALE,
+                                                          aSettings);
+  }
+
+  @Test
+  public void testEverySettingChangesIdentity ()
+  {
+    final ToEbinterfaceSettings aDefault = new ToEbinterfaceSettings ();
+    final ToEbinterfaceSettings [] aChanged = { new ToEbinterfaceSettings ().setUBLVersionIDMandatory (!aDefault.isUBLVersionIDMandatory ()),
+                                                new ToEbinterfaceSettings ().setUBLProfileIDMandatory (!aDefault.isUBLProfileIDMandatory ()),
+                                                new ToEbinterfaceSettings ().setOrderReferenceIDMandatory (!aDefault.isOrderReferenceIDMandatory ()),
+                                                new ToEbinterfaceSettings ().setOrderReferenceIDMaxLength (aDefault.getOrderReferenceMaxLength () +
+                                                                                                           10),
+                                                new ToEbinterfaceSettings ().setDeliveryDateMandatory (!aDefault.isDeliveryDateMandatory ()),
+                                                new ToEbinterfaceSettings ().setEnforceSupplierEmailAddress (!aDefault.isEnforceSupplierEmailAddress ()),
+                                                new ToEbinterfaceSettings ().setEnforcedSupplierEmailAddress ("other@example.org"),
+                                                new ToEbinterfaceSettings ().setFallbackBillersInvoiceRecipientID ("4711"),
+                                                new ToEbinterfaceSettings ().setErrorOnPositionNumber (!aDefault.isErrorOnPositionNumber ()),
+                                                new ToEbinterfaceSettings ().setInvoicePaymentMethodMandatory (!aDefault.isInvoicePaymentMethodMandatory ()),
+                                                new ToEbinterfaceSettings ().setPrepaidAmountSupported (!aDefault.isPrepaidAmountSupported ()) };
+    // Every setting must be part of the identity
+    assertEquals (aDefault.getAllSettingValues ().size () - 1, aChanged.length);
+
+    final String sID = _createIdentity (aDefault);
+    assertNotNull (sID);
+    final ICommonsSet <String> aIDs = new CommonsHashSet <> ();
+    aIDs.add (sID);
+    for (final ToEbinterfaceSettings aSettings : aChanged)
+    {
+      final String sChangedID = _createIdentity (aSettings);
+      assertNotNull (sChangedID);
+      assertTrue (aSettings.toString (), aIDs.add (sChangedID));
+    }
+  }
+
+  @Test
+  public void testResolverWithoutIdentity ()
+  {
+    final IProfileIDResolver aResolver = sProfileID -> IProfileIDResolver.DEFAULT.apply (sProfileID);
+    assertNull (ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                               EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                               LOCALE,
+                                                               LOCALE,
+                                                               new ToEbinterfaceSettings ().setProfileIDResolver (aResolver)));
+    // Caching does not add an identity
+    assertNull (ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                               EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                               LOCALE,
+                                                               LOCALE,
+                                                               new ToEbinterfaceSettings ().setProfileIDResolver (aResolver.withCache (10))));
+
+    final IProfileIDResolver aResolverWithIdentity = new IProfileIDResolver ()
+    {
+      @Override
+      public IProcessIdentifier apply (final String sProfileID)
+      {
+        return IProfileIDResolver.DEFAULT.apply (sProfileID);
+      }
+
+      @Override
+      public String getCacheIdentity ()
+      {
+        return "custom-v1";
+      }
+    };
+    final String sID = ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                     EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                     LOCALE,
+                                                                     LOCALE,
+                                                                     new ToEbinterfaceSettings ().setProfileIDResolver (aResolverWithIdentity));
+    assertNotNull (sID);
+    assertNotEquals (sID,
+                     ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                    EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                    LOCALE,
+                                                                    LOCALE,
+                                                                    new ToEbinterfaceSettings ()));
+  }
+
+  @Test
+  public void testEvictionAndAge ()
+  {
+    final AtomicLong aClock = new AtomicLong (1000);
+    final ConversionResultCache aCache = new ConversionResultCache (2,
+                                                                    Duration.ofMillis (100),
+                                                                    null,
+                                                                    ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                                                    aClock::get);
+    assertNull (aCache.get ("a"));
+    assertEquals (1, aCache.getMissCount ());
+
+    final CachedConversionResult aResultA = aCache.put ("a", ESuccess.SUCCESS, DOC, _createErrorList (), LOCALE);
+    assertSame (aResultA, aCache.get ("a"));
+    assertEquals (2, aResultA.getErrorList ().size ());
+    aCache.put ("b", ESuccess.FAILURE, null, _createErrorList (), LOCALE);
+    // "b" is the least recently used one
+    aCache.get ("a");
+    aCache.put ("c", ESuccess.SUCCESS, DOC, new ErrorList (), LOCALE);
+    assertEquals (2, aCache.getCachedCount ());
+    assertEquals (1, aCache.getEvictionCount ());
+    assertNull (aCache.get ("b"));
+    assertNotNull (aCache.get ("a"));
+    assertNotNull (aCache.get ("c"));
+
+    // Too old
+    aClock.addAndGet (100);
+    assertNull (aCache.get ("a"));
+    assertEquals (1, aCache.removeExpired ());
+    assertEquals (0, aCache.getCachedCount ());
+
+    assertEquals (4, aCache.getHitCount ());
+    assertEquals (3, aCache.getMissCount ());
+    assertEquals (4 / 7d, aCache.getHitRate (), 0.0001);
+  }
+
+  @Test
+  public void testPersistence ()
+  {
+    FileOperations.deleteDirRecursiveIfExisting (TARGET_FOLDER);
+    final Path aDir = TARGET_FOLDER.toPath ();
+    final AtomicLong aClock = new AtomicLong (1000);
+
+    ConversionResultCache aCache = new ConversionResultCache (10,
+                                                              Duration.ofMinutes (1),
+                                                              aDir,
+                                                              ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                                              aClock::get);
+    final DuplicateInvoiceKey aKey = new DuplicateInvoiceKey (DuplicateInvoiceKey.EDocumentType.CREDIT_NOTE,
+                                                              "ATU12345678",
+                                                              "R-1",
+                                                              LocalDate.of (2026, 10, 17));
+    aCache.put ("a", ESuccess.SUCCESS, DOC, _createErrorList (), aKey, LOCALE);
+    aCache.put ("b", ESuccess.FAILURE, null, new ErrorList (), LOCALE);
+
+    // Simulate a restart
+    aCache = new ConversionResultCache (10,
+                                        Duration.ofMinutes (1),
+                                        aDir,
+                                        ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                        aClock::get);
+    final CachedConversionResult aResult = aCache.get ("a");
+    assertNotNull (aResult);
+    assertEquals (1, aCache.getDiskHitCount ());
+    assertTrue (aResult.getSuccess ().isSuccess ());
+    assertArrayEquals (DOC, aResult.getDocumentBytes ());
+    assertEquals (1000, aResult.getCreationTimeMillis ());
+    assertEquals (aKey, aResult.getDuplicateInvoiceKey ());
+    final ErrorList aErrorList = aResult.getErrorList ();
+    assertEquals (2, aErrorList.size ());
+    int nIndex = 0;
+    for (final IError aError : aErrorList)
+    {
+      if (nIndex++ == 0)
+      {
+        assertTrue (aError.getErrorLevel ().isLT (EErrorLevel.ERROR));
+        assertEquals ("W1", aError.getErrorID ());
+        assertEquals ("ProfileID", aError.getErrorFieldName ());
+        assertEquals ("Warning", aError.getErrorText (LOCALE));
+      }
+      else
+      {
+        assertTrue (aError.isError ());
+        assertEquals ("E1", aError.getErrorID ());
+        assertEquals ("Error", aError.getErrorText (LOCALE));
+      }
+    }
+
+    // Second access is from memory
+    assertSame (aResult, aCache.get ("a"));
+    assertEquals (1, aCache.getDiskHitCount ());
+
+    final CachedConversionResult aFailure = aCache.get ("b");
+    assertNotNull (aFailure);
+    assertTrue (aFailure.getSuccess ().isFailure ());
+    assertNull (aFailure.getDocumentBytes ());
+    assertNull (aFailure.getDuplicateInvoiceKey ());
+
+    // Expired on disk as well
+    aClock.addAndGet (Duration.ofMinutes (1).toMillis ());
+    aCache = new ConversionResultCache (10,
+                                        Duration.ofMinutes (1),
+                                        aDir,
+                                        ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                        aClock::get);
+    assertEquals (2, aCache.removeExpired ());
+    assertNull (aCache.get ("a"));
+    assertEquals (0, aCache.getDiskHitCount ());
+  }
+
+  @Test
+  public void testBrokenFile () throws IOException
+  {
+    FileOperations.deleteDirRecursiveIfExisting (TARGET_FOLDER);
+    final Path aDir = TARGET_FOLDER.toPath ();
+    final AtomicLong aClock = new AtomicLong (1000);
+
+    ConversionResultCache aCache = new ConversionResultCache (10,
+                                                              Duration.ofMinutes (1),
+                                                              aDir,
+                                                              ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                                              aClock::get);
+    aCache.put ("a", ESuccess.SUCCESS, DOC, _createErrorList (), LOCALE);
+
+    // Corrupt the length of the document: magic, version, time and success
+    // flag come first
+    final Path aFile = aDir.resolve ("a.result");
+    final byte [] aBytes = Files.readAllBytes (aFile);
+    final int nOffset = 2 * Integer.BYTES + Long.BYTES + 1;
+    aBytes[nOffset] = (byte) 0x7f;
+    Files.write (aFile, aBytes);
+
+    aCache = new ConversionResultCache (10,
+                                        Duration.ofMinutes (1),
+                                        aDir,
+                                        ConversionResultCache.DEFAULT_MAX_DISK_BYTES,
+                                        aClock::get);
+    assertNull (aCache.get ("a"));
+    assertEquals (1, aCache.getMissCount ());
+    // Broken files are deleted
+    assertFalse (Files.exists (aFile));
+  }
+
+  @Test
+  public void testMaxDiskBytes () throws IOException
+  {
+    FileOperations.deleteDirRecursiveIfExisting (TARGET_FOLDER);
+    final Path aDir = TARGET_FOLDER.toPath ();
+    final AtomicLong aClock = new AtomicLong (1000);
+    final byte [] aDoc = new byte [1000];
+
+    ConversionResultCache aCache = new ConversionResultCache (10, Duration.ofMinutes (1), aDir, 5000, aClock::get);
+    for (int i = 0; i < 10; ++i)
+      aCache.put ("k" + i, ESuccess.SUCCESS, aDoc, new ErrorList (), LOCALE);
+    // Too large to be persisted at all
+    aCache.put ("large", ESuccess.SUCCESS, new byte [6000], new ErrorList (), LOCALE);
+    assertFalse (Files.exists (aDir.resolve ("large.result")));
+
+    long nTotalSize = 0;
+    int nFiles = 0;
+    try (final DirectoryStream <Path> aDS = Files.newDirectoryStream (aDir, "*.result"))
+    {
+      for (final Path aFile : aDS)
+      {
+        nTotalSize += Files.size (aFile);
+        nFiles++;
+      }
+    }
+    assertTrue (nTotalSize <= 5000);
+    assertTrue (nFiles > 0 && nFiles < 10);
+
+    // A smaller limit after a restart shrinks the directory
+    aCache = new ConversionResultCache (10, Duration.ofMinutes (1), aDir, 2500, aClock::get);
+    assertEquals (2500, aCache.getMaxDiskBytes ());
+    nTotalSize = 0;
+    try (final DirectoryStream <Path> aDS = Files.newDirectoryStream (aDir, "*.result"))
+    {
+      for (final Path aFile : aDS)
+        nTotalSize += Files.size (aFile);
+    }
+    assertTrue (nTotalSize <= 2500);
+  }
+
+  @Test
+  public void testDocumentConverter ()
+  {
+    final byte [] aInvoice = UBL21Marshaller.invoice ()
+                                            .getAsBytes (new SyntheticDocumentGenerator ().setLineCount (20)
+                                                                                          .createInvoice ());
+    assertNotNull (aInvoice);
+    final ConversionResultCache aCache = new ConversionResultCache ();
+    final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                      LOCALE,
+                                                                                      LOCALE,
+                                                                                      new ToEbinterfaceSettings ());
+
+    // Reference without cache
+    ErrorList aErrorList = new ErrorList ();
+    ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertInvoiceToEbInterface (aInvoice, aBAOS, aErrorList).isSuccess ());
+    final byte [] aExpected = aBAOS.toByteArray ();
+    final int nErrors = aErrorList.size ();
+
+    aConverter.setResultCache (aCache);
+    for (int i = 0; i < 3; ++i)
+    {
+      aErrorList = new ErrorList ();
+      aBAOS = new ByteArrayOutputStream ();
+      assertTrue (aConverter.convertInvoiceToEbInterface (aInvoice, aBAOS, aErrorList).isSuccess ());
+      assertArrayEquals (aExpected, aBAOS.toByteArray ());
+      assertEquals (nErrors, aErrorList.size ());
+    }
+    assertEquals (1, aCache.getMissCount ());
+    assertEquals (2, aCache.getHitCount ());
+
+    // Not an invoice - the failure is cached as well
+    for (int i = 0; i < 2; ++i)
+    {
+      aErrorList = new ErrorList ();
+      aBAOS = new ByteArrayOutputStream ();
+      assertTrue (aConverter.convertInvoiceToEbInterface (DOC, aBAOS, aErrorList).isFailure ());
+      assertEquals (0, aBAOS.size ());
+      assertTrue (aErrorList.containsAtLeastOneError ());
+    }
+    assertEquals (2, aCache.getMissCount ());
+    assertEquals (3, aCache.getHitCount ());
+  }
+
+  @Test
+  public void testChangedSettingMissesCache ()
+  {
+    final byte [] aInvoice = UBL21Marshaller.invoice ()
+                                            .getAsBytes (new SyntheticDocumentGenerator ().setLineCount (5)
+                                                                                          .createInvoice ());
+    assertNotNull (aInvoice);
+    final ConversionResultCache aCache = new ConversionResultCache ();
+
+    final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                      LOCALE,
+                                                                                      LOCALE,
+                                                                                      new ToEbinterfaceSettings ());
+    aConverter.setResultCache (aCache);
+    assertTrue (aConverter.convertInvoiceToEbInterface (aInvoice, new ByteArrayOutputStream (), new ErrorList ())
+                          .isSuccess ());
+    assertEquals (1, aCache.getMissCount ());
+
+    // Same document, but a different setting - must not use the cached result
+    final EbInterfaceDocumentConverter aOtherConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                           LOCALE,
+                                                                                           LOCALE,
+                                                                                           new ToEbinterfaceSettings ().setDeliveryDateMandatory (true));
+    aOtherConverter.setResultCache (aCache);
+    aOtherConverter.convertInvoiceToEbInterface (aInvoice, new ByteArrayOutputStream (), new ErrorList ());
+    assertEquals (2, aCache.getMissCount ());
+    assertEquals (0, aCache.getHitCount ());
+
+    // The original settings still hit
+    aConverter.convertInvoiceToEbInterface (aInvoice, new ByteArrayOutputStream (), new ErrorList ());
+    assertEquals (1, aCache.getHitCount ());
+  }
+
+  @Test
+  public void testDuplicateCheckOnCacheHit () throws IOException
+  {
+    final byte [] aInvoice = UBL21Marshaller.invoice ()
+                                            .getAsBytes (new SyntheticDocumentGenerator ().setLineCount (5)
+                                                                                          .createInvoice ());
+    assertNotNull (aInvoice);
+    final File aIndexDir = new File ("generated/result-cache-duplicates");
+    FileOperations.deleteDirRecursiveIfExisting (aIndexDir);
+    final ConversionResultCache aCache = new ConversionResultCache ();
+
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aIndexDir.toPath ()))
+    {
+      final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                        LOCALE,
+                                                                                        LOCALE,
+                                                                                        new ToEbinterfaceSettings ());
+      aConverter.setResultCache (aCache).setDuplicateInvoiceIndex (aIndex);
+
+      ErrorList aErrorList = new ErrorList ();
+      assertTrue (aConverter.convertInvoiceToEbInterface (aInvoice, new ByteArrayOutputStream (), aErrorList)
+                            .isSuccess ());
+      assertEquals (0, _countDuplicateWarnings (aErrorList));
+      assertEquals (1, aIndex.getEntryCount ());
+
+      // Answered by the cache, but still a duplicate
+      aErrorList = new ErrorList ();
+      assertTrue (aConverter.convertInvoiceToEbInterface (aInvoice, new ByteArrayOutputStream (), aErrorList)
+                            .isSuccess ());
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (1, _countDuplicateWarnings (aErrorList));
+      assertEquals (1, aIndex.getDuplicateCount ());
+
+      // The warning is not part of the cached result
+      final String sID = ConversionResultCache.createConverterIdentity (EEbInterfaceVersion.V61,
+                                                                       EConversionDirection.INVOICE_TO_EBINTERFACE,
+                                                                       LOCALE,
+                                                                       LOCALE,
+                                                                       new ToEbinterfaceSettings ());
+      assertNotNull (sID);
+      final CachedConversionResult aResult = aCache.get (ConversionResultCache.createKey (sID, aInvoice));
+      assertNotNull (aResult);
+      assertNotNull (aResult.getDuplicateInvoiceKey ());
+      assertEquals (0, _countDuplicateWarnings (aResult.getErrorList ()));
+    }
+  }
+}
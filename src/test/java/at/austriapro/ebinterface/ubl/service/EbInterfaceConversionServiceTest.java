@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.EbInterfaceConverterRegistry;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link EbInterfaceConversionService}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterfaceConversionServiceTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+
+  private static void _waitFor (final String sWhat, final BooleanSupplier aCondition) throws InterruptedException
+  {
+    final long nEnd = System.nanoTime () + TimeUnit.SECONDS.toNanos (30);
+    while (!aCondition.getAsBoolean ())
+    {
+      if (System.nanoTime () > nEnd)
+        fail ("Timeout waiting for " + sWhat);
+      Thread.sleep (5);
+    }
+  }
+
+  @Test
+  public void testSameResultsAsDirectConversion () throws Exception
+  {
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (30)
+                                                                             .setAllowanceChargeDensity (0.3);
+    final InvoiceType aInvoice = aGen.createInvoice ();
+    final CreditNoteType aCreditNote = aGen.createCreditNote ();
+    final EbInterfaceConverterRegistry aRegistry = EbInterfaceConverterRegistry.getInstance ();
+
+    try (final EbInterfaceConversionService aService = new EbInterfaceConversionService (2))
+    {
+      final ICommonsList <ConversionResult <Ebi61InvoiceType>> aWritten = new CommonsArrayList <> ();
+      final ConversionResult <Ebi61InvoiceType> aInvResult = aService.submitInvoiceToEbInterface ( () -> aInvoice,
+                                                                                                  aRegistry.getInvoiceToEbInterfaceConverter (Ebi61InvoiceType.class,
+                                                                                                                                              LOCALE,
+                                                                                                                                              LOCALE,
+                                                                                                                                              new ToEbinterfaceSettings ()),
+                                                                                                  aWritten::add)
+                                                                     .get ();
+      assertTrue (aInvResult.getErrorList ().toString (), aInvResult.isSuccess ());
+      assertEquals (1, aWritten.size ());
+      assertSame (aInvResult, aWritten.get (0));
+
+      final ErrorList aErrorList = new ErrorList ();
+      assertEquals (new InvoiceToEbInterface61Converter (LOCALE, LOCALE, new ToEbinterfaceSettings ()).convertToEbInterface (aInvoice,
+                                                                                                                            aErrorList),
+                    aInvResult.getDocument ());
+      assertEquals (aErrorList, aInvResult.getErrorList ());
+
+      final ConversionResult <Ebi61InvoiceType> aCNResult = aService.submitCreditNoteToEbInterface ( () -> aCreditNote,
+                                                                                                    aRegistry.getCreditNoteToEbInterfaceConverter (Ebi61InvoiceType.class,
+                                                                                                                                                   LOCALE,
+                                                                                                                                                   LOCALE,
+                                                                                                                                                   new ToEbinterfaceSettings ()),
+                                                                                                    null)
+                                                                     .get ();
+      assertTrue (aCNResult.getErrorList ().toString (), aCNResult.isSuccess ());
+      assertEquals (new CreditNoteToEbInterface61Converter (LOCALE, LOCALE, new ToEbinterfaceSettings ()).convertToEbInterface (aCreditNote,
+                                                                                                                               new ErrorList ()),
+                    aCNResult.getDocument ());
+
+      final InvoiceType aUBL = aService.submitEbInterfaceToInvoice (aInvResult::getDocument,
+                                                                    aRegistry.getEbInterfaceToInvoiceConverter (Ebi61InvoiceType.class,
+                                                                                                                LOCALE,
+                                                                                                                LOCALE),
+                                                                    null)
+                                       .get ();
+      assertEquals (new EbInterface61ToInvoiceConverter (LOCALE, LOCALE).convertInvoice (aInvResult.getDocument ()),
+                    aUBL);
+
+      assertEquals (0, aService.getInFlightCount ());
+      assertEquals (0, aService.getQueueDepth ());
+      assertEquals (0, aService.getActiveConversionCount ());
+    }
+  }
+
+  @Test
+  public void testBoundedConcurrency () throws Exception
+  {
+    final int nMaxConversions = 2;
+    final int nDocuments = 10;
+    final CountDownLatch aRelease = new CountDownLatch (1);
+    final AtomicInteger aRunning = new AtomicInteger (0);
+    final AtomicInteger aMaxRunning = new AtomicInteger (0);
+
+    try (final EbInterfaceConversionService aService = new EbInterfaceConversionService (nMaxConversions))
+    {
+      final ICommonsList <CompletableFuture <Integer>> aFutures = new CommonsArrayList <> ();
+      for (int i = 0; i < nDocuments; ++i)
+      {
+        final int nValue = i;
+        aFutures.add (aService.submit ( () -> Integer.valueOf (nValue), aSource -> {
+          aMaxRunning.accumulateAndGet (aRunning.incrementAndGet (), Math::max);
+          try
+          {
+            aRelease.await ();
+          }
+          catch (final InterruptedException ex)
+          {
+            Thread.currentThread ().interrupt ();
+          }
+          aRunning.decrementAndGet ();
+          return Integer.valueOf (aSource.intValue () * 2);
+        }, null));
+      }
+
+      _waitFor ("queue", () -> aService.getActiveConversionCount () == nMaxConversions &&
+                               aService.getQueueDepth () == nDocuments - nMaxConversions);
+      assertEquals (nDocuments, aService.getInFlightCount ());
+
+      aRelease.countDown ();
+      for (int i = 0; i < nDocuments; ++i)
+        assertEquals (i * 2, aFutures.get (i).get (30, TimeUnit.SECONDS).intValue ());
+
+      assertTrue (aMaxRunning.get () <= nMaxConversions);
+      assertEquals (0, aService.getInFlightCount ());
+      assertEquals (0, aService.getQueueDepth ());
+      assertEquals (0, aService.getActiveConversionCount ());
+    }
+  }
+
+  @Test
+  public void testFailingReader () throws Exception
+  {
+    try (final EbInterfaceConversionService aService = new EbInterfaceConversionService (1))
+    {
+      final CompletableFuture <String> aFuture = aService.submit ( () -> {
+        throw new IOException ("Read error");
+      }, Object::toString, null);
+      try
+      {
+        aFuture.get ();
+        fail ();
+      }
+      catch (final ExecutionException ex)
+      {
+        assertNotNull (ex.getCause ());
+        assertEquals ("Read error", ex.getCause ().getMessage ());
+      }
+      assertEquals (0, aService.getInFlightCount ());
+    }
+  }
+}
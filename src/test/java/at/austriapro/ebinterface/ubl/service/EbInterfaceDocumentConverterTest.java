@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.IError;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.io.file.FileOperations;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.EEbInterfaceVersion;
+import at.austriapro.ebinterface.ubl.from.DuplicateInvoiceIndex;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link EbInterfaceDocumentConverter}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterfaceDocumentConverterTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+
+  @Test
+  public void testSameAsPerCallMarshaller ()
+  {
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (30)
+                                                                             .setAllowanceChargeDensity (0.3);
+    final InvoiceType aInvoice = aGen.createInvoice ();
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                      LOCALE,
+                                                                                      LOCALE,
+                                                                                      aSettings);
+    final EbInterface61Marshaller aEbiMarshaller = new EbInterface61Marshaller ();
+
+    // Invoice
+    final Ebi61InvoiceType aExpectedInvoice = new InvoiceToEbInterface61Converter (LOCALE,
+                                                                                   LOCALE,
+                                                                                   aSettings).convertToEbInterface (aInvoice,
+                                                                                                                    new ErrorList ());
+    assertNotNull (aExpectedInvoice);
+    ErrorList aErrorList = new ErrorList ();
+    ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertInvoiceToEbInterface (UBL21Marshaller.invoice ().getAsBytes (aInvoice),
+                                                        aBAOS,
+                                                        aErrorList)
+                          .isSuccess ());
+    assertEquals (aExpectedInvoice, aEbiMarshaller.read (aBAOS.toByteArray ()));
+
+    // Credit note
+    final CreditNoteType aCreditNote = aGen.createCreditNote ();
+    final Ebi61InvoiceType aExpectedCreditNote = new CreditNoteToEbInterface61Converter (LOCALE,
+                                                                                         LOCALE,
+                                                                                         aSettings).convertToEbInterface (aCreditNote,
+                                                                                                                          new ErrorList ());
+    assertNotNull (aExpectedCreditNote);
+    aErrorList = new ErrorList ();
+    aBAOS = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertCreditNoteToEbInterface (UBL21Marshaller.creditNote ().getAsBytes (aCreditNote),
+                                                           aBAOS,
+                                                           aErrorList)
+                          .isSuccess ());
+    assertEquals (aExpectedCreditNote, aEbiMarshaller.read (aBAOS.toByteArray ()));
+
+    // And back
+    final Ebi61InvoiceType aEbiDoc = aGen.createEbInterface61 ();
+    final InvoiceType aExpectedUBL = new EbInterface61ToInvoiceConverter (LOCALE, LOCALE).convertInvoice (aEbiDoc);
+    assertNotNull (aExpectedUBL);
+    aErrorList = new ErrorList ();
+    aBAOS = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertEbInterfaceToInvoice (aEbiMarshaller.getAsBytes (aEbiDoc), aBAOS, aErrorList)
+                          .isSuccess ());
+    assertEquals (aExpectedUBL, UBL21Marshaller.invoice ().read (aBAOS.toByteArray ()));
+  }
+
+  @Test
+  public void testConcurrentUse () throws Exception
+  {
+    final int nThreads = 8;
+    final byte [] aUBLBytes = UBL21Marshaller.invoice ()
+                                             .getAsBytes (new SyntheticDocumentGenerator ().setLineCount (20)
+                                                                                           .createInvoice ());
+    final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                      LOCALE,
+                                                                                      LOCALE,
+                                                                                      new ToEbinterfaceSettings ());
+    final ByteArrayOutputStream aExpected = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertInvoiceToEbInterface (aUBLBytes, aExpected, new ErrorList ()).isSuccess ());
+
+    final ExecutorService aES = Executors.newFixedThreadPool (nThreads);
+    try
+    {
+      final ICommonsList <Future <byte []>> aFutures = new CommonsArrayList <> ();
+      for (int i = 0; i < nThreads * 10; ++i)
+        aFutures.add (aES.submit ( () -> {
+          final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+          final ErrorList aErrorList = new ErrorList ();
+          assertTrue (aErrorList.toString (),
+                      aConverter.convertInvoiceToEbInterface (aUBLBytes, aBAOS, aErrorList).isSuccess ());
+          return aBAOS.toByteArray ();
+        }));
+      for (final Future <byte []> aFuture : aFutures)
+        assertEquals (aExpected.toString (StandardCharsets.UTF_8),
+                      new String (aFuture.get (), StandardCharsets.UTF_8));
+    }
+    finally
+    {
+      aES.shutdownNow ();
+    }
+  }
+
+  @Test
+  public void testReadError ()
+  {
+    final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                      LOCALE,
+                                                                                      LOCALE,
+                                                                                      new ToEbinterfaceSettings ());
+    final ErrorList aErrorList = new ErrorList ();
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    assertTrue (aConverter.convertInvoiceToEbInterface ("<Invoice />".getBytes (StandardCharsets.UTF_8),
+                                                        aBAOS,
+                                                        aErrorList)
+                          .isFailure ());
+    assertTrue (aErrorList.containsAtLeastOneError ());
+    assertEquals (0, aBAOS.size ());
+  }
+
+  @Test
+  public void testDuplicateInvoice () throws Exception
+  {
+    final File aDir = new File ("generated/duplicate-index/document-converter");
+    FileOperations.deleteDirRecursiveIfExisting (aDir);
+    final byte [] aUBLBytes = UBL21Marshaller.invoice ()
+                                             .getAsBytes (new SyntheticDocumentGenerator ().setLineCount (5)
+                                                                                           .createInvoice ());
+    try (final DuplicateInvoiceIndex aIndex = new DuplicateInvoiceIndex (aDir.toPath ()))
+    {
+      final EbInterfaceDocumentConverter aConverter = new EbInterfaceDocumentConverter (EEbInterfaceVersion.V61,
+                                                                                        LOCALE,
+                                                                                        LOCALE,
+                                                                                        new ToEbinterfaceSettings ()).setDuplicateInvoiceIndex (aIndex);
+      for (int i = 0; i < 2; ++i)
+      {
+        final ErrorList aErrorList = new ErrorList ();
+        assertTrue (aConverter.convertInvoiceToEbInterface (aUBLBytes, new ByteArrayOutputStream (), aErrorList)
+                              .isSuccess ());
+        boolean bDuplicate = false;
+        for (final IError aError : aErrorList)
+          if (DuplicateInvoiceIndex.EText.DUPLICATE_INVOICE.name ().equals (aError.getErrorID ()))
+            bDuplicate = true;
+        // Only the second conversion is a duplicate
+        assertEquals (i == 1, bDuplicate);
+      }
+      assertEquals (1, aIndex.getEntryCount ());
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.ebinterface.v61.Ebi61DetailsType;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.ebinterface.v61.Ebi61ListLineItemType;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+
+/**
+ * Test class for class {@link EbInterface61StreamWriter}.
+ *
+ * @author Philip Helger
+ */
+public final class EbInterface61StreamWriterTest
+{
+  @Test
+  public void testSameAsMarshaller ()
+  {
+    final Ebi61InvoiceType aEbiDoc = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                          Locale.GERMANY,
+                                                                          new ToEbinterfaceSettings ()).convertToEbInterface (new SyntheticDocumentGenerator ().setLineCount (1000)
+                                                                                                                                                               .createInvoice (),
+                                                                                                                              new ErrorList ());
+    assertNotNull (aEbiDoc);
+    final Ebi61DetailsType aDetails = aEbiDoc.getDetails ();
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    try (final EbInterface61StreamWriter aWriter = new EbInterface61StreamWriter (aBAOS))
+    {
+      aWriter.writeHeader (aEbiDoc);
+      for (final Ebi61ListLineItemType aItem : aDetails.getItemListAtIndex (0).getListLineItem ())
+        aWriter.writeListLineItem (aItem);
+      aWriter.writeTrailer (aEbiDoc);
+      assertEquals (1000, aWriter.getListLineItemCount ());
+    }
+    // The details of the document are not touched
+    assertSame (aDetails, aEbiDoc.getDetails ());
+
+    final EbInterface61Marshaller aMarshaller = new EbInterface61Marshaller ();
+    final Ebi61InvoiceType aStreamed = aMarshaller.read (aBAOS.toByteArray ());
+    assertNotNull (aStreamed);
+    assertEquals (aMarshaller.read (aMarshaller.getAsBytes (aEbiDoc)), aStreamed);
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testLineBeforeHeader ()
+  {
+    try (final EbInterface61StreamWriter aWriter = new EbInterface61StreamWriter (new ByteArrayOutputStream ()))
+    {
+      aWriter.writeListLineItem (new Ebi61ListLineItemType ());
+    }
+  }
+}
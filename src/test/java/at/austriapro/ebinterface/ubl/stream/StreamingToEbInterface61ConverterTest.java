@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Locale;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.EbInterface61Marshaller;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+import com.helger.ebinterface.v61.Ebi61ListLineItemType;
+import com.helger.io.file.FileSystemIterator;
+import com.helger.io.file.IFileFilter;
+import com.helger.io.resource.FileSystemResource;
+import com.helger.io.resource.IReadableResource;
+import com.helger.io.resource.inmemory.ReadableResourceByteArray;
+import com.helger.io.resource.inmemory.ReadableResourceInputStream;
+import com.helger.ubl21.UBL21Marshaller;
+
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.ICustomInvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.testdata.SyntheticDocumentGenerator;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link StreamingToEbInterface61Converter}.
+ *
+ * @author Philip Helger
+ */
+public final class StreamingToEbInterface61ConverterTest
+{
+  private static final Locale LOCALE = Locale.GERMANY;
+  private static final String PATH_UBL = "src/test/resources/external/ubl/";
+
+  @NonNull
+  private static ICommonsList <IReadableResource> _getTestFiles (@NonNull final String sDir)
+  {
+    final ICommonsList <IReadableResource> ret = new CommonsArrayList <> ();
+    for (final File aFile : new FileSystemIterator (new File (PATH_UBL + sDir)).withFilter (IFileFilter.filenameEndsWith (".xml")))
+      ret.add (new FileSystemResource (aFile));
+    return ret;
+  }
+
+  @Test
+  public void testInvoiceSameAsInMemory ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final StreamingToEbInterface61Converter aStreamingConverter = new StreamingToEbInterface61Converter (LOCALE,
+                                                                                                         LOCALE,
+                                                                                                         aSettings);
+    for (final IReadableResource aRes : _getTestFiles ("invoice"))
+    {
+      final InvoiceType aUBLDoc = UBL21Marshaller.invoice ().read (aRes);
+      if (aUBLDoc == null)
+        continue;
+
+      final ErrorList aErrorList = new ErrorList ();
+      final Ebi61InvoiceType aExpected = new InvoiceToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                               aErrorList);
+
+      final ErrorList aStreamingErrorList = new ErrorList ();
+      final Ebi61InvoiceType aStreamed = aStreamingConverter.convertInvoice (aRes, null, aStreamingErrorList);
+      assertEquals (aRes.getPath (), aExpected, aStreamed);
+      assertEquals (aRes.getPath (), aErrorList.getAllErrors (), aStreamingErrorList.getAllErrors ());
+    }
+  }
+
+  @Test
+  public void testCreditNoteSameAsInMemory ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final StreamingToEbInterface61Converter aStreamingConverter = new StreamingToEbInterface61Converter (LOCALE,
+                                                                                                         LOCALE,
+                                                                                                         aSettings);
+    for (final IReadableResource aRes : _getTestFiles ("creditnote"))
+    {
+      final CreditNoteType aUBLDoc = UBL21Marshaller.creditNote ().read (aRes);
+      if (aUBLDoc == null)
+        continue;
+
+      final ErrorList aErrorList = new ErrorList ();
+      final Ebi61InvoiceType aExpected = new CreditNoteToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                                  aErrorList);
+
+      final ErrorList aStreamingErrorList = new ErrorList ();
+      final Ebi61InvoiceType aStreamed = aStreamingConverter.convertCreditNote (aRes, null, aStreamingErrorList);
+      assertEquals (aRes.getPath (), aExpected, aStreamed);
+      assertEquals (aRes.getPath (), aErrorList.getAllErrors (), aStreamingErrorList.getAllErrors ());
+    }
+  }
+
+  @Test
+  public void testLineConsumer ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final InvoiceType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (500)
+                                                                 .setAllowanceChargeDensity (0.5)
+                                                                 .createInvoice ();
+    final ErrorList aErrorList = new ErrorList ();
+    final Ebi61InvoiceType aExpected = new InvoiceToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                             aErrorList);
+    assertNotNull (aExpected);
+
+    final ICommonsList <Ebi61ListLineItemType> aLineItems = new CommonsArrayList <> ();
+    final ErrorList aStreamingErrorList = new ErrorList ();
+    final Ebi61InvoiceType aStreamed = new StreamingToEbInterface61Converter (LOCALE,
+                                                                              LOCALE,
+                                                                              aSettings).convertInvoice (new ReadableResourceByteArray ("synthetic.xml",
+                                                                                                                                        UBL21Marshaller.invoice ()
+                                                                                                                                                       .getAsBytes (aUBLDoc)),
+                                                                                                         aLineItems::add,
+                                                                                                         aStreamingErrorList);
+    assertNotNull (aStreamed);
+    assertEquals (aErrorList.getAllErrors (), aStreamingErrorList.getAllErrors ());
+
+    // The line items went to the consumer
+    assertNull (aStreamed.getDetails ());
+    assertEquals (aExpected.getDetails ().getItemList ().get (0).getListLineItem (), aLineItems);
+
+    // Everything else is identical
+    aStreamed.setDetails (aExpected.getDetails ());
+    assertEquals (aExpected, aStreamed);
+  }
+
+  @Test
+  public void testConvertAndWriteSameAsInMemory ()
+  {
+    final ToEbinterfaceSettings aSettings = new ToEbinterfaceSettings ();
+    final StreamingToEbInterface61Converter aStreamingConverter = new StreamingToEbInterface61Converter (LOCALE,
+                                                                                                         LOCALE,
+                                                                                                         aSettings);
+    final EbInterface61Marshaller aMarshaller = new EbInterface61Marshaller ();
+    for (final IReadableResource aRes : _getTestFiles ("invoice"))
+    {
+      final InvoiceType aUBLDoc = UBL21Marshaller.invoice ().read (aRes);
+      if (aUBLDoc == null)
+        continue;
+
+      final ErrorList aErrorList = new ErrorList ();
+      final Ebi61InvoiceType aExpected = new InvoiceToEbInterface61Converter (LOCALE, LOCALE, aSettings).convertToEbInterface (aUBLDoc,
+                                                                                                                               aErrorList);
+      if (aExpected == null || aErrorList.containsAtLeastOneError ())
+        continue;
+
+      final ErrorList aStreamingErrorList = new ErrorList ();
+      final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+      assertTrue (aRes.getPath (),
+                  aStreamingConverter.convertAndWriteInvoice (aRes, aBAOS, aStreamingErrorList).isSuccess ());
+      assertEquals (aRes.getPath (), aErrorList.getAllErrors (), aStreamingErrorList.getAllErrors ());
+
+      // Compare the re-read documents, to be independent of the XML
+      // serialization
+      final Ebi61InvoiceType aStreamed = aMarshaller.read (aBAOS.toByteArray ());
+      assertNotNull (aRes.getPath (), aStreamed);
+      assertEquals (aRes.getPath (), aMarshaller.read (aMarshaller.getAsBytes (aExpected)), aStreamed);
+    }
+  }
+
+  @Test
+  public void testWrongDocumentType ()
+  {
+    final IReadableResource aRes = _getTestFiles ("creditnote").get (0);
+    final ErrorList aErrorList = new ErrorList ();
+    final Ebi61InvoiceType aEbiDoc = new StreamingToEbInterface61Converter (LOCALE,
+                                                                            LOCALE,
+                                                                            new ToEbinterfaceSettings ()).convertInvoice (aRes,
+                                                                                                                          null,
+                                                                                                                          aErrorList);
+    assertNull (aEbiDoc);
+    assertTrue (aErrorList.containsAtLeastOneError ());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testOneShotResource () throws Exception
+  {
+    final IReadableResource aRes = _getTestFiles ("invoice").get (0);
+    new StreamingToEbInterface61Converter (LOCALE,
+                                           LOCALE,
+                                           new ToEbinterfaceSettings ()).convertInvoice (new ReadableResourceInputStream (aRes.getPath (),
+                                                                                                                          aRes.getInputStream ()),
+                                                                                         null,
+                                                                                         new ErrorList ());
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testCustomizerNotSupported ()
+  {
+    final IReadableResource aRes = _getTestFiles ("invoice").get (0);
+    final StreamingToEbInterface61Converter aConverter = new StreamingToEbInterface61Converter (LOCALE,
+                                                                                                LOCALE,
+                                                                                                new ToEbinterfaceSettings ());
+    aConverter.getInvoiceConverter ().setCustomizer (new ICustomInvoiceToEbInterface61Converter ()
+    {});
+    aConverter.convertInvoice (aRes, null, new ErrorList ());
+  }
+}
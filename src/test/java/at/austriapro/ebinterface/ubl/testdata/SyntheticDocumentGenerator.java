@@ -0,0 +1,659 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.testdata;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.base.CGlobal;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.numeric.BigHelper;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.datetime.xml.XMLOffsetDate;
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v40.Ebi40InvoiceType;
+import com.helger.ebinterface.v41.Ebi41InvoiceType;
+import com.helger.ebinterface.v42.Ebi42InvoiceType;
+import com.helger.ebinterface.v43.Ebi43InvoiceType;
+import com.helger.ebinterface.v50.Ebi50InvoiceType;
+import com.helger.ebinterface.v60.Ebi60InvoiceType;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.AbstractEbInterfaceUBLConverter;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface40Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface41Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface42Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface43Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface50Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface60Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AddressType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.AllowanceChargeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.BranchType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ContactType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CountryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CreditNoteLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.CustomerPartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.FinancialAccountType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.InvoiceLineType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.ItemType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.MonetaryTotalType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.OrderReferenceType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyNameType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyTaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PaymentMeansType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PeriodType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.PriceType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.SupplierPartyType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxCategoryType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSchemeType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxSubtotalType;
+import oasis.names.specification.ubl.schema.xsd.commonaggregatecomponents_21.TaxTotalType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.AllowanceChargeReasonType;
+import oasis.names.specification.ubl.schema.xsd.commonbasiccomponents_21.PaymentIDType;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Deterministic generator for synthetic UBL 2.1 invoices and credit notes of arbitrary size. It is
+ * meant for stress, scaling and benchmark tests, where the test files in
+ * <code>src/test/resources/external</code> are far too small. The same settings and the same seed
+ * always create the same document. All created documents can be converted to all ebInterface
+ * versions without errors - the matching ebInterface documents are created by running the regular
+ * UBL to ebInterface converters on the generated UBL invoice.<br>
+ * Configurable are the number of lines, the number of different tax rates, the density of
+ * allowances/charges and the number of payment means.
+ *
+ * @author Philip Helger
+ */
+public final class SyntheticDocumentGenerator
+{
+  public static final long DEFAULT_SEED = 20240115L;
+  public static final int DEFAULT_LINE_COUNT = 100;
+  public static final int DEFAULT_TAX_RATE_COUNT = 3;
+  public static final double DEFAULT_ALLOWANCE_CHARGE_DENSITY = 0.1;
+  public static final int DEFAULT_PAYMENT_MEANS_COUNT = 1;
+
+  private static final String CURRENCY = "EUR";
+  private static final String CUSTOMIZATION_ID = "urn:cen.eu:en16931:2017#compliant#urn:fdc:peppol.eu:2017:poacc:billing:3.0";
+  private static final String PROFILE_ID = "urn:fdc:peppol.eu:2017:poacc:billing:01:1.0";
+  private static final LocalDate ISSUE_DATE = LocalDate.of (2024, 1, 15);
+  private static final BigDecimal LINE_ALLOWANCE_CHARGE_FACTOR = new BigDecimal ("0.05");
+  private static final BigDecimal GLOBAL_ALLOWANCE_FACTOR = new BigDecimal ("0.02");
+  private static final String [] PAYMENT_MEANS_CODES = { AbstractEbInterfaceUBLConverter.PAYMENT_MEANS_SEPA_CREDIT_TRANSFER,
+                                                         AbstractEbInterfaceUBLConverter.PAYMENT_MEANS_CREDIT_TRANSFER,
+                                                         AbstractEbInterfaceUBLConverter.PAYMENT_MEANS_DEBIT_TRANSFER,
+                                                         AbstractEbInterfaceUBLConverter.PAYMENT_MEANS_PAYMENT_TO_BANK_ACCOUNT };
+
+  /**
+   * A single VAT rate. Tax exemptions are not used, because ebInterface 4.0 cannot mix them with
+   * regular VAT items.
+   */
+  private static final class TaxRate
+  {
+    private final String m_sCategoryID;
+    private final BigDecimal m_aPercent;
+
+    TaxRate (@NonNull final String sCategoryID, @NonNull final String sPercent)
+    {
+      m_sCategoryID = sCategoryID;
+      m_aPercent = new BigDecimal (sPercent);
+    }
+  }
+
+  private static final TaxRate [] TAX_RATES = { new TaxRate ("S", "20"),
+                                                new TaxRate ("AA", "10"),
+                                                new TaxRate ("AA", "13"),
+                                                new TaxRate ("Z", "0"),
+                                                new TaxRate ("S", "19") };
+
+  /** The maximum number of different tax rates (and therefore tax subtotals) */
+  public static final int MAX_TAX_RATE_COUNT = TAX_RATES.length;
+
+  /**
+   * The values of a single line, independent of the UBL line type.
+   */
+  private static final class SyntheticLine
+  {
+    private String m_sID;
+    private String m_sName;
+    private BigDecimal m_aQuantity;
+    private BigDecimal m_aUnitPrice;
+    private TaxRate m_aTaxRate;
+    private AllowanceChargeType m_aAllowanceCharge;
+    private BigDecimal m_aLineExtensionAmount;
+  }
+
+  private long m_nSeed = DEFAULT_SEED;
+  private int m_nLineCount = DEFAULT_LINE_COUNT;
+  private int m_nTaxRateCount = DEFAULT_TAX_RATE_COUNT;
+  private double m_dAllowanceChargeDensity = DEFAULT_ALLOWANCE_CHARGE_DENSITY;
+  private int m_nPaymentMeansCount = DEFAULT_PAYMENT_MEANS_COUNT;
+
+  public SyntheticDocumentGenerator ()
+  {}
+
+  public long getSeed ()
+  {
+    return m_nSeed;
+  }
+
+  @NonNull
+  public SyntheticDocumentGenerator setSeed (final long nSeed)
+  {
+    m_nSeed = nSeed;
+    return this;
+  }
+
+  public int getLineCount ()
+  {
+    return m_nLineCount;
+  }
+
+  @NonNull
+  public SyntheticDocumentGenerator setLineCount (final int nLineCount)
+  {
+    ValueEnforcer.isGT0 (nLineCount, "LineCount");
+    m_nLineCount = nLineCount;
+    return this;
+  }
+
+  public int getTaxRateCount ()
+  {
+    return m_nTaxRateCount;
+  }
+
+  /**
+   * @param nTaxRateCount
+   *        The number of different tax rates used in the lines. This is also the number of tax
+   *        subtotals. Must be between 1 and {@link #MAX_TAX_RATE_COUNT}.
+   * @return this for chaining
+   */
+  @NonNull
+  public SyntheticDocumentGenerator setTaxRateCount (final int nTaxRateCount)
+  {
+    ValueEnforcer.isBetweenInclusive (nTaxRateCount, "TaxRateCount", 1, MAX_TAX_RATE_COUNT);
+    m_nTaxRateCount = nTaxRateCount;
+    return this;
+  }
+
+  public double getAllowanceChargeDensity ()
+  {
+    return m_dAllowanceChargeDensity;
+  }
+
+  /**
+   * @param dAllowanceChargeDensity
+   *        The probability of a line having an allowance or charge. Must be between 0 and 1. If it
+   *        is &gt; 0 an additional document level allowance is created.
+   * @return this for chaining
+   */
+  @NonNull
+  public SyntheticDocumentGenerator setAllowanceChargeDensity (final double dAllowanceChargeDensity)
+  {
+    ValueEnforcer.isBetweenInclusive (dAllowanceChargeDensity, "AllowanceChargeDensity", 0, 1);
+    m_dAllowanceChargeDensity = dAllowanceChargeDensity;
+    return this;
+  }
+
+  public int getPaymentMeansCount ()
+  {
+    return m_nPaymentMeansCount;
+  }
+
+  @NonNull
+  public SyntheticDocumentGenerator setPaymentMeansCount (final int nPaymentMeansCount)
+  {
+    ValueEnforcer.isGE0 (nPaymentMeansCount, "PaymentMeansCount");
+    m_nPaymentMeansCount = nPaymentMeansCount;
+    return this;
+  }
+
+  @NonNull
+  private static XMLOffsetDate _date (final int nDaysAfterIssueDate)
+  {
+    return XMLOffsetDate.of (ISSUE_DATE.plusDays (nDaysAfterIssueDate));
+  }
+
+  @NonNull
+  private static BigDecimal _amount (@NonNull final BigDecimal aValue)
+  {
+    return aValue.setScale (2, AbstractEbInterfaceUBLConverter.ROUNDING_MODE);
+  }
+
+  /**
+   * Create a syntactically valid Austrian IBAN with a correct ISO 7064 check sum.
+   *
+   * @param aRandom
+   *        Random source. May not be <code>null</code>.
+   * @return The IBAN in electronic format.
+   */
+  @NonNull
+  static String createIBAN (@NonNull final Random aRandom)
+  {
+    final StringBuilder aBBAN = new StringBuilder (16);
+    for (int i = 0; i < 16; ++i)
+      aBBAN.append ((char) ('0' + aRandom.nextInt (10)));
+    // "AT" is 10 29; plus "00" as the check digit placeholder
+    final int nMod = new BigInteger (aBBAN + "102900").mod (BigInteger.valueOf (97)).intValue ();
+    final int nCheck = 98 - nMod;
+    return "AT" + (nCheck < 10 ? "0" : "") + nCheck + aBBAN;
+  }
+
+  @NonNull
+  private static TaxSchemeType _createTaxSchemeVAT ()
+  {
+    final TaxSchemeType ret = new TaxSchemeType ();
+    ret.setID (AbstractEbInterfaceUBLConverter.SUPPORTED_TAX_SCHEME_ID);
+    return ret;
+  }
+
+  @NonNull
+  private static TaxCategoryType _createTaxCategory (@NonNull final TaxRate aTaxRate)
+  {
+    final TaxCategoryType ret = new TaxCategoryType ();
+    ret.setID (aTaxRate.m_sCategoryID);
+    ret.setPercent (aTaxRate.m_aPercent);
+    ret.setTaxScheme (_createTaxSchemeVAT ());
+    return ret;
+  }
+
+  @NonNull
+  private static PartyType _createParty (@NonNull final String sName,
+                                         @NonNull final String sVATIN,
+                                         @NonNull final String sStreet,
+                                         @NonNull final String sZIP,
+                                         @NonNull final String sCity)
+  {
+    final PartyType ret = new PartyType ();
+    {
+      final PartyNameType aPartyName = new PartyNameType ();
+      aPartyName.setName (sName);
+      ret.addPartyName (aPartyName);
+    }
+    {
+      final AddressType aAddress = new AddressType ();
+      aAddress.setStreetName (sStreet);
+      aAddress.setCityName (sCity);
+      aAddress.setPostalZone (sZIP);
+      final CountryType aCountry = new CountryType ();
+      aCountry.setIdentificationCode ("AT");
+      aAddress.setCountry (aCountry);
+      ret.setPostalAddress (aAddress);
+    }
+    {
+      final PartyTaxSchemeType aPTS = new PartyTaxSchemeType ();
+      aPTS.setCompanyID (sVATIN);
+      aPTS.setTaxScheme (_createTaxSchemeVAT ());
+      ret.addPartyTaxScheme (aPTS);
+    }
+    {
+      final ContactType aContact = new ContactType ();
+      aContact.setName (sName + " Accounting");
+      aContact.setTelephone ("+43 1 234567");
+      aContact.setElectronicMail ("accounting@" + sName.toLowerCase (Locale.ROOT).replace (' ', '-') + ".example.org");
+      ret.setContact (aContact);
+    }
+    return ret;
+  }
+
+  @NonNull
+  private SyntheticLine _createLine (@NonNull final Random aRandom, final int nIndex)
+  {
+    final SyntheticLine ret = new SyntheticLine ();
+    ret.m_sID = Integer.toString (nIndex + 1);
+    ret.m_sName = "Synthetic item " + (1 + aRandom.nextInt (10_000));
+    ret.m_aQuantity = BigDecimal.valueOf (1 + aRandom.nextInt (100));
+    ret.m_aUnitPrice = BigDecimal.valueOf (50 + aRandom.nextInt (50_000), 2);
+    ret.m_aTaxRate = TAX_RATES[aRandom.nextInt (m_nTaxRateCount)];
+
+    final BigDecimal aBaseAmount = _amount (ret.m_aQuantity.multiply (ret.m_aUnitPrice));
+    BigDecimal aLineExtensionAmount = aBaseAmount;
+    if (aRandom.nextDouble () < m_dAllowanceChargeDensity)
+    {
+      final boolean bCharge = aRandom.nextBoolean ();
+      final BigDecimal aAmount = _amount (aBaseAmount.multiply (LINE_ALLOWANCE_CHARGE_FACTOR));
+
+      final AllowanceChargeType aAC = new AllowanceChargeType ();
+      aAC.setChargeIndicator (bCharge);
+      aAC.addAllowanceChargeReason (new AllowanceChargeReasonType (bCharge ? "Express handling" : "Volume discount"));
+      aAC.setMultiplierFactorNumeric (LINE_ALLOWANCE_CHARGE_FACTOR);
+      aAC.setAmount (aAmount).setCurrencyID (CURRENCY);
+      aAC.setBaseAmount (aBaseAmount).setCurrencyID (CURRENCY);
+      ret.m_aAllowanceCharge = aAC;
+
+      aLineExtensionAmount = bCharge ? aLineExtensionAmount.add (aAmount) : aLineExtensionAmount.subtract (aAmount);
+    }
+    ret.m_aLineExtensionAmount = aLineExtensionAmount;
+    return ret;
+  }
+
+  @NonNull
+  private static ItemType _createItem (@NonNull final SyntheticLine aLine)
+  {
+    final ItemType ret = new ItemType ();
+    ret.setName (aLine.m_sName);
+    ret.addClassifiedTaxCategory (_createTaxCategory (aLine.m_aTaxRate));
+    return ret;
+  }
+
+  @NonNull
+  private static PriceType _createPrice (@NonNull final SyntheticLine aLine)
+  {
+    final PriceType ret = new PriceType ();
+    ret.setPriceAmount (aLine.m_aUnitPrice).setCurrencyID (CURRENCY);
+    return ret;
+  }
+
+  /**
+   * Common header and footer data of invoices and credit notes. Each created line is passed to the
+   * provided consumer, so that no intermediate line list is needed for large documents.
+   */
+  private final class DocumentData
+  {
+    private final Random m_aRandom = new Random (m_nSeed);
+    private final BigDecimal [] m_aTaxableAmounts = new BigDecimal [m_nTaxRateCount];
+    private final TaxTotalType m_aTaxTotal = new TaxTotalType ();
+    private final MonetaryTotalType m_aMonetaryTotal = new MonetaryTotalType ();
+    private AllowanceChargeType m_aGlobalAllowance;
+    private final String m_sDocID;
+    private final PartyType m_aSupplierParty;
+    private final PartyType m_aCustomerParty;
+    private final PeriodType m_aInvoicePeriod = new PeriodType ();
+    private final OrderReferenceType m_aOrderReference = new OrderReferenceType ();
+
+    DocumentData (@NonNull final Consumer <SyntheticLine> aLineConsumer)
+    {
+      m_sDocID = "SYN-" + Long.toHexString (m_nSeed).toUpperCase (Locale.ROOT) + "-" + m_nLineCount;
+      m_aSupplierParty = _createParty ("Synthetic Supplier", "ATU12345675", "Lieferantenweg 1", "1010", "Wien");
+      m_aCustomerParty = _createParty ("Synthetic Customer", "ATU87654328", "Kundenstrasse 2", "8010", "Graz");
+      m_aInvoicePeriod.setStartDate (_date (-31));
+      m_aInvoicePeriod.setEndDate (_date (-1));
+      m_aOrderReference.setID ("ORDER-" + m_nLineCount);
+
+      for (int i = 0; i < m_nTaxRateCount; ++i)
+        m_aTaxableAmounts[i] = BigDecimal.ZERO;
+
+      // Lines
+      BigDecimal aSumLineExtension = BigDecimal.ZERO;
+      for (int i = 0; i < m_nLineCount; ++i)
+      {
+        final SyntheticLine aLine = _createLine (m_aRandom, i);
+        aLineConsumer.accept (aLine);
+        aSumLineExtension = aSumLineExtension.add (aLine.m_aLineExtensionAmount);
+        final int nRateIndex = _getRateIndex (aLine.m_aTaxRate);
+        m_aTaxableAmounts[nRateIndex] = m_aTaxableAmounts[nRateIndex].add (aLine.m_aLineExtensionAmount);
+      }
+
+      // Global allowance on the first tax rate
+      BigDecimal aSumAllowances = BigDecimal.ZERO;
+      if (m_dAllowanceChargeDensity > 0 && BigHelper.isGT0 (m_aTaxableAmounts[0]))
+      {
+        final BigDecimal aAmount = _amount (m_aTaxableAmounts[0].multiply (GLOBAL_ALLOWANCE_FACTOR));
+        m_aGlobalAllowance = new AllowanceChargeType ();
+        m_aGlobalAllowance.setChargeIndicator (false);
+        m_aGlobalAllowance.addAllowanceChargeReason (new AllowanceChargeReasonType ("Loyalty discount"));
+        m_aGlobalAllowance.setMultiplierFactorNumeric (GLOBAL_ALLOWANCE_FACTOR);
+        m_aGlobalAllowance.setAmount (aAmount).setCurrencyID (CURRENCY);
+        m_aGlobalAllowance.setBaseAmount (m_aTaxableAmounts[0]).setCurrencyID (CURRENCY);
+        m_aGlobalAllowance.addTaxCategory (_createTaxCategory (TAX_RATES[0]));
+        m_aTaxableAmounts[0] = m_aTaxableAmounts[0].subtract (aAmount);
+        aSumAllowances = aAmount;
+      }
+
+      // Tax total
+      BigDecimal aTaxSum = BigDecimal.ZERO;
+      for (int i = 0; i < m_nTaxRateCount; ++i)
+      {
+        final TaxRate aTaxRate = TAX_RATES[i];
+        final BigDecimal aTaxAmount = _amount (m_aTaxableAmounts[i].multiply (aTaxRate.m_aPercent)
+                                                                   .divide (CGlobal.BIGDEC_100));
+        final TaxSubtotalType aSubtotal = new TaxSubtotalType ();
+        aSubtotal.setTaxableAmount (m_aTaxableAmounts[i]).setCurrencyID (CURRENCY);
+        aSubtotal.setTaxAmount (aTaxAmount).setCurrencyID (CURRENCY);
+        aSubtotal.setTaxCategory (_createTaxCategory (aTaxRate));
+        m_aTaxTotal.addTaxSubtotal (aSubtotal);
+        aTaxSum = aTaxSum.add (aTaxAmount);
+      }
+      m_aTaxTotal.setTaxAmount (aTaxSum).setCurrencyID (CURRENCY);
+
+      // Monetary total
+      final BigDecimal aTaxExclusive = aSumLineExtension.subtract (aSumAllowances);
+      final BigDecimal aTaxInclusive = aTaxExclusive.add (aTaxSum);
+      m_aMonetaryTotal.setLineExtensionAmount (aSumLineExtension).setCurrencyID (CURRENCY);
+      m_aMonetaryTotal.setAllowanceTotalAmount (aSumAllowances).setCurrencyID (CURRENCY);
+      m_aMonetaryTotal.setChargeTotalAmount (BigDecimal.ZERO).setCurrencyID (CURRENCY);
+      m_aMonetaryTotal.setTaxExclusiveAmount (aTaxExclusive).setCurrencyID (CURRENCY);
+      m_aMonetaryTotal.setTaxInclusiveAmount (aTaxInclusive).setCurrencyID (CURRENCY);
+      m_aMonetaryTotal.setPayableAmount (aTaxInclusive).setCurrencyID (CURRENCY);
+    }
+
+    private int _getRateIndex (@NonNull final TaxRate aTaxRate)
+    {
+      for (int i = 0; i < m_nTaxRateCount; ++i)
+        if (TAX_RATES[i] == aTaxRate)
+          return i;
+      throw new IllegalStateException ("Unknown tax rate");
+    }
+
+    @NonNull
+    PaymentMeansType createPaymentMeans (final int nIndex)
+    {
+      final PaymentMeansType ret = new PaymentMeansType ();
+      ret.setPaymentMeansCode (PAYMENT_MEANS_CODES[nIndex % PAYMENT_MEANS_CODES.length]);
+      ret.setPaymentDueDate (_date (30));
+      ret.addPaymentID (new PaymentIDType (m_sDocID + "-" + (nIndex + 1)));
+
+      final FinancialAccountType aAccount = new FinancialAccountType ();
+      aAccount.setID (createIBAN (m_aRandom)).setSchemeID (AbstractEbInterfaceUBLConverter.SCHEME_IBAN);
+      aAccount.setName ("Synthetic Supplier");
+      final BranchType aBranch = new BranchType ();
+      aBranch.setID ("BKAUATWW").setSchemeID (AbstractEbInterfaceUBLConverter.SCHEME_BIC);
+      aAccount.setFinancialInstitutionBranch (aBranch);
+      ret.setPayeeFinancialAccount (aAccount);
+      return ret;
+    }
+  }
+
+  /**
+   * @return A new UBL 2.1 invoice based on the current settings. Never <code>null</code>.
+   */
+  @NonNull
+  public InvoiceType createInvoice ()
+  {
+    final InvoiceType aUBLDoc = new InvoiceType ();
+    final DocumentData aData = new DocumentData (aLine -> {
+      final InvoiceLineType aUBLLine = new InvoiceLineType ();
+      aUBLLine.setID (aLine.m_sID);
+      aUBLLine.setInvoicedQuantity (aLine.m_aQuantity).setUnitCode (AbstractEbInterfaceUBLConverter.UOM_DEFAULT);
+      aUBLLine.setLineExtensionAmount (aLine.m_aLineExtensionAmount).setCurrencyID (CURRENCY);
+      if (aLine.m_aAllowanceCharge != null)
+        aUBLLine.addAllowanceCharge (aLine.m_aAllowanceCharge);
+      aUBLLine.setItem (_createItem (aLine));
+      aUBLLine.setPrice (_createPrice (aLine));
+      aUBLDoc.addInvoiceLine (aUBLLine);
+    });
+
+    aUBLDoc.setUBLVersionID (AbstractEbInterfaceUBLConverter.UBL_VERSION_21);
+    aUBLDoc.setCustomizationID (CUSTOMIZATION_ID);
+    aUBLDoc.setProfileID (PROFILE_ID);
+    aUBLDoc.setID (aData.m_sDocID);
+    aUBLDoc.setIssueDate (_date (0));
+    aUBLDoc.setDueDate (_date (30));
+    aUBLDoc.setInvoiceTypeCode ("380");
+    aUBLDoc.setDocumentCurrencyCode (CURRENCY);
+    aUBLDoc.addInvoicePeriod (aData.m_aInvoicePeriod);
+    aUBLDoc.setOrderReference (aData.m_aOrderReference);
+
+    final SupplierPartyType aSupplier = new SupplierPartyType ();
+    aSupplier.setParty (aData.m_aSupplierParty);
+    aUBLDoc.setAccountingSupplierParty (aSupplier);
+
+    final CustomerPartyType aCustomer = new CustomerPartyType ();
+    aCustomer.setSupplierAssignedAccountID ("CUST-4711");
+    aCustomer.setParty (aData.m_aCustomerParty);
+    aUBLDoc.setAccountingCustomerParty (aCustomer);
+
+    for (int i = 0; i < m_nPaymentMeansCount; ++i)
+      aUBLDoc.addPaymentMeans (aData.createPaymentMeans (i));
+    if (aData.m_aGlobalAllowance != null)
+      aUBLDoc.addAllowanceCharge (aData.m_aGlobalAllowance);
+    aUBLDoc.addTaxTotal (aData.m_aTaxTotal);
+    aUBLDoc.setLegalMonetaryTotal (aData.m_aMonetaryTotal);
+    return aUBLDoc;
+  }
+
+  /**
+   * @return A new UBL 2.1 credit note based on the current settings. The lines are identical to
+   *         the ones of {@link #createInvoice()}. Never <code>null</code>.
+   */
+  @NonNull
+  public CreditNoteType createCreditNote ()
+  {
+    final CreditNoteType aUBLDoc = new CreditNoteType ();
+    final DocumentData aData = new DocumentData (aLine -> {
+      final CreditNoteLineType aUBLLine = new CreditNoteLineType ();
+      aUBLLine.setID (aLine.m_sID);
+      aUBLLine.setCreditedQuantity (aLine.m_aQuantity).setUnitCode (AbstractEbInterfaceUBLConverter.UOM_DEFAULT);
+      aUBLLine.setLineExtensionAmount (aLine.m_aLineExtensionAmount).setCurrencyID (CURRENCY);
+      if (aLine.m_aAllowanceCharge != null)
+        aUBLLine.addAllowanceCharge (aLine.m_aAllowanceCharge);
+      aUBLLine.setItem (_createItem (aLine));
+      aUBLLine.setPrice (_createPrice (aLine));
+      aUBLDoc.addCreditNoteLine (aUBLLine);
+    });
+
+    aUBLDoc.setUBLVersionID (AbstractEbInterfaceUBLConverter.UBL_VERSION_21);
+    aUBLDoc.setCustomizationID (CUSTOMIZATION_ID);
+    aUBLDoc.setProfileID (PROFILE_ID);
+    aUBLDoc.setID (aData.m_sDocID);
+    aUBLDoc.setIssueDate (_date (0));
+    aUBLDoc.setCreditNoteTypeCode ("381");
+    aUBLDoc.setDocumentCurrencyCode (CURRENCY);
+    aUBLDoc.addInvoicePeriod (aData.m_aInvoicePeriod);
+    aUBLDoc.setOrderReference (aData.m_aOrderReference);
+
+    final SupplierPartyType aSupplier = new SupplierPartyType ();
+    aSupplier.setParty (aData.m_aSupplierParty);
+    aUBLDoc.setAccountingSupplierParty (aSupplier);
+
+    final CustomerPartyType aCustomer = new CustomerPartyType ();
+    aCustomer.setSupplierAssignedAccountID ("CUST-4711");
+    aCustomer.setParty (aData.m_aCustomerParty);
+    aUBLDoc.setAccountingCustomerParty (aCustomer);
+
+    for (int i = 0; i < m_nPaymentMeansCount; ++i)
+      aUBLDoc.addPaymentMeans (aData.createPaymentMeans (i));
+    if (aData.m_aGlobalAllowance != null)
+      aUBLDoc.addAllowanceCharge (aData.m_aGlobalAllowance);
+    aUBLDoc.addTaxTotal (aData.m_aTaxTotal);
+    aUBLDoc.setLegalMonetaryTotal (aData.m_aMonetaryTotal);
+    return aUBLDoc;
+  }
+
+  @NonNull
+  private <T> T _createEbInterface (@NonNull final BiFunction <InvoiceType, ErrorList, T> aConverter)
+  {
+    final ErrorList aErrorList = new ErrorList ();
+    final T ret = aConverter.apply (createInvoice (), aErrorList);
+    if (ret == null || aErrorList.containsAtLeastOneError ())
+      throw new IllegalStateException ("Failed to convert synthetic invoice: " + aErrorList);
+    return ret;
+  }
+
+  @NonNull
+  private static ToEbinterfaceSettings _createSettings ()
+  {
+    return new ToEbinterfaceSettings ();
+  }
+
+  @NonNull
+  public Ebi40InvoiceType createEbInterface40 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface40Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi41InvoiceType createEbInterface41 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface41Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi42InvoiceType createEbInterface42 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface42Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi43InvoiceType createEbInterface43 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface43Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi50InvoiceType createEbInterface50 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface50Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi60InvoiceType createEbInterface60 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface60Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @NonNull
+  public Ebi61InvoiceType createEbInterface61 ()
+  {
+    return _createEbInterface (new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                    Locale.GERMANY,
+                                                                    _createSettings ())::convertToEbInterface);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Seed", m_nSeed)
+                                       .append ("LineCount", m_nLineCount)
+                                       .append ("TaxRateCount", m_nTaxRateCount)
+                                       .append ("AllowanceChargeDensity", m_dAllowanceChargeDensity)
+                                       .append ("PaymentMeansCount", m_nPaymentMeansCount)
+                                       .getToString ();
+  }
+}
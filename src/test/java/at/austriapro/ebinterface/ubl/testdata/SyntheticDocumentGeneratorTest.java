@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2010-2015 Bundesrechenzentrum GmbH - www.brz.gv.at
+ * Copyright (c) 2015-2026 AUSTRIAPRO - www.austriapro.at
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.austriapro.ebinterface.ubl.testdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.diagnostics.error.list.ErrorList;
+import com.helger.ebinterface.v61.Ebi61InvoiceType;
+
+import at.austriapro.ebinterface.ubl.from.MockEbi40Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi41Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi42Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi43Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi50Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi60Marshaller;
+import at.austriapro.ebinterface.ubl.from.MockEbi61Marshaller;
+import at.austriapro.ebinterface.ubl.from.ToEbinterfaceSettings;
+import at.austriapro.ebinterface.ubl.from.creditnote.CreditNoteToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.from.invoice.InvoiceToEbInterface61Converter;
+import at.austriapro.ebinterface.ubl.to.EbInterface40ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface41ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface42ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface43ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface50ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface60ToInvoiceConverter;
+import at.austriapro.ebinterface.ubl.to.EbInterface61ToInvoiceConverter;
+import oasis.names.specification.ubl.schema.xsd.creditnote_21.CreditNoteType;
+import oasis.names.specification.ubl.schema.xsd.invoice_21.InvoiceType;
+
+/**
+ * Test class for class {@link SyntheticDocumentGenerator}.
+ *
+ * @author Philip Helger
+ */
+public final class SyntheticDocumentGeneratorTest
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (SyntheticDocumentGeneratorTest.class);
+
+  @Test
+  public void testDeterministic ()
+  {
+    final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (50)
+                                                                             .setAllowanceChargeDensity (0.5);
+    assertEquals (aGen.createInvoice (), aGen.createInvoice ());
+    assertEquals (aGen.createCreditNote (), aGen.createCreditNote ());
+    assertEquals (aGen.createInvoice (),
+                  new SyntheticDocumentGenerator ().setLineCount (50).setAllowanceChargeDensity (0.5).createInvoice ());
+
+    // Different seed creates a different document
+    assertNotEquals (aGen.createInvoice (), new SyntheticDocumentGenerator ().setSeed (4711)
+                                                                             .setLineCount (50)
+                                                                             .setAllowanceChargeDensity (0.5)
+                                                                             .createInvoice ());
+  }
+
+  @Test
+  public void testIBAN ()
+  {
+    final Random aRandom = new Random (1);
+    for (int i = 0; i < 100; ++i)
+    {
+      final String sIBAN = SyntheticDocumentGenerator.createIBAN (aRandom);
+      assertEquals (20, sIBAN.length ());
+      // ISO 7064 mod 97-10: move the first 4 chars to the end, replace letters
+      final String sNumeric = sIBAN.substring (4) + "1029" + sIBAN.substring (2, 4);
+      assertEquals (1, new BigInteger (sNumeric).mod (BigInteger.valueOf (97)).intValue ());
+    }
+  }
+
+  @Test
+  public void testAllVersions ()
+  {
+    for (int nTaxRates = 1; nTaxRates <= SyntheticDocumentGenerator.MAX_TAX_RATE_COUNT; ++nTaxRates)
+      for (final double dDensity : new double [] { 0, 0.3, 1 })
+        for (int nPaymentMeans = 0; nPaymentMeans <= 2; ++nPaymentMeans)
+        {
+          final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (25)
+                                                                                   .setTaxRateCount (nTaxRates)
+                                                                                   .setAllowanceChargeDensity (dDensity)
+                                                                                   .setPaymentMeansCount (nPaymentMeans);
+
+          // Creation fails if there is a conversion error
+          // Writing validates against the XML Schema
+          final Locale aLocale = Locale.GERMANY;
+          assertNotNull (aGen.toString (), new MockEbi40Marshaller ().getAsBytes (aGen.createEbInterface40 ()));
+          assertNotNull (aGen.toString (), new MockEbi41Marshaller ().getAsBytes (aGen.createEbInterface41 ()));
+          assertNotNull (aGen.toString (), new MockEbi42Marshaller ().getAsBytes (aGen.createEbInterface42 ()));
+          assertNotNull (aGen.toString (), new MockEbi43Marshaller ().getAsBytes (aGen.createEbInterface43 ()));
+          assertNotNull (aGen.toString (), new MockEbi50Marshaller ().getAsBytes (aGen.createEbInterface50 ()));
+          assertNotNull (aGen.toString (), new MockEbi60Marshaller ().getAsBytes (aGen.createEbInterface60 ()));
+          assertNotNull (aGen.toString (), new MockEbi61Marshaller ().getAsBytes (aGen.createEbInterface61 ()));
+
+          // And back again
+          assertNotNull (new EbInterface40ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface40 ()));
+          assertNotNull (new EbInterface41ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface41 ()));
+          assertNotNull (new EbInterface42ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface42 ()));
+          assertNotNull (new EbInterface43ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface43 ()));
+          assertNotNull (new EbInterface50ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface50 ()));
+          assertNotNull (new EbInterface60ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface60 ()));
+          assertNotNull (new EbInterface61ToInvoiceConverter (aLocale, aLocale).convertInvoice (aGen.createEbInterface61 ()));
+        }
+  }
+
+  @Test
+  public void testCreditNote ()
+  {
+    final CreditNoteType aUBLDoc = new SyntheticDocumentGenerator ().setLineCount (100)
+                                                                    .setAllowanceChargeDensity (0.5)
+                                                                    .createCreditNote ();
+    assertEquals (100, aUBLDoc.getCreditNoteLineCount ());
+
+    final ErrorList aErrorList = new ErrorList ();
+    final Ebi61InvoiceType aEbiDoc = new CreditNoteToEbInterface61Converter (Locale.GERMANY,
+                                                                             Locale.GERMANY,
+                                                                             new ToEbinterfaceSettings ()).convertToEbInterface (aUBLDoc,
+                                                                                                                                 aErrorList);
+    assertNotNull (aEbiDoc);
+    assertTrue (aErrorList.toString (), !aErrorList.containsAtLeastOneError ());
+    assertNotNull (new MockEbi61Marshaller ().getAsBytes (aEbiDoc));
+  }
+
+  @Test
+  public void testScaling ()
+  {
+    // Larger sizes (up to 1M lines) are covered by the JMH benchmarks
+    for (final int nLineCount : new int [] { 10, 100, 1_000, 10_000 })
+    {
+      final SyntheticDocumentGenerator aGen = new SyntheticDocumentGenerator ().setLineCount (nLineCount);
+
+      final long nStart = System.nanoTime ();
+      final InvoiceType aUBLDoc = aGen.createInvoice ();
+      final long nCreated = System.nanoTime ();
+      final ErrorList aErrorList = new ErrorList ();
+      final Ebi61InvoiceType aEbiDoc = new InvoiceToEbInterface61Converter (Locale.GERMANY,
+                                                                            Locale.GERMANY,
+                                                                            new ToEbinterfaceSettings ()).convertToEbInterface (aUBLDoc,
+                                                                                                                                aErrorList);
+      final long nConverted = System.nanoTime ();
+
+      assertNotNull (aEbiDoc);
+      assertTrue (aErrorList.toString (), !aErrorList.containsAtLeastOneError ());
+      assertEquals (nLineCount, aUBLDoc.getInvoiceLineCount ());
+      assertEquals (nLineCount, aEbiDoc.getDetails ().getItemListAtIndex (0).getListLineItemCount ());
+
+      LOGGER.info (nLineCount +
+                   " lines: created in " +
+                   (nCreated - nStart) / 1_000_000 +
+                   " ms, converted in " +
+                   (nConverted - nCreated) / 1_000_000 +
+                   " ms");
+    }
+  }
+}